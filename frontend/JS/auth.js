@@ -65,6 +65,47 @@ document.addEventListener("DOMContentLoaded", () => {
 
   const API_BASE = "http://localhost:8080/api/auth";
 
+  /**
+   * Exchanges the refresh token for a new token pair.
+   * Returns false if the session is over.
+   */
+  async function refreshSession() {
+    const refreshToken = localStorage.getItem("refreshToken");
+    if (!refreshToken) return false;
+
+    try {
+      const res = await post(`${API_BASE}/refresh`, { refreshToken });
+      if (res.status !== "success") return false;
+
+      localStorage.setItem("token", res.token);
+      localStorage.setItem("refreshToken", res.refreshToken);
+      return true;
+    } catch {
+      return false;
+    }
+  }
+
+  /**
+   * POST with the access token; on 401 refreshes it once and retries.
+   * Access tokens only live 15 minutes.
+   */
+  async function authPost(url, data = {}) {
+    const send = () => fetch(url, {
+      method: "POST",
+      headers: {
+        "Authorization": "Bearer " + localStorage.getItem("token"),
+        "Content-Type": "application/x-www-form-urlencoded"
+      },
+      body: new URLSearchParams(data)
+    });
+
+    let res = await send();
+    if (res.status === 401 && await refreshSession()) {
+      res = await send();
+    }
+    return res;
+  }
+
   /* =========================================================
      REGISTER
      ========================================================= */
@@ -230,6 +271,7 @@ if (resendBtn) {
 
         if (res.status === "success") {
           localStorage.setItem("token", res.token);
+          localStorage.setItem("refreshToken", res.refreshToken);
           localStorage.setItem("email", email);
           location.href = "dashboard.html";
         }
@@ -277,6 +319,32 @@ if (resendBtn) {
     });
   }
 
+  /* =========================================================
+     LOGOUT
+     ========================================================= */
+  const logoutBtn = document.querySelector(".logout-btn");
+
+  if (logoutBtn) {
+    logoutBtn.addEventListener("click", async (e) => {
+      e.preventDefault();
+
+      const token = localStorage.getItem("token");
+      const refreshToken = localStorage.getItem("refreshToken");
+
+      // End the session server-side; log out locally either way
+      if (token) {
+        try {
+          await authPost(`${API_BASE}/logout`, refreshToken ? { refreshToken } : {});
+        } catch {
+          // server unreachable: the token still expires on its own
+        }
+      }
+
+      localStorage.clear();
+      window.location.replace(logoutBtn.getAttribute("href"));
+    });
+  }
+
   /* =========================================================
      DELETE ACCOUNT
      ========================================================= */
@@ -310,12 +378,7 @@ if (resendBtn) {
       }
 
       try {
-        const res = await fetch(`${API_BASE}/delete-account`, {
-          method: "POST",
-          headers: {
-            "Authorization": "Bearer " + token
-          }
-        });
+        const res = await authPost(`${API_BASE}/delete-account`);
 
         if (res.status === 401) {
           handleUnauthorized();
@@ -0,0 +1,80 @@
+#!/usr/bin/env bash
+#
+# Servlet (Tomcat + JDBC) vs reactive (Netty + R2DBC) under the same
+# closed-loop load.
+#
+# Builds both deployments, then for each one and each scenario starts it,
+# runs LoadDriver against it and prints throughput, latency and the
+# server's peak thread count / RSS. Results are discussed in
+# docs/reactive.md.
+#
+# Needs a PostgreSQL with the users table.
+#
+#   JDBC_URL=jdbc:postgresql://127.0.0.1:5432/postgres DB_USER=postgres \
+#   CONCURRENCY=1000 DURATION=30 load/compare-reactive.sh
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JDBC_URL=${JDBC_URL:-jdbc:postgresql://127.0.0.1:5432/postgres}
+R2DBC_URL=${R2DBC_URL:-${JDBC_URL/jdbc:/r2dbc:}}
+DB_USER=${DB_USER:-postgres}
+DB_PASSWORD=${DB_PASSWORD:-}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30}
+WARMUP=${WARMUP:-15}
+HEAP=${HEAP:-512m}
+PORT=${PORT:-8080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+(cd ../secureauth && mvn -B -q install -DskipTests)
+(cd ../secureauth-reactive && mvn -B -q package -DskipTests)
+mvn -B -q package -DskipTests
+
+SERVLET_JAR=$(ls ../secureauth/target/secureauth-*.jar | grep -v plain | head -1)
+REACTIVE_JAR=$(ls ../secureauth-reactive/target/secureauth-reactive-*.jar | grep -v plain | head -1)
+
+app=""
+trap '[ -n "$app" ] && kill "$app" 2>/dev/null' EXIT
+
+for stack in servlet reactive; do
+    jar=$SERVLET_JAR
+    [ "$stack" = reactive ] && jar=$REACTIVE_JAR
+
+    for scenario in lookup protected; do
+        if curl -s -o /dev/null "http://localhost:$PORT/"; then
+            echo "Port $PORT is already in use" >&2
+            exit 1
+        fi
+
+        # The driver is a single client IP: the rate limiter would answer 429s;
+        # the concurrency limiter would shed the excess as 503s
+        "$JAVA" -Xmx"$HEAP" -jar "$jar" \
+            --server.port="$PORT" \
+            --secureauth.rate-limit.enabled=false \
+            --secureauth.concurrency-limit.enabled=false \
+            --spring.datasource.url="$JDBC_URL" \
+            --spring.datasource.username="$DB_USER" \
+            --spring.datasource.password="$DB_PASSWORD" \
+            --spring.r2dbc.url="$R2DBC_URL" \
+            > "target/app-$stack-$scenario.log" 2>&1 &
+        app=$!
+
+        until curl -s -o /dev/null "http://localhost:$PORT/api/protected"; do
+            kill -0 "$app" 2>/dev/null || { cat "target/app-$stack-$scenario.log"; exit 1; }
+            sleep 1
+        done
+
+        echo "== $stack =="
+        "$JAVA" -cp target/benchmarks.jar com.secureauth.benchmarks.load.LoadDriver \
+            --url "http://localhost:$PORT" --scenario "$scenario" \
+            --concurrency "$CONCURRENCY" --seconds "$DURATION" --warmup "$WARMUP" \
+            --pid "$app" --jdbc-url "$JDBC_URL" --jdbc-username "$DB_USER" --jdbc-password "$DB_PASSWORD"
+        echo
+
+        kill "$app"
+        wait "$app" 2>/dev/null || true
+        app=""
+    done
+done
@@ -0,0 +1,100 @@
+#!/usr/bin/env bash
+#
+# Startup time and time to peak throughput, for three ways of starting
+# the servlet deployment:
+#
+#   plain         uber jar, no warm-up
+#   warmup        uber jar, StartupWarmup before readiness
+#   fast-startup  extracted jar, Spring AOT + AppCDS archive, warm-up
+#
+# For each mode: starts the app, times launch → "Started" and launch →
+# /actuator/health/readiness UP, then immediately runs LoadDriver with
+# --warmup 0 --timeline so the first seconds of traffic are measured.
+# Results are discussed in docs/fast-startup.md.
+#
+# Needs a PostgreSQL with the users table, and a scratch database for the
+# CDS training run (see the fast-startup profile in secureauth/pom.xml).
+#
+#   JDBC_URL=jdbc:postgresql://127.0.0.1:5432/postgres DB_USER=postgres \
+#   SCENARIO=lookup CONCURRENCY=50 DURATION=30 load/compare-startup.sh
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JDBC_URL=${JDBC_URL:-jdbc:postgresql://127.0.0.1:5432/postgres}
+DB_USER=${DB_USER:-postgres}
+DB_PASSWORD=${DB_PASSWORD:-}
+SCENARIO=${SCENARIO:-lookup}
+CONCURRENCY=${CONCURRENCY:-50}
+DURATION=${DURATION:-30}
+HEAP=${HEAP:-512m}
+PORT=${PORT:-8080}
+MODES=${MODES:-plain warmup fast-startup}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+
+(cd ../secureauth && mvn -B -q install -Pfast-startup -DskipTests)
+mvn -B -q package -DskipTests
+
+APP_DIR=$(cd ../secureauth/target && pwd)
+JAR=$(ls "$APP_DIR"/secureauth-*.jar | grep -v plain | head -1)
+LOG_DIR=$(pwd)/target
+
+app=""
+trap '[ -n "$app" ] && kill "$app" 2>/dev/null' EXIT
+
+for mode in $MODES; do
+    if curl -s -o /dev/null "http://localhost:$PORT/"; then
+        echo "Port $PORT is already in use" >&2
+        exit 1
+    fi
+
+    # The driver is a single client IP: the rate limiter would answer 429s;
+    # the concurrency limiter would shed the excess as 503s
+    args=(--server.port="$PORT"
+          --secureauth.rate-limit.enabled=false
+          --secureauth.concurrency-limit.enabled=false
+          --spring.datasource.url="$JDBC_URL"
+          --spring.datasource.username="$DB_USER"
+          --spring.datasource.password="$DB_PASSWORD")
+    log="$LOG_DIR/app-startup-$mode.log"
+
+    launched=$(date +%s%N)
+    case "$mode" in
+        plain)
+            "$JAVA" -Xmx"$HEAP" -jar "$JAR" "${args[@]}" --secureauth.warmup.enabled=false > "$log" 2>&1 &
+            ;;
+        warmup)
+            "$JAVA" -Xmx"$HEAP" -jar "$JAR" "${args[@]}" > "$log" 2>&1 &
+            ;;
+        fast-startup)
+            # The CDS archive only matches the class path it was recorded with
+            (cd "$APP_DIR/fast-startup" && exec "$JAVA" -Xmx"$HEAP" -XX:SharedArchiveFile=application.jsa \
+                -Dspring.aot.enabled=true -jar "$(basename "$JAR")" "${args[@]}") > "$log" 2>&1 &
+            ;;
+        *)
+            echo "Unknown mode: $mode" >&2
+            exit 1
+            ;;
+    esac
+    app=$!
+
+    until [ "$(curl -s -o /dev/null -w '%{http_code}' "http://localhost:$PORT/actuator/health/readiness")" = 200 ]; do
+        kill -0 "$app" 2>/dev/null || { cat "$log"; exit 1; }
+        sleep 0.05
+    done
+    ready=$(( ($(date +%s%N) - launched) / 1000000 ))
+
+    echo "== $mode =="
+    echo "started       $(grep -o 'Started SecureauthApplication in [0-9.]* seconds' "$log" | grep -o '[0-9.]* seconds')"
+    echo "ready after   $ready ms$(grep -o ' Warm-up done in [0-9]* ms' "$log" || true)"
+    "$JAVA" -cp target/benchmarks.jar com.secureauth.benchmarks.load.LoadDriver \
+        --url "http://localhost:$PORT" --scenario "$SCENARIO" \
+        --concurrency "$CONCURRENCY" --seconds "$DURATION" --warmup 0 --timeline true \
+        --pid "$app" --jdbc-url "$JDBC_URL" --jdbc-username "$DB_USER" --jdbc-password "$DB_PASSWORD"
+    echo
+
+    kill "$app"
+    wait "$app" 2>/dev/null || true
+    app=""
+done
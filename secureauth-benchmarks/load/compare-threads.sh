@@ -0,0 +1,78 @@
+#!/usr/bin/env bash
+#
+# Platform threads vs virtual threads under the same closed-loop load.
+#
+# Builds the application with -Pjava21, then for each mode and scenario
+# starts it, runs LoadDriver against it and prints throughput, latency and
+# the server's peak thread count / RSS. Results are discussed in
+# docs/virtual-threads.md.
+#
+# Needs JDK 21 (JAVA_HOME) and a PostgreSQL with the users table.
+#
+#   JDBC_URL=jdbc:postgresql://127.0.0.1:5432/postgres DB_USER=postgres \
+#   CONCURRENCY=1000 DURATION=30 load/compare-threads.sh
+#
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+JDBC_URL=${JDBC_URL:-jdbc:postgresql://127.0.0.1:5432/postgres}
+DB_USER=${DB_USER:-postgres}
+DB_PASSWORD=${DB_PASSWORD:-}
+CONCURRENCY=${CONCURRENCY:-1000}
+DURATION=${DURATION:-30}
+WARMUP=${WARMUP:-15}
+HEAP=${HEAP:-512m}
+PORT=${PORT:-8080}
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+JCMD=${JAVA_HOME:+$JAVA_HOME/bin/}jcmd
+
+(cd ../secureauth && mvn -B -q -Pjava21 package -DskipTests)
+mvn -B -q package -DskipTests
+
+APP_JAR=$(ls ../secureauth/target/secureauth-*.jar | grep -v plain | head -1)
+
+app=""
+trap '[ -n "$app" ] && kill "$app" 2>/dev/null' EXIT
+
+for mode in platform virtual; do
+    profile=""
+    [ "$mode" = virtual ] && profile="--spring.profiles.active=virtual"
+
+    for scenario in lookup protected; do
+        if curl -s -o /dev/null "http://localhost:$PORT/"; then
+            echo "Port $PORT is already in use" >&2
+            exit 1
+        fi
+
+        # The driver is a single client IP: the rate limiter would answer 429s;
+        # the concurrency limiter would shed the excess as 503s
+        "$JAVA" -Xmx"$HEAP" -jar "$APP_JAR" $profile \
+            --server.port="$PORT" \
+            --secureauth.rate-limit.enabled=false \
+            --secureauth.concurrency-limit.enabled=false \
+            --spring.datasource.url="$JDBC_URL" \
+            --spring.datasource.username="$DB_USER" \
+            --spring.datasource.password="$DB_PASSWORD" \
+            > "target/app-$mode-$scenario.log" 2>&1 &
+        app=$!
+
+        until curl -s -o /dev/null "http://localhost:$PORT/api/protected"; do
+            kill -0 "$app" 2>/dev/null || { cat "target/app-$mode-$scenario.log"; exit 1; }
+            sleep 1
+        done
+
+        echo "== $mode threads =="
+        "$JAVA" -cp target/benchmarks.jar com.secureauth.benchmarks.load.LoadDriver \
+            --url "http://localhost:$PORT" --scenario "$scenario" \
+            --concurrency "$CONCURRENCY" --seconds "$DURATION" --warmup "$WARMUP" \
+            --pid "$app" --jdbc-url "$JDBC_URL" --jdbc-username "$DB_USER" --jdbc-password "$DB_PASSWORD"
+        # Committed vs used heap after the run: RSS differences are mostly heap sizing
+        "$JCMD" "$app" GC.heap_info | grep -E "generation|heap +total" || true
+        echo
+
+        kill "$app"
+        wait "$app" 2>/dev/null || true
+        app=""
+    done
+done
@@ -0,0 +1,85 @@
+package com.secureauth.benchmarks;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+import io.zonky.test.db.postgres.embedded.EmbeddedPostgres;
+
+import org.flywaydb.core.Flyway;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+
+/**
+ * PostgreSQL for the DAO benchmarks and the load suite.
+ *
+ * Uses an embedded PostgreSQL by default. Pass -Dbench.jdbc.url=... (and
+ * optionally -Dbench.jdbc.username / -Dbench.jdbc.password) to run against
+ * an existing server instead, e.g. when the embedded binaries cannot start.
+ * Either way the schema is wiped and rebuilt from the migrations.
+ */
+public final class BenchmarkDatabase implements AutoCloseable {
+
+    private final EmbeddedPostgres embedded;
+    private final HikariDataSource dataSource;
+
+    private BenchmarkDatabase(EmbeddedPostgres embedded, HikariDataSource dataSource) {
+        this.embedded = embedded;
+        this.dataSource = dataSource;
+    }
+
+    public static BenchmarkDatabase start() throws IOException {
+        HikariDataSource pool = new HikariDataSource();
+        pool.setMaximumPoolSize(8);
+
+        String url = System.getProperty("bench.jdbc.url");
+        EmbeddedPostgres embedded = null;
+
+        if (url != null) {
+            pool.setJdbcUrl(url);
+            pool.setUsername(System.getProperty("bench.jdbc.username", "postgres"));
+            pool.setPassword(System.getProperty("bench.jdbc.password", ""));
+        } else {
+            embedded = EmbeddedPostgres.start();
+            pool.setJdbcUrl(embedded.getJdbcUrl("postgres", "postgres"));
+        }
+
+        BenchmarkDatabase database = new BenchmarkDatabase(embedded, pool);
+        database.createSchema();
+        return database;
+    }
+
+    public DataSource dataSource() {
+        return dataSource;
+    }
+
+    // Connection settings for an application started against the same database
+    public String jdbcUrl() {
+        return dataSource.getJdbcUrl();
+    }
+
+    public String username() {
+        return dataSource.getUsername();
+    }
+
+    public String password() {
+        return dataSource.getPassword();
+    }
+
+    /**
+     * The application's schema, from its Flyway migrations (copied onto the
+     * classpath by the build), on an empty database.
+     */
+    private void createSchema() {
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataSource.close();
+        if (embedded != null) {
+            embedded.close();
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.secureauth.benchmarks;
+
+import com.secureauth.secureauth.util.JwtUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtUtil.generateToken / validateToken.
+ *
+ * validateToken       → token already in the verified-token cache (steady state)
+ * validateTokenCold   → cache cleared first, full parse + HMAC check
+ * validateTokenForged → signature mismatch, never cached
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private String token;
+    private String forgedToken;
+
+    @Setup
+    public void setUp() {
+        token = JwtUtil.generateToken("bench@secureauth.test");
+        // Change a character inside the signature (the last one may only carry padding bits)
+        int i = token.lastIndexOf('.') + 10;
+        char c = token.charAt(i);
+        forgedToken = token.substring(0, i) + (c == 'A' ? 'B' : 'A') + token.substring(i + 1);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return JwtUtil.generateToken("bench@secureauth.test");
+    }
+
+    @Benchmark
+    public String validateToken() {
+        return JwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String validateTokenCold() {
+        JwtUtil.getTokenCache().clear();
+        return JwtUtil.validateToken(token);
+    }
+
+    @Benchmark
+    public String validateTokenForged() {
+        return JwtUtil.validateToken(forgedToken);
+    }
+}
@@ -0,0 +1,105 @@
+package com.secureauth.benchmarks;
+
+import com.secureauth.secureauth.config.RouteProperties;
+import com.secureauth.secureauth.security.JwtFilter;
+import com.secureauth.secureauth.security.RouteTable;
+import com.secureauth.secureauth.security.TokenDenylist;
+import com.secureauth.secureauth.util.JwtUtil;
+
+import jakarta.servlet.ServletException;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JwtFilter end to end with mock servlet objects.
+ * A new request/response pair per call, as the container would create.
+ * The denylist holds 10k revoked tokens and 1k revoked subjects, none of
+ * them the benchmark's own, except for protectedWithRevokedToken.
+ * Routes are the defaults of RouteProperties. Preflights never reach
+ * JwtFilter: CorsConfig's filter answers them.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtFilterBenchmark {
+
+    private JwtFilter filter;
+    private String bearer;
+    private String revokedBearer;
+
+    @Setup
+    public void setUp() {
+        long expiresAtMs = System.currentTimeMillis() + JwtUtil.getExpirationMs();
+        TokenDenylist denylist = new TokenDenylist(100_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            denylist.revokeToken(UUID.randomUUID().toString(), expiresAtMs);
+        }
+        for (int i = 0; i < 1_000; i++) {
+            denylist.revokeSubject("revoked" + i + "@secureauth.test", System.currentTimeMillis(), expiresAtMs);
+        }
+
+        RouteProperties routes = new RouteProperties();
+        filter = new JwtFilter(denylist, new RouteTable(routes.getPublicPaths(), routes.getScopes()));
+        bearer = "Bearer " + JwtUtil.generateToken("bench@secureauth.test");
+
+        String revoked = JwtUtil.generateToken("revoked1@secureauth.test");
+        denylist.revokeToken(JwtUtil.verify(revoked).getId(), expiresAtMs);
+        revokedBearer = "Bearer " + revoked;
+    }
+
+    @Benchmark
+    public int publicEndpoint() throws ServletException, IOException {
+        return run(new MockHttpServletRequest("POST", "/api/auth/login"));
+    }
+
+    @Benchmark
+    public int protectedWithValidToken() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/protected");
+        request.addHeader("Authorization", bearer);
+        return run(request);
+    }
+
+    @Benchmark
+    public int protectedWithRevokedToken() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/protected");
+        request.addHeader("Authorization", revokedBearer);
+        return run(request);
+    }
+
+    @Benchmark
+    public int protectedWithoutToken() throws ServletException, IOException {
+        return run(new MockHttpServletRequest("GET", "/api/protected"));
+    }
+
+    @Benchmark
+    public int adminRouteWithoutScope() throws ServletException, IOException {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/users/import");
+        request.addHeader("Authorization", bearer);
+        return run(request);
+    }
+
+    private int run(MockHttpServletRequest request) throws ServletException, IOException {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response.getStatus();
+    }
+}
@@ -0,0 +1,73 @@
+package com.secureauth.benchmarks;
+
+import com.secureauth.secureauth.util.PasswordUtil;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PasswordUtil.hash / matches / isStrong.
+ *
+ * bcrypt cost is a parameter: each +1 doubles the time of hash and matches.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 1)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PasswordBenchmark {
+
+    // SHA-256("Secret@123"), the pre-bcrypt format
+    private static final String LEGACY_HASH =
+            "695bed4b7075ac1e441bf9925da7c7701bbfed9b82fa7f10628954128a381666";
+
+    @Param({"10"})
+    public int cost;
+
+    private String bcryptHash;
+
+    @Setup
+    public void setUp() {
+        bcryptHash = PasswordUtil.hash("Secret@123", cost);
+    }
+
+    @Benchmark
+    public String hash() {
+        return PasswordUtil.hash("Secret@123", cost);
+    }
+
+    @Benchmark
+    public boolean matchesBcrypt() {
+        return PasswordUtil.matches("Secret@123", bcryptHash);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean matchesLegacy() {
+        return PasswordUtil.matches("Secret@123", LEGACY_HASH);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isStrongValid() {
+        return PasswordUtil.isStrong("Secret@123");
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean isStrongInvalid() {
+        return PasswordUtil.isStrong("secretpassword");
+    }
+}
@@ -0,0 +1,100 @@
+package com.secureauth.benchmarks;
+
+import com.secureauth.secureauth.config.UserCacheProperties;
+import com.secureauth.secureauth.dao.RegistrationResult;
+import com.secureauth.secureauth.dao.UserDAO;
+import com.secureauth.secureauth.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * UserDAO statements against a real PostgreSQL (see BenchmarkDatabase).
+ * 10k users, half of them verified; lookups pick a random existing email.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserDaoBenchmark {
+
+    private static final int USERS = 10_000;
+
+    @Param({"false", "true"})
+    public boolean userCache;
+
+    private BenchmarkDatabase database;
+    private UserDAO userDAO;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        database = BenchmarkDatabase.start();
+
+        UserCacheProperties cacheProperties = new UserCacheProperties();
+        cacheProperties.setEnabled(userCache);
+        userDAO = new UserDAO(new JdbcTemplate(database.dataSource()), cacheProperties, new SimpleMeterRegistry());
+
+        for (int i = 0; i < USERS; i++) {
+            String email = email(i);
+            userDAO.register(email, "$2a$10$benchmarkbenchmarkbenchmarkbenchmarkbenchmarkbenchmar", "123456");
+            if (i % 2 == 0) {
+                userDAO.verifyOtp(email, "123456");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        database.close();
+    }
+
+    @Benchmark
+    public User findByEmail() {
+        return userDAO.findByEmail(email(ThreadLocalRandom.current().nextInt(USERS)));
+    }
+
+    @Benchmark
+    public User findByEmailMissing() {
+        return userDAO.findByEmail("nobody@secureauth.test");
+    }
+
+    @Benchmark
+    public RegistrationResult registerAlreadyVerified() {
+        // Even users are verified: conflict path, no row written
+        return userDAO.register(email(ThreadLocalRandom.current().nextInt(USERS / 2) * 2), "x", "654321");
+    }
+
+    @Benchmark
+    public boolean resendOtp() {
+        // Odd users are unverified: one UPDATE
+        return userDAO.resendOtp(email(ThreadLocalRandom.current().nextInt(USERS / 2) * 2 + 1), "123456");
+    }
+
+    @Benchmark
+    public boolean verifyOtpWrongCode() {
+        return userDAO.verifyOtp(email(ThreadLocalRandom.current().nextInt(USERS / 2) * 2 + 1), "000000");
+    }
+
+    private static String email(int i) {
+        return "user" + i + "@secureauth.test";
+    }
+}
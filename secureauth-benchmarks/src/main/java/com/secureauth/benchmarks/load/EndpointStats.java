@@ -0,0 +1,97 @@
+package com.secureauth.benchmarks.load;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Latency and outcomes of one endpoint within one scenario.
+ *
+ * Latencies go into an HdrHistogram Recorder in microseconds (3
+ * significant digits), which any number of virtual users can write to
+ * without locking. A response counts as failed when its status is not
+ * the one a successful step returns, or when no response came back.
+ */
+final class EndpointStats {
+
+    final String scenario;
+    final String endpoint;
+
+    private final Recorder recorder = new Recorder(3);
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder transportErrors = new LongAdder();
+
+    private Histogram histogram;
+    private double seconds;
+
+    EndpointStats(String scenario, String endpoint) {
+        this.scenario = scenario;
+        this.endpoint = endpoint;
+    }
+
+    void record(long nanos, int status, boolean expected) {
+        recorder.recordValue(Math.max(nanos / 1000, 0));
+        statuses.computeIfAbsent(status, s -> new LongAdder()).increment();
+        if (!expected) {
+            failed.increment();
+        }
+    }
+
+    void transportError() {
+        transportErrors.increment();
+        failed.increment();
+    }
+
+    // Length of the measured window, set when the scenario ends
+    void measuredFor(double seconds) {
+        this.seconds = seconds;
+    }
+
+    /**
+     * Everything recorded so far. Called once, after the virtual users
+     * have stopped.
+     */
+    Histogram histogram() {
+        if (histogram == null) {
+            histogram = recorder.getIntervalHistogram();
+        }
+        return histogram;
+    }
+
+    long requests() {
+        return histogram().getTotalCount() + transportErrors.sum();
+    }
+
+    double throughput() {
+        return seconds == 0 ? 0 : requests() / seconds;
+    }
+
+    // Share of requests that failed, in percent
+    double errorRate() {
+        long requests = requests();
+        return requests == 0 ? 0 : 100.0 * failed.sum() / requests;
+    }
+
+    double percentileMs(double percentile) {
+        return histogram().getValueAtPercentile(percentile) / 1000.0;
+    }
+
+    double maxMs() {
+        return histogram().getMaxValue() / 1000.0;
+    }
+
+    Map<Integer, Long> statuses() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        statuses.forEach((status, count) -> counts.put(status, count.sum()));
+        if (transportErrors.sum() > 0) {
+            // No HTTP status: connection refused, reset or timed out
+            counts.put(0, transportErrors.sum());
+        }
+        return counts;
+    }
+}
@@ -0,0 +1,90 @@
+package com.secureauth.benchmarks.load;
+
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.SimpleMailMessage;
+import org.springframework.mail.javamail.JavaMailSender;
+
+import java.io.InputStream;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * JavaMailSender for the load suite.
+ *
+ * Nothing leaves the machine: each message is held for `latencyMs` (the
+ * time an SMTP round trip would take) and the last OTP sent to each
+ * address is kept, so the virtual users can complete verify-otp and
+ * reset-password like a real user reading their inbox.
+ */
+final class FakeMailSender implements JavaMailSender {
+
+    private static final Pattern OTP = Pattern.compile("OTP: (\\d+)");
+
+    private final long latencyNanos;
+    private final Map<String, String> lastOtp = new ConcurrentHashMap<>();
+    private final LongAdder sent = new LongAdder();
+
+    FakeMailSender(long latencyMs) {
+        this.latencyNanos = latencyMs * 1_000_000L;
+    }
+
+    @Override
+    public void send(SimpleMailMessage... messages) throws MailException {
+        for (SimpleMailMessage message : messages) {
+            if (latencyNanos > 0) {
+                LockSupport.parkNanos(latencyNanos);
+            }
+            Matcher otp = OTP.matcher(message.getText() == null ? "" : message.getText());
+            if (otp.find() && message.getTo() != null) {
+                for (String to : message.getTo()) {
+                    lastOtp.put(to.toLowerCase(), otp.group(1));
+                }
+            }
+            sent.increment();
+        }
+    }
+
+    /**
+     * Last OTP mailed to `email`, waiting up to `timeoutMs` for it when
+     * mail is dispatched asynchronously. Removed once read, so a stale
+     * code is never replayed.
+     */
+    String takeOtp(String email, long timeoutMs) {
+        long deadline = System.nanoTime() + timeoutMs * 1_000_000L;
+        String key = email.toLowerCase();
+        while (true) {
+            String otp = lastOtp.remove(key);
+            if (otp != null || System.nanoTime() >= deadline) {
+                return otp;
+            }
+            LockSupport.parkNanos(1_000_000L);
+        }
+    }
+
+    long sent() {
+        return sent.sum();
+    }
+
+    @Override
+    public MimeMessage createMimeMessage() {
+        return new MimeMessage((Session) null);
+    }
+
+    @Override
+    public MimeMessage createMimeMessage(InputStream contentStream) throws MailException {
+        throw new MailSendException("MIME messages are not used by SecureAuth");
+    }
+
+    @Override
+    public void send(MimeMessage... mimeMessages) throws MailException {
+        throw new MailSendException("MIME messages are not used by SecureAuth");
+    }
+}
@@ -0,0 +1,342 @@
+package com.secureauth.benchmarks.load;
+
+import com.secureauth.secureauth.util.PasswordUtil;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Closed-loop HTTP load against a running SecureAuth instance.
+ *
+ * Keeps `--concurrency` requests in flight for `--seconds`, then prints
+ * throughput, latency percentiles and status counts. With `--pid` it also
+ * samples the server's thread count and resident memory from /proc.
+ * With `--timeline` it also prints the requests completed in each second and
+ * how long throughput took to reach 90% of its steady state (the median
+ * second of the second half): run it with `--warmup 0` right after the
+ * server reports ready to see how long a fresh instance takes to warm up.
+ *
+ * Scenarios:
+ *   lookup    POST /api/auth/login for unknown emails: one SELECT, then 401
+ *   protected GET /api/protected with a valid token: JwtFilter only
+ *
+ * `protected` logs in as a seeded user; pass --jdbc-url so the driver can
+ * insert that user (verified) before starting.
+ *
+ * Usage:
+ *   java -cp target/benchmarks.jar com.secureauth.benchmarks.load.LoadDriver \
+ *        --url http://localhost:8080 --scenario lookup --concurrency 1000 \
+ *        --seconds 30 --warmup 10 --pid 12345
+ */
+public final class LoadDriver {
+
+    private static final String SEED_EMAIL = "load-driver@example.com";
+    private static final String SEED_PASSWORD = "LoadDriver@123";
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final String scenario;
+    private final String bearer;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private final Map<Integer, LongAdder> statuses = new ConcurrentHashMap<>();
+    private final LongAdder errors = new LongAdder();
+    private final LongAdder completed = new LongAdder();
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private volatile boolean recording;
+    private volatile boolean running = true;
+
+    private LoadDriver(HttpClient client, String baseUrl, String scenario, String bearer) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.scenario = scenario;
+        this.bearer = bearer;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parse(args);
+
+        String baseUrl = options.getOrDefault("url", "http://localhost:8080");
+        String scenario = options.getOrDefault("scenario", "lookup");
+        int concurrency = Integer.parseInt(options.getOrDefault("concurrency", "200"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        String pid = options.get("pid");
+        boolean timeline = Boolean.parseBoolean(options.getOrDefault("timeline", "false"));
+
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+
+        String bearer = null;
+        if (scenario.equals("protected")) {
+            seedUser(options.get("jdbc-url"), options.getOrDefault("jdbc-username", "postgres"),
+                    options.getOrDefault("jdbc-password", ""));
+            bearer = "Bearer " + login(client, baseUrl);
+        } else if (!scenario.equals("lookup")) {
+            throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+
+        LoadDriver driver = new LoadDriver(client, baseUrl, scenario, bearer);
+        Slot[] slots = new Slot[concurrency];
+        for (int i = 0; i < concurrency; i++) {
+            slots[i] = new Slot();
+            driver.next(slots[i]);
+        }
+
+        Thread.sleep(warmup * 1000L);
+
+        ProcessSampler sampler = pid == null ? null : new ProcessSampler(pid);
+        driver.recording = true;
+        long started = System.nanoTime();
+        long[] perSecond = new long[seconds];
+
+        for (int s = 0; s < seconds * 2; s++) {
+            Thread.sleep(500);
+            if (sampler != null) {
+                sampler.sample();
+            }
+            if (s % 2 == 1) {
+                perSecond[s / 2] = driver.completed.sumThenReset();
+            }
+        }
+
+        driver.recording = false;
+        long elapsedNanos = System.nanoTime() - started;
+        driver.running = false;
+
+        // Let outstanding requests finish so the slots are no longer written to
+        long deadline = System.nanoTime() + 30_000_000_000L;
+        while (driver.inFlight.get() > 0 && System.nanoTime() < deadline) {
+            Thread.sleep(100);
+        }
+
+        driver.report(slots, concurrency, elapsedNanos, sampler);
+        if (timeline) {
+            printTimeline(perSecond);
+        }
+    }
+
+    /* =======================
+       REQUEST LOOP
+       ======================= */
+
+    /**
+     * Each slot is one in-flight request; when it completes the slot
+     * issues the next one, so concurrency stays constant.
+     */
+    private void next(Slot slot) {
+        if (!running) {
+            return;
+        }
+
+        inFlight.incrementAndGet();
+        long start = System.nanoTime();
+        CompletableFuture<HttpResponse<Void>> response =
+                client.sendAsync(request(), HttpResponse.BodyHandlers.discarding());
+
+        response.whenComplete((result, failure) -> {
+            if (recording) {
+                if (failure != null) {
+                    errors.increment();
+                } else {
+                    slot.record(System.nanoTime() - start);
+                    completed.increment();
+                    statuses.computeIfAbsent(result.statusCode(), s -> new LongAdder()).increment();
+                }
+            }
+            inFlight.decrementAndGet();
+            next(slot);
+        });
+    }
+
+    private HttpRequest request() {
+        if (scenario.equals("protected")) {
+            return HttpRequest.newBuilder(URI.create(baseUrl + "/api/protected"))
+                    .header("Authorization", bearer)
+                    .GET()
+                    .build();
+        }
+
+        String email = "missing-" + sequence.incrementAndGet() + "@example.com";
+        return HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "email=" + URLEncoder.encode(email, StandardCharsets.UTF_8) + "&password=Wrong@123"))
+                .build();
+    }
+
+    /* =======================
+       REPORT
+       ======================= */
+
+    private void report(Slot[] slots, int concurrency, long elapsedNanos, ProcessSampler sampler) {
+        int total = 0;
+        for (Slot slot : slots) {
+            total += slot.count;
+        }
+
+        long[] latencies = new long[total];
+        int offset = 0;
+        for (Slot slot : slots) {
+            System.arraycopy(slot.latencies, 0, latencies, offset, slot.count);
+            offset += slot.count;
+        }
+        Arrays.sort(latencies);
+
+        double seconds = elapsedNanos / 1e9;
+        System.out.printf("scenario      %s, concurrency %d, %.0f s%n", scenario, concurrency, seconds);
+        System.out.printf("throughput    %.0f req/s (%d requests, %d errors)%n",
+                total / seconds, total, errors.sum());
+        System.out.printf("latency ms    p50 %.1f  p90 %.1f  p99 %.1f  max %.1f%n",
+                percentile(latencies, 0.50), percentile(latencies, 0.90),
+                percentile(latencies, 0.99), percentile(latencies, 1.0));
+        System.out.println("status        " + new TreeMap<>(statuses));
+
+        if (sampler != null) {
+            System.out.printf("server        threads peak %d, RSS peak %d MB%n",
+                    sampler.peakThreads, sampler.peakRssKb / 1024);
+        }
+    }
+
+    private static void printTimeline(long[] perSecond) {
+        StringBuilder line = new StringBuilder("per second   ");
+        for (long count : perSecond) {
+            line.append(' ').append(count);
+        }
+        System.out.println(line);
+
+        long[] secondHalf = Arrays.copyOfRange(perSecond, perSecond.length / 2, perSecond.length);
+        Arrays.sort(secondHalf);
+        long steady = secondHalf.length == 0 ? 0 : secondHalf[secondHalf.length / 2];
+
+        int reached = -1;
+        for (int s = 0; s < perSecond.length; s++) {
+            if (perSecond[s] >= steady * 0.9) {
+                reached = s + 1;
+                break;
+            }
+        }
+        System.out.printf("steady        %d req/s, 90%% of it reached after %d s%n", steady, reached);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        if (sorted.length == 0) {
+            return 0;
+        }
+        int index = (int) Math.ceil(p * sorted.length) - 1;
+        return sorted[Math.max(index, 0)] / 1e6;
+    }
+
+    /* =======================
+       SETUP
+       ======================= */
+
+    private static void seedUser(String jdbcUrl, String username, String password) throws SQLException {
+        if (jdbcUrl == null) {
+            throw new IllegalArgumentException("--jdbc-url is required for the protected scenario");
+        }
+        try (Connection connection = DriverManager.getConnection(jdbcUrl, username, password);
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO users (email, password, verified) VALUES (?, ?, true) " +
+                     "ON CONFLICT ((lower(email))) DO UPDATE SET password = EXCLUDED.password, verified = true")) {
+            insert.setString(1, SEED_EMAIL);
+            insert.setString(2, PasswordUtil.hash(SEED_PASSWORD, 10));
+            insert.executeUpdate();
+        }
+    }
+
+    private static String login(HttpClient client, String baseUrl) throws IOException, InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/login"))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(
+                        "email=" + URLEncoder.encode(SEED_EMAIL, StandardCharsets.UTF_8) +
+                        "&password=" + URLEncoder.encode(SEED_PASSWORD, StandardCharsets.UTF_8)))
+                .build();
+
+        String body = client.send(request, HttpResponse.BodyHandlers.ofString()).body();
+        int start = body.indexOf("\"token\":\"");
+        if (start < 0) {
+            throw new IllegalStateException("Login failed: " + body);
+        }
+        start += "\"token\":\"".length();
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value, got: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+        return options;
+    }
+
+    /* =======================
+       INTERNALS
+       ======================= */
+
+    /**
+     * Latencies of one slot. Only touched by that slot's completion
+     * chain, one request at a time.
+     */
+    private static final class Slot {
+        long[] latencies = new long[1024];
+        int count;
+
+        void record(long nanos) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+        }
+    }
+
+    /**
+     * Peak thread count and resident set size of the server process.
+     */
+    private static final class ProcessSampler {
+        private final Path status;
+        int peakThreads;
+        long peakRssKb;
+
+        ProcessSampler(String pid) {
+            this.status = Path.of("/proc", pid, "status");
+        }
+
+        void sample() throws IOException {
+            for (String line : Files.readAllLines(status)) {
+                if (line.startsWith("Threads:")) {
+                    peakThreads = Math.max(peakThreads, Integer.parseInt(line.substring(8).trim()));
+                } else if (line.startsWith("VmRSS:")) {
+                    peakRssKb = Math.max(peakRssKb, Long.parseLong(line.replaceAll("\\D", "")));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,408 @@
+package com.secureauth.benchmarks.load;
+
+import com.secureauth.benchmarks.BenchmarkDatabase;
+import com.secureauth.secureauth.SecureauthApplication;
+import com.secureauth.secureauth.service.PasswordHashingService;
+
+import org.HdrHistogram.Histogram;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * End-to-end load suite with per-endpoint latency percentiles.
+ *
+ * Starts PostgreSQL (see BenchmarkDatabase) and the SecureAuth application
+ * in this JVM, with FakeMailSender in place of SMTP, then runs each
+ * scenario with `--users` virtual users for `--warmup` + `--seconds`:
+ *
+ *   signup     register -> verify-otp (OTP from the fake inbox) -> login -> GET /api/protected,
+ *              a new account every iteration
+ *   reset      forgot-password -> reset-password, each user on its own seeded account
+ *   hot-login  every user logs in to one of `--hot-accounts` seeded accounts
+ *
+ * Every virtual user is a thread running its flow back to back (closed
+ * loop, no think time). Latencies are recorded per endpoint in
+ * HdrHistogram and reported as throughput and p50/p95/p99/p99.9/max.
+ * With `--thresholds` the run exits 1 when a limit is broken, see
+ * Thresholds; `--hdr-dir` also writes each endpoint's full percentile
+ * distribution (.hgrm, plottable with HdrHistogram's plotter).
+ *
+ * Arguments of the form --name=value go to the application, e.g.
+ * --secureauth.password.cost=10. The rate limiter is off by default: all
+ * virtual users share one client IP.
+ *
+ * Usage:
+ *   java -Dbench.jdbc.url=jdbc:postgresql://127.0.0.1:5432/postgres \
+ *        -cp target/benchmarks.jar com.secureauth.benchmarks.load.LoadSuite \
+ *        --users 50 --seconds 30 --warmup 10 --thresholds load/thresholds.properties
+ */
+public final class LoadSuite {
+
+    private static final List<String> SCENARIOS = List.of("signup", "reset", "hot-login");
+
+    private static final Map<String, List<String>> ENDPOINTS = Map.of(
+            "signup", List.of("register", "verify-otp", "login", "protected"),
+            "reset", List.of("forgot-password", "reset-password"),
+            "hot-login", List.of("login"));
+
+    private static final String PASSWORD = "LoadSuite@123";
+
+    // Time allowed for an OTP to reach the fake inbox when mail is queued
+    private static final long OTP_WAIT_MS = 5000;
+
+    private final HttpClient client;
+    private final String baseUrl;
+    private final FakeMailSender mail;
+    private final int hotAccounts;
+
+    private final AtomicLong sequence = new AtomicLong();
+    private Map<String, EndpointStats> endpoints;
+
+    private volatile boolean recording;
+    private volatile boolean running;
+
+    private LoadSuite(HttpClient client, String baseUrl, FakeMailSender mail, int hotAccounts) {
+        this.client = client;
+        this.baseUrl = baseUrl;
+        this.mail = mail;
+        this.hotAccounts = hotAccounts;
+    }
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = new HashMap<>();
+        Map<String, String> applicationArgs = new LinkedHashMap<>();
+        parse(args, options, applicationArgs);
+
+        int users = Integer.parseInt(options.getOrDefault("users", "50"));
+        int seconds = Integer.parseInt(options.getOrDefault("seconds", "30"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "10"));
+        int hotAccounts = Integer.parseInt(options.getOrDefault("hot-accounts", "1"));
+        long mailLatencyMs = Long.parseLong(options.getOrDefault("mail-latency-ms", "0"));
+        List<String> scenarios = Arrays.asList(options.getOrDefault("scenarios", String.join(",", SCENARIOS)).split(","));
+        for (String scenario : scenarios) {
+            if (!SCENARIOS.contains(scenario)) {
+                throw new IllegalArgumentException("Unknown scenario: " + scenario + ", expected one of " + SCENARIOS);
+            }
+        }
+
+        // Read before the long setup so a typo fails fast
+        Thresholds thresholds = options.containsKey("thresholds")
+                ? Thresholds.load(Path.of(options.get("thresholds")))
+                : null;
+
+        boolean passed;
+        try (BenchmarkDatabase database = BenchmarkDatabase.start()) {
+            FakeMailSender mail = new FakeMailSender(mailLatencyMs);
+            ConfigurableApplicationContext application = start(database, mail, applicationArgs);
+
+            try {
+                // Same hash for every seeded account, at the application's cost so login never rehashes
+                String hash = application.getBean(PasswordHashingService.class).hash(PASSWORD);
+                seed(database.dataSource(), users, hotAccounts, hash);
+
+                HttpClient client = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_1_1)
+                        .connectTimeout(Duration.ofSeconds(10))
+                        .build();
+                String baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+                LoadSuite suite = new LoadSuite(client, baseUrl, mail, hotAccounts);
+
+                List<EndpointStats> results = new ArrayList<>();
+                for (String scenario : scenarios) {
+                    List<EndpointStats> scenarioResults = suite.run(scenario, users, warmup, seconds);
+                    report(scenario, users, seconds, scenarioResults);
+                    results.addAll(scenarioResults);
+                }
+                System.out.printf("mail          %d messages to the fake inbox%n%n", mail.sent());
+
+                if (options.containsKey("hdr-dir")) {
+                    writeHistograms(Path.of(options.get("hdr-dir")), results);
+                }
+                passed = thresholds == null || thresholds.check(results);
+            } finally {
+                application.close();
+            }
+        }
+
+        if (thresholds != null) {
+            System.out.println(passed ? "PASSED" : "FAILED");
+        }
+        System.exit(passed ? 0 : 1);
+    }
+
+    /* =======================
+       SCENARIOS
+       ======================= */
+
+    private List<EndpointStats> run(String scenario, int users, int warmup, int seconds) throws InterruptedException {
+        endpoints = new LinkedHashMap<>();
+        for (String endpoint : ENDPOINTS.get(scenario)) {
+            endpoints.put(endpoint, new EndpointStats(scenario, endpoint));
+        }
+
+        running = true;
+        Thread[] threads = new Thread[users];
+        for (int i = 0; i < users; i++) {
+            int user = i;
+            threads[i] = new Thread(() -> loop(scenario, user), "load-" + scenario + "-" + user);
+            threads[i].start();
+        }
+
+        Thread.sleep(warmup * 1000L);
+        recording = true;
+        long started = System.nanoTime();
+        Thread.sleep(seconds * 1000L);
+        recording = false;
+        double elapsed = (System.nanoTime() - started) / 1e9;
+
+        running = false;
+        for (Thread thread : threads) {
+            thread.join(30_000);
+        }
+
+        List<EndpointStats> results = new ArrayList<>(endpoints.values());
+        for (EndpointStats stats : results) {
+            stats.measuredFor(elapsed);
+        }
+        return results;
+    }
+
+    private void loop(String scenario, int user) {
+        try {
+            while (running) {
+                switch (scenario) {
+                    case "signup":
+                        signup();
+                        break;
+                    case "reset":
+                        reset(user);
+                        break;
+                    default:
+                        hotLogin(user);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // A step that does not return its expected status ends the iteration
+    private void signup() throws InterruptedException {
+        String email = "signup-" + sequence.incrementAndGet() + "@load.test";
+
+        if (post("register", 201, "email", email, "password", PASSWORD) == null) {
+            return;
+        }
+
+        String otp = mail.takeOtp(email, OTP_WAIT_MS);
+        if (otp == null || post("verify-otp", 200, "email", email, "otp", otp) == null) {
+            return;
+        }
+
+        HttpResponse<String> login = post("login", 200, "email", email, "password", PASSWORD);
+        if (login == null) {
+            return;
+        }
+
+        send("protected", 200, HttpRequest.newBuilder(URI.create(baseUrl + "/api/protected"))
+                .header("Authorization", "Bearer " + token(login.body()))
+                .GET()
+                .build());
+    }
+
+    private void reset(int user) throws InterruptedException {
+        String email = resetAccount(user);
+
+        if (post("forgot-password", 200, "email", email) == null) {
+            return;
+        }
+
+        String otp = mail.takeOtp(email, OTP_WAIT_MS);
+        if (otp != null) {
+            post("reset-password", 200, "email", email, "otp", otp, "password", PASSWORD);
+        }
+    }
+
+    private void hotLogin(int user) throws InterruptedException {
+        post("login", 200, "email", hotAccount(user % hotAccounts), "password", PASSWORD);
+    }
+
+    /* =======================
+       HTTP
+       ======================= */
+
+    private HttpResponse<String> post(String endpoint, int expected, String... params) throws InterruptedException {
+        StringBuilder form = new StringBuilder();
+        for (int i = 0; i < params.length; i += 2) {
+            if (form.length() > 0) {
+                form.append('&');
+            }
+            form.append(params[i]).append('=').append(URLEncoder.encode(params[i + 1], StandardCharsets.UTF_8));
+        }
+
+        return send(endpoint, expected, HttpRequest.newBuilder(URI.create(baseUrl + "/api/auth/" + endpoint))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(form.toString()))
+                .build());
+    }
+
+    /**
+     * Sends one request and records it under `endpoint` while the
+     * measured window is open. Returns the response only when its status
+     * is the expected one.
+     */
+    private HttpResponse<String> send(String endpoint, int expected, HttpRequest request) throws InterruptedException {
+        EndpointStats stats = endpoints.get(endpoint);
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            boolean ok = response.statusCode() == expected;
+            if (recording) {
+                stats.record(System.nanoTime() - start, response.statusCode(), ok);
+            }
+            return ok ? response : null;
+        } catch (IOException e) {
+            if (recording) {
+                stats.transportError();
+            }
+            return null;
+        }
+    }
+
+    private static String token(String body) {
+        int start = body.indexOf("\"token\":\"");
+        if (start < 0) {
+            throw new IllegalStateException("No token in login response: " + body);
+        }
+        start += "\"token\":\"".length();
+        return body.substring(start, body.indexOf('"', start));
+    }
+
+    /* =======================
+       REPORT
+       ======================= */
+
+    private static void report(String scenario, int users, int seconds, List<EndpointStats> results) {
+        System.out.printf("== %s: %d users, %d s ==%n", scenario, users, seconds);
+        System.out.printf("%-16s %8s %9s %9s %9s %9s %9s %7s  %s%n",
+                "endpoint", "req/s", "p50 ms", "p95 ms", "p99 ms", "p99.9 ms", "max ms", "errors", "status");
+        for (EndpointStats stats : results) {
+            System.out.printf("%-16s %8.1f %9.1f %9.1f %9.1f %9.1f %9.1f %6.2f%%  %s%n",
+                    stats.endpoint, stats.throughput(),
+                    stats.percentileMs(50), stats.percentileMs(95), stats.percentileMs(99),
+                    stats.percentileMs(99.9), stats.maxMs(), stats.errorRate(), stats.statuses());
+        }
+        System.out.println();
+    }
+
+    private static void writeHistograms(Path directory, List<EndpointStats> results) throws IOException {
+        Files.createDirectories(directory);
+        for (EndpointStats stats : results) {
+            Path file = directory.resolve(stats.scenario + "-" + stats.endpoint + ".hgrm");
+            try (PrintStream out = new PrintStream(Files.newOutputStream(file), false, StandardCharsets.UTF_8)) {
+                Histogram histogram = stats.histogram();
+                // Recorded in microseconds, written in milliseconds
+                histogram.outputPercentileDistribution(out, 1000.0);
+            }
+        }
+        System.out.println("histograms    " + directory.toAbsolutePath());
+    }
+
+    /* =======================
+       SETUP
+       ======================= */
+
+    private static ConfigurableApplicationContext start(BenchmarkDatabase database, FakeMailSender mail,
+                                                        Map<String, String> overrides) {
+        Map<String, String> properties = new LinkedHashMap<>();
+        properties.put("server.port", "0");
+        properties.put("spring.datasource.url", database.jdbcUrl());
+        properties.put("spring.datasource.username", database.username());
+        properties.put("spring.datasource.password", database.password());
+        properties.put("secureauth.rate-limit.enabled", "false");
+        // Its 503s would count as errors: the suite measures capacity, not shedding
+        properties.put("secureauth.concurrency-limit.enabled", "false");
+        // The fake sender has no connection to test
+        properties.put("management.health.mail.enabled", "false");
+        properties.put("spring.main.banner-mode", "off");
+        properties.put("logging.level.root", "WARN");
+        properties.putAll(overrides);
+
+        List<String> args = new ArrayList<>();
+        properties.forEach((name, value) -> args.add("--" + name + "=" + value));
+
+        SpringApplication application = new SpringApplication(SecureauthApplication.class);
+        // Registered before refresh, so the mail auto-configuration backs off
+        application.addInitializers(context -> context.getBeanFactory().registerSingleton("mailSender", mail));
+        return application.run(args.toArray(new String[0]));
+    }
+
+    private static void seed(DataSource dataSource, int users, int hotAccounts, String hash) throws SQLException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement(
+                     "INSERT INTO users (email, password, verified) VALUES (?, ?, true) " +
+                     "ON CONFLICT ((lower(email))) DO UPDATE SET password = EXCLUDED.password, verified = true")) {
+            for (int i = 0; i < users; i++) {
+                insert.setString(1, resetAccount(i));
+                insert.setString(2, hash);
+                insert.addBatch();
+            }
+            for (int i = 0; i < hotAccounts; i++) {
+                insert.setString(1, hotAccount(i));
+                insert.setString(2, hash);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+        }
+    }
+
+    private static String resetAccount(int user) {
+        return "reset-" + user + "@load.test";
+    }
+
+    private static String hotAccount(int index) {
+        return "hot-" + index + "@load.test";
+    }
+
+    // --name value pairs are suite options, --name=value goes to the application
+    private static void parse(String[] args, Map<String, String> options, Map<String, String> applicationArgs) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Expected --option value or --property=value, got: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            if (equals > 0) {
+                applicationArgs.put(arg.substring(2, equals), arg.substring(equals + 1));
+            } else if (i + 1 < args.length) {
+                options.put(arg.substring(2), args[++i]);
+            } else {
+                throw new IllegalArgumentException("Missing value for " + arg);
+            }
+        }
+    }
+}
@@ -0,0 +1,122 @@
+package com.secureauth.benchmarks.load;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Release gate for the load suite.
+ *
+ * A properties file of `<scenario>.<endpoint>.<metric>=<limit>` lines,
+ * `*` standing for every endpoint of the scenario:
+ *
+ *   signup.login.p99=800
+ *   signup.*.error-rate=0.5
+ *   hot-login.login.throughput=20
+ *
+ * Metrics:
+ *   p50, p95, p99, p999, max   latency upper bound, ms
+ *   error-rate                 failed requests upper bound, % of requests
+ *   throughput                 lower bound, req/s
+ *
+ * Limits for scenarios that were not run are ignored.
+ */
+final class Thresholds {
+
+    private static final Set<String> METRICS =
+            Set.of("p50", "p95", "p99", "p999", "max", "error-rate", "throughput");
+
+    private final List<Limit> limits = new ArrayList<>();
+
+    static Thresholds load(Path file) throws IOException {
+        Properties properties = new Properties();
+        try (Reader reader = Files.newBufferedReader(file)) {
+            properties.load(reader);
+        }
+
+        Thresholds thresholds = new Thresholds();
+        // Sorted so the verdicts come out in a stable order
+        for (var entry : new TreeMap<>(properties).entrySet()) {
+            String key = entry.getKey().toString();
+            String[] parts = key.split("\\.");
+            if (parts.length != 3 || !METRICS.contains(parts[2])) {
+                throw new IllegalArgumentException("Bad threshold '" + key + "' in " + file +
+                        ": expected <scenario>.<endpoint>.<metric>, metric one of " + METRICS);
+            }
+            thresholds.limits.add(new Limit(key, parts[0], parts[1], parts[2],
+                    Double.parseDouble(entry.getValue().toString().trim())));
+        }
+        return thresholds;
+    }
+
+    /**
+     * Prints one line per checked limit and returns whether all held.
+     */
+    boolean check(List<EndpointStats> results) {
+        boolean passed = true;
+        for (Limit limit : limits) {
+            for (EndpointStats stats : results) {
+                if (!stats.scenario.equals(limit.scenario)
+                        || !(limit.endpoint.equals("*") || stats.endpoint.equals(limit.endpoint))) {
+                    continue;
+                }
+
+                double actual = limit.measure(stats);
+                boolean held = limit.metric.equals("throughput") ? actual >= limit.value : actual <= limit.value;
+                passed &= held;
+
+                System.out.printf("%-4s  %-40s %10.1f %s %s%n", held ? "ok" : "FAIL",
+                        stats.scenario + "." + stats.endpoint + "." + limit.metric, actual,
+                        limit.metric.equals("throughput") ? ">=" : "<=", format(limit.value));
+            }
+        }
+        return passed;
+    }
+
+    private static String format(double value) {
+        return value == Math.rint(value) ? String.valueOf((long) value) : String.valueOf(value);
+    }
+
+    private static final class Limit {
+        final String key;
+        final String scenario;
+        final String endpoint;
+        final String metric;
+        final double value;
+
+        Limit(String key, String scenario, String endpoint, String metric, double value) {
+            this.key = key;
+            this.scenario = scenario;
+            this.endpoint = endpoint;
+            this.metric = metric;
+            this.value = value;
+        }
+
+        double measure(EndpointStats stats) {
+            switch (metric) {
+                case "p50":
+                    return stats.percentileMs(50);
+                case "p95":
+                    return stats.percentileMs(95);
+                case "p99":
+                    return stats.percentileMs(99);
+                case "p999":
+                    return stats.percentileMs(99.9);
+                case "max":
+                    return stats.maxMs();
+                case "error-rate":
+                    return stats.errorRate();
+                case "throughput":
+                    return stats.throughput();
+                default:
+                    throw new IllegalStateException("Unknown metric " + key);
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.secureauth.reactive;
+
+import com.secureauth.secureauth.breach.BreachedPasswordChecker;
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.config.BreachedPasswordProperties;
+import com.secureauth.secureauth.config.EmailDispatchProperties;
+import com.secureauth.secureauth.config.JwtProperties;
+import com.secureauth.secureauth.config.PasswordHashingProperties;
+import com.secureauth.secureauth.config.RateLimitProperties;
+import com.secureauth.secureauth.config.RefreshTokenProperties;
+import com.secureauth.secureauth.config.RevocationProperties;
+import com.secureauth.secureauth.config.RouteProperties;
+import com.secureauth.secureauth.controller.JwksController;
+import com.secureauth.secureauth.dao.SigningKeyDAO;
+import com.secureauth.secureauth.service.EmailService;
+import com.secureauth.secureauth.service.PasswordHashingService;
+import com.secureauth.secureauth.service.SigningKeyService;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.properties.ConfigurationPropertiesScan;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Import;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * ReactiveAuthApplication
+ * -----------------------
+ * The /api/auth contract of secureauth on WebFlux and R2DBC, for
+ * deployments that want a few event-loop threads instead of a Tomcat
+ * pool. Same database, same tokens: both deployments can share a schema
+ * and a key ring, and a client cannot tell them apart.
+ *
+ * Reused from secureauth as is: JWT signing and the key ring, the JWKS
+ * endpoint, bcrypt, mail, the denylist, rate limiter, route table and
+ * breached-password check.
+ */
+@SpringBootApplication
+@EnableScheduling
+@ConfigurationPropertiesScan
+@EnableConfigurationProperties({
+        AdminProperties.class,
+        BreachedPasswordProperties.class,
+        EmailDispatchProperties.class,
+        JwtProperties.class,
+        PasswordHashingProperties.class,
+        RateLimitProperties.class,
+        RefreshTokenProperties.class,
+        RevocationProperties.class,
+        RouteProperties.class
+})
+@Import({
+        SigningKeyDAO.class,
+        SigningKeyService.class,
+        JwksController.class,
+        EmailService.class,
+        PasswordHashingService.class,
+        BreachedPasswordChecker.class
+})
+public class ReactiveAuthApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(ReactiveAuthApplication.class, args);
+    }
+}
@@ -0,0 +1,66 @@
+package com.secureauth.reactive.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.r2dbc.spi.ConnectionFactory;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.r2dbc.core.DatabaseClient;
+
+import javax.sql.DataSource;
+
+/**
+ * Data Config
+ * -----------
+ * Two ways into the same database:
+ * - R2DBC (DatabaseClient) for everything a request does
+ * - a small JDBC pool for Flyway and the signing key ring, which only
+ *   touch the database at startup and from scheduled jobs
+ *
+ * Every R2DBC call is a single statement, so no reactive transaction
+ * manager is needed; the JDBC one backs SigningKeyDAO's @Transactional.
+ *
+ * Boot backs off its DataSource as soon as a ConnectionFactory exists,
+ * so the JDBC pool is declared here from the usual spring.datasource.*
+ * and spring.datasource.hikari.* properties.
+ */
+@Configuration
+public class DataConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource")
+    public DataSourceProperties dataSourceProperties() {
+        return new DataSourceProperties();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource dataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public JdbcTemplate jdbcTemplate(DataSource dataSource) {
+        return new JdbcTemplate(dataSource);
+    }
+
+    // Flyway runs over JDBC: nothing may query through R2DBC before it is done
+    @Bean
+    @DependsOnDatabaseInitialization
+    public DatabaseClient databaseClient(ConnectionFactory connectionFactory) {
+        return DatabaseClient.create(connectionFactory);
+    }
+
+    // Boot also registers an R2DBC one; @Transactional code here is all JDBC
+    @Bean
+    @Primary
+    public DataSourceTransactionManager transactionManager(DataSource dataSource) {
+        return new DataSourceTransactionManager(dataSource);
+    }
+}
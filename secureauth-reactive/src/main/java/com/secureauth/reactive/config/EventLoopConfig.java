@@ -0,0 +1,62 @@
+package com.secureauth.reactive.config;
+
+import io.r2dbc.postgresql.PostgresqlConnectionFactoryProvider;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.r2dbc.autoconfigure.ConnectionFactoryOptionsBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.netty.resources.LoopResources;
+
+/**
+ * Event Loop Config
+ * -----------------
+ * One fixed set of event-loop threads for the HTTP server and the
+ * PostgreSQL connections, so a request and its queries stay on the same
+ * few threads instead of hopping between two pools sized per core each.
+ */
+@Configuration
+public class EventLoopConfig {
+
+    private static final Logger log = LoggerFactory.getLogger(EventLoopConfig.class);
+
+    // Disposed after the connection pool and the server that use it
+    @Bean(destroyMethod = "dispose")
+    public LoopResources loopResources(ReactiveProperties properties) {
+        int threads = properties.getEventLoopThreads() > 0
+                ? properties.getEventLoopThreads()
+                : Runtime.getRuntime().availableProcessors();
+
+        log.info("Event loop: {} thread(s) for HTTP and R2DBC", threads);
+        return LoopResources.create("secureauth-loop", 1, threads, true);
+    }
+
+    // Picked up by Boot's Netty server factory instead of the global resources
+    @Bean
+    public ReactorResourceFactory reactorResourceFactory(LoopResources loopResources) {
+        ReactorResourceFactory factory = new ReactorResourceFactory();
+        factory.setUseGlobalResources(false);
+        factory.setLoopResources(loopResources);
+        return factory;
+    }
+
+    @Bean
+    public ConnectionFactoryOptionsBuilderCustomizer sharedLoopResources(LoopResources loopResources) {
+        return builder -> builder.option(PostgresqlConnectionFactoryProvider.LOOP_RESOURCES, loopResources);
+    }
+
+    /**
+     * Where EmailService runs: it may block on SMTP (sync mode, or a full
+     * queue in queued mode), which must never happen on the event loop.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler mailScheduler(ReactiveProperties properties) {
+        return Schedulers.newBoundedElastic(
+                properties.getMailThreads(), properties.getMailQueueCapacity(), "secureauth-mail");
+    }
+}
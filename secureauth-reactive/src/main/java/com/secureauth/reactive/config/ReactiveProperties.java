@@ -0,0 +1,32 @@
+package com.secureauth.reactive.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Reactive Properties
+ * -------------------
+ * Threads of the reactive deployment. Everything on the request path
+ * runs on the event loop, except bcrypt (secureauth.password pool) and
+ * SMTP, which has no non-blocking client.
+ */
+@ConfigurationProperties(prefix = "secureauth.reactive")
+public class ReactiveProperties {
+
+    // Event-loop threads shared by Netty and R2DBC; 0 = number of CPU cores
+    private int eventLoopThreads = 0;
+
+    // Threads that may block on SMTP at once
+    private int mailThreads = 4;
+
+    // Emails waiting for a mail thread; beyond this the request fails
+    private int mailQueueCapacity = 1000;
+
+    public int getEventLoopThreads() { return eventLoopThreads; }
+    public void setEventLoopThreads(int eventLoopThreads) { this.eventLoopThreads = eventLoopThreads; }
+
+    public int getMailThreads() { return mailThreads; }
+    public void setMailThreads(int mailThreads) { this.mailThreads = mailThreads; }
+
+    public int getMailQueueCapacity() { return mailQueueCapacity; }
+    public void setMailQueueCapacity(int mailQueueCapacity) { this.mailQueueCapacity = mailQueueCapacity; }
+}
@@ -0,0 +1,122 @@
+package com.secureauth.reactive.dao;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.UUID;
+
+/**
+ * R2dbcRefreshTokenDAO
+ * --------------------
+ * secureauth's RefreshTokenDAO statements over R2DBC (refresh_tokens,
+ * V4 migration). Expired tokens are swept by the servlet deployment.
+ */
+@Repository
+public class R2dbcRefreshTokenDAO {
+
+    private final DatabaseClient db;
+
+    // Constructor injection
+    public R2dbcRefreshTokenDAO(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /* =========================================================
+       ISSUE / ROTATE
+       ========================================================= */
+
+    /**
+     * Stores the first token of a new family; false if there is no such user.
+     */
+    public Mono<Boolean> insert(byte[] tokenHash, String email, long ttlSeconds) {
+
+        String sql =
+                "INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at) " +
+                "SELECT :hash, :family, id, now() + make_interval(secs => :ttl) FROM users " +
+                "WHERE lower(email) = lower(:email)";
+
+        return db.sql(sql)
+                .bind("hash", tokenHash)
+                .bind("family", UUID.randomUUID())
+                .bind("ttl", ttlSeconds)
+                .bind("email", email)
+                .fetch().rowsUpdated()
+                .map(rows -> rows > 0);
+    }
+
+    /**
+     * Exchanges an unused, unexpired token for a new one in the same
+     * family, in one statement. Emits the user's email, or nothing if
+     * the token is unknown, expired or already used.
+     */
+    public Mono<String> rotate(byte[] tokenHash, byte[] nextTokenHash, long ttlSeconds) {
+
+        String sql =
+                "WITH rotated AS (" +
+                "  UPDATE refresh_tokens SET used_at = now() " +
+                "  WHERE token_hash = :hash AND used_at IS NULL AND expires_at > now() " +
+                "  RETURNING family_id, user_id), " +
+                "issued AS (" +
+                "  INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at) " +
+                "  SELECT :next, family_id, user_id, now() + make_interval(secs => :ttl) FROM rotated " +
+                "  RETURNING user_id) " +
+                "SELECT u.email FROM issued JOIN users u ON u.id = issued.user_id";
+
+        return db.sql(sql)
+                .bind("hash", tokenHash)
+                .bind("next", nextTokenHash)
+                .bind("ttl", ttlSeconds)
+                .map(row -> row.get("email", String.class))
+                .first();
+    }
+
+    /* =========================================================
+       REVOKE
+       ========================================================= */
+
+    /**
+     * If the token was already used, deletes its whole family and emits
+     * the user's email; otherwise nothing.
+     */
+    public Mono<String> deleteReusedFamily(byte[] tokenHash) {
+
+        String sql =
+                "WITH gone AS (" +
+                "  DELETE FROM refresh_tokens WHERE family_id = (" +
+                "    SELECT family_id FROM refresh_tokens WHERE token_hash = :hash AND used_at IS NOT NULL) " +
+                "  RETURNING user_id) " +
+                "SELECT DISTINCT u.email FROM gone JOIN users u ON u.id = gone.user_id";
+
+        return db.sql(sql)
+                .bind("hash", tokenHash)
+                .map(row -> row.get("email", String.class))
+                .first();
+    }
+
+    /**
+     * Logout: deletes the token's family, only if it belongs to the email.
+     */
+    public Mono<Long> deleteFamily(byte[] tokenHash, String email) {
+
+        String sql =
+                "DELETE FROM refresh_tokens WHERE family_id = (" +
+                "  SELECT t.family_id FROM refresh_tokens t JOIN users u ON u.id = t.user_id " +
+                "  WHERE t.token_hash = :hash AND lower(u.email) = lower(:email))";
+
+        return db.sql(sql).bind("hash", tokenHash).bind("email", email).fetch().rowsUpdated();
+    }
+
+    /**
+     * Ends every session of the user.
+     */
+    public Mono<Long> deleteAll(String email) {
+
+        String sql =
+                "DELETE FROM refresh_tokens WHERE user_id = (" +
+                "  SELECT id FROM users WHERE lower(email) = lower(:email))";
+
+        return db.sql(sql).bind("email", email).fetch().rowsUpdated();
+    }
+}
@@ -0,0 +1,134 @@
+package com.secureauth.reactive.dao;
+
+import com.secureauth.secureauth.security.TokenDenylist;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+import java.util.Locale;
+
+/**
+ * R2dbcRevokedTokenDAO
+ * --------------------
+ * secureauth's RevokedTokenDAO over R2DBC: the persisted copy of the
+ * token denylist (revoked_tokens, V3 migration), same row format, so a
+ * logout on either deployment is loaded by both, at startup or by the
+ * periodic sync (changed_at_ms, V7).
+ */
+@Repository
+public class R2dbcRevokedTokenDAO {
+
+    private static final String TOKEN = "j";
+    private static final String SUBJECT = "s";
+
+    private final DatabaseClient db;
+
+    // Constructor injection
+    public R2dbcRevokedTokenDAO(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /* =========================================================
+       REVOKE
+       ========================================================= */
+
+    public Mono<Void> revokeToken(String tokenId, long expiresAtMs) {
+        return save(TOKEN, tokenId, 0, expiresAtMs);
+    }
+
+    public Mono<Void> revokeSubject(String email, long revokedAtMs, long expiresAtMs) {
+        return save(SUBJECT, email.toLowerCase(Locale.ROOT), revokedAtMs, expiresAtMs);
+    }
+
+    // Revoking again only ever widens an entry, and marks it changed for the other instances
+    private Mono<Void> save(String kind, String value, long revokedAtMs, long expiresAtMs) {
+
+        String sql =
+                "INSERT INTO revoked_tokens (kind, value, revoked_at_ms, expires_at_ms) " +
+                "VALUES (:kind, :value, :revokedAt, :expiresAt) " +
+                "ON CONFLICT (kind, value) DO UPDATE " +
+                "SET revoked_at_ms = GREATEST(revoked_tokens.revoked_at_ms, EXCLUDED.revoked_at_ms), " +
+                "    expires_at_ms = GREATEST(revoked_tokens.expires_at_ms, EXCLUDED.expires_at_ms), " +
+                "    changed_at_ms = DEFAULT";
+
+        return db.sql(sql)
+                .bind("kind", kind)
+                .bind("value", value)
+                .bind("revokedAt", revokedAtMs)
+                .bind("expiresAt", expiresAtMs)
+                .then();
+    }
+
+    /* =========================================================
+       LOAD / PRUNE
+       ========================================================= */
+
+    /**
+     * Adds every entry that still covers an unexpired token to the
+     * denylist; emits the number of entries loaded.
+     */
+    public Mono<Long> loadInto(TokenDenylist denylist, long nowMs) {
+
+        String sql =
+                "SELECT kind, value, revoked_at_ms, expires_at_ms FROM revoked_tokens " +
+                "WHERE expires_at_ms > :now";
+
+        return load(denylist, db.sql(sql).bind("now", nowMs));
+    }
+
+    /**
+     * Adds the live entries changed after changedAfterMs (database clock)
+     * to the denylist; emits the number of entries loaded.
+     */
+    public Mono<Long> loadChangedInto(TokenDenylist denylist, long changedAfterMs, long nowMs) {
+
+        String sql =
+                "SELECT kind, value, revoked_at_ms, expires_at_ms FROM revoked_tokens " +
+                "WHERE changed_at_ms > :changedAfter AND expires_at_ms > :now";
+
+        return load(denylist, db.sql(sql).bind("changedAfter", changedAfterMs).bind("now", nowMs));
+    }
+
+    /**
+     * Current time of the database clock, the one changed_at_ms is set from.
+     */
+    public Mono<Long> databaseTimeMs() {
+        return db.sql("SELECT (extract(epoch FROM clock_timestamp()) * 1000)::BIGINT AS now_ms")
+                .map(row -> row.get("now_ms", Long.class))
+                .one();
+    }
+
+    private Mono<Long> load(TokenDenylist denylist, DatabaseClient.GenericExecuteSpec query) {
+        return query
+                .map(row -> {
+                    String value = row.get("value", String.class);
+                    long expiresAtMs = row.get("expires_at_ms", Long.class);
+
+                    if (SUBJECT.equals(row.get("kind", String.class))) {
+                        denylist.revokeSubject(value, row.get("revoked_at_ms", Long.class), expiresAtMs);
+                    } else {
+                        denylist.revokeToken(value, expiresAtMs);
+                    }
+                    return value;
+                })
+                .all()
+                .count();
+    }
+
+    /**
+     * Deletes up to `limit` entries whose tokens have all expired.
+     */
+    public Mono<Long> deleteExpired(long nowMs, int limit) {
+
+        String sql =
+                "DELETE FROM revoked_tokens WHERE (kind, value) IN (" +
+                "  SELECT kind, value FROM revoked_tokens " +
+                "  WHERE expires_at_ms <= :now " +
+                "  ORDER BY expires_at_ms LIMIT :limit " +
+                "  FOR UPDATE SKIP LOCKED)";
+
+        return db.sql(sql).bind("now", nowMs).bind("limit", limit).fetch().rowsUpdated();
+    }
+}
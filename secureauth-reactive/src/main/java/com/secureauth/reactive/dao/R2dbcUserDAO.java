@@ -0,0 +1,171 @@
+package com.secureauth.reactive.dao;
+
+import com.secureauth.secureauth.dao.RegistrationResult;
+import com.secureauth.secureauth.model.User;
+
+import io.r2dbc.spi.Readable;
+
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+
+import reactor.core.publisher.Mono;
+
+import java.time.LocalDateTime;
+
+/**
+ * R2dbcUserDAO
+ * ------------
+ * The users-table statements of secureauth's UserDAO, over R2DBC.
+ * Same SQL, one statement per call, so both deployments can serve the
+ * same users concurrently. OTPs always live in the users table here
+ * (secureauth.otp.store=jdbc).
+ *
+ * Not ported: the user cache, read-replica routing, bulk import and the
+ * sweeper, all optional or run by the servlet deployment.
+ */
+@Repository
+public class R2dbcUserDAO {
+
+    private final DatabaseClient db;
+
+    // Constructor injection
+    public R2dbcUserDAO(DatabaseClient db) {
+        this.db = db;
+    }
+
+    /* =========================================================
+       USER LOOKUP
+       ========================================================= */
+
+    /**
+     * Fetch user by email (case-insensitive); empty if there is none.
+     */
+    public Mono<User> findByEmail(String email) {
+
+        String sql = "SELECT id, email, password, otp, verified, otp_created_at FROM users " +
+                "WHERE lower(email) = lower(:email)";
+
+        return db.sql(sql)
+                .bind("email", email)
+                .map(R2dbcUserDAO::toUser)
+                .one();
+    }
+
+    private static User toUser(Readable row) {
+        User user = new User();
+        user.setId(row.get("id", Long.class));
+        user.setEmail(row.get("email", String.class));
+        user.setPassword(row.get("password", String.class));
+        user.setOtp(row.get("otp", String.class));
+        user.setVerified(Boolean.TRUE.equals(row.get("verified", Boolean.class)));
+        user.setOtpCreatedAt(row.get("otp_created_at", LocalDateTime.class));
+        return user;
+    }
+
+    /* =========================================================
+       REGISTER
+       ========================================================= */
+
+    /**
+     * Inserts a user or refreshes the OTP of an unverified one, in a
+     * single statement (see UserDAO.register).
+     */
+    public Mono<RegistrationResult> register(String email, String hashedPassword, String otp) {
+
+        String sql =
+                "INSERT INTO users (email, password, otp, verified, otp_created_at) " +
+                "VALUES (:email, :password, :otp, false, now()) " +
+                "ON CONFLICT ((lower(email))) DO UPDATE " +
+                "SET otp = EXCLUDED.otp, otp_created_at = EXCLUDED.otp_created_at " +
+                "WHERE users.verified = false " +
+                "RETURNING (xmax = 0) AS inserted";
+
+        // xmax = 0 only for a freshly inserted row; no row at all when verified
+        return db.sql(sql)
+                .bind("email", email)
+                .bind("password", hashedPassword)
+                .bind("otp", otp)
+                .map(row -> Boolean.TRUE.equals(row.get("inserted", Boolean.class))
+                        ? RegistrationResult.CREATED
+                        : RegistrationResult.OTP_REFRESHED)
+                .one()
+                .defaultIfEmpty(RegistrationResult.ALREADY_VERIFIED);
+    }
+
+    /* =========================================================
+       OTP VERIFICATION
+       ========================================================= */
+
+    /**
+     * Verifies email OTP and marks user as verified (5-minute lifetime).
+     */
+    public Mono<Boolean> verifyOtp(String email, String otp) {
+
+        String sql =
+                "UPDATE users SET verified = true, otp = NULL, otp_created_at = NULL " +
+                "WHERE lower(email) = lower(:email) AND otp = :otp AND verified = false " +
+                "AND otp_created_at > now() - INTERVAL '5 minutes'";
+
+        return update(db.sql(sql).bind("email", email).bind("otp", otp));
+    }
+
+    /**
+     * Resends OTP if user exists and is not verified.
+     */
+    public Mono<Boolean> resendOtp(String email, String otp) {
+
+        String sql =
+                "UPDATE users SET otp = :otp, otp_created_at = now() " +
+                "WHERE lower(email) = lower(:email) AND verified = false";
+
+        return update(db.sql(sql).bind("otp", otp).bind("email", email));
+    }
+
+    /* =========================================================
+       PASSWORD RESET
+       ========================================================= */
+
+    public Mono<Boolean> createPasswordResetOtp(String email, String otp) {
+
+        String sql =
+                "UPDATE users SET reset_otp = :otp, reset_otp_created_at = now() " +
+                "WHERE lower(email) = lower(:email)";
+
+        return update(db.sql(sql).bind("otp", otp).bind("email", email));
+    }
+
+    /**
+     * Resets password using OTP (5-minute lifetime).
+     */
+    public Mono<Boolean> resetPassword(String email, String otp, String newPassword) {
+
+        String sql =
+                "UPDATE users SET password = :password, reset_otp = NULL, reset_otp_created_at = NULL " +
+                "WHERE lower(email) = lower(:email) AND reset_otp = :otp " +
+                "AND reset_otp_created_at > now() - INTERVAL '5 minutes'";
+
+        return update(db.sql(sql).bind("password", newPassword).bind("email", email).bind("otp", otp));
+    }
+
+    public Mono<Boolean> updatePassword(String email, String hashedPassword) {
+
+        String sql = "UPDATE users SET password = :password WHERE lower(email) = lower(:email)";
+
+        return update(db.sql(sql).bind("password", hashedPassword).bind("email", email));
+    }
+
+    /* =========================================================
+       DELETE ACCOUNT
+       ========================================================= */
+
+    public Mono<Boolean> deleteByEmail(String email) {
+
+        String sql = "DELETE FROM users WHERE lower(email) = lower(:email)";
+
+        return update(db.sql(sql).bind("email", email));
+    }
+
+    private static Mono<Boolean> update(DatabaseClient.GenericExecuteSpec statement) {
+        return statement.fetch().rowsUpdated().map(rows -> rows > 0);
+    }
+}
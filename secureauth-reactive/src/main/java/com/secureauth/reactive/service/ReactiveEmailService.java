@@ -0,0 +1,36 @@
+package com.secureauth.reactive.service;
+
+import com.secureauth.secureauth.service.EmailService;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+/**
+ * ReactiveEmailService
+ * --------------------
+ * secureauth's EmailService, called on the mail scheduler: JavaMail has
+ * no non-blocking transport, and even queued mode sends inline when its
+ * queue is full. The request completes once the email is accepted
+ * (queued mode) or sent (sync mode), exactly as on the servlet stack.
+ */
+@Service
+public class ReactiveEmailService {
+
+    private final EmailService emailService;
+    private final Scheduler mailScheduler;
+
+    // Constructor injection
+    public ReactiveEmailService(EmailService emailService,
+                                @Qualifier("mailScheduler") Scheduler mailScheduler) {
+        this.emailService = emailService;
+        this.mailScheduler = mailScheduler;
+    }
+
+    public Mono<Void> sendEmail(String to, String subject, String text) {
+        return Mono.<Void>fromRunnable(() -> emailService.sendEmail(to, subject, text))
+                .subscribeOn(mailScheduler);
+    }
+}
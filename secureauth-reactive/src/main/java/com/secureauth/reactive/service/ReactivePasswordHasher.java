@@ -0,0 +1,55 @@
+package com.secureauth.reactive.service;
+
+import com.secureauth.secureauth.service.HashingBusyException;
+import com.secureauth.secureauth.service.PasswordHashingService;
+
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * ReactivePasswordHasher
+ * ----------------------
+ * PasswordHashingService without blocking the event loop: bcrypt runs
+ * on the same bounded pool, the result is delivered as a Mono. A full
+ * queue or timeout-ms elapsing fails with HashingBusyException (503),
+ * and cancelling the Mono drops a hash still waiting in the queue.
+ */
+@Service
+public class ReactivePasswordHasher {
+
+    private final PasswordHashingService hashingService;
+    private final Duration timeout;
+
+    // Constructor injection
+    public ReactivePasswordHasher(PasswordHashingService hashingService) {
+        this.hashingService = hashingService;
+        this.timeout = Duration.ofMillis(hashingService.getTimeoutMs());
+    }
+
+    public Mono<String> hash(String password) {
+        return bounded(Mono.fromFuture(() -> hashingService.hashAsync(password)));
+    }
+
+    public Mono<Boolean> matches(String password, String storedHash) {
+        return bounded(Mono.fromFuture(() -> hashingService.matchesAsync(password, storedHash)));
+    }
+
+    // See PasswordHashingService.getDummyHash()
+    public String getDummyHash() {
+        return hashingService.getDummyHash();
+    }
+
+    public boolean needsRehash(String storedHash) {
+        return hashingService.needsRehash(storedHash);
+    }
+
+    private <T> Mono<T> bounded(Mono<T> hashing) {
+        return hashing
+                .timeout(timeout)
+                .onErrorMap(TimeoutException.class, e -> new HashingBusyException("Password hashing timed out"));
+    }
+}
@@ -0,0 +1,129 @@
+package com.secureauth.reactive.service;
+
+import com.secureauth.reactive.dao.R2dbcRefreshTokenDAO;
+import com.secureauth.secureauth.config.RefreshTokenProperties;
+import com.secureauth.secureauth.util.RefreshTokenCodec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ReactiveRefreshTokenService
+ * ---------------------------
+ * secureauth's RefreshTokenService on R2DBC: same token format
+ * (RefreshTokenCodec), same rotation and reuse detection, same
+ * secureauth.refresh metrics.
+ */
+@Service
+public class ReactiveRefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveRefreshTokenService.class);
+
+    private final R2dbcRefreshTokenDAO refreshTokenDAO;
+    private final ReactiveTokenRevocationService tokenRevocation;
+    private final long ttlSeconds;
+
+    private final Counter rotated;
+    private final Counter invalid;
+    private final Counter reused;
+
+    // Constructor injection
+    public ReactiveRefreshTokenService(R2dbcRefreshTokenDAO refreshTokenDAO,
+                                       RefreshTokenProperties properties,
+                                       ReactiveTokenRevocationService tokenRevocation,
+                                       MeterRegistry meterRegistry) {
+        this.refreshTokenDAO = refreshTokenDAO;
+        this.tokenRevocation = tokenRevocation;
+        this.ttlSeconds = TimeUnit.HOURS.toSeconds(properties.getTtlHours());
+
+        this.rotated = refreshes(meterRegistry, "rotated");
+        this.invalid = refreshes(meterRegistry, "invalid");
+        this.reused = refreshes(meterRegistry, "reused");
+    }
+
+    /**
+     * Starts a session: the first refresh token of a new family, or
+     * nothing if the user no longer exists.
+     */
+    public Mono<String> issue(String email) {
+        String token = RefreshTokenCodec.newToken();
+        return refreshTokenDAO.insert(RefreshTokenCodec.hash(token), email, ttlSeconds)
+                .filter(inserted -> inserted)
+                .map(inserted -> token);
+    }
+
+    /**
+     * Exchanges a refresh token for its successor; nothing if the token
+     * is not valid (unknown, expired, used, revoked).
+     */
+    public Mono<Rotation> refresh(String token) {
+        if (!RefreshTokenCodec.isWellFormed(token)) {
+            invalid.increment();
+            return Mono.empty();
+        }
+
+        byte[] presented = RefreshTokenCodec.hash(token);
+        String next = RefreshTokenCodec.newToken();
+
+        return refreshTokenDAO.rotate(presented, RefreshTokenCodec.hash(next), ttlSeconds)
+                .map(email -> {
+                    rotated.increment();
+                    return new Rotation(email, next);
+                })
+                // Not rotated: only a second round trip when the token was refused
+                .switchIfEmpty(Mono.defer(() -> refreshTokenDAO.deleteReusedFamily(presented)
+                        .flatMap(owner -> {
+                            reused.increment();
+                            log.warn("Refresh token reused: session ended and access tokens revoked for {}", owner);
+                            return tokenRevocation.revokeAll(owner).thenReturn(owner);
+                        })
+                        .switchIfEmpty(Mono.fromRunnable(invalid::increment))
+                        .then(Mono.<Rotation>empty())));
+    }
+
+    /**
+     * Logout: ends the session the token belongs to, if it is the user's.
+     */
+    public Mono<Void> revoke(String token, String email) {
+        if (!RefreshTokenCodec.isWellFormed(token)) {
+            return Mono.empty();
+        }
+        return refreshTokenDAO.deleteFamily(RefreshTokenCodec.hash(token), email).then();
+    }
+
+    /**
+     * Ends every session of the user.
+     */
+    public Mono<Void> revokeAll(String email) {
+        return refreshTokenDAO.deleteAll(email).then();
+    }
+
+    public static final class Rotation {
+        private final String email;
+        private final String refreshToken;
+
+        Rotation(String email, String refreshToken) {
+            this.email = email;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getEmail() { return email; }
+
+        public String getRefreshToken() { return refreshToken; }
+    }
+
+    private static Counter refreshes(MeterRegistry registry, String outcome) {
+        return Counter.builder("secureauth.refresh")
+                .description("Refresh token exchanges")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
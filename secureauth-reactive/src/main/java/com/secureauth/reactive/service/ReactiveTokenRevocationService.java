@@ -0,0 +1,118 @@
+package com.secureauth.reactive.service;
+
+import com.secureauth.reactive.dao.R2dbcRevokedTokenDAO;
+import com.secureauth.secureauth.config.RevocationProperties;
+import com.secureauth.secureauth.security.TokenDenylist;
+import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.VerifiedToken;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import reactor.core.publisher.Mono;
+
+/**
+ * ReactiveTokenRevocationService
+ * ------------------------------
+ * secureauth's TokenRevocationService on R2DBC: the in-memory
+ * TokenDenylist (checked by JwtWebFilter) is updated when the returned
+ * Mono is subscribed, then the revocation is persisted. Revocations made
+ * by other instances are loaded every sync-interval-ms.
+ */
+@Service
+public class ReactiveTokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(ReactiveTokenRevocationService.class);
+
+    private final TokenDenylist denylist;
+    private final R2dbcRevokedTokenDAO revokedTokenDAO;
+    private final RevocationProperties properties;
+
+    // Database time before the last successful load; only touched by the constructor and sync()
+    private long syncedUpToMs;
+
+    // Constructor injection; loads the denylist before any request is served
+    public ReactiveTokenRevocationService(TokenDenylist denylist,
+                                          R2dbcRevokedTokenDAO revokedTokenDAO,
+                                          RevocationProperties properties) {
+        this.denylist = denylist;
+        this.revokedTokenDAO = revokedTokenDAO;
+        this.properties = properties;
+
+        // Taken before the load: whatever is written meanwhile is picked up by the first sync
+        this.syncedUpToMs = revokedTokenDAO.databaseTimeMs().block();
+        Long loaded = revokedTokenDAO.loadInto(denylist, System.currentTimeMillis()).block();
+        log.info("Loaded {} token revocations", loaded);
+    }
+
+    /**
+     * Revokes one token. In effect on this node even if the database write fails.
+     */
+    public Mono<Void> revoke(VerifiedToken token) {
+        if (token.getId() == null) {
+            // No jti to name it by: only a subject revocation can cover it
+            return revokeAll(token.getSubject());
+        }
+        return Mono.defer(() -> {
+            denylist.revokeToken(token.getId(), token.getExpiresAtMs());
+            return revokedTokenDAO.revokeToken(token.getId(), token.getExpiresAtMs());
+        });
+    }
+
+    /**
+     * Revokes every token issued to the email up to now.
+     */
+    public Mono<Void> revokeAll(String email) {
+        return Mono.defer(() -> {
+            long now = System.currentTimeMillis();
+            long lastExpiry = now + JwtUtil.getExpirationMs();
+
+            denylist.revokeSubject(email, now, lastExpiry);
+            return revokedTokenDAO.revokeSubject(email, now, lastExpiry);
+        });
+    }
+
+    /**
+     * Loads the revocations written since the last sync, by any instance;
+     * see TokenRevocationService.sync(). On the scheduling thread, never an
+     * event loop: blocking is fine here.
+     */
+    @Scheduled(initialDelayString = "${secureauth.revocation.sync-interval-ms:5000}",
+               fixedDelayString = "${secureauth.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        try {
+            long startedAtMs = revokedTokenDAO.databaseTimeMs().block();
+            Long loaded = revokedTokenDAO.loadChangedInto(denylist,
+                    syncedUpToMs - properties.getSyncLookbackMs(), System.currentTimeMillis()).block();
+            syncedUpToMs = startedAtMs;
+
+            log.debug("Synced {} token revocations", loaded);
+        } catch (RuntimeException e) {
+            // Nothing is skipped: the next sync starts from the same point
+            log.warn("Syncing revoked_tokens failed", e);
+        }
+    }
+
+    // On the scheduling thread, never an event loop: blocking is fine here
+    @Scheduled(initialDelayString = "${secureauth.revocation.prune-interval-ms:600000}",
+               fixedDelayString = "${secureauth.revocation.prune-interval-ms:600000}")
+    public void prune() {
+        int dropped = denylist.prune();
+
+        try {
+            long now = System.currentTimeMillis();
+            int batchSize = properties.getPruneBatchSize();
+            long deleted;
+            do {
+                deleted = revokedTokenDAO.deleteExpired(now, batchSize).block();
+            } while (deleted >= batchSize);
+        } catch (RuntimeException e) {
+            // Expired rows are never loaded again; they go on a later run
+            log.warn("Pruning revoked_tokens failed", e);
+        }
+
+        log.debug("Dropped {} expired token revocations, {} left", dropped, denylist.size());
+    }
+}
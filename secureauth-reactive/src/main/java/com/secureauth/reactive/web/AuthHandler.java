@@ -0,0 +1,400 @@
+package com.secureauth.reactive.web;
+
+import com.secureauth.reactive.dao.R2dbcUserDAO;
+import com.secureauth.reactive.service.ReactiveEmailService;
+import com.secureauth.reactive.service.ReactivePasswordHasher;
+import com.secureauth.reactive.service.ReactiveRefreshTokenService;
+import com.secureauth.reactive.service.ReactiveTokenRevocationService;
+import com.secureauth.secureauth.breach.BreachedPasswordChecker;
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.dao.RegistrationResult;
+import com.secureauth.secureauth.model.ApiResponse;
+import com.secureauth.secureauth.service.HashingBusyException;
+import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.OTPUtil;
+import com.secureauth.secureauth.util.PasswordUtil;
+import com.secureauth.secureauth.util.VerifiedToken;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.server.ServerWebInputException;
+
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * AuthHandler
+ * -----------
+ * secureauth's AuthController on WebFlux: same paths, parameters,
+ * status codes, messages and emails. Only the plumbing differs:
+ * - users, refresh tokens and revocations go through R2DBC
+ * - bcrypt completes on the hashing pool, SMTP on the mail scheduler
+ * - the event loop never waits on either
+ */
+@Component
+public class AuthHandler {
+
+    private final R2dbcUserDAO userDAO;
+    private final ReactiveEmailService emailService;
+    private final ReactivePasswordHasher passwordHasher;
+    private final ReactiveTokenRevocationService tokenRevocation;
+    private final ReactiveRefreshTokenService refreshTokens;
+    private final AdminProperties adminProperties;
+    private final BreachedPasswordChecker breachedPasswords;
+
+    // Constructor injection
+    public AuthHandler(R2dbcUserDAO userDAO,
+                       ReactiveEmailService emailService,
+                       ReactivePasswordHasher passwordHasher,
+                       ReactiveTokenRevocationService tokenRevocation,
+                       ReactiveRefreshTokenService refreshTokens,
+                       AdminProperties adminProperties,
+                       BreachedPasswordChecker breachedPasswords) {
+        this.userDAO = userDAO;
+        this.emailService = emailService;
+        this.passwordHasher = passwordHasher;
+        this.tokenRevocation = tokenRevocation;
+        this.refreshTokens = refreshTokens;
+        this.adminProperties = adminProperties;
+        this.breachedPasswords = breachedPasswords;
+    }
+
+    /* =========================================================
+       REGISTER
+       ========================================================= */
+    public Mono<ServerResponse> register(ServerRequest request) {
+        return params(request).flatMap(params -> {
+
+            String email = required(params, "email");
+            String password = required(params, "password");
+
+            // hash() would refuse it below, and that would be a 500
+            if (PasswordUtil.isTooLong(password)) {
+                return respond(HttpStatus.BAD_REQUEST, "error",
+                        "Password must be at most " + PasswordUtil.MAX_PASSWORD_BYTES + " bytes");
+            }
+
+            // A lookup in the memory-mapped corpus: cheap enough for the event loop
+            if (breachedPasswords.isBreached(password)) {
+                return breachedPassword();
+            }
+
+            String otp = OTPUtil.generateOTP();
+
+            String emailBody =
+                    "Hello,\n\n" +
+                    "Use the following One-Time Password (OTP) to complete your SecureAuth verification:\n\n" +
+                    "OTP: " + otp + "\n\n" +
+                    "This code is valid for 5 minutes. Please keep it confidential.\n\n" +
+                    "If you did not request this code, you may safely ignore this message.\n\n" +
+                    "Best regards,\n" +
+                    "SecureAuth Team";
+
+            // Insert new user, or refresh OTP of an unverified one (single statement)
+            return passwordHasher.hash(password)
+                    .flatMap(hashed -> userDAO.register(email, hashed, otp))
+                    .flatMap(result -> {
+
+                        if (result == RegistrationResult.ALREADY_VERIFIED) {
+                            return respond(HttpStatus.CONFLICT, "error", "Account already exists");
+                        }
+
+                        HttpStatus status = result == RegistrationResult.CREATED ? HttpStatus.CREATED : HttpStatus.OK;
+
+                        return emailService.sendEmail(email, "SecureAuth | Email Verification OTP", emailBody)
+                                .then(respond(status, "success", "OTP sent to email"));
+                    })
+                    .onErrorResume(HashingBusyException.class, e -> hashingBusy())
+                    .onErrorResume(e -> respond(HttpStatus.INTERNAL_SERVER_ERROR, "error", "Server error"));
+        });
+    }
+
+    /* =========================================================
+       VERIFY OTP (EMAIL VERIFICATION)
+       ========================================================= */
+    public Mono<ServerResponse> verifyOtp(ServerRequest request) {
+        return params(request).flatMap(params ->
+                userDAO.verifyOtp(required(params, "email"), required(params, "otp"))
+                        .flatMap(success -> success
+                                ? respond(HttpStatus.OK, "success", "Email verified successfully")
+                                : respond(HttpStatus.BAD_REQUEST, "error", "Invalid OTP")));
+    }
+
+    /* =========================================================
+       RESEND OTP
+       ========================================================= */
+    public Mono<ServerResponse> resendOtp(ServerRequest request) {
+        return params(request).flatMap(params -> {
+
+            String email = required(params, "email");
+            String otp = OTPUtil.generateOTP();
+
+            String emailBody =
+                    "Hello,\n\n" +
+                    "Your New One-Time Password (OTP) for SecureAuth verification is:\n\n" +
+                    "OTP: " + otp + "\n\n" +
+                    "This code is valid for 5 minutes. Please keep it confidential.\n\n" +
+                    "If you did not request this code, you may safely ignore this message.\n\n" +
+                    "Best regards,\n" +
+                    "SecureAuth Team";
+
+            return userDAO.resendOtp(email, otp).flatMap(updated -> updated
+                    ? emailService.sendEmail(email, "SecureAuth | Resend OTP", emailBody)
+                            .then(respond(HttpStatus.OK, "success", "New OTP sent to email"))
+                    : respond(HttpStatus.BAD_REQUEST, "error", "User not found or already verified"));
+        });
+    }
+
+    /* =========================================================
+       LOGIN
+       ========================================================= */
+    public Mono<ServerResponse> login(ServerRequest request) {
+        return params(request).flatMap(params -> {
+
+            String email = required(params, "email");
+            String password = required(params, "password");
+
+            return userDAO.findByEmail(email)
+                    .flatMap(user -> passwordHasher.matches(password, user.getPassword()).flatMap(matches -> {
+
+                        if (!matches) {
+                            return invalidLogin();
+                        }
+
+                        if (!user.isVerified()) {
+                            return respond(HttpStatus.FORBIDDEN, "error", "Email not verified");
+                        }
+
+                        // Upgrade legacy SHA-256 / low-cost hashes while we have the plain password
+                        Mono<Void> upgrade = passwordHasher.needsRehash(user.getPassword())
+                                ? rehash(email, password)
+                                : Mono.empty();
+
+                        // Short-lived JWT, plus a refresh token that opens the session
+                        String token = accessToken(email);
+
+                        return upgrade
+                                .then(refreshTokens.issue(email))
+                                .map(refreshToken -> new ApiResponse("success", "Login successful", token, refreshToken))
+                                .defaultIfEmpty(new ApiResponse("success", "Login successful", token, null))
+                                .flatMap(body -> respond(HttpStatus.OK, body));
+                    }))
+                    // Same bcrypt work as a wrong password: the timing must not tell the two apart
+                    .switchIfEmpty(Mono.defer(() -> passwordHasher.matches(password, passwordHasher.getDummyHash())
+                            .then(invalidLogin())))
+                    .onErrorResume(HashingBusyException.class, e -> hashingBusy());
+        });
+    }
+
+    /* =========================================================
+       REFRESH
+       ========================================================= */
+    public Mono<ServerResponse> refresh(ServerRequest request) {
+        return params(request).flatMap(params ->
+                // Single-use: the old refresh token is replaced by the returned one
+                refreshTokens.refresh(required(params, "refreshToken"))
+                        .flatMap(rotation -> respond(HttpStatus.OK, new ApiResponse("success", "Token refreshed",
+                                accessToken(rotation.getEmail()), rotation.getRefreshToken())))
+                        .switchIfEmpty(Mono.defer(() ->
+                                respond(HttpStatus.UNAUTHORIZED, "error", "Invalid or expired refresh token"))));
+    }
+
+    /* =========================================================
+       LOGOUT
+       ========================================================= */
+    public Mono<ServerResponse> logout(ServerRequest request) {
+
+        // Token is set by JwtWebFilter after validation
+        VerifiedToken token = (VerifiedToken) request.attribute(JwtWebFilter.AUTHENTICATED_TOKEN).orElse(null);
+
+        if (token == null) {
+            return respond(HttpStatus.UNAUTHORIZED, "error", "Unauthorized");
+        }
+
+        return params(request).flatMap(params -> {
+
+            // Only this session: other sessions of the user stay logged in
+            String refreshToken = params.getFirst("refreshToken");
+            Mono<Void> endSession = refreshToken != null
+                    ? refreshTokens.revoke(refreshToken, token.getSubject())
+                    : Mono.empty();
+
+            return tokenRevocation.revoke(token)
+                    .then(endSession)
+                    .then(respond(HttpStatus.OK, "success", "Logged out successfully"));
+        });
+    }
+
+    /* =========================================================
+       FORGOT PASSWORD
+       ========================================================= */
+    public Mono<ServerResponse> forgotPassword(ServerRequest request) {
+        return params(request).flatMap(params -> {
+
+            String email = required(params, "email");
+            String otp = OTPUtil.generateOTP();
+
+            String emailBody =
+                    "Hello,\n\n" +
+                    "Your Password Reset OTP for SecureAuth verification is:\n\n" +
+                    "OTP: " + otp + "\n\n" +
+                    "This code is valid for 5 minutes. Please keep it confidential.\n\n" +
+                    "If you did not request this code, you may safely ignore this message.\n\n" +
+                    "Best regards,\n" +
+                    "SecureAuth Team";
+
+            return userDAO.createPasswordResetOtp(email, otp).flatMap(updated -> updated
+                    ? emailService.sendEmail(email, "SecureAuth | Password Reset OTP", emailBody)
+                            .then(respond(HttpStatus.OK, "success", "OTP sent to your email"))
+                    : respond(HttpStatus.BAD_REQUEST, "error", "Email not found"));
+        });
+    }
+
+    /* =========================================================
+       RESET PASSWORD
+       ========================================================= */
+    public Mono<ServerResponse> resetPassword(ServerRequest request) {
+        return params(request).flatMap(params -> {
+
+            String email = required(params, "email");
+            String otp = required(params, "otp");
+            String password = required(params, "password");
+
+            if (password.trim().isEmpty()) {
+                return respond(HttpStatus.BAD_REQUEST, "error", "Password cannot be empty");
+            }
+
+            if (!PasswordUtil.isStrong(password)) {
+                return respond(HttpStatus.BAD_REQUEST, "error", "Password does not meet requirements");
+            }
+
+            // Known from a breach: refused before the OTP is spent
+            if (breachedPasswords.isBreached(password)) {
+                return breachedPassword();
+            }
+
+            return passwordHasher.hash(password)
+                    .flatMap(hashed -> userDAO.resetPassword(email, otp, hashed))
+                    .flatMap(success -> success
+                            // Sessions opened with the old password end here
+                            ? refreshTokens.revokeAll(email)
+                                    .then(tokenRevocation.revokeAll(email))
+                                    .then(respond(HttpStatus.OK, "success", "Password updated successfully"))
+                            : respond(HttpStatus.BAD_REQUEST, "error", "Invalid or expired OTP"))
+                    .onErrorResume(HashingBusyException.class, e -> hashingBusy());
+        });
+    }
+
+    /* =========================================================
+       DELETE ACCOUNT
+       ========================================================= */
+    public Mono<ServerResponse> deleteAccount(ServerRequest request) {
+
+        // Email is set by JwtWebFilter after token validation
+        String email = (String) request.attribute(JwtWebFilter.AUTHENTICATED_EMAIL).orElse(null);
+
+        if (email == null) {
+            return respond(HttpStatus.UNAUTHORIZED, "error", "Unauthorized");
+        }
+
+        // Revoke first: if the delete then fails, the user is only logged out.
+        // Refresh tokens go with the user row (ON DELETE CASCADE).
+        return tokenRevocation.revokeAll(email)
+                .then(userDAO.deleteByEmail(email))
+                .flatMap(deleted -> deleted
+                        ? respond(HttpStatus.OK, "success", "Account deleted successfully")
+                        : respond(HttpStatus.NOT_FOUND, "error", "Account not found"));
+    }
+
+    /* =========================================================
+       PROTECTED TEST ENDPOINT
+       ========================================================= */
+    public Mono<ServerResponse> protectedApi(ServerRequest request) {
+        return ServerResponse.ok()
+                .contentType(new MediaType(MediaType.TEXT_PLAIN, StandardCharsets.UTF_8))
+                .bodyValue("You have accessed a PROTECTED API 🎉");
+    }
+
+    /* =========================================================
+       HELPERS
+       ========================================================= */
+
+    /**
+     * Query string and form body together, like @RequestParam.
+     */
+    private static Mono<MultiValueMap<String, String>> params(ServerRequest request) {
+        return request.formData().map(form -> {
+            MultiValueMap<String, String> params = new LinkedMultiValueMap<>(request.queryParams());
+            form.forEach((name, values) -> values.forEach(value -> params.add(name, value)));
+            return params;
+        });
+    }
+
+    // Missing parameter: 400, like a missing @RequestParam
+    private static String required(MultiValueMap<String, String> params, String name) {
+        String value = params.getFirst(name);
+        if (value == null) {
+            throw new ServerWebInputException("Required parameter '" + name + "' is not present");
+        }
+        return value;
+    }
+
+    /**
+     * Access token with the scopes JwtWebFilter checks per route: `admin`
+     * for accounts in secureauth.admin.emails, granted again on every refresh.
+     */
+    private String accessToken(String email) {
+        return adminProperties.isAdmin(email)
+                ? JwtUtil.generateToken(email, List.of("admin"))
+                : JwtUtil.generateToken(email);
+    }
+
+    /**
+     * Best effort: if the pool is busy the upgrade happens on a later login.
+     */
+    private Mono<Void> rehash(String email, String password) {
+        return passwordHasher.hash(password)
+                .flatMap(hashed -> userDAO.updatePassword(email, hashed))
+                .onErrorResume(HashingBusyException.class, e -> Mono.empty())
+                .then();
+    }
+
+    private Mono<ServerResponse> invalidLogin() {
+        return respond(HttpStatus.UNAUTHORIZED, "error", "Invalid email or password");
+    }
+
+    /**
+     * The new password is in the breached-password corpus.
+     */
+    private static Mono<ServerResponse> breachedPassword() {
+        return respond(HttpStatus.BAD_REQUEST, "error",
+                "This password has appeared in a data breach, please choose another");
+    }
+
+    /**
+     * Hashing pool saturated: tell the client to retry instead of queueing.
+     */
+    private static Mono<ServerResponse> hashingBusy() {
+        return ServerResponse.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(new ApiResponse("error", "Server busy, please retry"));
+    }
+
+    private static Mono<ServerResponse> respond(HttpStatus status, String outcome, String message) {
+        return respond(status, new ApiResponse(outcome, message));
+    }
+
+    private static Mono<ServerResponse> respond(HttpStatus status, ApiResponse body) {
+        return ServerResponse.status(status)
+                .contentType(MediaType.APPLICATION_JSON)
+                .bodyValue(body);
+    }
+}
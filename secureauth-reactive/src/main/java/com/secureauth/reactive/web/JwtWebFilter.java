@@ -0,0 +1,123 @@
+package com.secureauth.reactive.web;
+
+import com.secureauth.secureauth.security.RouteTable;
+import com.secureauth.secureauth.security.TokenDenylist;
+import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.VerifiedToken;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JwtWebFilter
+ * ------------
+ * secureauth's JwtFilter as a WebFilter, for /api/* only:
+ * route lookup (RouteTable) → Bearer token → signature and expiry →
+ * revocation → required scopes. Nothing here blocks: the denylist is in
+ * memory and verified tokens are cached by JwtUtil.
+ *
+ * Handlers read the result from the exchange attributes
+ * authenticatedEmail / authenticatedToken, as controllers do from
+ * request attributes on the servlet stack.
+ */
+public class JwtWebFilter implements WebFilter {
+
+    public static final String AUTHENTICATED_EMAIL = "authenticatedEmail";
+    public static final String AUTHENTICATED_TOKEN = "authenticatedToken";
+
+    private static final String API_PREFIX = "/api/";
+    private static final String BEARER = "Bearer ";
+
+    private static final byte[] MISSING_TOKEN = error("Missing or invalid Authorization header");
+    private static final byte[] INVALID_TOKEN = error("Invalid or expired token");
+    private static final byte[] REVOKED_TOKEN = error("Token has been revoked");
+    private static final byte[] INSUFFICIENT_SCOPE = error("Forbidden");
+
+    private final TokenDenylist denylist;
+    private final RouteTable routes;
+
+    public JwtWebFilter(TokenDenylist denylist, RouteTable routes) {
+        this.denylist = denylist;
+        this.routes = routes;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        ServerHttpRequest request = exchange.getRequest();
+        String path = request.getPath().value();
+
+        // Same scope as the servlet filter's /api/* mapping
+        if (!path.startsWith(API_PREFIX)) {
+            return chain.filter(exchange);
+        }
+
+        RouteTable.Route route = routes.match(path);
+
+        // Public route, or an OPTIONS request that is not a CORS preflight
+        if (route.isPublic() || HttpMethod.OPTIONS.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        String token = bearerToken(request.getHeaders().getFirst(HttpHeaders.AUTHORIZATION));
+
+        if (token == null) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, MISSING_TOKEN);
+        }
+
+        VerifiedToken verified = JwtUtil.verify(token);
+
+        if (verified == null) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, INVALID_TOKEN);
+        }
+
+        if (denylist.isRevoked(verified)) {
+            return reject(exchange, HttpStatus.UNAUTHORIZED, REVOKED_TOKEN);
+        }
+
+        for (String scope : route.getScopes()) {
+            if (!verified.hasScope(scope)) {
+                return reject(exchange, HttpStatus.FORBIDDEN, INSUFFICIENT_SCOPE);
+            }
+        }
+
+        exchange.getAttributes().put(AUTHENTICATED_EMAIL, verified.getSubject());
+        exchange.getAttributes().put(AUTHENTICATED_TOKEN, verified);
+
+        return chain.filter(exchange);
+    }
+
+    // "Bearer <token>": the scheme is case-insensitive (RFC 6750); null if absent or empty
+    private static String bearerToken(String header) {
+        if (header == null
+                || header.length() <= BEARER.length()
+                || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return header.substring(BEARER.length());
+    }
+
+    // The pre-serialized body is wrapped, not copied
+    static Mono<Void> reject(ServerWebExchange exchange, HttpStatus status, byte[] body) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.setStatusCode(status);
+        response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+        response.getHeaders().setContentLength(body.length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(body)));
+    }
+
+    static byte[] error(String message) {
+        return ("{\"status\":\"error\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
+}
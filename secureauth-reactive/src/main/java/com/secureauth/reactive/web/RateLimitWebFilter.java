@@ -0,0 +1,119 @@
+package com.secureauth.reactive.web;
+
+import com.secureauth.secureauth.config.RateLimitProperties;
+import com.secureauth.secureauth.security.RateLimiter;
+
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RateLimitWebFilter
+ * ------------------
+ * secureauth's RateLimitFilter as a WebFilter: same secureauth.rate-limit
+ * rules, same RateLimiter, same 429 body.
+ *
+ * The email is read from the query string, else from the form body.
+ * WebFlux caches the parsed form on the exchange, so the handler reads
+ * it again without a second parse.
+ */
+public class RateLimitWebFilter implements WebFilter {
+
+    private static final byte[] TOO_MANY_REQUESTS =
+            JwtWebFilter.error("Too many requests, please try again later");
+
+    private final RateLimiter limiter;
+    private final Map<String, Rule> rules = new HashMap<>();
+
+    public RateLimitWebFilter(RateLimitProperties properties, RateLimiter limiter) {
+        this.limiter = limiter;
+
+        properties.getEndpoints().forEach((name, endpoint) -> {
+            if (endpoint.getPath() == null) {
+                throw new IllegalArgumentException("secureauth.rate-limit.endpoints." + name + ".path is required");
+            }
+            rules.put(endpoint.getPath(),
+                    new Rule(name, toLimit(endpoint.getPerIp()), toLimit(endpoint.getPerEmail())));
+        });
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+
+        ServerHttpRequest request = exchange.getRequest();
+        Rule rule = rules.get(request.getPath().value());
+
+        // Only the configured endpoints, and never CORS preflights
+        if (rule == null || HttpMethod.OPTIONS.equals(request.getMethod())) {
+            return chain.filter(exchange);
+        }
+
+        if (rule.perIp != null) {
+            long waitNanos = limiter.tryAcquire(rule.name + "|ip|" + clientIp(request), rule.perIp);
+            if (waitNanos > 0) {
+                return reject(exchange, waitNanos);
+            }
+        }
+
+        if (rule.perEmail == null) {
+            return chain.filter(exchange);
+        }
+
+        return email(exchange)
+                .map(email -> limiter.tryAcquire(
+                        rule.name + "|email|" + email.trim().toLowerCase(Locale.ROOT), rule.perEmail))
+                .defaultIfEmpty(0L)
+                .flatMap(waitNanos -> waitNanos > 0 ? reject(exchange, waitNanos) : chain.filter(exchange));
+    }
+
+    // Query parameter first, like ServletRequest.getParameter
+    private static Mono<String> email(ServerWebExchange exchange) {
+        return Mono.justOrEmpty(exchange.getRequest().getQueryParams().getFirst("email"))
+                .switchIfEmpty(exchange.getFormData().mapNotNull(form -> form.getFirst("email")))
+                .filter(email -> !email.isBlank());
+    }
+
+    private static String clientIp(ServerHttpRequest request) {
+        InetSocketAddress address = request.getRemoteAddress();
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+
+    private static Mono<Void> reject(ServerWebExchange exchange, long waitNanos) {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+
+        exchange.getResponse().getHeaders().set("Retry-After", Long.toString(retryAfterSeconds));
+        return JwtWebFilter.reject(exchange, HttpStatus.TOO_MANY_REQUESTS, TOO_MANY_REQUESTS);
+    }
+
+    private static RateLimiter.Limit toLimit(RateLimitProperties.Limit limit) {
+        if (limit == null || limit.getRequests() <= 0) {
+            return null;
+        }
+        return new RateLimiter.Limit(limit.getRequests(), limit.getPeriodSeconds());
+    }
+
+    private static final class Rule {
+        final String name;
+        final RateLimiter.Limit perIp;
+        final RateLimiter.Limit perEmail;
+
+        Rule(String name, RateLimiter.Limit perIp, RateLimiter.Limit perEmail) {
+            this.name = name;
+            this.perIp = perIp;
+            this.perEmail = perEmail;
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.secureauth.reactive.web;
+
+import com.secureauth.secureauth.config.RateLimitProperties;
+import com.secureauth.secureauth.config.RevocationProperties;
+import com.secureauth.secureauth.config.RouteProperties;
+import com.secureauth.secureauth.security.RateLimiter;
+import com.secureauth.secureauth.security.RouteTable;
+import com.secureauth.secureauth.security.TokenDenylist;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsWebFilter;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+
+import java.util.List;
+
+/**
+ * Web Config
+ * ----------
+ * Routes and filters of the reactive deployment, in the servlet
+ * deployment's order: CORS → JWT → rate limit → handler.
+ */
+@Configuration
+public class WebConfig {
+
+    @Bean
+    public RouterFunction<ServerResponse> authRoutes(AuthHandler handler) {
+        return RouterFunctions.route()
+                .path("/api/auth", auth -> auth
+                        .POST("/register", handler::register)
+                        .POST("/verify-otp", handler::verifyOtp)
+                        .POST("/resend-otp", handler::resendOtp)
+                        .POST("/login", handler::login)
+                        .POST("/refresh", handler::refresh)
+                        .POST("/logout", handler::logout)
+                        .POST("/forgot-password", handler::forgotPassword)
+                        .POST("/reset-password", handler::resetPassword)
+                        .POST("/delete-account", handler::deleteAccount))
+                .GET("/api/protected", handler::protectedApi)
+                .build();
+    }
+
+    /* =======================
+       FILTERS
+       ======================= */
+
+    // Same origins as secureauth's CorsConfig; preflights never reach JwtWebFilter
+    @Bean
+    @Order(0)
+    public CorsWebFilter corsWebFilter() {
+        CorsConfiguration config = new CorsConfiguration();
+        config.setAllowedOrigins(List.of(
+                "http://127.0.0.1:5501",
+                "http://localhost:5501"
+        ));
+        config.setAllowedMethods(List.of("GET", "POST", "PUT", "DELETE", "OPTIONS"));
+        config.setAllowedHeaders(List.of("*"));
+        config.setAllowCredentials(true);
+
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", config);
+        return new CorsWebFilter(source);
+    }
+
+    @Bean
+    @Order(1)
+    public JwtWebFilter jwtWebFilter(TokenDenylist tokenDenylist, RouteTable routeTable) {
+        return new JwtWebFilter(tokenDenylist, routeTable);
+    }
+
+    @Bean
+    @Order(2)
+    @ConditionalOnProperty(name = "secureauth.rate-limit.enabled", havingValue = "true", matchIfMissing = true)
+    public RateLimitWebFilter rateLimitWebFilter(RateLimitProperties properties, RateLimiter rateLimiter) {
+        return new RateLimitWebFilter(properties, rateLimiter);
+    }
+
+    /* =======================
+       SHARED STATE
+       ======================= */
+
+    @Bean
+    public TokenDenylist tokenDenylist(RevocationProperties properties) {
+        return new TokenDenylist(properties.getExpectedEntries(), properties.getFalsePositiveRate());
+    }
+
+    @Bean
+    public RouteTable routeTable(RouteProperties properties) {
+        return new RouteTable(properties.getPublicPaths(), properties.getScopes());
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties.getMaxKeys());
+    }
+}
@@ -0,0 +1,42 @@
+package com.secureauth.reactive;
+
+import com.secureauth.secureauth.contract.AuthApiContract;
+
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+/**
+ * secureauth's AuthApiContract against the reactive deployment: same
+ * requests, same expected responses as ServletAuthContractTests.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+        "secureauth.rate-limit.enabled=false",
+        "secureauth.password.cost=4",
+        "management.health.mail.enabled=false",
+        "secureauth.reactive.event-loop-threads=2"
+})
+class ReactiveAuthContractTests extends AuthApiContract {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    // OTPs are read from the database; nothing is sent
+    @MockitoBean
+    JavaMailSender mailSender;
+
+    @DynamicPropertySource
+    static void database(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.r2dbc.url", () -> "r2dbc:postgresql://" + postgres.getHost() + ":"
+                + postgres.getFirstMappedPort() + "/" + postgres.getDatabaseName());
+    }
+}
@@ -0,0 +1,85 @@
+package com.secureauth.secureauth.audit;
+
+/**
+ * AuditEvent
+ * ----------
+ * One audit record. Instances are slots: the ring buffer and the writer
+ * allocate them once and overwrite them, so nothing is allocated per
+ * event on the request path. Copy the fields out to keep them.
+ */
+public final class AuditEvent {
+
+    // Column widths of audit_events (V6 migration)
+    static final int EMAIL_LENGTH = 255;
+    static final int CLIENT_IP_LENGTH = 45;
+    static final int DETAIL_LENGTH = 64;
+
+    private long timeMs;
+    private AuditEventType type;
+    private String email;
+    private String clientIp;
+    private String detail;
+
+    void set(long timeMs, AuditEventType type, String email, String clientIp, String detail) {
+        this.timeMs = timeMs;
+        this.type = type;
+        this.email = email;
+        this.clientIp = clientIp;
+        this.detail = detail;
+    }
+
+    void copyFrom(AuditEvent other) {
+        set(other.timeMs, other.type, other.email, other.clientIp, other.detail);
+    }
+
+    // Drops the references so a free slot does not keep strings alive
+    void clear() {
+        set(0, null, null, null, null);
+    }
+
+    /**
+     * Cuts value to at most maxLength chars and replaces control characters
+     * (NUL included) with '?', so a client-supplied field can neither exceed
+     * its column nor be refused by the database. Returns value itself when
+     * it already fits, which is the common case: no allocation.
+     */
+    static String fit(String value, int maxLength) {
+        if (value == null) {
+            return null;
+        }
+
+        int length = value.length();
+        if (length > maxLength) {
+            // Do not split a surrogate pair
+            length = Character.isHighSurrogate(value.charAt(maxLength - 1)) ? maxLength - 1 : maxLength;
+        }
+        int firstControl = -1;
+        for (int i = 0; i < length; i++) {
+            if (Character.isISOControl(value.charAt(i))) {
+                firstControl = i;
+                break;
+            }
+        }
+        if (firstControl < 0) {
+            return length == value.length() ? value : value.substring(0, length);
+        }
+
+        char[] chars = value.substring(0, length).toCharArray();
+        for (int i = firstControl; i < length; i++) {
+            if (Character.isISOControl(chars[i])) {
+                chars[i] = '?';
+            }
+        }
+        return new String(chars);
+    }
+
+    public long getTimeMs() { return timeMs; }
+
+    public AuditEventType getType() { return type; }
+
+    public String getEmail() { return email; }
+
+    public String getClientIp() { return clientIp; }
+
+    public String getDetail() { return detail; }
+}
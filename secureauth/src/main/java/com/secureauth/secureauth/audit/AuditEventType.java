@@ -0,0 +1,20 @@
+package com.secureauth.secureauth.audit;
+
+/**
+ * AuditEventType
+ * --------------
+ * What happened. The detail column says why or through which flow,
+ * e.g. LOGIN_FAILED / bad_password, OTP_ISSUED / password_reset,
+ * USERS_EXPORTED / csv (the email is the admin's).
+ */
+public enum AuditEventType {
+    LOGIN_SUCCEEDED,
+    LOGIN_FAILED,
+    OTP_ISSUED,
+    OTP_VERIFIED,
+    OTP_REJECTED,
+    PASSWORD_RESET,
+    PASSWORD_RESET_FAILED,
+    ACCOUNT_DELETED,
+    USERS_EXPORTED
+}
@@ -0,0 +1,208 @@
+package com.secureauth.secureauth.audit;
+
+import com.secureauth.secureauth.config.AuditProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * AuditLog
+ * --------
+ * Security audit trail (logins, OTPs, password resets, deletions, user
+ * exports) that stays off the request's critical path:
+ * - record() cuts email, client IP and detail to their audit_events
+ *   column widths and masks control characters, then copies the event
+ *   into a preallocated AuditRingBuffer slot: one CAS, no lock, no I/O,
+ *   no allocation for a well-formed event
+ * - a single audit-writer thread drains the ring in batches of up to
+ *   batch-size into the AuditSink (Postgres or segment files)
+ * - ring full: overflow=drop counts the event as dropped, overflow=block
+ *   waits up to block-timeout-ms for the writer, then drops
+ * - a batch the sink rejects is logged and counted as failed, not retried;
+ *   events a sink rejects one by one (see AuditSink.write) count as failed
+ *   while the rest of their batch counts as written
+ * - on shutdown the ring is drained before the sink is closed
+ *
+ * Metrics: secureauth.audit.events{result=published|dropped|written|failed}
+ * and secureauth.audit.ring.depth.
+ */
+@Service
+public class AuditLog {
+
+    private static final Logger log = LoggerFactory.getLogger(AuditLog.class);
+
+    // Re-check interval while blocked on a full ring
+    private static final long BLOCK_PARK_NANOS = 50_000;
+
+    private final AuditProperties properties;
+    private final AuditSink sink;
+
+    private final AuditRingBuffer ring;
+    private final Thread writer;
+    private volatile boolean running;
+
+    private final LongAdder published = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder written = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+
+    // Constructor injection
+    public AuditLog(AuditProperties properties, AuditSink sink, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.sink = sink;
+
+        if (properties.isEnabled()) {
+            this.ring = new AuditRingBuffer(properties.getCapacity());
+            this.writer = new Thread(this::runWriter, "audit-writer");
+            this.writer.setDaemon(true);
+            this.running = true;
+            this.writer.start();
+        } else {
+            this.ring = null;
+            this.writer = null;
+        }
+
+        registerMetrics(meterRegistry);
+    }
+
+    /**
+     * Queues one event. Never throws and, under overflow=drop, never waits.
+     */
+    public void record(AuditEventType type, String email, String clientIp, String detail) {
+        if (ring == null) {
+            return;
+        }
+
+        // Client-supplied: an oversized or NUL-laden email must not reach the sink
+        email = AuditEvent.fit(email, AuditEvent.EMAIL_LENGTH);
+        clientIp = AuditEvent.fit(clientIp, AuditEvent.CLIENT_IP_LENGTH);
+        detail = AuditEvent.fit(detail, AuditEvent.DETAIL_LENGTH);
+
+        long now = System.currentTimeMillis();
+        if (ring.tryPublish(now, type, email, clientIp, detail)
+                || (properties.getOverflow() == AuditProperties.Overflow.BLOCK
+                    && awaitSlot(now, type, email, clientIp, detail))) {
+            published.increment();
+            return;
+        }
+
+        dropped.increment();
+    }
+
+    private boolean awaitSlot(long timeMs, AuditEventType type, String email, String clientIp, String detail) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(properties.getBlockTimeoutMs());
+
+        while (running && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(BLOCK_PARK_NANOS);
+            if (ring.tryPublish(timeMs, type, email, clientIp, detail)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /* =========================================================
+       WRITER
+       ========================================================= */
+
+    private void runWriter() {
+        int batchSize = properties.getBatchSize();
+        AuditEvent[] batch = new AuditEvent[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            batch[i] = new AuditEvent();
+        }
+        long idleNanos = TimeUnit.MILLISECONDS.toNanos(properties.getIdleWaitMs());
+
+        // Keep going after shutdown starts until the ring is empty
+        while (true) {
+            int count = ring.drainTo(batch, batchSize);
+            if (count > 0) {
+                write(batch, count);
+            } else if (!running) {
+                return;
+            } else {
+                LockSupport.parkNanos(idleNanos);
+            }
+        }
+    }
+
+    private void write(AuditEvent[] batch, int count) {
+        try {
+            int rejected = sink.write(batch, count);
+            written.add(count - rejected);
+            if (rejected > 0) {
+                failed.add(rejected);
+                log.warn("{} of {} audit event(s) rejected by the sink", rejected, count);
+            }
+        } catch (RuntimeException e) {
+            failed.add(count);
+            log.warn("Could not write {} audit event(s)", count, e);
+        }
+    }
+
+    /* =========================================================
+       METRICS
+       ========================================================= */
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        FunctionCounter.builder("secureauth.audit.events", this, AuditLog::getPublishedCount)
+                .tag("result", "published").register(meterRegistry);
+        FunctionCounter.builder("secureauth.audit.events", this, AuditLog::getDroppedCount)
+                .tag("result", "dropped").register(meterRegistry);
+        FunctionCounter.builder("secureauth.audit.events", this, AuditLog::getWrittenCount)
+                .tag("result", "written").register(meterRegistry);
+        FunctionCounter.builder("secureauth.audit.events", this, AuditLog::getFailedCount)
+                .tag("result", "failed").register(meterRegistry);
+        Gauge.builder("secureauth.audit.ring.depth", this, AuditLog::getRingDepth)
+                .register(meterRegistry);
+    }
+
+    /* =========================================================
+       SHUTDOWN
+       ========================================================= */
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (writer == null) {
+            sink.close();
+            return;
+        }
+
+        running = false;
+        writer.join(properties.getShutdownTimeoutMs());
+
+        if (writer.isAlive()) {
+            // The writer may still be inside the sink: leave it open
+            log.warn("Audit ring not drained on shutdown, {} event(s) dropped", ring.size());
+            writer.interrupt();
+            return;
+        }
+        sink.close();
+    }
+
+    /* =========================================================
+       STATS
+       ========================================================= */
+
+    public long getPublishedCount() { return published.sum(); }
+
+    // Events lost because the ring was full
+    public long getDroppedCount() { return dropped.sum(); }
+
+    public long getWrittenCount() { return written.sum(); }
+
+    // Events the sink rejected
+    public long getFailedCount() { return failed.sum(); }
+
+    public int getRingDepth() { return ring == null ? 0 : ring.size(); }
+}
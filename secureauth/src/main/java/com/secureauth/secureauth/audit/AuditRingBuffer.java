@@ -0,0 +1,106 @@
+package com.secureauth.secureauth.audit;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * AuditRingBuffer
+ * ---------------
+ * Bounded, lock-free queue of audit events: any number of request
+ * threads publish, one writer thread drains.
+ *
+ * - slots are preallocated AuditEvent instances, overwritten in place
+ * - each slot has a sequence number: equal to the position when the slot
+ *   is free for that position, position + 1 once the event is readable
+ * - a producer claims a position with one CAS on the tail and publishes
+ *   with a release store on the slot's sequence; no locks, no allocation
+ * - a full ring is reported to the caller, which applies the overflow policy
+ */
+public final class AuditRingBuffer {
+
+    private final AuditEvent[] slots;
+    private final AtomicLongArray sequences;
+    private final int mask;
+
+    // Next position to claim (producers)
+    private final AtomicLong tail = new AtomicLong();
+
+    // Next position to read; written by the consumer only, read for size()
+    private final AtomicLong head = new AtomicLong();
+
+    public AuditRingBuffer(int requestedCapacity) {
+        int capacity = Integer.highestOneBit(Math.max(requestedCapacity, 2) - 1) << 1;
+
+        this.slots = new AuditEvent[capacity];
+        this.sequences = new AtomicLongArray(capacity);
+        this.mask = capacity - 1;
+
+        for (int i = 0; i < capacity; i++) {
+            slots[i] = new AuditEvent();
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Copies the event into the next free slot.
+     * Returns false, without waiting, when the ring is full.
+     */
+    public boolean tryPublish(long timeMs, AuditEventType type, String email, String clientIp, String detail) {
+        long position = tail.get();
+
+        while (true) {
+            int index = (int) position & mask;
+            long difference = sequences.getAcquire(index) - position;
+
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index].set(timeMs, type, email, clientIp, detail);
+                    sequences.setRelease(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                // The slot still holds the event from one lap ago
+                return false;
+            } else {
+                // Another producer took this position first
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Copies up to `max` events, oldest first, into `batch` and frees their
+     * slots. Single consumer only.
+     */
+    public int drainTo(AuditEvent[] batch, int max) {
+        long position = head.get();
+        int count = 0;
+
+        while (count < max) {
+            int index = (int) position & mask;
+            if (sequences.getAcquire(index) != position + 1) {
+                // Empty, or the next producer has claimed but not yet published
+                break;
+            }
+
+            batch[count++].copyFrom(slots[index]);
+            slots[index].clear();
+            sequences.setRelease(index, position + slots.length);
+            position++;
+        }
+
+        head.lazySet(position);
+        return count;
+    }
+
+    // Approximate when producers are active
+    public int size() {
+        long size = tail.get() - head.get();
+        return (int) Math.max(0, Math.min(size, slots.length));
+    }
+
+    public int capacity() {
+        return slots.length;
+    }
+}
@@ -0,0 +1,28 @@
+package com.secureauth.secureauth.audit;
+
+/**
+ * AuditSink
+ * ---------
+ * Where the audit writer puts its batches. Called from the single writer
+ * thread only, so implementations need no locking.
+ *
+ * Implementations:
+ * - JdbcAuditSink        → audit_events table (default)
+ * - SegmentFileAuditSink → rolling memory-mapped segment files
+ */
+public interface AuditSink {
+
+    /**
+     * Writes events[0..count). The slots are reused once this returns.
+     *
+     * @return how many of the events were rejected one by one (0 when all
+     *         were written); a sink that cannot write the batch at all throws
+     */
+    int write(AuditEvent[] events, int count);
+
+    /**
+     * Called once on shutdown, after the last batch.
+     */
+    default void close() {
+    }
+}
@@ -0,0 +1,104 @@
+package com.secureauth.secureauth.audit;
+
+import com.secureauth.secureauth.config.AuditProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+
+/**
+ * JdbcAuditSink
+ * -------------
+ * Writes each batch to audit_events (V6 migration) as one multi-row
+ * INSERT: one round trip and one commit per batch instead of per event.
+ *
+ * A row the database refuses (value too long, invalid byte sequence...)
+ * fails the whole statement, so the batch is then retried row by row and
+ * only the refused rows are lost. Other failures (connection, timeout)
+ * propagate without a retry.
+ */
+@Component
+@ConditionalOnProperty(name = "secureauth.audit.sink", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcAuditSink implements AuditSink {
+
+    private static final Logger log = LoggerFactory.getLogger(JdbcAuditSink.class);
+
+    private static final String COLUMNS = "(occurred_at, type, email, client_ip, detail)";
+    private static final int COLUMN_COUNT = 5;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // INSERT statement per row count, built on first use
+    private final String[] statements;
+
+    // Constructor injection
+    public JdbcAuditSink(JdbcTemplate jdbcTemplate, AuditProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.statements = new String[properties.getBatchSize() + 1];
+    }
+
+    @Override
+    public int write(AuditEvent[] events, int count) {
+        try {
+            insert(events, 0, count);
+            return 0;
+        } catch (DataIntegrityViolationException e) {
+            if (count == 1) {
+                log.warn("Audit event refused by the database", e);
+                return 1;
+            }
+        }
+
+        int rejected = 0;
+        for (int i = 0; i < count; i++) {
+            try {
+                insert(events, i, 1);
+            } catch (DataIntegrityViolationException e) {
+                rejected++;
+                log.warn("Audit event refused by the database", e);
+            }
+        }
+        return rejected;
+    }
+
+    private void insert(AuditEvent[] events, int from, int count) {
+        jdbcTemplate.update(insert(count), ps -> {
+            int parameter = 1;
+            for (int i = from; i < from + count; i++) {
+                AuditEvent event = events[i];
+                ps.setTimestamp(parameter++, new Timestamp(event.getTimeMs()));
+                ps.setString(parameter++, event.getType().name());
+                ps.setString(parameter++, event.getEmail());
+                ps.setString(parameter++, event.getClientIp());
+                ps.setString(parameter++, event.getDetail());
+            }
+        });
+    }
+
+    private String insert(int rows) {
+        String sql = rows < statements.length ? statements[rows] : null;
+        if (sql != null) {
+            return sql;
+        }
+
+        StringBuilder builder = new StringBuilder("INSERT INTO audit_events ").append(COLUMNS).append(" VALUES ");
+        for (int i = 0; i < rows; i++) {
+            builder.append(i == 0 ? "" : ", ").append('(');
+            for (int c = 0; c < COLUMN_COUNT; c++) {
+                builder.append(c == 0 ? "?" : ", ?");
+            }
+            builder.append(')');
+        }
+        sql = builder.toString();
+
+        if (rows < statements.length) {
+            statements[rows] = sql;
+        }
+        return sql;
+    }
+}
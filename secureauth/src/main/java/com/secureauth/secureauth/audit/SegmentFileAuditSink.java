@@ -0,0 +1,182 @@
+package com.secureauth.secureauth.audit;
+
+import com.secureauth.secureauth.config.AuditProperties;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * SegmentFileAuditSink
+ * --------------------
+ * Appends events to memory-mapped segment files in file.directory:
+ * - one tab-separated line per event: time, type, email, client IP, detail ("-" when absent)
+ * - a segment is mapped at its full size up front; a write is a memory copy,
+ *   the kernel flushes the pages, so a JVM crash loses nothing already written
+ * - when the next line does not fit, the segment is forced to disk, trimmed
+ *   to its content and a new one is started (audit-<epoch ms>.log)
+ * - beyond max-segments the oldest files are deleted
+ *
+ * A segment that was not closed cleanly (power loss, kill -9) keeps its
+ * zero-filled tail: readers stop at the first NUL byte.
+ */
+@Component
+@ConditionalOnProperty(name = "secureauth.audit.sink", havingValue = "file")
+public class SegmentFileAuditSink implements AuditSink {
+
+    private static final Logger log = LoggerFactory.getLogger(SegmentFileAuditSink.class);
+
+    private static final long MIN_SEGMENT_BYTES = 64 * 1024;
+
+    private final Path directory;
+    private final long segmentBytes;
+    private final int maxSegments;
+
+    private final StringBuilder line = new StringBuilder(256);
+
+    private Path segment;
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+
+    public SegmentFileAuditSink(AuditProperties properties) throws IOException {
+        this.directory = Path.of(properties.getFile().getDirectory());
+        this.segmentBytes = Math.max(properties.getFile().getSegmentBytes(), MIN_SEGMENT_BYTES);
+        this.maxSegments = properties.getFile().getMaxSegments();
+
+        Files.createDirectories(directory);
+        openSegment();
+    }
+
+    @Override
+    public int write(AuditEvent[] events, int count) {
+        try {
+            for (int i = 0; i < count; i++) {
+                byte[] bytes = format(events[i]);
+                if (bytes.length > buffer.remaining()) {
+                    closeSegment();
+                    openSegment();
+                }
+                buffer.put(bytes);
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            closeSegment();
+        } catch (IOException e) {
+            log.warn("Could not close audit segment {}", segment, e);
+        }
+    }
+
+    /* =========================================================
+       SEGMENTS
+       ========================================================= */
+
+    private void openSegment() throws IOException {
+        long millis = System.currentTimeMillis();
+        Path path = directory.resolve(String.format("audit-%013d.log", millis));
+        while (Files.exists(path)) {
+            path = directory.resolve(String.format("audit-%013d.log", ++millis));
+        }
+
+        channel = FileChannel.open(path,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, segmentBytes);
+        segment = path;
+
+        deleteOldSegments();
+    }
+
+    private void closeSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+
+        int written = buffer.position();
+        buffer.force();
+        buffer = null;
+
+        try {
+            channel.truncate(written);
+        } catch (IOException e) {
+            // Some platforms refuse to truncate a mapped file: the tail stays zero-filled
+            log.debug("Could not trim audit segment {}", segment, e);
+        }
+        channel.close();
+        channel = null;
+    }
+
+    private void deleteOldSegments() throws IOException {
+        if (maxSegments <= 0) {
+            return;
+        }
+
+        List<Path> segments = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "audit-*.log")) {
+            files.forEach(segments::add);
+        }
+        if (segments.size() <= maxSegments) {
+            return;
+        }
+
+        // Fixed-width epoch millis: name order is age order
+        Collections.sort(segments);
+        for (Path old : segments.subList(0, segments.size() - maxSegments)) {
+            Files.deleteIfExists(old);
+        }
+    }
+
+    /* =========================================================
+       FORMAT
+       ========================================================= */
+
+    private byte[] format(AuditEvent event) {
+        line.setLength(0);
+        line.append(Instant.ofEpochMilli(event.getTimeMs())).append('\t')
+                .append(event.getType()).append('\t');
+        appendField(event.getEmail());
+        line.append('\t');
+        appendField(event.getClientIp());
+        line.append('\t');
+        appendField(event.getDetail());
+        line.append('\n');
+        return line.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    // Client-supplied values must not be able to forge a field or a line
+    private void appendField(String value) {
+        if (value == null || value.isEmpty()) {
+            line.append('-');
+            return;
+        }
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            line.append(Character.isISOControl(c) ? '?' : c);
+        }
+    }
+
+    // Segment currently written to
+    Path currentSegment() {
+        return segment;
+    }
+}
@@ -0,0 +1,144 @@
+package com.secureauth.secureauth.breach;
+
+import com.secureauth.secureauth.config.BreachedPasswordProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * BreachedPasswordChecker
+ * -----------------------
+ * Tells register and reset-password whether a new password is in the
+ * local breach corpus (BreachedPasswordCorpus): one SHA-1 and a binary
+ * search of a memory-mapped file, no network call.
+ *
+ * The file is swapped without a restart: every reload-interval-ms its
+ * identity (inode, size, modification time) is compared with the one
+ * loaded, and a changed file is opened and installed in one volatile write.
+ * Lookups already running finish on the old mapping, which the GC unmaps.
+ *
+ * - no file configured: every password passes
+ * - configured but missing: passes until the file appears
+ * - unreadable at startup: startup fails; at a reload: the old corpus stays
+ *
+ * Metrics: secureauth.password.breached.entries and
+ * secureauth.password.breached.rejected.
+ */
+@Service
+public class BreachedPasswordChecker {
+
+    private static final Logger log = LoggerFactory.getLogger(BreachedPasswordChecker.class);
+
+    private final Path file;
+
+    private volatile BreachedPasswordCorpus corpus;
+    private Object loadedVersion;
+
+    private final LongAdder rejected = new LongAdder();
+
+    // Constructor injection; the corpus is in place before any request is served
+    public BreachedPasswordChecker(BreachedPasswordProperties properties, MeterRegistry meterRegistry) {
+        this.file = properties.getFile() == null || properties.getFile().isBlank()
+                ? null
+                : Path.of(properties.getFile().trim());
+
+        try {
+            reload();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot load breached-password corpus " + file, e);
+        }
+        registerMetrics(meterRegistry);
+    }
+
+    /**
+     * True if the password appears in the corpus.
+     */
+    public boolean isBreached(String password) {
+        BreachedPasswordCorpus current = corpus;
+        if (current == null || password == null) {
+            return false;
+        }
+        boolean breached = current.contains(password);
+        if (breached) {
+            rejected.increment();
+        }
+        return breached;
+    }
+
+    /* =========================================================
+       RELOAD
+       ========================================================= */
+
+    @Scheduled(initialDelayString = "${secureauth.breached-passwords.reload-interval-ms:60000}",
+               fixedDelayString = "${secureauth.breached-passwords.reload-interval-ms:60000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (IOException | RuntimeException e) {
+            // Keep checking against the corpus we have
+            log.warn("Reloading breached-password corpus {} failed", file, e);
+        }
+    }
+
+    synchronized void reload() throws IOException {
+        if (file == null) {
+            return;
+        }
+
+        BasicFileAttributes attributes;
+        try {
+            attributes = Files.readAttributes(file, BasicFileAttributes.class);
+        } catch (NoSuchFileException e) {
+            if (loadedVersion == null) {
+                log.warn("Breached-password corpus {} not found; passwords are not checked until it appears", file);
+                loadedVersion = "missing";
+            }
+            return;
+        }
+
+        // A replaced file (moved over the old one) has a new inode
+        Object version = Arrays.asList(attributes.fileKey(), attributes.size(), attributes.lastModifiedTime());
+        if (version.equals(loadedVersion)) {
+            return;
+        }
+
+        BreachedPasswordCorpus loaded = BreachedPasswordCorpus.open(file);
+        corpus = loaded;
+        loadedVersion = version;
+        log.info("Breached-password corpus loaded: {} entries from {}", loaded.size(), file);
+    }
+
+    /* =========================================================
+       METRICS
+       ========================================================= */
+
+    public long size() {
+        BreachedPasswordCorpus current = corpus;
+        return current == null ? 0 : current.size();
+    }
+
+    public long getRejectedCount() { return rejected.sum(); }
+
+    private void registerMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("secureauth.password.breached.entries", this, BreachedPasswordChecker::size)
+                .register(meterRegistry);
+        FunctionCounter.builder("secureauth.password.breached.rejected", this,
+                        BreachedPasswordChecker::getRejectedCount)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,151 @@
+package com.secureauth.secureauth.breach;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+
+/**
+ * BreachedPasswordCorpus
+ * ----------------------
+ * Read side of a corpus file: sorted password hashes, memory-mapped
+ * read-only, so hundreds of millions of entries cost no heap and a lookup
+ * is a binary search over the page cache.
+ *
+ * Entries are the first 64 bits of SHA-1(UTF-8 password), the hash the
+ * public breach dumps (e.g. Pwned Passwords) are published in. With a
+ * billion entries, a password outside the corpus matches one by accident
+ * about once in 2 * 10^10 checks.
+ *
+ * File layout (big-endian):
+ *
+ *   magic    "SABPWD01"                    8 bytes
+ *   count    number of entries             8 bytes
+ *   fanout   65537 longs: fanout[p] = entries whose top 16 bits are < p
+ *   entries  count longs, sorted as unsigned, no duplicates
+ *
+ * The fan-out table (512 KB, on heap) narrows each search to the entries
+ * sharing the top 16 bits: for 10^9 entries about 15 probes instead of 30.
+ * Immutable and safe for concurrent lookups.
+ */
+public final class BreachedPasswordCorpus {
+
+    static final byte[] MAGIC = "SABPWD01".getBytes(StandardCharsets.US_ASCII);
+    static final int PREFIXES = 1 << 16;
+    static final long HEADER_BYTES = MAGIC.length + 8 + (PREFIXES + 1) * 8L;
+
+    // One mapping is limited to 2 GB; larger files are mapped in 1 GB segments
+    private static final int SEGMENT_BYTES = 1 << 30;
+
+    private final long count;
+    private final long[] fanout;
+    private final MappedByteBuffer[] segments;
+    private final int segmentShift;
+    private final long segmentMask;
+
+    private BreachedPasswordCorpus(long count, long[] fanout, MappedByteBuffer[] segments, int segmentBytes) {
+        this.count = count;
+        this.fanout = fanout;
+        this.segments = segments;
+        this.segmentShift = Integer.numberOfTrailingZeros(segmentBytes);
+        this.segmentMask = segmentBytes - 1;
+    }
+
+    public static BreachedPasswordCorpus open(Path path) throws IOException {
+        return open(path, SEGMENT_BYTES);
+    }
+
+    // segmentBytes: a power of two, at least 8
+    static BreachedPasswordCorpus open(Path path, int segmentBytes) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+
+            ByteBuffer header = ByteBuffer.allocate((int) HEADER_BYTES);
+            while (header.hasRemaining()) {
+                if (channel.read(header, header.position()) < 0) {
+                    throw new IOException(path + " is not a breached-password corpus (too short)");
+                }
+            }
+            header.flip();
+
+            byte[] magic = new byte[MAGIC.length];
+            header.get(magic);
+            if (!Arrays.equals(magic, MAGIC)) {
+                throw new IOException(path + " is not a breached-password corpus (bad magic)");
+            }
+
+            long count = header.getLong();
+            if (count < 0 || channel.size() != HEADER_BYTES + count * 8) {
+                throw new IOException(path + " is truncated: " + count + " entries expected, "
+                        + channel.size() + " bytes found");
+            }
+
+            long[] fanout = new long[PREFIXES + 1];
+            for (int i = 0; i <= PREFIXES; i++) {
+                fanout[i] = header.getLong();
+            }
+            if (fanout[0] != 0 || fanout[PREFIXES] != count) {
+                throw new IOException(path + " has an inconsistent fan-out table");
+            }
+
+            // The mappings stay valid after the channel is closed
+            long bytes = count * 8;
+            MappedByteBuffer[] segments = new MappedByteBuffer[(int) ((bytes + segmentBytes - 1) / segmentBytes)];
+            for (int i = 0; i < segments.length; i++) {
+                long offset = (long) i * segmentBytes;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY,
+                        HEADER_BYTES + offset, Math.min(segmentBytes, bytes - offset));
+            }
+
+            return new BreachedPasswordCorpus(count, fanout, segments, segmentBytes);
+        }
+    }
+
+    public boolean contains(String password) {
+        return contains(key(password));
+    }
+
+    public boolean contains(long key) {
+        int prefix = (int) (key >>> 48);
+        long low = fanout[prefix];
+        long high = fanout[prefix + 1] - 1;
+
+        while (low <= high) {
+            long mid = (low + high) >>> 1;
+            int cmp = Long.compareUnsigned(entry(mid), key);
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public long size() { return count; }
+
+    // Absolute reads: no buffer state is touched, so lookups can run concurrently
+    private long entry(long index) {
+        long offset = index << 3;
+        return segments[(int) (offset >>> segmentShift)].getLong((int) (offset & segmentMask));
+    }
+
+    /**
+     * The corpus key of a password: the first 8 bytes of its SHA-1.
+     */
+    public static long key(String password) {
+        try {
+            byte[] sha1 = MessageDigest.getInstance("SHA-1").digest(password.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(sha1).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+}
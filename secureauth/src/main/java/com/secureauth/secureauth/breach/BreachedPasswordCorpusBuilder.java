@@ -0,0 +1,317 @@
+package com.secureauth.secureauth.breach;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * BreachedPasswordCorpusBuilder
+ * -----------------------------
+ * Turns a downloaded breach dump into a BreachedPasswordCorpus file.
+ *
+ * Input, one entry per line:
+ *   sha1   SHA-1 hex, optionally followed by ":count" (the Pwned Passwords
+ *          format; case and the count are ignored)
+ *   plain  the password itself
+ *
+ * The dump does not have to fit in memory: it is read in chunks of
+ * chunk-entries keys, each sorted and written to a run file next to the
+ * output, then the runs are merged (duplicates dropped) into the corpus.
+ * Peak heap is about chunk-entries * 8 bytes; temporary disk about twice
+ * the corpus size.
+ *
+ * The corpus is written to a temporary file, forced to disk and moved over
+ * `output` in one step: a running service never sees a partial file and
+ * picks up the new one at its next reload.
+ *
+ * Usage (from the packaged jar):
+ *   java -cp secureauth.jar \
+ *        -Dloader.main=com.secureauth.secureauth.breach.BreachedPasswordCorpusBuilder \
+ *        org.springframework.boot.loader.launch.PropertiesLauncher \
+ *        --input pwned-passwords-sha1.txt --output /var/lib/secureauth/breached.bin
+ *
+ * `--input -` reads standard input; `--format plain` for password lists;
+ * `--chunk-entries` (default 16777216, 128 MB of heap) bounds memory.
+ */
+public final class BreachedPasswordCorpusBuilder {
+
+    public enum Format { SHA1, PLAIN }
+
+    public static final int DEFAULT_CHUNK_ENTRIES = 1 << 24;
+
+    private static final int IO_BUFFER_BYTES = 1 << 16;
+
+    private final Format format;
+    private final int chunkEntries;
+    private final MessageDigest sha1;
+
+    public BreachedPasswordCorpusBuilder(Format format, int chunkEntries) {
+        if (chunkEntries < 1) {
+            throw new IllegalArgumentException("chunk-entries must be positive");
+        }
+        this.format = format;
+        this.chunkEntries = chunkEntries;
+        try {
+            this.sha1 = MessageDigest.getInstance("SHA-1");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-1 not available", e);
+        }
+    }
+
+    /**
+     * Reads the dump and replaces `output` with the corpus built from it.
+     * Returns the number of distinct entries.
+     */
+    public long build(BufferedReader input, Path output) throws IOException {
+
+        Path directory = output.toAbsolutePath().getParent();
+        List<Path> runs = new ArrayList<>();
+        Path corpus = null;
+
+        try {
+            long[] chunk = new long[chunkEntries];
+            int size = 0;
+            long lineNumber = 0;
+
+            String line;
+            while ((line = input.readLine()) != null) {
+                lineNumber++;
+                if (line.isEmpty()) {
+                    continue;
+                }
+                chunk[size++] = parse(line, lineNumber);
+                if (size == chunk.length) {
+                    runs.add(writeRun(chunk, size, directory));
+                    size = 0;
+                }
+            }
+            if (size > 0 || runs.isEmpty()) {
+                runs.add(writeRun(chunk, size, directory));
+            }
+            chunk = null; // let the merge have the heap
+
+            corpus = Files.createTempFile(directory, output.getFileName() + ".", ".tmp");
+            long count = merge(runs, corpus);
+            makeReadable(corpus);
+
+            Files.move(corpus, output, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            corpus = null;
+            return count;
+
+        } finally {
+            for (Path run : runs) {
+                Files.deleteIfExists(run);
+            }
+            if (corpus != null) {
+                Files.deleteIfExists(corpus);
+            }
+        }
+    }
+
+    /* =========================================================
+       PARSING
+       ========================================================= */
+
+    private long parse(String line, long lineNumber) {
+        if (format == Format.PLAIN) {
+            byte[] digest = sha1.digest(line.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest).getLong();
+        }
+
+        // 40 hex digits, then end of line or ":count"; the key is the first 16
+        if (line.length() < 40 || (line.length() > 40 && line.charAt(40) != ':')) {
+            throw new IllegalArgumentException("Line " + lineNumber + " is not a SHA-1 hash");
+        }
+        long key = 0;
+        for (int i = 0; i < 40; i++) {
+            int digit = Character.digit(line.charAt(i), 16);
+            if (digit < 0) {
+                throw new IllegalArgumentException("Line " + lineNumber + " is not a SHA-1 hash");
+            }
+            if (i < 16) {
+                key = (key << 4) | digit;
+            }
+        }
+        return key;
+    }
+
+    /* =========================================================
+       RUNS AND MERGE
+       ========================================================= */
+
+    // Sorted as unsigned, duplicates dropped
+    private static Path writeRun(long[] chunk, int size, Path directory) throws IOException {
+        // Flipping the sign bit makes the signed sort an unsigned one
+        for (int i = 0; i < size; i++) {
+            chunk[i] ^= Long.MIN_VALUE;
+        }
+        Arrays.sort(chunk, 0, size);
+
+        Path run = Files.createTempFile(directory, "breached-run-", ".tmp");
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(run), IO_BUFFER_BYTES))) {
+            for (int i = 0; i < size; i++) {
+                if (i == 0 || chunk[i] != chunk[i - 1]) {
+                    out.writeLong(chunk[i] ^ Long.MIN_VALUE);
+                }
+            }
+        }
+        return run;
+    }
+
+    private static long merge(List<Path> runs, Path corpus) throws IOException {
+
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(
+                (a, b) -> Long.compareUnsigned(a.current, b.current));
+        long[] fanout = new long[BreachedPasswordCorpus.PREFIXES + 1];
+        long count = 0;
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(corpus), IO_BUFFER_BYTES))) {
+
+            // Header placeholder, written for real once the counts are known
+            out.write(new byte[(int) BreachedPasswordCorpus.HEADER_BYTES]);
+
+            for (Path run : runs) {
+                RunReader reader = new RunReader(run);
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+
+            long last = 0;
+            while (!queue.isEmpty()) {
+                RunReader reader = queue.poll();
+                long key = reader.current;
+
+                if (count == 0 || key != last) {
+                    out.writeLong(key);
+                    fanout[(int) (key >>> 48) + 1]++;
+                    count++;
+                    last = key;
+                }
+
+                if (reader.advance()) {
+                    queue.add(reader);
+                } else {
+                    reader.close();
+                }
+            }
+        } finally {
+            for (RunReader reader : queue) {
+                reader.close();
+            }
+        }
+
+        for (int i = 1; i < fanout.length; i++) {
+            fanout[i] += fanout[i - 1];
+        }
+
+        ByteBuffer header = ByteBuffer.allocate((int) BreachedPasswordCorpus.HEADER_BYTES);
+        header.put(BreachedPasswordCorpus.MAGIC).putLong(count);
+        for (long f : fanout) {
+            header.putLong(f);
+        }
+        header.flip();
+
+        try (FileChannel channel = FileChannel.open(corpus, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                channel.write(header, header.position());
+            }
+            channel.force(true);
+        }
+        return count;
+    }
+
+    private static final class RunReader {
+        final DataInputStream in;
+        long current;
+
+        RunReader(Path run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(Files.newInputStream(run), IO_BUFFER_BYTES));
+        }
+
+        boolean advance() throws IOException {
+            try {
+                current = in.readLong();
+                return true;
+            } catch (EOFException e) {
+                return false;
+            }
+        }
+
+        void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Temporary files are owner-only; the service may run as another user
+    private static void makeReadable(Path corpus) throws IOException {
+        try {
+            Files.setPosixFilePermissions(corpus, PosixFilePermissions.fromString("rw-r--r--"));
+        } catch (UnsupportedOperationException e) {
+            // Not a POSIX file system: keep its defaults
+        }
+    }
+
+    /* =========================================================
+       COMMAND LINE
+       ========================================================= */
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> options = new HashMap<>();
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            if (!args[i].startsWith("--")) {
+                throw new IllegalArgumentException("Unexpected argument: " + args[i]);
+            }
+            options.put(args[i].substring(2), args[i + 1]);
+        }
+
+        String input = options.get("input");
+        String output = options.get("output");
+        if (input == null || output == null) {
+            System.err.println("Usage: --input <dump.txt | -> --output <corpus.bin>"
+                    + " [--format sha1|plain] [--chunk-entries N]");
+            System.exit(2);
+        }
+
+        Format format = Format.valueOf(options.getOrDefault("format", "sha1").toUpperCase(Locale.ROOT));
+        int chunkEntries = Integer.parseInt(
+                options.getOrDefault("chunk-entries", Integer.toString(DEFAULT_CHUNK_ENTRIES)));
+
+        long started = System.nanoTime();
+        long count;
+        try (BufferedReader reader = "-".equals(input)
+                ? new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8), IO_BUFFER_BYTES)
+                : Files.newBufferedReader(Path.of(input), StandardCharsets.UTF_8)) {
+            count = new BreachedPasswordCorpusBuilder(format, chunkEntries).build(reader, Path.of(output));
+        }
+
+        System.out.printf(Locale.ROOT, "%d entries written to %s in %.1f s%n",
+                count, output, (System.nanoTime() - started) / 1e9);
+    }
+}
@@ -0,0 +1,50 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Admin Properties
+ * ----------------
+ * Accounts allowed to call the /api/admin endpoints, and the limits of
+ * the user listing and export.
+ *
+ * There are no roles in the users table: an admin is a verified user whose
+ * email is listed here. Empty by default, so nobody is an admin until it
+ * is configured.
+ */
+@ConfigurationProperties(prefix = "secureauth.admin")
+public class AdminProperties {
+
+    private Set<String> emails = new LinkedHashSet<>();
+
+    // Users per page of GET /api/admin/users when no limit is given
+    private int pageSize = 100;
+
+    // Largest limit a caller may ask for
+    private int maxPageSize = 1000;
+
+    // Rows the export cursor fetches per round trip; the heap holds one fetch at a time
+    private int exportFetchSize = 1000;
+
+    public Set<String> getEmails() { return emails; }
+    public void setEmails(Set<String> emails) { this.emails = emails; }
+
+    public int getPageSize() { return pageSize; }
+    public void setPageSize(int pageSize) { this.pageSize = pageSize; }
+
+    public int getMaxPageSize() { return maxPageSize; }
+    public void setMaxPageSize(int maxPageSize) { this.maxPageSize = maxPageSize; }
+
+    public int getExportFetchSize() { return exportFetchSize; }
+    public void setExportFetchSize(int exportFetchSize) { this.exportFetchSize = exportFetchSize; }
+
+    public boolean isAdmin(String email) {
+        if (email == null) {
+            return false;
+        }
+        return emails.stream().anyMatch(admin -> admin.trim().equalsIgnoreCase(email));
+    }
+}
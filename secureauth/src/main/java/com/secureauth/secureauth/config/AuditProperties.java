@@ -0,0 +1,92 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Audit Properties
+ * ----------------
+ * Settings for the security audit log ({@code AuditLog}).
+ *
+ * sink = jdbc → audit_events table, one multi-row INSERT per batch
+ * sink = file → rolling memory-mapped segment files in file.directory
+ *
+ * overflow = drop  → a full ring drops the event and counts it
+ * overflow = block → the request waits up to block-timeout-ms for room, then drops
+ */
+@ConfigurationProperties(prefix = "secureauth.audit")
+public class AuditProperties {
+
+    public enum Sink { JDBC, FILE }
+
+    public enum Overflow { DROP, BLOCK }
+
+    private boolean enabled = true;
+
+    private Sink sink = Sink.JDBC;
+
+    // Ring buffer slots, rounded up to a power of two
+    private int capacity = 8192;
+
+    private Overflow overflow = Overflow.DROP;
+
+    // Longest a request waits for a free slot under overflow=block
+    private long blockTimeoutMs = 50;
+
+    // Max events per INSERT / per segment write
+    private int batchSize = 256;
+
+    // Writer sleep when the ring is empty
+    private long idleWaitMs = 5;
+
+    // How long shutdown waits for the ring to drain
+    private long shutdownTimeoutMs = 5000;
+
+    private File file = new File();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public Sink getSink() { return sink; }
+    public void setSink(Sink sink) { this.sink = sink; }
+
+    public int getCapacity() { return capacity; }
+    public void setCapacity(int capacity) { this.capacity = capacity; }
+
+    public Overflow getOverflow() { return overflow; }
+    public void setOverflow(Overflow overflow) { this.overflow = overflow; }
+
+    public long getBlockTimeoutMs() { return blockTimeoutMs; }
+    public void setBlockTimeoutMs(long blockTimeoutMs) { this.blockTimeoutMs = blockTimeoutMs; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getIdleWaitMs() { return idleWaitMs; }
+    public void setIdleWaitMs(long idleWaitMs) { this.idleWaitMs = idleWaitMs; }
+
+    public long getShutdownTimeoutMs() { return shutdownTimeoutMs; }
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) { this.shutdownTimeoutMs = shutdownTimeoutMs; }
+
+    public File getFile() { return file; }
+    public void setFile(File file) { this.file = file; }
+
+    public static class File {
+
+        private String directory = "audit";
+
+        // Size of one mapped segment file
+        private long segmentBytes = 64L * 1024 * 1024;
+
+        // Oldest segments beyond this are deleted (0 = keep all)
+        private int maxSegments = 16;
+
+        public String getDirectory() { return directory; }
+        public void setDirectory(String directory) { this.directory = directory; }
+
+        public long getSegmentBytes() { return segmentBytes; }
+        public void setSegmentBytes(long segmentBytes) { this.segmentBytes = segmentBytes; }
+
+        public int getMaxSegments() { return maxSegments; }
+        public void setMaxSegments(int maxSegments) { this.maxSegments = maxSegments; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Breached Password Properties
+ * ----------------------------
+ * Local corpus of breached-password hashes that register and
+ * reset-password check new passwords against (no network call).
+ *
+ * The file is built offline by {@code BreachedPasswordCorpusBuilder} and
+ * picked up again whenever it is replaced.
+ */
+@ConfigurationProperties(prefix = "secureauth.breached-passwords")
+public class BreachedPasswordProperties {
+
+    // Corpus file; blank turns the check off. A missing file is waited for
+    private String file = "";
+
+    // How often the file is checked for a replacement
+    private long reloadIntervalMs = 60_000;
+
+    public String getFile() { return file; }
+    public void setFile(String file) { this.file = file; }
+
+    public long getReloadIntervalMs() { return reloadIntervalMs; }
+    public void setReloadIntervalMs(long reloadIntervalMs) { this.reloadIntervalMs = reloadIntervalMs; }
+}
@@ -0,0 +1,94 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Concurrency Limit Properties
+ * ----------------------------
+ * Global limit on requests in flight, enforced by
+ * {@code ConcurrencyLimitFilter}; the limit itself moves with the observed
+ * latency between `min-limit` and `max-limit`.
+ *
+ * Sheddable paths may only use `sheddable-share` of the limit, so they are
+ * turned away first and the rest is kept for login and protected routes.
+ */
+@ConfigurationProperties(prefix = "secureauth.concurrency-limit")
+public class ConcurrencyLimitProperties {
+
+    private boolean enabled = true;
+
+    private int initialLimit = 20;
+    private int minLimit = 4;
+
+    // No point above Tomcat's worker threads (server.tomcat.threads.max)
+    private int maxLimit = 200;
+
+    // Latency is averaged over windows of this length before the limit moves
+    private long windowMs = 100;
+
+    // Fewer samples than this in a window: it is carried over to the next one
+    private int minWindowSamples = 10;
+
+    // Windows averaged into the long-term latency the current one is compared with
+    private int longWindows = 600;
+
+    // Current latency may be this many times the long-term one before the limit drops
+    private double rttTolerance = 1.5;
+
+    // Weight of the new limit against the old one at each window
+    private double smoothing = 0.2;
+
+    // Factor applied to the limit after a window with a 5xx (e.g. hashing pool full)
+    private double backoffRatio = 0.9;
+
+    // Share of the limit sheddable paths may use
+    private double sheddableShare = 0.5;
+
+    // Public endpoints that send an OTP email: shed first
+    private List<String> sheddablePaths = new ArrayList<>();
+
+    // Long-running requests (bulk import, export) that would skew the latency
+    private List<String> excludedPaths = new ArrayList<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getInitialLimit() { return initialLimit; }
+    public void setInitialLimit(int initialLimit) { this.initialLimit = initialLimit; }
+
+    public int getMinLimit() { return minLimit; }
+    public void setMinLimit(int minLimit) { this.minLimit = minLimit; }
+
+    public int getMaxLimit() { return maxLimit; }
+    public void setMaxLimit(int maxLimit) { this.maxLimit = maxLimit; }
+
+    public long getWindowMs() { return windowMs; }
+    public void setWindowMs(long windowMs) { this.windowMs = windowMs; }
+
+    public int getMinWindowSamples() { return minWindowSamples; }
+    public void setMinWindowSamples(int minWindowSamples) { this.minWindowSamples = minWindowSamples; }
+
+    public int getLongWindows() { return longWindows; }
+    public void setLongWindows(int longWindows) { this.longWindows = longWindows; }
+
+    public double getRttTolerance() { return rttTolerance; }
+    public void setRttTolerance(double rttTolerance) { this.rttTolerance = rttTolerance; }
+
+    public double getSmoothing() { return smoothing; }
+    public void setSmoothing(double smoothing) { this.smoothing = smoothing; }
+
+    public double getBackoffRatio() { return backoffRatio; }
+    public void setBackoffRatio(double backoffRatio) { this.backoffRatio = backoffRatio; }
+
+    public double getSheddableShare() { return sheddableShare; }
+    public void setSheddableShare(double sheddableShare) { this.sheddableShare = sheddableShare; }
+
+    public List<String> getSheddablePaths() { return sheddablePaths; }
+    public void setSheddablePaths(List<String> sheddablePaths) { this.sheddablePaths = sheddablePaths; }
+
+    public List<String> getExcludedPaths() { return excludedPaths; }
+    public void setExcludedPaths(List<String> excludedPaths) { this.excludedPaths = excludedPaths; }
+}
@@ -0,0 +1,58 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Email Dispatch Properties
+ * -------------------------
+ * Settings for how {@code EmailService} delivers mail.
+ *
+ * mode = sync   → send on the calling (request) thread
+ * mode = queued → enqueue and let background workers deliver in batches
+ */
+@ConfigurationProperties(prefix = "secureauth.mail.dispatch")
+public class EmailDispatchProperties {
+
+    public enum Mode { SYNC, QUEUED }
+
+    private Mode mode = Mode.SYNC;
+
+    // Max emails waiting for delivery before callers send inline
+    private int queueCapacity = 1000;
+
+    // Background delivery threads
+    private int workers = 2;
+
+    // Max emails sent over one SMTP connection
+    private int batchSize = 20;
+
+    // Delivery attempts per email (first try included)
+    private int maxAttempts = 3;
+
+    // Backoff before the first retry, doubled on every further retry
+    private long initialBackoffMs = 500;
+
+    // How long shutdown waits for the queue to drain
+    private long shutdownTimeoutMs = 10_000;
+
+    public Mode getMode() { return mode; }
+    public void setMode(Mode mode) { this.mode = mode; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public int getWorkers() { return workers; }
+    public void setWorkers(int workers) { this.workers = workers; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public int getMaxAttempts() { return maxAttempts; }
+    public void setMaxAttempts(int maxAttempts) { this.maxAttempts = maxAttempts; }
+
+    public long getInitialBackoffMs() { return initialBackoffMs; }
+    public void setInitialBackoffMs(long initialBackoffMs) { this.initialBackoffMs = initialBackoffMs; }
+
+    public long getShutdownTimeoutMs() { return shutdownTimeoutMs; }
+    public void setShutdownTimeoutMs(long shutdownTimeoutMs) { this.shutdownTimeoutMs = shutdownTimeoutMs; }
+}
@@ -0,0 +1,76 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * JWT Properties
+ * --------------
+ * Where JwtUtil's signing keys come from (SigningKeyService) and how they
+ * are rotated, so tokens survive restarts and every instance accepts the
+ * tokens of the others.
+ *
+ * - database: keys live in jwt_signing_keys. The first instance creates
+ *   one; a new key is generated every rotation-hours and published
+ *   activation-delay-ms before it starts signing
+ * - files: keys are read from keys.dir, the operator rotates them
+ */
+@ConfigurationProperties(prefix = "secureauth.jwt")
+public class JwtProperties {
+
+    // HS256 (shared secret) or ES256 (verifiable with the public JWKS)
+    private String algorithm = "HS256";
+
+    private Keys keys = new Keys();
+
+    // Cache-Control max-age of /.well-known/jwks.json
+    private long jwksMaxAgeSeconds = 300;
+
+    public String getAlgorithm() { return algorithm; }
+    public void setAlgorithm(String algorithm) { this.algorithm = algorithm; }
+
+    public Keys getKeys() { return keys; }
+    public void setKeys(Keys keys) { this.keys = keys; }
+
+    public long getJwksMaxAgeSeconds() { return jwksMaxAgeSeconds; }
+    public void setJwksMaxAgeSeconds(long jwksMaxAgeSeconds) { this.jwksMaxAgeSeconds = jwksMaxAgeSeconds; }
+
+    public static class Keys {
+
+        // database or files
+        private String source = "database";
+
+        // files: <kid>.pem (ES256, PKCS#8 private key + public key, or public key only) / <kid>.secret (HS256)
+        private String dir;
+
+        // files: kid of the key that signs
+        private String activeKid;
+
+        // database: age after which a new key is generated; 0 = never
+        private long rotationHours = 30 * 24;
+
+        // database: a new key is loaded by every instance and published in the JWKS
+        // this long before it signs; keep it above reload-interval-ms and jwks-max-age-seconds
+        private long activationDelayMs = 15 * 60_000;
+
+        // How often keys are reloaded (and, for database, rotated when due)
+        private long reloadIntervalMs = 60_000;
+
+        public String getSource() { return source; }
+        public void setSource(String source) { this.source = source; }
+
+        public String getDir() { return dir; }
+        public void setDir(String dir) { this.dir = dir; }
+
+        public String getActiveKid() { return activeKid; }
+        public void setActiveKid(String activeKid) { this.activeKid = activeKid; }
+
+        public long getRotationHours() { return rotationHours; }
+        public void setRotationHours(long rotationHours) { this.rotationHours = rotationHours; }
+
+        public long getActivationDelayMs() { return activationDelayMs; }
+        public void setActivationDelayMs(long activationDelayMs) { this.activationDelayMs = activationDelayMs; }
+
+        public long getReloadIntervalMs() { return reloadIntervalMs; }
+        public void setReloadIntervalMs(long reloadIntervalMs) { this.reloadIntervalMs = reloadIntervalMs; }
+    }
+}
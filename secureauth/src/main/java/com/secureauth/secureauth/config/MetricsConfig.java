@@ -0,0 +1,82 @@
+package com.secureauth.secureauth.config;
+
+import com.secureauth.secureauth.controller.ControllerMetricsInterceptor;
+import com.secureauth.secureauth.security.ConcurrencyLimiter;
+import com.secureauth.secureauth.security.RateLimiter;
+import com.secureauth.secureauth.security.TokenDenylist;
+import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.VerifiedTokenCache;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Metrics Config
+ * --------------
+ * Application metrics next to Spring Boot's own (JVM, Tomcat, Hikari pool),
+ * scraped from /actuator/prometheus.
+ *
+ * Tags never carry user input such as emails: only fixed sets
+ * (method names, outcomes) so the number of series stays bounded.
+ */
+@Configuration
+public class MetricsConfig {
+
+    @Bean
+    public WebMvcConfigurer controllerMetrics(MeterRegistry meterRegistry) {
+        ControllerMetricsInterceptor interceptor = new ControllerMetricsInterceptor(meterRegistry);
+        return new WebMvcConfigurer() {
+            @Override
+            public void addInterceptors(InterceptorRegistry registry) {
+                registry.addInterceptor(interceptor).addPathPatterns("/api/**");
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder securityMetrics(RateLimiter rateLimiter, TokenDenylist tokenDenylist,
+                                       ConcurrencyLimiter concurrencyLimiter) {
+        return registry -> {
+            VerifiedTokenCache tokenCache = JwtUtil.getTokenCache();
+
+            FunctionCounter.builder("secureauth.jwt.cache", tokenCache, VerifiedTokenCache::getHits)
+                    .tag("result", "hit").register(registry);
+            FunctionCounter.builder("secureauth.jwt.cache", tokenCache, VerifiedTokenCache::getMisses)
+                    .tag("result", "miss").register(registry);
+            FunctionCounter.builder("secureauth.jwt.cache.evictions", tokenCache, VerifiedTokenCache::getEvictions)
+                    .register(registry);
+            Gauge.builder("secureauth.jwt.cache.size", tokenCache, VerifiedTokenCache::size)
+                    .register(registry);
+
+            FunctionCounter.builder("secureauth.jwt.revocation.rejected", tokenDenylist, TokenDenylist::getRejected)
+                    .register(registry);
+            FunctionCounter.builder("secureauth.jwt.revocation.exact.lookups", tokenDenylist,
+                            TokenDenylist::getExactLookups)
+                    .description("Bloom filter hits checked against the exact denylist")
+                    .register(registry);
+            Gauge.builder("secureauth.jwt.revocation.entries", tokenDenylist, TokenDenylist::size)
+                    .register(registry);
+
+            FunctionCounter.builder("secureauth.ratelimit.rejected", rateLimiter, RateLimiter::getRejected)
+                    .register(registry);
+            Gauge.builder("secureauth.ratelimit.buckets", rateLimiter, RateLimiter::size)
+                    .register(registry);
+
+            Gauge.builder("secureauth.concurrency.limit", concurrencyLimiter, ConcurrencyLimiter::getLimit)
+                    .register(registry);
+            Gauge.builder("secureauth.concurrency.inflight", concurrencyLimiter, ConcurrencyLimiter::getInFlight)
+                    .register(registry);
+            FunctionCounter.builder("secureauth.concurrency.rejected", concurrencyLimiter,
+                            limiter -> limiter.getRejected(ConcurrencyLimiter.Priority.CRITICAL))
+                    .tag("priority", "critical").register(registry);
+            FunctionCounter.builder("secureauth.concurrency.rejected", concurrencyLimiter,
+                            limiter -> limiter.getRejected(ConcurrencyLimiter.Priority.SHEDDABLE))
+                    .tag("priority", "sheddable").register(registry);
+        };
+    }
+}
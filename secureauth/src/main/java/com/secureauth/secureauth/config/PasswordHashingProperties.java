@@ -0,0 +1,51 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Password Hashing Properties
+ * ---------------------------
+ * bcrypt cost and the executor that runs hashing off the request threads.
+ */
+@ConfigurationProperties(prefix = "secureauth.password")
+public class PasswordHashingProperties {
+
+    // Fixed bcrypt cost; 0 = calibrate at startup against targetMs
+    private int cost = 0;
+
+    // Calibration aims for one hash taking about this long
+    private long targetMs = 250;
+
+    private int minCost = 10;
+    private int maxCost = 16;
+
+    // Hashing threads; 0 = number of CPU cores
+    private int poolSize = 0;
+
+    // Hash requests allowed to wait; beyond this callers are turned away
+    private int queueCapacity = 64;
+
+    // Max time a request waits for its hash (queueing included)
+    private long timeoutMs = 5_000;
+
+    public int getCost() { return cost; }
+    public void setCost(int cost) { this.cost = cost; }
+
+    public long getTargetMs() { return targetMs; }
+    public void setTargetMs(long targetMs) { this.targetMs = targetMs; }
+
+    public int getMinCost() { return minCost; }
+    public void setMinCost(int minCost) { this.minCost = minCost; }
+
+    public int getMaxCost() { return maxCost; }
+    public void setMaxCost(int maxCost) { this.maxCost = maxCost; }
+
+    public int getPoolSize() { return poolSize; }
+    public void setPoolSize(int poolSize) { this.poolSize = poolSize; }
+
+    public int getQueueCapacity() { return queueCapacity; }
+    public void setQueueCapacity(int queueCapacity) { this.queueCapacity = queueCapacity; }
+
+    public long getTimeoutMs() { return timeoutMs; }
+    public void setTimeoutMs(long timeoutMs) { this.timeoutMs = timeoutMs; }
+}
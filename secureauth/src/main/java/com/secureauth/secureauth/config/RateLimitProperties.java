@@ -0,0 +1,65 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Rate Limit Properties
+ * ---------------------
+ * Per-endpoint request limits for the public auth endpoints, enforced by
+ * {@code RateLimitFilter} before the controller runs.
+ *
+ * Each endpoint has a bucket per client IP and one per email:
+ * `requests` is the burst size, refilled evenly over `period-seconds`.
+ * A limit with requests = 0 is not enforced.
+ */
+@ConfigurationProperties(prefix = "secureauth.rate-limit")
+public class RateLimitProperties {
+
+    private boolean enabled = true;
+
+    // Max buckets held in memory across all endpoints; idle ones are evicted first
+    private int maxKeys = 100_000;
+
+    // Keyed by a free-form endpoint name, e.g. secureauth.rate-limit.endpoints.login.path
+    private Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxKeys() { return maxKeys; }
+    public void setMaxKeys(int maxKeys) { this.maxKeys = maxKeys; }
+
+    public Map<String, Endpoint> getEndpoints() { return endpoints; }
+    public void setEndpoints(Map<String, Endpoint> endpoints) { this.endpoints = endpoints; }
+
+    public static class Endpoint {
+
+        private String path;
+        private Limit perIp = new Limit();
+        private Limit perEmail = new Limit();
+
+        public String getPath() { return path; }
+        public void setPath(String path) { this.path = path; }
+
+        public Limit getPerIp() { return perIp; }
+        public void setPerIp(Limit perIp) { this.perIp = perIp; }
+
+        public Limit getPerEmail() { return perEmail; }
+        public void setPerEmail(Limit perEmail) { this.perEmail = perEmail; }
+    }
+
+    public static class Limit {
+
+        private int requests;
+        private long periodSeconds = 60;
+
+        public int getRequests() { return requests; }
+        public void setRequests(int requests) { this.requests = requests; }
+
+        public long getPeriodSeconds() { return periodSeconds; }
+        public void setPeriodSeconds(long periodSeconds) { this.periodSeconds = periodSeconds; }
+    }
+}
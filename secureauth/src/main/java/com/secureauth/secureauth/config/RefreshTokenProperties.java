@@ -0,0 +1,19 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Refresh Token Properties
+ * ------------------------
+ * Lifetime of the opaque refresh tokens handed out at login. Each
+ * refresh replaces the token with a new one valid for the full lifetime,
+ * so a session ends after this long without use.
+ */
+@ConfigurationProperties(prefix = "secureauth.refresh-token")
+public class RefreshTokenProperties {
+
+    private long ttlHours = 30 * 24;
+
+    public long getTtlHours() { return ttlHours; }
+    public void setTtlHours(long ttlHours) { this.ttlHours = ttlHours; }
+}
@@ -0,0 +1,52 @@
+package com.secureauth.secureauth.config;
+
+import com.secureauth.secureauth.dao.ReadRouting;
+
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Replica Config
+ * --------------
+ * Builds the replica pool when secureauth.replica.enabled=true.
+ *
+ * The pool is deliberately not a DataSource bean: that would switch off
+ * Spring Boot's auto-configured primary DataSource and JdbcTemplate.
+ * It starts on first use, so a replica that is down at startup only
+ * sends lookups to the primary.
+ */
+@Configuration
+@ConditionalOnProperty(name = "secureauth.replica.enabled", havingValue = "true")
+public class ReplicaConfig {
+
+    @Bean(destroyMethod = "close")
+    public ReadRouting readRouting(ReplicaProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getUrl() == null) {
+            throw new IllegalArgumentException("secureauth.replica.url is required when the replica is enabled");
+        }
+
+        HikariConfig config = properties.getHikari();
+        config.setJdbcUrl(properties.getUrl());
+        config.setUsername(properties.getUsername());
+        config.setPassword(properties.getPassword());
+        config.setReadOnly(true);
+        if (config.getPoolName() == null) {
+            config.setPoolName("replica");
+        }
+        config.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource replicaPool = new HikariDataSource();
+        config.copyStateTo(replicaPool);
+
+        return new ReadRouting(new JdbcTemplate(replicaPool),
+                properties.getReadYourWritesMs(), properties.getRetryMs(), meterRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package com.secureauth.secureauth.config;
+
+import com.zaxxer.hikari.HikariConfig;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Replica Properties
+ * ------------------
+ * Optional read replica for user lookups. The primary stays
+ * spring.datasource.* (pool: spring.datasource.hikari.*); the replica has
+ * its own pool, configured under secureauth.replica.hikari.*.
+ */
+@ConfigurationProperties(prefix = "secureauth.replica")
+public class ReplicaProperties {
+
+    private boolean enabled = false;
+
+    private String url;
+    private String username;
+    private String password;
+
+    // After this node writes a user, its lookups go to the primary for this long
+    private long readYourWritesMs = 5_000;
+
+    // After a replica connection failure, lookups go to the primary for this long
+    private long retryMs = 10_000;
+
+    private HikariConfig hikari = new HikariConfig();
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public String getUrl() { return url; }
+    public void setUrl(String url) { this.url = url; }
+
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+
+    public String getPassword() { return password; }
+    public void setPassword(String password) { this.password = password; }
+
+    public long getReadYourWritesMs() { return readYourWritesMs; }
+    public void setReadYourWritesMs(long readYourWritesMs) { this.readYourWritesMs = readYourWritesMs; }
+
+    public long getRetryMs() { return retryMs; }
+    public void setRetryMs(long retryMs) { this.retryMs = retryMs; }
+
+    public HikariConfig getHikari() { return hikari; }
+    public void setHikari(HikariConfig hikari) { this.hikari = hikari; }
+}
@@ -0,0 +1,50 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Revocation Properties
+ * ---------------------
+ * Sizing and pruning of the token denylist (TokenDenylist), which JwtFilter
+ * checks on every request.
+ */
+@ConfigurationProperties(prefix = "secureauth.revocation")
+public class RevocationProperties {
+
+    // Bloom filter is sized for this many live entries; it is rebuilt larger if exceeded
+    private int expectedEntries = 100_000;
+
+    // Share of unrevoked tokens that still need the exact lookup
+    private double falsePositiveRate = 0.01;
+
+    // How often entries whose tokens have expired are dropped (memory and database)
+    private long pruneIntervalMs = 10 * 60_000;
+
+    // Rows per DELETE when pruning the table
+    private int pruneBatchSize = 1_000;
+
+    // How often revocations written by other instances are loaded from the table
+    private long syncIntervalMs = 5_000;
+
+    // Each sync also re-reads entries changed this long before the previous one,
+    // to catch writes that were still uncommitted then
+    private long syncLookbackMs = 10_000;
+
+    public int getExpectedEntries() { return expectedEntries; }
+    public void setExpectedEntries(int expectedEntries) { this.expectedEntries = expectedEntries; }
+
+    public double getFalsePositiveRate() { return falsePositiveRate; }
+    public void setFalsePositiveRate(double falsePositiveRate) { this.falsePositiveRate = falsePositiveRate; }
+
+    public long getPruneIntervalMs() { return pruneIntervalMs; }
+    public void setPruneIntervalMs(long pruneIntervalMs) { this.pruneIntervalMs = pruneIntervalMs; }
+
+    public int getPruneBatchSize() { return pruneBatchSize; }
+    public void setPruneBatchSize(int pruneBatchSize) { this.pruneBatchSize = pruneBatchSize; }
+
+    public long getSyncIntervalMs() { return syncIntervalMs; }
+    public void setSyncIntervalMs(long syncIntervalMs) { this.syncIntervalMs = syncIntervalMs; }
+
+    public long getSyncLookbackMs() { return syncLookbackMs; }
+    public void setSyncLookbackMs(long syncLookbackMs) { this.syncLookbackMs = syncLookbackMs; }
+}
@@ -0,0 +1,41 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Route Properties
+ * ----------------
+ * What JwtFilter requires of each /api path, compiled at startup into a
+ * RouteTable. Patterns: exact segments, `*` for one segment, `**` as the
+ * last segment for any number of them.
+ *
+ * - public-paths: no token needed
+ * - scopes: the token must carry all listed scopes (403 otherwise)
+ * - anything else: a valid, unrevoked token
+ */
+@ConfigurationProperties(prefix = "secureauth.routes")
+public class RouteProperties {
+
+    private List<String> publicPaths = new ArrayList<>(List.of(
+            "/api/auth/login",
+            "/api/auth/register",
+            "/api/auth/verify-otp",
+            "/api/auth/resend-otp",
+            "/api/auth/forgot-password",
+            "/api/auth/reset-password",
+            "/api/auth/refresh"));
+
+    // e.g. secureauth.routes.scopes[/api/admin/**]=admin
+    private Map<String, List<String>> scopes = new LinkedHashMap<>(Map.of("/api/admin/**", List.of("admin")));
+
+    public List<String> getPublicPaths() { return publicPaths; }
+    public void setPublicPaths(List<String> publicPaths) { this.publicPaths = publicPaths; }
+
+    public Map<String, List<String>> getScopes() { return scopes; }
+    public void setScopes(Map<String, List<String>> scopes) { this.scopes = scopes; }
+}
@@ -0,0 +1,20 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Scheduling Config
+ * -----------------
+ * Turns on @Scheduled jobs: UserSweeper, SigningKeyService reload,
+ * TokenRevocationService sync and prune, BreachedPasswordChecker reload.
+ *
+ * They run on Spring Boot's task scheduler, sized by
+ * spring.task.scheduling.pool.size to one thread per job, so a long sweep
+ * never holds back the key reload. Each job still never overlaps itself
+ * (fixed delay).
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
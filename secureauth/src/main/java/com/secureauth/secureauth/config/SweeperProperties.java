@@ -0,0 +1,49 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Sweeper Properties
+ * ------------------
+ * Background cleanup of the users table (UserSweeper): expired OTPs are
+ * cleared and registrations that were never verified are deleted.
+ */
+@ConfigurationProperties(prefix = "secureauth.sweeper")
+public class SweeperProperties {
+
+    private boolean enabled = true;
+
+    // Delay between the end of one sweep and the start of the next
+    private long intervalMs = 60_000;
+
+    // Rows per statement; each batch is one short transaction
+    private int batchSize = 1_000;
+
+    // Minimum pause between batches (the pause is never shorter than the batch took)
+    private long pauseMs = 50;
+
+    // Unverified accounts older than this are deleted; 0 = keep them
+    private long abandonedAfterHours = 7 * 24;
+
+    // A sweep stops early once this share of the connection pool is in use,
+    // or as soon as any request is waiting for a connection
+    private double maxPoolUsage = 0.5;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public long getIntervalMs() { return intervalMs; }
+    public void setIntervalMs(long intervalMs) { this.intervalMs = intervalMs; }
+
+    public int getBatchSize() { return batchSize; }
+    public void setBatchSize(int batchSize) { this.batchSize = batchSize; }
+
+    public long getPauseMs() { return pauseMs; }
+    public void setPauseMs(long pauseMs) { this.pauseMs = pauseMs; }
+
+    public long getAbandonedAfterHours() { return abandonedAfterHours; }
+    public void setAbandonedAfterHours(long abandonedAfterHours) { this.abandonedAfterHours = abandonedAfterHours; }
+
+    public double getMaxPoolUsage() { return maxPoolUsage; }
+    public void setMaxPoolUsage(double maxPoolUsage) { this.maxPoolUsage = maxPoolUsage; }
+}
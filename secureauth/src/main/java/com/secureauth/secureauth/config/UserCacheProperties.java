@@ -0,0 +1,28 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * User Cache Properties
+ * ---------------------
+ * Optional in-process cache in front of {@code UserDAO.findByEmail}.
+ */
+@ConfigurationProperties(prefix = "secureauth.user-cache")
+public class UserCacheProperties {
+
+    private boolean enabled = false;
+
+    private int maxEntries = 10_000;
+
+    // How long a loaded user may be served from the cache
+    private long ttlMs = 30_000;
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getMaxEntries() { return maxEntries; }
+    public void setMaxEntries(int maxEntries) { this.maxEntries = maxEntries; }
+
+    public long getTtlMs() { return ttlMs; }
+    public void setTtlMs(long ttlMs) { this.ttlMs = ttlMs; }
+}
@@ -0,0 +1,37 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * User Import Properties
+ * ----------------------
+ * Tuning for the bulk user import (POST /api/admin/users/import).
+ */
+@ConfigurationProperties(prefix = "secureauth.user-import")
+public class UserImportProperties {
+
+    // Rows hashed and inserted together, in one JDBC batch and one transaction
+    private int chunkSize = 1_000;
+
+    // bcrypt threads for rows with a plain password; 0 = half the CPU cores,
+    // so logins keep the rest of the machine during an import
+    private int hashThreads = 0;
+
+    // Row errors listed in the report; the counts always cover every row
+    private int maxReportedErrors = 1_000;
+
+    // Longer lines are rejected without being buffered
+    private int maxLineLength = 4_096;
+
+    public int getChunkSize() { return chunkSize; }
+    public void setChunkSize(int chunkSize) { this.chunkSize = chunkSize; }
+
+    public int getHashThreads() { return hashThreads; }
+    public void setHashThreads(int hashThreads) { this.hashThreads = hashThreads; }
+
+    public int getMaxReportedErrors() { return maxReportedErrors; }
+    public void setMaxReportedErrors(int maxReportedErrors) { this.maxReportedErrors = maxReportedErrors; }
+
+    public int getMaxLineLength() { return maxLineLength; }
+    public void setMaxLineLength(int maxLineLength) { this.maxLineLength = maxLineLength; }
+}
@@ -0,0 +1,49 @@
+package com.secureauth.secureauth.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Warmup Properties
+ * -----------------
+ * Settings for the hot-path warm-up run before the instance reports ready
+ * ({@code StartupWarmup}).
+ */
+@ConfigurationProperties(prefix = "secureauth.warmup")
+public class WarmupProperties {
+
+    private boolean enabled = true;
+
+    // JWT sign + verify rounds
+    private int jwtIterations = 5000;
+
+    // bcrypt hash + match rounds, at cost 4: same code as the real cost, 1/64 of the work per step
+    private int passwordIterations = 200;
+
+    // Passes over the UserDAO statements; more than pgjdbc's prepareThreshold (5)
+    // so the connection ends up with server-side prepared statements
+    private int databaseIterations = 10;
+
+    // Stop warming up after this long, whatever is left
+    private long maxDurationMs = 20_000;
+
+    // Address used for the DAO statements; every write to it is rolled back
+    private String email = "warmup@secureauth.invalid";
+
+    public boolean isEnabled() { return enabled; }
+    public void setEnabled(boolean enabled) { this.enabled = enabled; }
+
+    public int getJwtIterations() { return jwtIterations; }
+    public void setJwtIterations(int jwtIterations) { this.jwtIterations = jwtIterations; }
+
+    public int getPasswordIterations() { return passwordIterations; }
+    public void setPasswordIterations(int passwordIterations) { this.passwordIterations = passwordIterations; }
+
+    public int getDatabaseIterations() { return databaseIterations; }
+    public void setDatabaseIterations(int databaseIterations) { this.databaseIterations = databaseIterations; }
+
+    public long getMaxDurationMs() { return maxDurationMs; }
+    public void setMaxDurationMs(long maxDurationMs) { this.maxDurationMs = maxDurationMs; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+}
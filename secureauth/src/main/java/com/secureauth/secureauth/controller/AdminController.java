@@ -0,0 +1,250 @@
+package com.secureauth.secureauth.controller;
+
+import com.secureauth.secureauth.audit.AuditEventType;
+import com.secureauth.secureauth.audit.AuditLog;
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.dao.UserFilter;
+import com.secureauth.secureauth.dao.UserListingDAO;
+import com.secureauth.secureauth.model.ApiResponse;
+import com.secureauth.secureauth.model.ImportReport;
+import com.secureauth.secureauth.model.UserPage;
+import com.secureauth.secureauth.model.UserSummary;
+import com.secureauth.secureauth.service.ImportInProgressException;
+import com.secureauth.secureauth.service.UserExportService;
+import com.secureauth.secureauth.service.UserImportService;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * AdminController
+ * ---------------
+ * Operator APIs, for accounts listed in secureauth.admin.emails:
+ * - Bulk user import (CSV / NDJSON)
+ * - User listing, keyset-paginated on id
+ * - Streaming user export (NDJSON / CSV)
+ *
+ * Listing and export filter on verified and on created_at
+ * (createdFrom inclusive, createdTo exclusive, ISO-8601 local date-time).
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class AdminController {
+
+    private static final Logger log = LoggerFactory.getLogger(AdminController.class);
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final AdminProperties adminProperties;
+    private final UserImportService userImportService;
+    private final UserListingDAO userListingDAO;
+    private final UserExportService userExportService;
+    private final AuditLog auditLog;
+
+    // Constructor injection
+    public AdminController(AdminProperties adminProperties,
+                           UserImportService userImportService,
+                           UserListingDAO userListingDAO,
+                           UserExportService userExportService,
+                           AuditLog auditLog) {
+        this.adminProperties = adminProperties;
+        this.userImportService = userImportService;
+        this.userListingDAO = userListingDAO;
+        this.userExportService = userExportService;
+        this.auditLog = auditLog;
+    }
+
+    /* =========================================================
+       BULK USER IMPORT
+       ========================================================= */
+
+    /**
+     * Streams the body into the users table; see UserImportService for the format.
+     * Existing emails are skipped and no emails are sent.
+     */
+    @PostMapping(value = "/users/import", consumes = { "text/csv", "application/x-ndjson" })
+    public ResponseEntity<?> importUsers(HttpServletRequest request) {
+
+        ResponseEntity<ApiResponse> denied = checkAdmin(request);
+        if (denied != null) {
+            return denied;
+        }
+
+        UserImportService.Format format;
+        Charset charset;
+        try {
+            format = TEXT_CSV.isCompatibleWith(MediaType.parseMediaType(request.getContentType()))
+                    ? UserImportService.Format.CSV
+                    : UserImportService.Format.NDJSON;
+
+            charset = request.getCharacterEncoding() != null
+                    ? Charset.forName(request.getCharacterEncoding())
+                    : StandardCharsets.UTF_8;
+        } catch (IllegalArgumentException e) {
+            // Illegal or unsupported charset name (both lookups check it)
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ApiResponse("error", "Unsupported Content-Type: " + request.getContentType()));
+        }
+
+        try (Reader body = new BufferedReader(new InputStreamReader(request.getInputStream(), charset), 64 * 1024)) {
+
+            ImportReport report = userImportService.importUsers(body, format);
+
+            return ResponseEntity
+                    .status("error".equals(report.getStatus()) ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK)
+                    .body(report);
+
+        } catch (ImportInProgressException e) {
+            return ResponseEntity
+                    .status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse("error", e.getMessage()));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ApiResponse("error", e.getMessage()));
+        } catch (IOException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ApiResponse("error", "Could not read request body"));
+        }
+    }
+
+    /* =========================================================
+       USER LISTING
+       ========================================================= */
+
+    /**
+     * Users with an id above `after`, in id order. Pass the page's
+     * nextAfter as `after` to get the next page; it is null on the last one.
+     */
+    @GetMapping("/users")
+    public ResponseEntity<?> listUsers(
+            @RequestParam(required = false) Boolean verified,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(required = false) Integer limit,
+            HttpServletRequest request) {
+
+        ResponseEntity<ApiResponse> denied = checkAdmin(request);
+        if (denied != null) {
+            return denied;
+        }
+
+        int pageSize = limit != null ? limit : adminProperties.getPageSize();
+        if (pageSize < 1 || pageSize > adminProperties.getMaxPageSize()) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ApiResponse("error", "limit must be between 1 and " + adminProperties.getMaxPageSize()));
+        }
+
+        // One row more than asked: tells whether there is a next page
+        List<UserSummary> users = userListingDAO.page(
+                new UserFilter(verified, createdFrom, createdTo), after, pageSize + 1);
+
+        Long nextAfter = null;
+        if (users.size() > pageSize) {
+            users = users.subList(0, pageSize);
+            nextAfter = users.get(pageSize - 1).getId();
+        }
+        return ResponseEntity.ok(new UserPage(users, nextAfter));
+    }
+
+    /* =========================================================
+       USER EXPORT
+       ========================================================= */
+
+    /**
+     * Streams every matching user with an id above `after` into the
+     * response, as NDJSON (default) or CSV; see UserExportService.
+     *
+     * The body is written while the rows are read, so the status is sent
+     * before the export is complete. A body cut short means the export
+     * failed; resume with `after` set to the last id received.
+     */
+    @GetMapping("/users/export")
+    public ResponseEntity<?> exportUsers(
+            @RequestParam(required = false) Boolean verified,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdFrom,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime createdTo,
+            @RequestParam(defaultValue = "0") long after,
+            @RequestParam(defaultValue = "ndjson") String format,
+            HttpServletRequest request,
+            HttpServletResponse response) throws IOException {
+
+        ResponseEntity<ApiResponse> denied = checkAdmin(request);
+        if (denied != null) {
+            return denied;
+        }
+
+        UserExportService.Format exportFormat;
+        try {
+            exportFormat = UserExportService.Format.valueOf(format.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity
+                    .badRequest()
+                    .body(new ApiResponse("error", "format must be ndjson or csv"));
+        }
+
+        String email = (String) request.getAttribute("authenticatedEmail");
+        String extension = exportFormat.name().toLowerCase(Locale.ROOT);
+        auditLog.record(AuditEventType.USERS_EXPORTED, email, request.getRemoteAddr(), extension);
+
+        response.setContentType(exportFormat == UserExportService.Format.CSV
+                ? "text/csv;charset=UTF-8"
+                : "application/x-ndjson;charset=UTF-8");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"users." + extension + "\"");
+
+        long exported = userExportService.export(
+                new UserFilter(verified, createdFrom, createdTo), after, exportFormat, response.getOutputStream());
+        log.info("{} exported {} user(s) as {}", email, exported, extension);
+
+        // Body already written: nothing left for Spring MVC to render
+        return null;
+    }
+
+    /* =========================================================
+       ACCESS CHECK
+       ========================================================= */
+
+    /**
+     * Null if the caller is an admin, otherwise the 401 / 403 to return.
+     */
+    private ResponseEntity<ApiResponse> checkAdmin(HttpServletRequest request) {
+
+        // Email is set by JwtFilter after token validation
+        String email = (String) request.getAttribute("authenticatedEmail");
+
+        if (email == null) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse("error", "Unauthorized"));
+        }
+        if (!adminProperties.isAdmin(email)) {
+            return ResponseEntity
+                    .status(HttpStatus.FORBIDDEN)
+                    .body(new ApiResponse("error", "Forbidden"));
+        }
+        return null;
+    }
+}
@@ -1,12 +1,23 @@
 package com.secureauth.secureauth.controller;
 
+import com.secureauth.secureauth.audit.AuditEventType;
+import com.secureauth.secureauth.audit.AuditLog;
+import com.secureauth.secureauth.breach.BreachedPasswordChecker;
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.dao.RegistrationResult;
 import com.secureauth.secureauth.dao.UserDAO;
 import com.secureauth.secureauth.model.ApiResponse;
 import com.secureauth.secureauth.model.User;
+import com.secureauth.secureauth.otp.OtpStore;
 import com.secureauth.secureauth.service.EmailService;
+import com.secureauth.secureauth.service.HashingBusyException;
+import com.secureauth.secureauth.service.PasswordHashingService;
+import com.secureauth.secureauth.service.RefreshTokenService;
+import com.secureauth.secureauth.service.TokenRevocationService;
 import com.secureauth.secureauth.util.JwtUtil;
 import com.secureauth.secureauth.util.OTPUtil;
 import com.secureauth.secureauth.util.PasswordUtil;
+import com.secureauth.secureauth.util.VerifiedToken;
 
 import jakarta.servlet.http.HttpServletRequest;
 
@@ -14,28 +25,55 @@ import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
+
 /**
  * AuthController
  * ---------------
  * Handles all authentication-related APIs:
  * - Registration
  * - Email verification (OTP)
- * - Login
+ * - Login / token refresh
+ * - Logout
  * - Forgot / Reset password
  * - Delete account
+ *
+ * Security-relevant outcomes are recorded in the AuditLog, which only
+ * queues them: the endpoints never wait for the audit write.
  */
 @RestController
 @RequestMapping("/api/auth")
-@CrossOrigin
 public class AuthController {
 
     private final UserDAO userDAO;
+    private final OtpStore otpStore;
     private final EmailService emailService;
+    private final PasswordHashingService passwordHasher;
+    private final TokenRevocationService tokenRevocation;
+    private final RefreshTokenService refreshTokens;
+    private final AdminProperties adminProperties;
+    private final AuditLog auditLog;
+    private final BreachedPasswordChecker breachedPasswords;
 
     // Constructor injection
-    public AuthController(UserDAO userDAO, EmailService emailService) {
+    public AuthController(UserDAO userDAO,
+                          OtpStore otpStore,
+                          EmailService emailService,
+                          PasswordHashingService passwordHasher,
+                          TokenRevocationService tokenRevocation,
+                          RefreshTokenService refreshTokens,
+                          AdminProperties adminProperties,
+                          AuditLog auditLog,
+                          BreachedPasswordChecker breachedPasswords) {
         this.userDAO = userDAO;
+        this.otpStore = otpStore;
         this.emailService = emailService;
+        this.passwordHasher = passwordHasher;
+        this.tokenRevocation = tokenRevocation;
+        this.refreshTokens = refreshTokens;
+        this.adminProperties = adminProperties;
+        this.auditLog = auditLog;
+        this.breachedPasswords = breachedPasswords;
     }
 
     /* =========================================================
@@ -43,13 +81,23 @@ public class AuthController {
        ========================================================= */
     @PostMapping("/register")
 public ResponseEntity<ApiResponse> register(
+        HttpServletRequest request,
         @RequestParam String email,
         @RequestParam String password) {
 
-    try {
-        // Check if user already exists
-        User existingUser = userDAO.findByEmail(email);
+    // hash() would refuse it below, and that would be a 500
+    if (PasswordUtil.isTooLong(password)) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse("error",
+                        "Password must be at most " + PasswordUtil.MAX_PASSWORD_BYTES + " bytes"));
+    }
+
+    if (breachedPasswords.isBreached(password)) {
+        return breachedPassword();
+    }
 
+    try {
         // Generate OTP
         String otp = OTPUtil.generateOTP();
 
@@ -63,56 +111,44 @@ public ResponseEntity<ApiResponse> register(
                 "Best regards,\n" +
                 "SecureAuth Team";
 
+        // Insert new user, or refresh OTP of an unverified one (single statement)
+        RegistrationResult result = otpStore.issueRegistrationOtp(email, passwordHasher.hash(password), otp);
+
         /* ===============================
-           CASE 1: NEW USER
+           CASE 1: EXISTING AND VERIFIED
         =============================== */
-        if (existingUser == null) {
-
-            String hashedPassword = PasswordUtil.hash(password);
-
-            // Create new user (not verified)
-            User user = new User(email, hashedPassword, otp, false);
-            userDAO.save(user);
-
-            // Send verification email
-            emailService.sendEmail(
-                    email,
-                    "SecureAuth | Email Verification OTP",
-                    emailBody
-            );
-
+        if (result == RegistrationResult.ALREADY_VERIFIED) {
             return ResponseEntity
-                    .status(HttpStatus.CREATED)
-                    .body(new ApiResponse("success", "OTP sent to email"));
+                    .status(HttpStatus.CONFLICT)
+                    .body(new ApiResponse("error", "Account already exists"));
         }
 
+        // Send verification email
+        emailService.sendEmail(
+                email,
+                "SecureAuth | Email Verification OTP",
+                emailBody
+        );
+        audit(AuditEventType.OTP_ISSUED, email, request, "registration");
+
         /* ===============================
-           CASE 2: EXISTING BUT NOT VERIFIED
+           CASE 2: NEW USER
         =============================== */
-        if (!existingUser.isVerified()) {
-
-            // Update OTP for existing user
-            userDAO.updateOtpForVerification(email, otp);
-
-            // Send SAME verification email
-            emailService.sendEmail(
-                    email,
-                    "SecureAuth | Email Verification OTP",
-                    emailBody
-            );
-
-            return ResponseEntity.ok(
-                    new ApiResponse("success", "OTP sent to email")
-            );
+        if (result == RegistrationResult.CREATED) {
+            return ResponseEntity
+                    .status(HttpStatus.CREATED)
+                    .body(new ApiResponse("success", "OTP sent to email"));
         }
 
         /* ===============================
-           CASE 3: EXISTING AND VERIFIED
+           CASE 3: EXISTING BUT NOT VERIFIED
         =============================== */
-        return ResponseEntity
-                .status(HttpStatus.CONFLICT)
-                .body(new ApiResponse("error", "Account already exists"));
+        return ResponseEntity.ok(
+                new ApiResponse("success", "OTP sent to email")
+        );
 
+    } catch (HashingBusyException e) {
+        return hashingBusy(e);
     } catch (Exception e) {
         return ResponseEntity
                 .status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -125,17 +161,20 @@ public ResponseEntity<ApiResponse> register(
        ========================================================= */
     @PostMapping("/verify-otp")
     public ResponseEntity<ApiResponse> verifyOtp(
+            HttpServletRequest request,
             @RequestParam String email,
             @RequestParam String otp) {
 
-        boolean success = userDAO.verifyOtp(email, otp);
+        boolean success = otpStore.verify(email, otp);
 
         if (success) {
+            audit(AuditEventType.OTP_VERIFIED, email, request, "email_verification");
             return ResponseEntity.ok(
                     new ApiResponse("success", "Email verified successfully")
             );
         }
 
+        audit(AuditEventType.OTP_REJECTED, email, request, "email_verification");
         return ResponseEntity
                 .status(HttpStatus.BAD_REQUEST)
                 .body(new ApiResponse("error", "Invalid OTP"));
@@ -145,10 +184,12 @@ public ResponseEntity<ApiResponse> register(
        RESEND OTP
        ========================================================= */
     @PostMapping("/resend-otp")
-    public ResponseEntity<ApiResponse> resendOtp(@RequestParam String email) {
+    public ResponseEntity<ApiResponse> resendOtp(
+            HttpServletRequest request,
+            @RequestParam String email) {
 
         String otp = OTPUtil.generateOTP();
-        boolean updated = userDAO.resendOtp(email, otp);
+        boolean updated = otpStore.issueVerificationOtp(email, otp);
 
         if (!updated) {
             return ResponseEntity
@@ -170,6 +211,7 @@ public ResponseEntity<ApiResponse> register(
                 "SecureAuth | Resend OTP",
                 emailBody
         );
+        audit(AuditEventType.OTP_ISSUED, email, request, "resend");
 
         return ResponseEntity.ok(
                 new ApiResponse("success", "New OTP sent to email")
@@ -181,6 +223,7 @@ public ResponseEntity<ApiResponse> register(
        ========================================================= */
     @PostMapping("/login")
     public ResponseEntity<ApiResponse> login(
+            HttpServletRequest request,
             @RequestParam String email,
             @RequestParam String password) {
 
@@ -188,13 +231,17 @@ public ResponseEntity<ApiResponse> register(
         User user = userDAO.findByEmail(email);
 
         if (user == null) {
+            // Same bcrypt work as a wrong password: the timing must not tell the two apart
+            passwordHasher.matches(password, passwordHasher.getDummyHash());
+            audit(AuditEventType.LOGIN_FAILED, email, request, "unknown_email");
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse("error", "Invalid email or password"));
         }
 
         // Validate password
-        if (!PasswordUtil.hash(password).equals(user.getPassword())) {
+        if (!passwordHasher.matches(password, user.getPassword())) {
+            audit(AuditEventType.LOGIN_FAILED, email, request, "bad_password");
             return ResponseEntity
                     .status(HttpStatus.UNAUTHORIZED)
                     .body(new ApiResponse("error", "Invalid email or password"));
@@ -202,16 +249,73 @@ public ResponseEntity<ApiResponse> register(
 
         // Check email verification
         if (!user.isVerified()) {
+            audit(AuditEventType.LOGIN_FAILED, email, request, "not_verified");
             return ResponseEntity
                     .status(HttpStatus.FORBIDDEN)
                     .body(new ApiResponse("error", "Email not verified"));
         }
 
-        // Generate JWT token
-        String token = JwtUtil.generateToken(email);
+        // Upgrade legacy SHA-256 / low-cost hashes while we have the plain password
+        if (passwordHasher.needsRehash(user.getPassword())) {
+            rehash(email, password);
+        }
+
+        // Short-lived JWT, plus a refresh token that opens the session
+        String token = accessToken(email);
+        String refreshToken = refreshTokens.issue(email);
+        audit(AuditEventType.LOGIN_SUCCEEDED, email, request, null);
 
         return ResponseEntity.ok(
-                new ApiResponse("success", "Login successful", token)
+                new ApiResponse("success", "Login successful", token, refreshToken)
+        );
+    }
+
+    /* =========================================================
+       REFRESH
+       ========================================================= */
+    @PostMapping("/refresh")
+    public ResponseEntity<ApiResponse> refresh(@RequestParam String refreshToken) {
+
+        // Single-use: the old refresh token is replaced by the returned one
+        RefreshTokenService.Rotation rotation = refreshTokens.refresh(refreshToken);
+
+        if (rotation == null) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse("error", "Invalid or expired refresh token"));
+        }
+
+        return ResponseEntity.ok(
+                new ApiResponse("success", "Token refreshed",
+                        accessToken(rotation.getEmail()), rotation.getRefreshToken())
+        );
+    }
+
+    /* =========================================================
+       LOGOUT
+       ========================================================= */
+    @PostMapping("/logout")
+    public ResponseEntity<ApiResponse> logout(
+            HttpServletRequest request,
+            @RequestParam(required = false) String refreshToken) {
+
+        // Token is set by JwtFilter after validation
+        VerifiedToken token = (VerifiedToken) request.getAttribute("authenticatedToken");
+
+        if (token == null) {
+            return ResponseEntity
+                    .status(HttpStatus.UNAUTHORIZED)
+                    .body(new ApiResponse("error", "Unauthorized"));
+        }
+
+        // Only this session: other sessions of the user stay logged in
+        tokenRevocation.revoke(token);
+        if (refreshToken != null) {
+            refreshTokens.revoke(refreshToken, token.getSubject());
+        }
+
+        return ResponseEntity.ok(
+                new ApiResponse("success", "Logged out successfully")
         );
     }
 
@@ -219,10 +323,12 @@ public ResponseEntity<ApiResponse> register(
        FORGOT PASSWORD
        ========================================================= */
     @PostMapping("/forgot-password")
-    public ResponseEntity<ApiResponse> forgotPassword(@RequestParam String email) {
+    public ResponseEntity<ApiResponse> forgotPassword(
+            HttpServletRequest request,
+            @RequestParam String email) {
 
         String otp = OTPUtil.generateOTP();
-        boolean updated = userDAO.createPasswordResetOtp(email, otp);
+        boolean updated = otpStore.issueResetOtp(email, otp);
 
         if (!updated) {
             return ResponseEntity
@@ -244,6 +350,7 @@ public ResponseEntity<ApiResponse> register(
                 "SecureAuth | Password Reset OTP",
                 emailBody
         );
+        audit(AuditEventType.OTP_ISSUED, email, request, "password_reset");
 
         return ResponseEntity.ok(
                 new ApiResponse("success", "OTP sent to your email")
@@ -255,6 +362,7 @@ public ResponseEntity<ApiResponse> register(
        ========================================================= */
     @PostMapping("/reset-password")
     public ResponseEntity<ApiResponse> resetPassword(
+            HttpServletRequest request,
             @RequestParam String email,
             @RequestParam String otp,
             @RequestParam String password) {
@@ -273,19 +381,30 @@ public ResponseEntity<ApiResponse> register(
                     .body(new ApiResponse("error", "Password does not meet requirements"));
         }
 
+        // Known from a breach: refused before the OTP is spent
+        if (breachedPasswords.isBreached(password)) {
+            return breachedPassword();
+        }
+
         // Reset password using OTP
-        boolean success = userDAO.resetPassword(
+        boolean success = otpStore.resetPassword(
                 email,
                 otp,
-                PasswordUtil.hash(password)
+                passwordHasher.hash(password)
         );
 
         if (!success) {
+            audit(AuditEventType.PASSWORD_RESET_FAILED, email, request, "invalid_otp");
             return ResponseEntity
                     .status(HttpStatus.BAD_REQUEST)
                     .body(new ApiResponse("error", "Invalid or expired OTP"));
         }
 
+        // Sessions opened with the old password end here
+        refreshTokens.revokeAll(email);
+        tokenRevocation.revokeAll(email);
+        audit(AuditEventType.PASSWORD_RESET, email, request, null);
+
         return ResponseEntity.ok(
                 new ApiResponse("success", "Password updated successfully")
         );
@@ -306,9 +425,14 @@ public ResponseEntity<ApiResponse> register(
                     .body(new ApiResponse("error", "Unauthorized"));
         }
 
+        // Revoke first: if the delete then fails, the user is only logged out.
+        // Refresh tokens go with the user row (ON DELETE CASCADE).
+        tokenRevocation.revokeAll(email);
+
         boolean deleted = userDAO.deleteByEmail(email);
 
         if (deleted) {
+            audit(AuditEventType.ACCOUNT_DELETED, email, request, null);
             return ResponseEntity.ok(
                     new ApiResponse("success", "Account deleted successfully")
             );
@@ -318,4 +442,63 @@ public ResponseEntity<ApiResponse> register(
                 .status(HttpStatus.NOT_FOUND)
                 .body(new ApiResponse("error", "Account not found"));
     }
+
+    /* =========================================================
+       TOKEN HELPERS
+       ========================================================= */
+
+    /**
+     * Access token with the scopes JwtFilter checks per route: `admin` for
+     * accounts in secureauth.admin.emails, granted again on every refresh.
+     */
+    private String accessToken(String email) {
+        return adminProperties.isAdmin(email)
+                ? JwtUtil.generateToken(email, List.of("admin"))
+                : JwtUtil.generateToken(email);
+    }
+
+    /* =========================================================
+       AUDIT HELPERS
+       ========================================================= */
+
+    // Queued only: never blocks under the default overflow=drop
+    private void audit(AuditEventType type, String email, HttpServletRequest request, String detail) {
+        auditLog.record(type, email, request.getRemoteAddr(), detail);
+    }
+
+    /* =========================================================
+       PASSWORD HASHING HELPERS
+       ========================================================= */
+
+    /**
+     * Hashing pool saturated: tell the client to retry instead of queueing.
+     */
+    @ExceptionHandler(HashingBusyException.class)
+    public ResponseEntity<ApiResponse> hashingBusy(HashingBusyException e) {
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header("Retry-After", "1")
+                .body(new ApiResponse("error", "Server busy, please retry"));
+    }
+
+    /**
+     * The new password is in the breached-password corpus.
+     */
+    private ResponseEntity<ApiResponse> breachedPassword() {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ApiResponse("error",
+                        "This password has appeared in a data breach, please choose another"));
+    }
+
+    /**
+     * Best effort: if the pool is busy the upgrade happens on a later login.
+     */
+    private void rehash(String email, String password) {
+        try {
+            userDAO.updatePassword(email, passwordHasher.hash(password));
+        } catch (HashingBusyException e) {
+            // keep the old hash for now
+        }
+    }
 }
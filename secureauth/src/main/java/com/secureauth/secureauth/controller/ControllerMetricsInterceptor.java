@@ -0,0 +1,102 @@
+package com.secureauth.secureauth.controller;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.lang.reflect.Method;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ControllerMetricsInterceptor
+ * ----------------------------
+ * Times every controller method as
+ * secureauth.http.requests{controller, method, outcome}.
+ *
+ * The outcome is derived from the response status, so the tag set stays
+ * bounded (no emails, no raw paths):
+ * - 2xx            → success
+ * - 409            → conflict
+ * - 429, 503       → busy
+ * - other 4xx      → invalid (bad OTP, wrong password, unknown user, ...)
+ * - 5xx, exception → error
+ */
+public class ControllerMetricsInterceptor implements HandlerInterceptor {
+
+    private static final String START_ATTRIBUTE = ControllerMetricsInterceptor.class.getName() + ".start";
+
+    enum Outcome { SUCCESS, CONFLICT, BUSY, INVALID, ERROR }
+
+    private final MeterRegistry meterRegistry;
+
+    // Timers per handler method, indexed by Outcome.ordinal()
+    private final Map<Method, Timer[]> timers = new ConcurrentHashMap<>();
+
+    public ControllerMetricsInterceptor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+
+        Object start = request.getAttribute(START_ATTRIBUTE);
+        if (!(handler instanceof HandlerMethod) || start == null) {
+            return;
+        }
+
+        Outcome outcome = ex != null ? Outcome.ERROR : outcomeOf(response.getStatus());
+        Timer[] methodTimers = timers.computeIfAbsent(
+                ((HandlerMethod) handler).getMethod(), this::createTimers);
+
+        methodTimers[outcome.ordinal()].record(System.nanoTime() - (Long) start, TimeUnit.NANOSECONDS);
+    }
+
+    static Outcome outcomeOf(int status) {
+        if (status < 400) {
+            return Outcome.SUCCESS;
+        }
+        if (status == 409) {
+            return Outcome.CONFLICT;
+        }
+        if (status == 429 || status == 503) {
+            return Outcome.BUSY;
+        }
+        if (status < 500) {
+            return Outcome.INVALID;
+        }
+        return Outcome.ERROR;
+    }
+
+    private Timer[] createTimers(Method method) {
+        Outcome[] outcomes = Outcome.values();
+        Timer[] result = new Timer[outcomes.length];
+
+        for (Outcome outcome : outcomes) {
+            result[outcome.ordinal()] = Timer.builder("secureauth.http.requests")
+                    .description("Controller method latency by outcome")
+                    .tag("controller", method.getDeclaringClass().getSimpleName())
+                    .tag("method", method.getName())
+                    .tag("outcome", outcome.name().toLowerCase(Locale.ROOT))
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(Duration.ofSeconds(10))
+                    .register(meterRegistry);
+        }
+        return result;
+    }
+}
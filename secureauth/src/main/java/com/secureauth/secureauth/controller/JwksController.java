@@ -0,0 +1,57 @@
+package com.secureauth.secureauth.controller;
+
+import com.secureauth.secureauth.config.JwtProperties;
+import com.secureauth.secureauth.service.SigningKeyService;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+
+/**
+ * JwksController
+ * --------------
+ * Public keys of the signing key ring, so other services verify ES256
+ * access tokens themselves instead of calling back here. Outside /api/*:
+ * no token needed.
+ */
+@RestController
+public class JwksController {
+
+    private final SigningKeyService signingKeyService;
+    private final CacheControl cacheControl;
+
+    // Constructor injection
+    public JwksController(SigningKeyService signingKeyService, JwtProperties jwtProperties) {
+        this.signingKeyService = signingKeyService;
+        this.cacheControl = CacheControl.maxAge(Duration.ofSeconds(jwtProperties.getJwksMaxAgeSeconds())).cachePublic();
+    }
+
+    /**
+     * Pre-serialized when the ring changes; a matching If-None-Match gets a 304.
+     */
+    @GetMapping("/.well-known/jwks.json")
+    public ResponseEntity<byte[]> jwks(@RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+
+        String etag = signingKeyService.getJwksEtag();
+
+        if (etag.equals(ifNoneMatch)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                    .cacheControl(cacheControl)
+                    .eTag(etag)
+                    .build();
+        }
+
+        return ResponseEntity.ok()
+                .cacheControl(cacheControl)
+                .eTag(etag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(signingKeyService.getJwks());
+    }
+}
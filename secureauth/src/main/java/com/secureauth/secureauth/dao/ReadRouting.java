@@ -0,0 +1,151 @@
+package com.secureauth.secureauth.dao;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+/**
+ * ReadRouting
+ * -----------
+ * Decides where UserDAO reads a user from when a read replica is configured.
+ *
+ * - by default the replica
+ * - the primary for an email this node wrote within the read-your-writes
+ *   window, so e.g. a login right after verifyOtp sees verified = true
+ *   even if the replica lags behind
+ * - the primary for a while after the replica failed to give a connection
+ *
+ * The window is per node: a write on one node does not redirect reads on
+ * another, which still see the replica (usually milliseconds behind).
+ */
+public class ReadRouting implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadRouting.class);
+
+    // Above this many tracked writes, expired ones are dropped (at most once per window)
+    private static final int PRUNE_THRESHOLD = 10_000;
+
+    private final JdbcTemplate replica;
+    private final long windowNanos;
+    private final long retryNanos;
+    private final LongSupplier clockNanos;
+
+    // lowercased email → time of the last write from this node
+    private final Map<String, Long> recentWrites = new ConcurrentHashMap<>();
+    private volatile long lastPrune;
+
+    private volatile boolean replicaDown;
+    private volatile long replicaRetryAt;
+
+    private final Counter replicaReads;
+    private final Counter primaryAfterWrite;
+    private final Counter primaryReplicaDown;
+
+    public ReadRouting(JdbcTemplate replica, long readYourWritesMs, long retryMs, MeterRegistry meterRegistry) {
+        this(replica, readYourWritesMs, retryMs, meterRegistry, System::nanoTime);
+    }
+
+    ReadRouting(JdbcTemplate replica, long readYourWritesMs, long retryMs,
+                MeterRegistry meterRegistry, LongSupplier clockNanos) {
+        this.replica = replica;
+        this.windowNanos = TimeUnit.MILLISECONDS.toNanos(readYourWritesMs);
+        this.retryNanos = TimeUnit.MILLISECONDS.toNanos(retryMs);
+        this.clockNanos = clockNanos;
+        this.lastPrune = clockNanos.getAsLong();
+
+        this.replicaReads = reads(meterRegistry, "replica");
+        this.primaryAfterWrite = reads(meterRegistry, "primary_after_write");
+        this.primaryReplicaDown = reads(meterRegistry, "primary_replica_down");
+    }
+
+    /**
+     * Runs the lookup for `key` on the replica or, if needed, on the primary.
+     */
+    <T> T read(String key, JdbcTemplate primary, Function<JdbcTemplate, T> lookup) {
+
+        long now = clockNanos.getAsLong();
+
+        if (wroteRecently(key, now)) {
+            primaryAfterWrite.increment();
+            return lookup.apply(primary);
+        }
+
+        if (replicaDown) {
+            if (now - replicaRetryAt < 0) {
+                primaryReplicaDown.increment();
+                return lookup.apply(primary);
+            }
+            replicaDown = false;
+        }
+
+        try {
+            T result = lookup.apply(replica);
+            replicaReads.increment();
+            return result;
+        } catch (DataAccessResourceFailureException e) {
+            // No connection to the replica: serve from the primary and retry later
+            replicaRetryAt = now + retryNanos;
+            replicaDown = true;
+            log.warn("Read replica unavailable, reading from primary for {} ms: {}",
+                    TimeUnit.NANOSECONDS.toMillis(retryNanos), e.getMessage());
+            primaryReplicaDown.increment();
+            return lookup.apply(primary);
+        }
+    }
+
+    /**
+     * Records a write on the primary; reads of `key` stay there for the window.
+     */
+    void written(String key) {
+        long now = clockNanos.getAsLong();
+        recentWrites.put(key, now);
+
+        if (recentWrites.size() > PRUNE_THRESHOLD && now - lastPrune > windowNanos) {
+            lastPrune = now;
+            recentWrites.values().removeIf(writtenAt -> now - writtenAt >= windowNanos);
+        }
+    }
+
+    private boolean wroteRecently(String key, long now) {
+        Long writtenAt = recentWrites.get(key);
+        if (writtenAt == null) {
+            return false;
+        }
+        if (now - writtenAt < windowNanos) {
+            return true;
+        }
+        recentWrites.remove(key, writtenAt);
+        return false;
+    }
+
+    /**
+     * Closes the replica pool.
+     */
+    @Override
+    public void close() throws Exception {
+        if (replica.getDataSource() instanceof AutoCloseable pool) {
+            pool.close();
+        }
+    }
+
+    int trackedWrites() {
+        return recentWrites.size();
+    }
+
+    private static Counter reads(MeterRegistry registry, String target) {
+        return Counter.builder("secureauth.dao.reads")
+                .description("User lookups by the database that served them")
+                .tag("target", target)
+                .register(registry);
+    }
+}
@@ -0,0 +1,143 @@
+package com.secureauth.secureauth.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * RefreshTokenDAO
+ * ---------------
+ * Refresh tokens (refresh_tokens, V4 migration), looked up by the SHA-256
+ * of the token. The raw token is never stored.
+ */
+@Repository
+public class RefreshTokenDAO {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Constructor injection
+    public RefreshTokenDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /* =========================================================
+       ISSUE / ROTATE
+       ========================================================= */
+
+    /**
+     * Stores the first token of a new family for the user.
+     * Returns false if there is no such user.
+     */
+    public boolean insert(byte[] tokenHash, String email, long ttlSeconds) {
+
+        String sql =
+                "INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at) " +
+                "SELECT ?, ?, id, now() + make_interval(secs => ?) FROM users " +
+                "WHERE lower(email) = lower(?)";
+
+        return jdbcTemplate.update(sql, tokenHash, UUID.randomUUID(), ttlSeconds, email) > 0;
+    }
+
+    /**
+     * Exchanges an unused, unexpired token for a new one in the same family,
+     * in one statement. Returns the user's email, or null if the token is
+     * unknown, expired or already used.
+     *
+     * Two requests with the same token: the second waits for the first's
+     * row lock, then sees used_at set and gets null.
+     */
+    public String rotate(byte[] tokenHash, byte[] nextTokenHash, long ttlSeconds) {
+
+        String sql =
+                "WITH rotated AS (" +
+                "  UPDATE refresh_tokens SET used_at = now() " +
+                "  WHERE token_hash = ? AND used_at IS NULL AND expires_at > now() " +
+                "  RETURNING family_id, user_id), " +
+                "issued AS (" +
+                "  INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at) " +
+                "  SELECT ?, family_id, user_id, now() + make_interval(secs => ?) FROM rotated " +
+                "  RETURNING user_id) " +
+                "SELECT u.email FROM issued JOIN users u ON u.id = issued.user_id";
+
+        List<String> emails = jdbcTemplate.queryForList(sql, String.class, tokenHash, nextTokenHash, ttlSeconds);
+        return emails.isEmpty() ? null : emails.get(0);
+    }
+
+    /* =========================================================
+       REVOKE
+       ========================================================= */
+
+    /**
+     * If the token was already used, deletes its whole family (including
+     * the tokens rotated from it) and returns the user's email; otherwise
+     * null. Its own statement, so it also sees a rotation that committed
+     * while rotate() was waiting.
+     */
+    public String deleteReusedFamily(byte[] tokenHash) {
+
+        String sql =
+                "WITH gone AS (" +
+                "  DELETE FROM refresh_tokens WHERE family_id = (" +
+                "    SELECT family_id FROM refresh_tokens WHERE token_hash = ? AND used_at IS NOT NULL) " +
+                "  RETURNING user_id) " +
+                "SELECT DISTINCT u.email FROM gone JOIN users u ON u.id = gone.user_id";
+
+        List<String> emails = jdbcTemplate.queryForList(sql, String.class, tokenHash);
+        return emails.isEmpty() ? null : emails.get(0);
+    }
+
+    /**
+     * Logout: deletes the token's family, only if it belongs to the email.
+     */
+    public int deleteFamily(byte[] tokenHash, String email) {
+
+        String sql =
+                "DELETE FROM refresh_tokens WHERE family_id = (" +
+                "  SELECT t.family_id FROM refresh_tokens t JOIN users u ON u.id = t.user_id " +
+                "  WHERE t.token_hash = ? AND lower(u.email) = lower(?))";
+
+        return jdbcTemplate.update(sql, tokenHash, email);
+    }
+
+    /**
+     * Ends every session of the user.
+     */
+    public int deleteAll(String email) {
+
+        String sql =
+                "DELETE FROM refresh_tokens WHERE user_id = (" +
+                "  SELECT id FROM users WHERE lower(email) = lower(?))";
+
+        return jdbcTemplate.update(sql, email);
+    }
+
+    /* =========================================================
+       SWEEPER
+       ========================================================= */
+
+    /**
+     * Deletes one batch of expired tokens, oldest first, continuing after
+     * the cursor (same scheme as the UserDAO sweeps).
+     */
+    public int deleteExpired(SweepCursor cursor, int limit) {
+
+        String sql =
+                "WITH batch AS (" +
+                "  SELECT id, expires_at AS swept_at FROM refresh_tokens " +
+                "  WHERE expires_at < now() " +
+                "  AND (expires_at, id) > (?, ?) " +
+                "  ORDER BY expires_at, id LIMIT ? " +
+                "  FOR UPDATE SKIP LOCKED) " +
+                "DELETE FROM refresh_tokens t USING batch WHERE t.id = batch.id " +
+                "RETURNING batch.swept_at, t.id";
+
+        int[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            cursor.advance(rs.getTimestamp("swept_at").toLocalDateTime(), rs.getLong("id"));
+            rows[0]++;
+        }, cursor.getKey(), cursor.getId(), limit);
+        return rows[0];
+    }
+}
@@ -0,0 +1,10 @@
+package com.secureauth.secureauth.dao;
+
+/**
+ * Outcome of {@link UserDAO#register}.
+ */
+public enum RegistrationResult {
+    CREATED,
+    OTP_REFRESHED,
+    ALREADY_VERIFIED
+}
@@ -0,0 +1,126 @@
+package com.secureauth.secureauth.dao;
+
+import com.secureauth.secureauth.security.TokenDenylist;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Locale;
+
+/**
+ * RevokedTokenDAO
+ * ---------------
+ * Persisted copy of the token denylist (revoked_tokens, V3 migration).
+ * Written on every revocation, read in full on startup and then polled for
+ * what other instances wrote (changed_at_ms, V7); requests are checked
+ * against the in-memory TokenDenylist.
+ */
+@Repository
+public class RevokedTokenDAO {
+
+    private static final String TOKEN = "j";
+    private static final String SUBJECT = "s";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Constructor injection
+    public RevokedTokenDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /* =========================================================
+       REVOKE
+       ========================================================= */
+
+    public void revokeToken(String tokenId, long expiresAtMs) {
+        save(TOKEN, tokenId, 0, expiresAtMs);
+    }
+
+    public void revokeSubject(String email, long revokedAtMs, long expiresAtMs) {
+        save(SUBJECT, email.toLowerCase(Locale.ROOT), revokedAtMs, expiresAtMs);
+    }
+
+    // Revoking again only ever widens an entry, and marks it changed for the other instances
+    private void save(String kind, String value, long revokedAtMs, long expiresAtMs) {
+
+        String sql =
+                "INSERT INTO revoked_tokens (kind, value, revoked_at_ms, expires_at_ms) " +
+                "VALUES (?, ?, ?, ?) " +
+                "ON CONFLICT (kind, value) DO UPDATE " +
+                "SET revoked_at_ms = GREATEST(revoked_tokens.revoked_at_ms, EXCLUDED.revoked_at_ms), " +
+                "    expires_at_ms = GREATEST(revoked_tokens.expires_at_ms, EXCLUDED.expires_at_ms), " +
+                "    changed_at_ms = DEFAULT";
+
+        jdbcTemplate.update(sql, kind, value, revokedAtMs, expiresAtMs);
+    }
+
+    /* =========================================================
+       LOAD / PRUNE
+       ========================================================= */
+
+    /**
+     * Adds every entry that still covers an unexpired token to the denylist.
+     * Returns the number of entries loaded.
+     */
+    public int loadInto(TokenDenylist denylist, long nowMs) {
+
+        String sql =
+                "SELECT kind, value, revoked_at_ms, expires_at_ms FROM revoked_tokens " +
+                "WHERE expires_at_ms > ?";
+
+        return load(denylist, sql, nowMs);
+    }
+
+    /**
+     * Adds the live entries changed after changedAfterMs (database clock)
+     * to the denylist. Returns the number of entries loaded.
+     */
+    public int loadChangedInto(TokenDenylist denylist, long changedAfterMs, long nowMs) {
+
+        String sql =
+                "SELECT kind, value, revoked_at_ms, expires_at_ms FROM revoked_tokens " +
+                "WHERE changed_at_ms > ? AND expires_at_ms > ?";
+
+        return load(denylist, sql, changedAfterMs, nowMs);
+    }
+
+    /**
+     * Current time of the database clock, the one changed_at_ms is set from.
+     */
+    public long databaseTimeMs() {
+        return jdbcTemplate.queryForObject(
+                "SELECT (extract(epoch FROM clock_timestamp()) * 1000)::BIGINT", Long.class);
+    }
+
+    private int load(TokenDenylist denylist, String sql, Object... args) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            String value = rs.getString("value");
+            long expiresAtMs = rs.getLong("expires_at_ms");
+
+            if (SUBJECT.equals(rs.getString("kind"))) {
+                denylist.revokeSubject(value, rs.getLong("revoked_at_ms"), expiresAtMs);
+            } else {
+                denylist.revokeToken(value, expiresAtMs);
+            }
+            rows[0]++;
+        }, args);
+        return rows[0];
+    }
+
+    /**
+     * Deletes up to `limit` entries whose tokens have all expired.
+     * Several nodes may prune at once: rows locked by one are skipped.
+     */
+    public int deleteExpired(long nowMs, int limit) {
+
+        String sql =
+                "DELETE FROM revoked_tokens WHERE (kind, value) IN (" +
+                "  SELECT kind, value FROM revoked_tokens " +
+                "  WHERE expires_at_ms <= ? " +
+                "  ORDER BY expires_at_ms LIMIT ? " +
+                "  FOR UPDATE SKIP LOCKED)";
+
+        return jdbcTemplate.update(sql, nowMs, limit);
+    }
+}
@@ -0,0 +1,106 @@
+package com.secureauth.secureauth.dao;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+/**
+ * SigningKeyDAO
+ * -------------
+ * JWT signing keys shared by all instances (jwt_signing_keys, V5 migration).
+ * A handful of rows: read in full on every reload.
+ */
+@Repository
+public class SigningKeyDAO {
+
+    // pg_advisory_xact_lock key: one instance at a time creates keys
+    private static final long CREATE_LOCK = 0x5ec0_a17c_0001L;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    // Constructor injection
+    public SigningKeyDAO(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<StoredKey> findAll() {
+
+        String sql =
+                "SELECT kid, algorithm, private_key, public_key, created_at_ms, activates_at_ms " +
+                "FROM jwt_signing_keys ORDER BY activates_at_ms, kid";
+
+        return jdbcTemplate.query(sql, (rs, i) -> new StoredKey(
+                rs.getString("kid"),
+                rs.getString("algorithm"),
+                rs.getBytes("private_key"),
+                rs.getBytes("public_key"),
+                rs.getLong("created_at_ms"),
+                rs.getLong("activates_at_ms")));
+    }
+
+    /**
+     * Stores the key unless a key of the same algorithm was created after
+     * `createdAfterMs`, or (for a first key) one is already active by
+     * `activeByMs`. Instances starting or rotating at the same time
+     * serialize on an advisory lock, so only one of them adds a key.
+     *
+     * @return true if the key was stored
+     */
+    @Transactional
+    public boolean insertIfDue(StoredKey key, long createdAfterMs, long activeByMs) {
+
+        jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", CREATE_LOCK);
+
+        String due =
+                "SELECT NOT EXISTS (SELECT 1 FROM jwt_signing_keys WHERE algorithm = ? AND created_at_ms > ?) " +
+                "   OR NOT EXISTS (SELECT 1 FROM jwt_signing_keys WHERE activates_at_ms <= ?)";
+
+        Boolean insert = jdbcTemplate.queryForObject(due, Boolean.class,
+                key.getAlgorithm(), createdAfterMs, activeByMs);
+        if (!Boolean.TRUE.equals(insert)) {
+            return false;
+        }
+
+        jdbcTemplate.update(
+                "INSERT INTO jwt_signing_keys (kid, algorithm, private_key, public_key, created_at_ms, activates_at_ms) " +
+                "VALUES (?, ?, ?, ?, ?, ?)",
+                key.getKid(), key.getAlgorithm(), key.getPrivateKey(), key.getPublicKey(),
+                key.getCreatedAtMs(), key.getActivatesAtMs());
+        return true;
+    }
+
+    public int delete(String kid) {
+        return jdbcTemplate.update("DELETE FROM jwt_signing_keys WHERE kid = ?", kid);
+    }
+
+    /**
+     * One row of jwt_signing_keys, key material still encoded.
+     */
+    public static final class StoredKey {
+        private final String kid;
+        private final String algorithm;
+        private final byte[] privateKey;
+        private final byte[] publicKey;
+        private final long createdAtMs;
+        private final long activatesAtMs;
+
+        public StoredKey(String kid, String algorithm, byte[] privateKey, byte[] publicKey,
+                         long createdAtMs, long activatesAtMs) {
+            this.kid = kid;
+            this.algorithm = algorithm;
+            this.privateKey = privateKey;
+            this.publicKey = publicKey;
+            this.createdAtMs = createdAtMs;
+            this.activatesAtMs = activatesAtMs;
+        }
+
+        public String getKid() { return kid; }
+        public String getAlgorithm() { return algorithm; }
+        public byte[] getPrivateKey() { return privateKey; }
+        public byte[] getPublicKey() { return publicKey; }
+        public long getCreatedAtMs() { return createdAtMs; }
+        public long getActivatesAtMs() { return activatesAtMs; }
+    }
+}
@@ -0,0 +1,28 @@
+package com.secureauth.secureauth.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * SweepCursor
+ * -----------
+ * Keyset position of a sweep: the (timestamp, id) of the last row handled.
+ *
+ * Each batch continues after it, so rows that another node holds locked
+ * (SKIP LOCKED) or that did not qualify are not scanned again in the same run.
+ */
+public class SweepCursor {
+
+    // Before any row: the swept timestamps are never older than this
+    private LocalDateTime key = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private long id;
+
+    public LocalDateTime getKey() { return key; }
+    public long getId() { return id; }
+
+    void advance(LocalDateTime key, long id) {
+        if (key.isAfter(this.key) || (key.equals(this.key) && id > this.id)) {
+            this.key = key;
+            this.id = id;
+        }
+    }
+}
@@ -0,0 +1,120 @@
+package com.secureauth.secureauth.dao;
+
+import com.secureauth.secureauth.model.User;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * UserCache
+ * ---------
+ * Near-cache for user lookups by email.
+ *
+ * - entries expire after a fixed TTL and the cache is size-bounded
+ * - concurrent misses for the same email share one load (single-flight)
+ * - a load racing with invalidate() never leaves a stale entry behind
+ * - only found users are cached; a miss is always re-queried
+ */
+class UserCache {
+
+    private final int maxEntries;
+    private final long ttlMs;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<String, CompletableFuture<User>> inFlight = new ConcurrentHashMap<>();
+
+    UserCache(int maxEntries, long ttlMs) {
+        this.maxEntries = maxEntries;
+        this.ttlMs = ttlMs;
+    }
+
+    User get(String email, Function<String, User> loader) {
+
+        Entry cached = entries.get(email);
+        if (cached != null && !cached.isExpired(System.currentTimeMillis())) {
+            return cached.user;
+        }
+
+        CompletableFuture<User> load = new CompletableFuture<>();
+        CompletableFuture<User> running = inFlight.putIfAbsent(email, load);
+
+        // Someone else is already loading this email: wait for their result
+        if (running != null) {
+            return await(running);
+        }
+
+        try {
+            User user = loader.apply(email);
+
+            if (user != null) {
+                Entry entry = new Entry(user, System.currentTimeMillis() + ttlMs);
+                store(email, entry);
+
+                // Invalidated while loading: the value may be stale, drop it
+                if (!inFlight.remove(email, load)) {
+                    entries.remove(email, entry);
+                }
+            }
+
+            load.complete(user);
+            return user;
+
+        } catch (RuntimeException e) {
+            load.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(email, load);
+        }
+    }
+
+    /**
+     * Must be called after every write to the user's row.
+     */
+    void invalidate(String email) {
+        inFlight.remove(email);
+        entries.remove(email);
+    }
+
+    private void store(String email, Entry entry) {
+        if (entries.size() >= maxEntries) {
+            long now = System.currentTimeMillis();
+            entries.values().removeIf(e -> e.isExpired(now));
+
+            Iterator<String> it = entries.keySet().iterator();
+            while (entries.size() >= maxEntries && it.hasNext()) {
+                it.next();
+                it.remove();
+            }
+        }
+        entries.put(email, entry);
+    }
+
+    private static User await(CompletableFuture<User> load) {
+        try {
+            return load.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        final User user;
+        final long expiresAtMs;
+
+        Entry(User user, long expiresAtMs) {
+            this.user = user;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        boolean isExpired(long now) {
+            return expiresAtMs <= now;
+        }
+    }
+}
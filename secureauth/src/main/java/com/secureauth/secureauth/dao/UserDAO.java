@@ -1,23 +1,81 @@
 package com.secureauth.secureauth.dao;
 
+import com.secureauth.secureauth.config.UserCacheProperties;
 import com.secureauth.secureauth.model.User;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.dao.EmptyResultDataAccessException;
 import org.springframework.jdbc.core.BeanPropertyRowMapper;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Repository
 public class UserDAO {
 
     private final JdbcTemplate jdbcTemplate;
 
+    // Null when the user cache is disabled
+    private final UserCache userCache;
+
+    // One timer per public method (secureauth.dao.calls{method=...})
+    private final Timer findByEmailTimer;
+    private final Timer registerTimer;
+    private final Timer verifyOtpTimer;
+    private final Timer markVerifiedTimer;
+    private final Timer resendOtpTimer;
+    private final Timer createPasswordResetOtpTimer;
+    private final Timer resetPasswordTimer;
+    private final Timer updatePasswordTimer;
+    private final Timer deleteByEmailTimer;
+    private final Timer insertAllTimer;
+    private final Timer clearExpiredResetOtpsTimer;
+    private final Timer clearExpiredOtpsTimer;
+    private final Timer deleteAbandonedTimer;
+
+    // Null when no read replica is configured
+    private final ReadRouting readRouting;
+
+    public UserDAO(JdbcTemplate jdbcTemplate,
+                   UserCacheProperties cacheProperties,
+                   MeterRegistry meterRegistry) {
+        this(jdbcTemplate, cacheProperties, meterRegistry, Optional.empty());
+    }
+
     // Constructor injection
-    public UserDAO(JdbcTemplate jdbcTemplate) {
+    @Autowired
+    public UserDAO(JdbcTemplate jdbcTemplate,
+                   UserCacheProperties cacheProperties,
+                   MeterRegistry meterRegistry,
+                   Optional<ReadRouting> readRouting) {
         this.jdbcTemplate = jdbcTemplate;
+        this.readRouting = readRouting.orElse(null);
+        this.userCache = cacheProperties.isEnabled()
+                ? new UserCache(cacheProperties.getMaxEntries(), cacheProperties.getTtlMs())
+                : null;
+
+        this.findByEmailTimer = timer(meterRegistry, "findByEmail");
+        this.registerTimer = timer(meterRegistry, "register");
+        this.verifyOtpTimer = timer(meterRegistry, "verifyOtp");
+        this.markVerifiedTimer = timer(meterRegistry, "markVerified");
+        this.resendOtpTimer = timer(meterRegistry, "resendOtp");
+        this.createPasswordResetOtpTimer = timer(meterRegistry, "createPasswordResetOtp");
+        this.resetPasswordTimer = timer(meterRegistry, "resetPassword");
+        this.updatePasswordTimer = timer(meterRegistry, "updatePassword");
+        this.deleteByEmailTimer = timer(meterRegistry, "deleteByEmail");
+        this.insertAllTimer = timer(meterRegistry, "insertAll");
+        this.clearExpiredResetOtpsTimer = timer(meterRegistry, "clearExpiredResetOtps");
+        this.clearExpiredOtpsTimer = timer(meterRegistry, "clearExpiredOtps");
+        this.deleteAbandonedTimer = timer(meterRegistry, "deleteAbandoned");
     }
 
     /* =========================================================
@@ -25,15 +83,37 @@ public class UserDAO {
        ========================================================= */
 
     /**
-     * Fetch user by email.
+     * Fetch user by email (case-insensitive).
      * Returns User object if found, otherwise null.
+     * Served from the user cache when it is enabled, and from the read
+     * replica when one is configured (see ReadRouting).
      */
     public User findByEmail(String email) {
 
-        String sql = "SELECT * FROM users WHERE email = ?";
+        long start = System.nanoTime();
+        try {
+            if (userCache != null) {
+                return userCache.get(cacheKey(email), this::loadByEmail);
+            }
+            return loadByEmail(email);
+        } finally {
+            findByEmailTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private User loadByEmail(String email) {
+        if (readRouting != null) {
+            return readRouting.read(cacheKey(email), jdbcTemplate, jdbc -> queryByEmail(jdbc, email));
+        }
+        return queryByEmail(jdbcTemplate, email);
+    }
+
+    private static User queryByEmail(JdbcTemplate jdbc, String email) {
+
+        String sql = "SELECT * FROM users WHERE lower(email) = lower(?)";
 
         try {
-            return jdbcTemplate.queryForObject(
+            return jdbc.queryForObject(
                     sql,
                     new BeanPropertyRowMapper<>(User.class),
                     email
@@ -49,22 +129,38 @@ public class UserDAO {
        ========================================================= */
 
     /**
-     * Saves a new user during registration.
+     * Registers a user or refreshes the OTP of an unverified one,
+     * in a single statement:
+     * - no row for the email      → insert (CREATED)
+     * - row exists, not verified  → only the OTP is replaced (OTP_REFRESHED)
+     * - row exists and verified   → nothing changes (ALREADY_VERIFIED)
+     *
+     * Relies on the unique index on lower(email) (V1 migration).
      */
-    public void save(User user) {
+    public RegistrationResult register(String email, String hashedPassword, String otp) {
 
         String sql =
                 "INSERT INTO users (email, password, otp, verified, otp_created_at) " +
-                "VALUES (?, ?, ?, ?, ?)";
-
-        jdbcTemplate.update(
+                "VALUES (?, ?, ?, false, now()) " +
+                "ON CONFLICT ((lower(email))) DO UPDATE " +
+                "SET otp = EXCLUDED.otp, otp_created_at = EXCLUDED.otp_created_at " +
+                "WHERE users.verified = false " +
+                "RETURNING (xmax = 0) AS inserted";
+
+        // xmax = 0 only for a freshly inserted row
+        List<Boolean> inserted = registerTimer.record(() -> jdbcTemplate.query(
                 sql,
-                user.getEmail(),
-                user.getPassword(),
-                user.getOtp(),
-                user.isVerified(),
-                LocalDateTime.now()
-        );
+                (rs, rowNum) -> rs.getBoolean("inserted"),
+                email,
+                hashedPassword,
+                otp
+        ));
+        afterWrite(email);
+
+        if (inserted.isEmpty()) {
+            return RegistrationResult.ALREADY_VERIFIED;
+        }
+        return inserted.get(0) ? RegistrationResult.CREATED : RegistrationResult.OTP_REFRESHED;
     }
 
     /* =========================================================
@@ -73,82 +169,51 @@ public class UserDAO {
 
     /**
      * Verifies email OTP and marks user as verified.
-     * OTP expires after 5 minutes.
+     * OTP expires after 5 minutes (checked by the database).
+     * Only one of several concurrent calls can succeed.
      */
     public boolean verifyOtp(String email, String otp) {
 
         String sql =
-                "SELECT otp_created_at FROM users " +
-                "WHERE email = ? AND otp = ? AND verified = false";
+                "UPDATE users SET verified = true, otp = NULL, otp_created_at = NULL " +
+                "WHERE lower(email) = lower(?) AND otp = ? AND verified = false " +
+                "AND otp_created_at > now() - INTERVAL '5 minutes'";
 
-        List<LocalDateTime> times = jdbcTemplate.query(
-                sql,
-                (rs, rowNum) ->
-                        rs.getTimestamp("otp_created_at").toLocalDateTime(),
-                email,
-                otp
-        );
+        int updated = verifyOtpTimer.record(() -> jdbcTemplate.update(sql, email, otp));
+        afterWrite(email);
 
-        // No matching OTP found
-        if (times.isEmpty()) {
-            return false;
-        }
-
-        LocalDateTime createdAt = times.get(0);
-
-        // ⏱ OTP expiry check (5 minutes)
-        if (createdAt.plusMinutes(5).isBefore(LocalDateTime.now())) {
-            return false;
-        }
-
-        // Mark user as verified and clear OTP
-        jdbcTemplate.update(
-                "UPDATE users SET verified = true, otp = NULL, otp_created_at = NULL WHERE email = ?",
-                email
-        );
-
-        return true;
+        return updated > 0;
     }
 
-    /* =========================================================
-       RESEND / UPDATE OTP
-       ========================================================= */
-
     /**
-     * Updates OTP for email verification (unused but safe).
+     * Marks an unverified user as verified.
+     * Used when the OTP itself is checked outside the users table.
      */
-    public boolean updateOtpForVerification(String email, String newOtp) {
+    public boolean markVerified(String email) {
 
-        String sql =
-                "UPDATE users " +
-                "SET otp = ?, otp_created_at = ? " +
-                "WHERE email = ? AND verified = false";
+        String sql = "UPDATE users SET verified = true WHERE lower(email) = lower(?) AND verified = false";
 
-        int updated = jdbcTemplate.update(
-                sql,
-                newOtp,
-                LocalDateTime.now(),
-                email
-        );
+        int updated = markVerifiedTimer.record(() -> jdbcTemplate.update(sql, email));
+        afterWrite(email);
 
         return updated > 0;
     }
 
+    /* =========================================================
+       RESEND OTP
+       ========================================================= */
+
     /**
      * Resends OTP if user exists and is not verified.
      */
     public boolean resendOtp(String email, String otp) {
 
         String sql =
-                "UPDATE users SET otp = ?, otp_created_at = ? " +
-                "WHERE email = ? AND verified = false";
+                "UPDATE users SET otp = ?, otp_created_at = now() " +
+                "WHERE lower(email) = lower(?) AND verified = false";
 
-        int updated = jdbcTemplate.update(
-                sql,
-                otp,
-                LocalDateTime.now(),
-                email
-        );
+        int updated = resendOtpTimer.record(() -> jdbcTemplate.update(sql, otp, email));
+        afterWrite(email);
 
         return updated > 0;
     }
@@ -163,54 +228,43 @@ public class UserDAO {
     public boolean createPasswordResetOtp(String email, String otp) {
 
         String sql =
-                "UPDATE users SET reset_otp = ?, reset_otp_created_at = ? " +
-                "WHERE email = ?";
+                "UPDATE users SET reset_otp = ?, reset_otp_created_at = now() " +
+                "WHERE lower(email) = lower(?)";
 
-        return jdbcTemplate.update(
-                sql,
-                otp,
-                LocalDateTime.now(),
-                email
-        ) > 0;
+        int updated = createPasswordResetOtpTimer.record(() -> jdbcTemplate.update(sql, otp, email));
+        afterWrite(email);
+
+        return updated > 0;
     }
 
     /**
      * Resets password using OTP.
-     * OTP expires after 5 minutes.
+     * OTP expires after 5 minutes (checked by the database).
      */
     public boolean resetPassword(String email, String otp, String newPassword) {
 
         String sql =
-                "SELECT reset_otp_created_at FROM users " +
-                "WHERE email = ? AND reset_otp = ?";
+                "UPDATE users SET password = ?, reset_otp = NULL, reset_otp_created_at = NULL " +
+                "WHERE lower(email) = lower(?) AND reset_otp = ? " +
+                "AND reset_otp_created_at > now() - INTERVAL '5 minutes'";
 
-        List<LocalDateTime> times = jdbcTemplate.query(
-                sql,
-                (rs, rowNum) ->
-                        rs.getTimestamp("reset_otp_created_at").toLocalDateTime(),
-                email,
-                otp
-        );
+        int updated = resetPasswordTimer.record(() -> jdbcTemplate.update(sql, newPassword, email, otp));
+        afterWrite(email);
 
-        if (times.isEmpty()) {
-            return false;
-        }
+        return updated > 0;
+    }
 
-        LocalDateTime createdAt = times.get(0);
+    /**
+     * Replaces the stored password hash.
+     */
+    public boolean updatePassword(String email, String hashedPassword) {
 
-        // ⏱ OTP expiry check
-        if (createdAt.plusMinutes(5).isBefore(LocalDateTime.now())) {
-            return false;
-        }
+        String sql = "UPDATE users SET password = ? WHERE lower(email) = lower(?)";
 
-        // Update password and clear reset OTP
-        jdbcTemplate.update(
-                "UPDATE users SET password = ?, reset_otp = NULL, reset_otp_created_at = NULL WHERE email = ?",
-                newPassword,
-                email
-        );
+        int updated = updatePasswordTimer.record(() -> jdbcTemplate.update(sql, hashedPassword, email));
+        afterWrite(email);
 
-        return true;
+        return updated > 0;
     }
 
     /* =========================================================
@@ -222,8 +276,163 @@ public class UserDAO {
      */
     public boolean deleteByEmail(String email) {
 
-        String sql = "DELETE FROM users WHERE email = ?";
+        String sql = "DELETE FROM users WHERE lower(email) = lower(?)";
+
+        int deleted = deleteByEmailTimer.record(() -> jdbcTemplate.update(sql, email));
+        afterWrite(email);
+
+        return deleted > 0;
+    }
+
+    /* =========================================================
+       BULK IMPORT
+       ========================================================= */
+
+    /**
+     * Inserts users in one JDBC batch, leaving existing emails untouched.
+     * Returns, per user, whether a row was created.
+     *
+     * One transaction per call, so a chunk costs one commit instead of one
+     * per row. Needs the driver's per-statement update counts: do not turn
+     * on pgjdbc's reWriteBatchedInserts for this data source.
+     */
+    @Transactional
+    public boolean[] insertAll(List<User> users) {
+
+        String sql =
+                "INSERT INTO users (email, password, verified) VALUES (?, ?, ?) " +
+                "ON CONFLICT ((lower(email))) DO NOTHING";
+
+        List<Object[]> rows = new ArrayList<>(users.size());
+        for (User user : users) {
+            rows.add(new Object[] { user.getEmail(), user.getPassword(), user.isVerified() });
+        }
+
+        int[] counts = insertAllTimer.record(() -> jdbcTemplate.batchUpdate(sql, rows));
+
+        // Only absent emails are inserted, so there is nothing cached to invalidate
+        boolean[] inserted = new boolean[counts.length];
+        for (int i = 0; i < counts.length; i++) {
+            inserted[i] = counts[i] > 0;
+        }
+        return inserted;
+    }
+
+    /* =========================================================
+       SWEEPER
+       ========================================================= */
+
+    /*
+     * One batch each: the oldest `limit` qualifying rows after the cursor,
+     * walked through the matching (timestamp, id) partial index.
+     * FOR UPDATE SKIP LOCKED: rows a request or another node is working on
+     * are left for a later run instead of being waited for, and the
+     * conditions are re-checked on the locked row, so a row refreshed
+     * meanwhile (e.g. a new OTP) is not touched.
+     */
+
+    /**
+     * Clears password-reset OTPs past their 5-minute lifetime.
+     * Returns the number of rows handled and moves the cursor past them.
+     */
+    public int clearExpiredResetOtps(SweepCursor cursor, int limit) {
+
+        String sql =
+                "WITH batch AS (" +
+                "  SELECT id, reset_otp_created_at AS swept_at FROM users " +
+                "  WHERE reset_otp IS NOT NULL " +
+                "  AND reset_otp_created_at < now() - INTERVAL '5 minutes' " +
+                "  AND (reset_otp_created_at, id) > (?, ?) " +
+                "  ORDER BY reset_otp_created_at, id LIMIT ? " +
+                "  FOR UPDATE SKIP LOCKED) " +
+                "UPDATE users u SET reset_otp = NULL, reset_otp_created_at = NULL " +
+                "FROM batch WHERE u.id = batch.id " +
+                "RETURNING batch.swept_at, u.id, u.email";
+
+        return clearExpiredResetOtpsTimer.record(() -> sweep(sql, cursor,
+                cursor.getKey(), cursor.getId(), limit));
+    }
+
+    /**
+     * Clears email-verification OTPs past their 5-minute lifetime.
+     */
+    public int clearExpiredOtps(SweepCursor cursor, int limit) {
+
+        String sql =
+                "WITH batch AS (" +
+                "  SELECT id, otp_created_at AS swept_at FROM users " +
+                "  WHERE verified = false " +
+                "  AND otp_created_at < now() - INTERVAL '5 minutes' " +
+                "  AND (otp_created_at, id) > (?, ?) " +
+                "  ORDER BY otp_created_at, id LIMIT ? " +
+                "  FOR UPDATE SKIP LOCKED) " +
+                "UPDATE users u SET otp = NULL, otp_created_at = NULL " +
+                "FROM batch WHERE u.id = batch.id " +
+                "RETURNING batch.swept_at, u.id, u.email";
+
+        return clearExpiredOtpsTimer.record(() -> sweep(sql, cursor,
+                cursor.getKey(), cursor.getId(), limit));
+    }
+
+    /**
+     * Deletes accounts still unverified `ageSeconds` after registration,
+     * unless they hold an OTP that is still valid.
+     */
+    public int deleteAbandoned(long ageSeconds, SweepCursor cursor, int limit) {
+
+        String sql =
+                "WITH batch AS (" +
+                "  SELECT id, created_at AS swept_at FROM users " +
+                "  WHERE verified = false " +
+                "  AND created_at < now() - make_interval(secs => ?) " +
+                "  AND (otp_created_at IS NULL OR otp_created_at < now() - INTERVAL '5 minutes') " +
+                "  AND (created_at, id) > (?, ?) " +
+                "  ORDER BY created_at, id LIMIT ? " +
+                "  FOR UPDATE SKIP LOCKED) " +
+                "DELETE FROM users u USING batch WHERE u.id = batch.id " +
+                "RETURNING batch.swept_at, u.id, u.email";
+
+        return deleteAbandonedTimer.record(() -> sweep(sql, cursor,
+                ageSeconds, cursor.getKey(), cursor.getId(), limit));
+    }
+
+    private int sweep(String sql, SweepCursor cursor, Object... args) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, rs -> {
+            cursor.advance(rs.getTimestamp("swept_at").toLocalDateTime(), rs.getLong("id"));
+            afterWrite(rs.getString("email"));
+            rows[0]++;
+        }, args);
+        return rows[0];
+    }
+
+    /* =========================================================
+       CACHE / READ ROUTING
+       ========================================================= */
+
+    private static Timer timer(MeterRegistry registry, String method) {
+        return Timer.builder("secureauth.dao.calls")
+                .description("UserDAO calls, including user cache hits for findByEmail")
+                .tag("method", method)
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /**
+     * After a write on this node: drops the cached copy of the user and
+     * keeps its lookups on the primary for the read-your-writes window.
+     */
+    private void afterWrite(String email) {
+        if (userCache != null) {
+            userCache.invalidate(cacheKey(email));
+        }
+        if (readRouting != null) {
+            readRouting.written(cacheKey(email));
+        }
+    }
 
-        return jdbcTemplate.update(sql, email) > 0;
+    // Emails match case-insensitively, so one cache entry per lowercased email
+    private static String cacheKey(String email) {
+        return email.toLowerCase(Locale.ROOT);
     }
 }
@@ -0,0 +1,31 @@
+package com.secureauth.secureauth.dao;
+
+import java.time.LocalDateTime;
+
+/**
+ * UserFilter
+ * ----------
+ * Conditions of the admin listing and export; null means "any".
+ *
+ * createdFrom is inclusive, createdTo exclusive.
+ */
+public class UserFilter {
+
+    private final Boolean verified;
+    private final LocalDateTime createdFrom;
+    private final LocalDateTime createdTo;
+
+    public UserFilter(Boolean verified, LocalDateTime createdFrom, LocalDateTime createdTo) {
+        this.verified = verified;
+        this.createdFrom = createdFrom;
+        this.createdTo = createdTo;
+    }
+
+    public static UserFilter any() {
+        return new UserFilter(null, null, null);
+    }
+
+    public Boolean getVerified() { return verified; }
+    public LocalDateTime getCreatedFrom() { return createdFrom; }
+    public LocalDateTime getCreatedTo() { return createdTo; }
+}
@@ -5,6 +5,7 @@ public class ApiResponse {
     private String status;
     private String message;
     private String token;
+    private String refreshToken;
 
     public ApiResponse() {}
 
@@ -19,6 +20,13 @@ public class ApiResponse {
         this.token = token;
     }
 
+    public ApiResponse(String status, String message, String token, String refreshToken) {
+        this.status = status;
+        this.message = message;
+        this.token = token;
+        this.refreshToken = refreshToken;
+    }
+
     public String getStatus() { return status; }
     public void setStatus(String status) { this.status = status; }
 
@@ -27,4 +35,7 @@ public class ApiResponse {
 
     public String getToken() { return token; }
     public void setToken(String token) { this.token = token; }
+
+    public String getRefreshToken() { return refreshToken; }
+    public void setRefreshToken(String refreshToken) { this.refreshToken = refreshToken; }
 }
@@ -0,0 +1,87 @@
+package com.secureauth.secureauth.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Import Report
+ * -------------
+ * Result of a bulk user import: counts for every row, plus the
+ * rows that were not created and why (up to a configured limit).
+ *
+ * Line numbers are 1-based lines of the uploaded file.
+ */
+public class ImportReport {
+
+    private String status = "success";
+    private String message;
+    private long total;
+    private long created;
+    private long skipped;
+    private long failed;
+    private boolean errorsTruncated;
+    private final List<RowError> errors = new ArrayList<>();
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public long getTotal() { return total; }
+    public long getCreated() { return created; }
+    public long getSkipped() { return skipped; }
+    public long getFailed() { return failed; }
+    public boolean isErrorsTruncated() { return errorsTruncated; }
+    public List<RowError> getErrors() { return errors; }
+
+    /* ===== RECORDING (used by the import service) ===== */
+
+    public void created() {
+        total++;
+        created++;
+    }
+
+    /**
+     * Row not created because the email is already registered.
+     */
+    public void skipped(long line, String email, int maxErrors) {
+        total++;
+        skipped++;
+        addError(new RowError(line, email, "Account already exists"), maxErrors);
+    }
+
+    /**
+     * Row rejected as invalid; nothing was written for it.
+     */
+    public void failed(long line, String email, String error, int maxErrors) {
+        total++;
+        failed++;
+        addError(new RowError(line, email, error), maxErrors);
+    }
+
+    private void addError(RowError error, int maxErrors) {
+        if (errors.size() < maxErrors) {
+            errors.add(error);
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public static class RowError {
+
+        private final long line;
+        private final String email;
+        private final String error;
+
+        public RowError(long line, String email, String error) {
+            this.line = line;
+            this.email = email;
+            this.error = error;
+        }
+
+        public long getLine() { return line; }
+        public String getEmail() { return email; }
+        public String getError() { return error; }
+    }
+}
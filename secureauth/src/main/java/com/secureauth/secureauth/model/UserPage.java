@@ -0,0 +1,24 @@
+package com.secureauth.secureauth.model;
+
+import java.util.List;
+
+/**
+ * User Page
+ * ---------
+ * One page of GET /api/admin/users, in id order.
+ *
+ * nextAfter is the `after` value for the next page; null on the last page.
+ */
+public class UserPage {
+
+    private final List<UserSummary> users;
+    private final Long nextAfter;
+
+    public UserPage(List<UserSummary> users, Long nextAfter) {
+        this.users = users;
+        this.nextAfter = nextAfter;
+    }
+
+    public List<UserSummary> getUsers() { return users; }
+    public Long getNextAfter() { return nextAfter; }
+}
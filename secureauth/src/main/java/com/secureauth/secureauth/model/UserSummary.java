@@ -0,0 +1,29 @@
+package com.secureauth.secureauth.model;
+
+import java.time.LocalDateTime;
+
+/**
+ * User Summary
+ * ------------
+ * What the admin listing and export show of a user: no password hash,
+ * no OTPs.
+ */
+public class UserSummary {
+
+    private final long id;
+    private final String email;
+    private final boolean verified;
+    private final LocalDateTime createdAt;
+
+    public UserSummary(long id, String email, boolean verified, LocalDateTime createdAt) {
+        this.id = id;
+        this.email = email;
+        this.verified = verified;
+        this.createdAt = createdAt;
+    }
+
+    public long getId() { return id; }
+    public String getEmail() { return email; }
+    public boolean isVerified() { return verified; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+}
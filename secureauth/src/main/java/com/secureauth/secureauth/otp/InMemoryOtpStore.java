@@ -0,0 +1,81 @@
+package com.secureauth.secureauth.otp;
+
+import com.secureauth.secureauth.dao.RegistrationResult;
+import com.secureauth.secureauth.dao.UserDAO;
+import com.secureauth.secureauth.model.User;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * InMemoryOtpStore
+ * ----------------
+ * Keeps pending OTPs in process memory (see OtpTable) so issuing and
+ * resending an OTP no longer rewrites a row of the users table.
+ * The users table is only written when account state changes
+ * (registration, verification, new password).
+ *
+ * OTPs are per node: use with a single instance or sticky routing.
+ */
+@Component
+@ConditionalOnProperty(name = "secureauth.otp.store", havingValue = "memory")
+public class InMemoryOtpStore implements OtpStore {
+
+    // OTP expires after 5 minutes
+    private static final int OTP_TTL_SECONDS = 5 * 60;
+
+    private final UserDAO userDAO;
+    private final OtpTable verificationOtps = new OtpTable(OTP_TTL_SECONDS);
+    private final OtpTable resetOtps = new OtpTable(OTP_TTL_SECONDS);
+
+    public InMemoryOtpStore(UserDAO userDAO) {
+        this.userDAO = userDAO;
+    }
+
+    @Override
+    public RegistrationResult issueRegistrationOtp(String email, String hashedPassword, String otp) {
+        RegistrationResult result = userDAO.register(email, hashedPassword, null);
+
+        if (result != RegistrationResult.ALREADY_VERIFIED) {
+            verificationOtps.put(email, otp);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean issueVerificationOtp(String email, String otp) {
+        User user = userDAO.findByEmail(email);
+
+        if (user == null || user.isVerified()) {
+            return false;
+        }
+        verificationOtps.put(email, otp);
+        return true;
+    }
+
+    @Override
+    public boolean verify(String email, String otp) {
+        return verificationOtps.consume(email, otp) && userDAO.markVerified(email);
+    }
+
+    @Override
+    public boolean issueResetOtp(String email, String otp) {
+        if (userDAO.findByEmail(email) == null) {
+            return false;
+        }
+        resetOtps.put(email, otp);
+        return true;
+    }
+
+    @Override
+    public boolean resetPassword(String email, String otp, String newHashedPassword) {
+        return resetOtps.consume(email, otp) && userDAO.updatePassword(email, newHashedPassword);
+    }
+
+    /**
+     * Pending (not yet expired or consumed) OTPs of both kinds.
+     */
+    public int size() {
+        return verificationOtps.size() + resetOtps.size();
+    }
+}
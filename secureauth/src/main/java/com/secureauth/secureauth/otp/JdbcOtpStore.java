@@ -0,0 +1,49 @@
+package com.secureauth.secureauth.otp;
+
+import com.secureauth.secureauth.dao.RegistrationResult;
+import com.secureauth.secureauth.dao.UserDAO;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+/**
+ * JdbcOtpStore
+ * ------------
+ * Keeps OTPs in the otp / reset_otp columns of the users table.
+ * Every transition is a single statement in UserDAO.
+ */
+@Component
+@ConditionalOnProperty(name = "secureauth.otp.store", havingValue = "jdbc", matchIfMissing = true)
+public class JdbcOtpStore implements OtpStore {
+
+    private final UserDAO userDAO;
+
+    public JdbcOtpStore(UserDAO userDAO) {
+        this.userDAO = userDAO;
+    }
+
+    @Override
+    public RegistrationResult issueRegistrationOtp(String email, String hashedPassword, String otp) {
+        return userDAO.register(email, hashedPassword, otp);
+    }
+
+    @Override
+    public boolean issueVerificationOtp(String email, String otp) {
+        return userDAO.resendOtp(email, otp);
+    }
+
+    @Override
+    public boolean verify(String email, String otp) {
+        return userDAO.verifyOtp(email, otp);
+    }
+
+    @Override
+    public boolean issueResetOtp(String email, String otp) {
+        return userDAO.createPasswordResetOtp(email, otp);
+    }
+
+    @Override
+    public boolean resetPassword(String email, String otp, String newHashedPassword) {
+        return userDAO.resetPassword(email, otp, newHashedPassword);
+    }
+}
@@ -0,0 +1,44 @@
+package com.secureauth.secureauth.otp;
+
+import com.secureauth.secureauth.dao.RegistrationResult;
+
+/**
+ * OtpStore
+ * --------
+ * Owns every state transition that involves a one-time password:
+ * - issuing the email verification OTP (register / resend)
+ * - verifying it and activating the account
+ * - issuing the password reset OTP and resetting the password
+ *
+ * Implementations:
+ * - JdbcOtpStore     → OTPs live in the users table (default)
+ * - InMemoryOtpStore → OTPs live in process memory, users is only touched for account state
+ */
+public interface OtpStore {
+
+    /**
+     * Creates an unverified user, or issues a new OTP to an existing
+     * unverified one. Verified users are left untouched.
+     */
+    RegistrationResult issueRegistrationOtp(String email, String hashedPassword, String otp);
+
+    /**
+     * Issues a new verification OTP if the user exists and is not verified.
+     */
+    boolean issueVerificationOtp(String email, String otp);
+
+    /**
+     * Consumes a valid, unexpired verification OTP and marks the user verified.
+     */
+    boolean verify(String email, String otp);
+
+    /**
+     * Issues a password reset OTP if the user exists.
+     */
+    boolean issueResetOtp(String email, String otp);
+
+    /**
+     * Consumes a valid, unexpired reset OTP and stores the new password.
+     */
+    boolean resetPassword(String email, String otp, String newHashedPassword);
+}
@@ -0,0 +1,333 @@
+package com.secureauth.secureauth.otp;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.function.LongSupplier;
+
+/**
+ * OtpTable
+ * --------
+ * Expiring email → OTP map built to hold millions of pending OTPs.
+ *
+ * - the email becomes a 64-bit key (first 8 bytes of its SHA-256), the OTP an int
+ * - entries live in primitive open-addressing arrays, no object per entry
+ * - expiry uses a timer wheel with 1-second ticks: issuing an OTP appends its
+ *   key to the wheel slot of its deadline, and each access advances the wheel,
+ *   expiring due entries in O(1) each — no scheduled task per entry
+ * - the table is split into independently locked segments
+ *
+ * Roughly 40-70 bytes per pending OTP including the wheel.
+ */
+class OtpTable {
+
+    private static final int SEGMENTS = 64;               // power of two
+    private static final int SEGMENT_CAPACITY = 1024;     // initial slots, power of two
+    private static final int OTP_LENGTH = 6;
+
+    private final int ttlSeconds;
+    private final LongSupplier clockNanos;
+    private final long startNanos;
+    private final Segment[] segments = new Segment[SEGMENTS];
+
+    OtpTable(int ttlSeconds) {
+        this(ttlSeconds, System::nanoTime);
+    }
+
+    OtpTable(int ttlSeconds, LongSupplier clockNanos) {
+        this.ttlSeconds = ttlSeconds;
+        this.clockNanos = clockNanos;
+        this.startNanos = clockNanos.getAsLong();
+
+        // Wheel must be longer than the TTL so a slot is never reused before it is expired
+        int wheelSize = Integer.highestOneBit(ttlSeconds + 1) << 1;
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment(SEGMENT_CAPACITY, wheelSize);
+        }
+    }
+
+    /**
+     * Stores (or replaces) the OTP for an email.
+     */
+    void put(String email, String otp) {
+        int code = parse(otp);
+        if (code < 0) {
+            throw new IllegalArgumentException("OTP must be " + OTP_LENGTH + " digits");
+        }
+
+        long key = keyOf(email);
+        int now = currentTick();
+        Segment segment = segmentFor(key);
+
+        synchronized (segment) {
+            segment.advance(now);
+            segment.put(key, code, now + ttlSeconds);
+        }
+    }
+
+    /**
+     * Removes the OTP and returns true if it matches and has not expired.
+     * A wrong OTP leaves the stored one in place.
+     */
+    boolean consume(String email, String otp) {
+        int code = parse(otp);
+        if (code < 0) {
+            return false;
+        }
+
+        long key = keyOf(email);
+        int now = currentTick();
+        Segment segment = segmentFor(key);
+
+        synchronized (segment) {
+            segment.advance(now);
+            return segment.consume(key, code, now);
+        }
+    }
+
+    int size() {
+        int now = currentTick();
+        int total = 0;
+        for (Segment segment : segments) {
+            synchronized (segment) {
+                segment.advance(now);
+                total += segment.size;
+            }
+        }
+        return total;
+    }
+
+    /* =======================
+       HELPERS
+       ======================= */
+
+    private int currentTick() {
+        return (int) ((clockNanos.getAsLong() - startNanos) / 1_000_000_000L);
+    }
+
+    private Segment segmentFor(long key) {
+        // Top bits pick the segment, low bits the slot inside it
+        return segments[(int) (key >>> 58) & (SEGMENTS - 1)];
+    }
+
+    private static long keyOf(String email) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256")
+                    .digest(email.getBytes(StandardCharsets.UTF_8));
+            long key = ByteBuffer.wrap(hash).getLong();
+            return key == 0 ? 1 : key; // 0 marks an empty slot
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    /**
+     * Parses a 6-digit OTP, returns -1 if the input is not one.
+     */
+    private static int parse(String otp) {
+        if (otp == null || otp.length() != OTP_LENGTH) {
+            return -1;
+        }
+        int code = 0;
+        for (int i = 0; i < OTP_LENGTH; i++) {
+            char c = otp.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            code = code * 10 + (c - '0');
+        }
+        return code;
+    }
+
+    /* =======================
+       SEGMENT
+       ======================= */
+
+    /**
+     * Linear-probing hash table (key → code, deadline) plus its timer wheel.
+     * Guarded by its own monitor.
+     */
+    private static final class Segment {
+
+        private long[] keys;
+        private int[] codes;
+        private int[] deadlines;
+        private int mask;
+        private int size;
+
+        private final LongList[] wheel;
+        private final int wheelMask;
+        private int currentTick;
+
+        Segment(int capacity, int wheelSize) {
+            allocate(capacity);
+            this.wheel = new LongList[wheelSize];
+            this.wheelMask = wheelSize - 1;
+            for (int i = 0; i < wheelSize; i++) {
+                wheel[i] = new LongList();
+            }
+        }
+
+        void put(long key, int code, int deadline) {
+            int i = indexOf(key);
+
+            if (i < 0) {
+                if ((size + 1) * 2 > keys.length) {
+                    resize();
+                }
+                i = (int) key & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                size++;
+            }
+
+            codes[i] = code;
+            deadlines[i] = deadline;
+            wheel[deadline & wheelMask].add(key);
+        }
+
+        boolean consume(long key, int code, int now) {
+            int i = indexOf(key);
+
+            if (i < 0) {
+                return false;
+            }
+            if (deadlines[i] <= now) {
+                removeAt(i);
+                return false;
+            }
+            if (codes[i] != code) {
+                return false;
+            }
+
+            removeAt(i);
+            return true;
+        }
+
+        /**
+         * Expires everything due up to `now`. Only the wheel slots for
+         * the elapsed ticks are visited, each at most once.
+         */
+        void advance(int now) {
+            if (now <= currentTick) {
+                return;
+            }
+
+            int steps = Math.min(now - currentTick, wheel.length);
+            for (int s = 1; s <= steps; s++) {
+                LongList slot = wheel[(currentTick + s) & wheelMask];
+
+                for (int n = 0; n < slot.size; n++) {
+                    int i = indexOf(slot.values[n]);
+                    // A re-issued OTP has a later deadline in another slot: skip it here
+                    if (i >= 0 && deadlines[i] <= now) {
+                        removeAt(i);
+                    }
+                }
+                slot.clear();
+            }
+            currentTick = now;
+        }
+
+        private int indexOf(long key) {
+            int i = (int) key & mask;
+            while (true) {
+                long k = keys[i];
+                if (k == key) {
+                    return i;
+                }
+                if (k == 0) {
+                    return -1;
+                }
+                i = (i + 1) & mask;
+            }
+        }
+
+        /**
+         * Backward-shift deletion: keeps probe chains intact without tombstones.
+         */
+        private void removeAt(int i) {
+            int hole = i;
+            int j = i;
+
+            while (true) {
+                j = (j + 1) & mask;
+                long k = keys[j];
+                if (k == 0) {
+                    break;
+                }
+                int home = (int) k & mask;
+                if (((j - home) & mask) >= ((j - hole) & mask)) {
+                    keys[hole] = k;
+                    codes[hole] = codes[j];
+                    deadlines[hole] = deadlines[j];
+                    hole = j;
+                }
+            }
+
+            keys[hole] = 0;
+            size--;
+        }
+
+        private void resize() {
+            long[] oldKeys = keys;
+            int[] oldCodes = codes;
+            int[] oldDeadlines = deadlines;
+
+            allocate(oldKeys.length * 2);
+
+            for (int n = 0; n < oldKeys.length; n++) {
+                long key = oldKeys[n];
+                if (key == 0) {
+                    continue;
+                }
+                int i = (int) key & mask;
+                while (keys[i] != 0) {
+                    i = (i + 1) & mask;
+                }
+                keys[i] = key;
+                codes[i] = oldCodes[n];
+                deadlines[i] = oldDeadlines[n];
+            }
+        }
+
+        private void allocate(int capacity) {
+            keys = new long[capacity];
+            codes = new int[capacity];
+            deadlines = new int[capacity];
+            mask = capacity - 1;
+        }
+    }
+
+    /**
+     * Growable long array for one wheel slot.
+     */
+    private static final class LongList {
+
+        private static final int INITIAL = 8;
+        private static final int RETAIN = 1024;
+
+        long[] values = new long[INITIAL];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) {
+                long[] grown = new long[size * 2];
+                System.arraycopy(values, 0, grown, 0, size);
+                values = grown;
+            }
+            values[size++] = value;
+        }
+
+        void clear() {
+            size = 0;
+            // Let a slot that absorbed a burst give its memory back
+            if (values.length > RETAIN) {
+                values = new long[INITIAL];
+            }
+        }
+    }
+}
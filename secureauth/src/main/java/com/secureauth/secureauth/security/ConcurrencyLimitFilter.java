@@ -0,0 +1,81 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.config.ConcurrencyLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * ConcurrencyLimitFilter
+ * ----------------------
+ * Admits a request only if ConcurrencyLimiter has a slot for it, and times
+ * it for the limiter.
+ *
+ * Over the limit → 503 with Retry-After at once, the controller is never
+ * called: a fast "busy" instead of waiting in Tomcat's queue until timeout.
+ * Sheddable paths (the OTP-sending ones) go first; login and protected
+ * routes keep the rest of the limit.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] SERVER_BUSY =
+            "{\"status\":\"error\",\"message\":\"Server is busy, please try again shortly\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final ConcurrencyLimiter limiter;
+    private final Set<String> sheddablePaths;
+    private final Set<String> excludedPaths;
+
+    public ConcurrencyLimitFilter(ConcurrencyLimitProperties properties, ConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+        this.sheddablePaths = Set.copyOf(properties.getSheddablePaths());
+        this.excludedPaths = Set.copyOf(properties.getExcludedPaths());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        // As MVC sees it: /api/auth/register;x is still a sheddable request
+        String path = RequestPaths.pathWithinApplication(request);
+
+        if ("OPTIONS".equalsIgnoreCase(request.getMethod()) || excludedPaths.contains(path)) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        ConcurrencyLimiter.Priority priority = sheddablePaths.contains(path)
+                ? ConcurrencyLimiter.Priority.SHEDDABLE
+                : ConcurrencyLimiter.Priority.CRITICAL;
+
+        if (!limiter.tryAcquire(priority)) {
+            reject(response);
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() >= 500;
+        } finally {
+            limiter.release(System.nanoTime() - start, dropped);
+        }
+    }
+
+    private static void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(503);
+        response.setHeader("Retry-After", "1");
+        response.setContentType("application/json");
+        response.setContentLength(SERVER_BUSY.length);
+        response.getOutputStream().write(SERVER_BUSY);
+    }
+}
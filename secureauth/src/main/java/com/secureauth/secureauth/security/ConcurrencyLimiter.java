@@ -0,0 +1,194 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.config.ConcurrencyLimitProperties;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * ConcurrencyLimiter
+ * ------------------
+ * Caps the number of requests in flight. The cap follows the latency:
+ * when Postgres or SMTP slow down, each request holds its thread longer,
+ * and admitting as many as before only builds a queue in front of Tomcat.
+ *
+ * - the request path is one CAS on the in-flight count, no locks, no waiting:
+ *   over the limit the caller is turned away at once
+ * - latencies are collected per time window; when a window closes the
+ *   limit moves (gradient, as in Netflix's concurrency-limits Gradient2):
+ *
+ *       gradient = clamp(tolerance * longRtt / windowRtt, 0.5, 1)
+ *       limit    = limit * gradient + sqrt(limit)       (then smoothed)
+ *
+ *   windowRtt within tolerance of the long-term average: the limit grows by
+ *   about sqrt(limit); above it, the limit shrinks in proportion
+ * - a window with a 5xx (e.g. hashing pool full) cuts the limit by
+ *   backoff-ratio straight away (multiplicative decrease)
+ * - a window that never came near the limit leaves it alone: the latency
+ *   at low load says nothing about how much more the service can take
+ * - SHEDDABLE requests may only use sheddable-share of the limit
+ */
+public class ConcurrencyLimiter {
+
+    public enum Priority { CRITICAL, SHEDDABLE }
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final long windowNanos;
+    private final int minWindowSamples;
+    private final double longAlpha;
+    private final double rttTolerance;
+    private final double smoothing;
+    private final double backoffRatio;
+    private final double sheddableShare;
+    private final LongSupplier clockNanos;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private volatile int limit;
+
+    // The open window, filled on the request path without locks
+    private final AtomicLong windowStart;
+    private final LongAdder windowRttNanos = new LongAdder();
+    private final LongAdder windowSamples = new LongAdder();
+    private final AtomicInteger windowMaxInFlight = new AtomicInteger();
+    private final AtomicBoolean windowDropped = new AtomicBoolean();
+
+    // Only read and written in closeWindow(), under the lock
+    private double estimatedLimit;
+    private double longRttNanos;
+
+    private final LongAdder rejectedCritical = new LongAdder();
+    private final LongAdder rejectedSheddable = new LongAdder();
+
+    public ConcurrencyLimiter(ConcurrencyLimitProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    ConcurrencyLimiter(ConcurrencyLimitProperties properties, LongSupplier clockNanos) {
+        if (properties.getMinLimit() < 1 || properties.getMaxLimit() < properties.getMinLimit()) {
+            throw new IllegalArgumentException(
+                    "secureauth.concurrency-limit: need 1 <= min-limit <= max-limit");
+        }
+        this.minLimit = properties.getMinLimit();
+        this.maxLimit = properties.getMaxLimit();
+        this.windowNanos = properties.getWindowMs() * 1_000_000L;
+        this.minWindowSamples = Math.max(1, properties.getMinWindowSamples());
+        this.longAlpha = 2.0 / (Math.max(1, properties.getLongWindows()) + 1);
+        this.rttTolerance = properties.getRttTolerance();
+        this.smoothing = properties.getSmoothing();
+        this.backoffRatio = properties.getBackoffRatio();
+        this.sheddableShare = properties.getSheddableShare();
+        this.clockNanos = clockNanos;
+
+        this.estimatedLimit = clamp(properties.getInitialLimit(), minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+        this.windowStart = new AtomicLong(clockNanos.getAsLong());
+    }
+
+    /**
+     * Takes a slot if the priority's share of the limit has one left.
+     * Every `true` must be followed by exactly one {@link #release}.
+     */
+    public boolean tryAcquire(Priority priority) {
+        int current = limit;
+        int cap = priority == Priority.SHEDDABLE ? Math.max(1, (int) (current * sheddableShare)) : current;
+
+        while (true) {
+            int taken = inFlight.get();
+            if (taken >= cap) {
+                (priority == Priority.SHEDDABLE ? rejectedSheddable : rejectedCritical).increment();
+                return false;
+            }
+            if (inFlight.compareAndSet(taken, taken + 1)) {
+                windowMaxInFlight.accumulateAndGet(taken + 1, Math::max);
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Gives the slot back with how long the request took.
+     *
+     * @param dropped the request failed for lack of capacity (5xx)
+     */
+    public void release(long rttNanos, boolean dropped) {
+        inFlight.decrementAndGet();
+
+        windowRttNanos.add(rttNanos);
+        windowSamples.increment();
+        if (dropped) {
+            windowDropped.set(true);
+        }
+
+        long now = clockNanos.getAsLong();
+        long start = windowStart.get();
+        if (now - start >= windowNanos && windowStart.compareAndSet(start, now)) {
+            closeWindow();
+        }
+    }
+
+    /* =========================================================
+       LIMIT
+       ========================================================= */
+
+    // Once per window, by the request that closed it. Samples added while the
+    // adders are read land in one window or the next: close enough
+    private synchronized void closeWindow() {
+        long samples = windowSamples.sumThenReset();
+        long rttSum = windowRttNanos.sumThenReset();
+        int maxInFlight = windowMaxInFlight.getAndSet(0);
+        boolean dropped = windowDropped.getAndSet(false);
+
+        if (dropped) {
+            estimatedLimit = Math.max(minLimit, estimatedLimit * backoffRatio);
+            limit = (int) estimatedLimit;
+            return;
+        }
+
+        // Too few to average: carry them over into the next window
+        if (samples < minWindowSamples) {
+            windowSamples.add(samples);
+            windowRttNanos.add(rttSum);
+            windowMaxInFlight.accumulateAndGet(maxInFlight, Math::max);
+            return;
+        }
+
+        double shortRtt = Math.max(1.0, (double) rttSum / samples);
+
+        longRttNanos = longRttNanos == 0 ? shortRtt : longRttNanos + (shortRtt - longRttNanos) * longAlpha;
+
+        // Back from a slow period: let the long-term figure come down faster
+        if (longRttNanos / shortRtt > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        if (maxInFlight < estimatedLimit / 2) {
+            return;
+        }
+
+        double gradient = clamp(rttTolerance * longRttNanos / shortRtt, 0.5, 1.0);
+        double target = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+
+        estimatedLimit = clamp(estimatedLimit * (1 - smoothing) + target * smoothing, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+
+    private static double clamp(double value, double min, double max) {
+        return Math.max(min, Math.min(max, value));
+    }
+
+    /* =========================================================
+       METRICS
+       ========================================================= */
+
+    public int getLimit() { return limit; }
+
+    public int getInFlight() { return inFlight.get(); }
+
+    public long getRejected(Priority priority) {
+        return (priority == Priority.SHEDDABLE ? rejectedSheddable : rejectedCritical).sum();
+    }
+}
@@ -1,5 +1,9 @@
 package com.secureauth.secureauth.security;
 
+import com.secureauth.secureauth.config.ConcurrencyLimitProperties;
+import com.secureauth.secureauth.config.RateLimitProperties;
+import com.secureauth.secureauth.config.RevocationProperties;
+import com.secureauth.secureauth.config.RouteProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.boot.web.servlet.FilterRegistrationBean;
@@ -8,10 +12,56 @@ import org.springframework.boot.web.servlet.FilterRegistrationBean;
 public class FilterConfig {
 
     @Bean
-    public FilterRegistrationBean<JwtFilter> jwtFilter() {
+    public TokenDenylist tokenDenylist(RevocationProperties properties) {
+        return new TokenDenylist(properties.getExpectedEntries(), properties.getFalsePositiveRate());
+    }
+
+    @Bean
+    public RouteTable routeTable(RouteProperties properties) {
+        return new RouteTable(properties.getPublicPaths(), properties.getScopes());
+    }
+
+    @Bean
+    public FilterRegistrationBean<JwtFilter> jwtFilter(TokenDenylist tokenDenylist, RouteTable routeTable) {
         FilterRegistrationBean<JwtFilter> registrationBean = new FilterRegistrationBean<>();
-        registrationBean.setFilter(new JwtFilter());
+        registrationBean.setFilter(new JwtFilter(tokenDenylist, routeTable));
+        registrationBean.addUrlPatterns("/api/*");
+        registrationBean.setOrder(1);
+        return registrationBean;
+    }
+
+    @Bean
+    public RateLimiter rateLimiter(RateLimitProperties properties) {
+        return new RateLimiter(properties.getMaxKeys());
+    }
+
+    // After JwtFilter; CorsConfig's filter runs before both, so a 429 carries CORS headers too
+    @Bean
+    public FilterRegistrationBean<RateLimitFilter> rateLimitFilter(RateLimitProperties properties,
+                                                                   RateLimiter rateLimiter) {
+        FilterRegistrationBean<RateLimitFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new RateLimitFilter(properties, rateLimiter));
+        registrationBean.addUrlPatterns("/api/auth/*");
+        registrationBean.setOrder(2);
+        registrationBean.setEnabled(properties.isEnabled());
+        return registrationBean;
+    }
+
+    @Bean
+    public ConcurrencyLimiter concurrencyLimiter(ConcurrencyLimitProperties properties) {
+        return new ConcurrencyLimiter(properties);
+    }
+
+    // Last: requests turned away by JwtFilter or RateLimitFilter never hold a slot,
+    // and the latency it measures is the controller's
+    @Bean
+    public FilterRegistrationBean<ConcurrencyLimitFilter> concurrencyLimitFilter(ConcurrencyLimitProperties properties,
+                                                                                 ConcurrencyLimiter limiter) {
+        FilterRegistrationBean<ConcurrencyLimitFilter> registrationBean = new FilterRegistrationBean<>();
+        registrationBean.setFilter(new ConcurrencyLimitFilter(properties, limiter));
         registrationBean.addUrlPatterns("/api/*");
+        registrationBean.setOrder(3);
+        registrationBean.setEnabled(properties.isEnabled());
         return registrationBean;
     }
 }
@@ -1,6 +1,7 @@
 package com.secureauth.secureauth.security;
 
 import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.VerifiedToken;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -8,76 +9,108 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.nio.charset.StandardCharsets;
 
+/**
+ * JwtFilter
+ * ---------
+ * Authenticates /api/* requests in one pass:
+ * route lookup (RouteTable) → Bearer token → signature and expiry →
+ * revocation → required scopes.
+ *
+ * Routes are matched on the path as MVC matches handlers (RequestPaths),
+ * not on the raw URI.
+ *
+ * CORS is not handled here: CorsConfig's filter runs first and answers
+ * preflights. Error bodies are serialized once, at class load.
+ */
 public class JwtFilter extends OncePerRequestFilter {
 
+    private static final String BEARER = "Bearer ";
+
+    private static final byte[] MISSING_TOKEN = error("Missing or invalid Authorization header");
+    private static final byte[] INVALID_TOKEN = error("Invalid or expired token");
+    private static final byte[] REVOKED_TOKEN = error("Token has been revoked");
+    private static final byte[] INSUFFICIENT_SCOPE = error("Forbidden");
+
+    private final TokenDenylist denylist;
+    private final RouteTable routes;
+
+    public JwtFilter(TokenDenylist denylist, RouteTable routes) {
+        this.denylist = denylist;
+        this.routes = routes;
+    }
+
     @Override
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain)
             throws ServletException, IOException {
 
-        /* =========================================================
-           CORS HEADERS (MUST BE FIRST)
-           ========================================================= */
-        response.setHeader("Access-Control-Allow-Origin", "http://127.0.0.1:5501");
-        response.setHeader(
-                "Access-Control-Allow-Methods",
-                "GET,POST,PUT,DELETE,OPTIONS"
-        );
-        response.setHeader(
-                "Access-Control-Allow-Headers",
-                "Authorization,Content-Type"
-        );
-        response.setHeader("Access-Control-Allow-Credentials", "true");
+        // Decoded, without ;params: /api/%61dmin;a/users must find the admin rule
+        RouteTable.Route route = routes.match(RequestPaths.pathWithinApplication(request));
 
-        /* =========================================================
-           ALLOW PREFLIGHT REQUESTS (CRITICAL)
-           ========================================================= */
-        if ("OPTIONS".equalsIgnoreCase(request.getMethod())) {
-            response.setStatus(HttpServletResponse.SC_OK);
+        // Public route, or an OPTIONS request that is not a CORS preflight
+        if (route.isPublic() || "OPTIONS".equals(request.getMethod())) {
+            filterChain.doFilter(request, response);
             return;
         }
 
-        String path = request.getRequestURI();
-
         /* =========================================================
-           PUBLIC ENDPOINTS (NO JWT REQUIRED)
+           JWT VALIDATION (PROTECTED ENDPOINTS)
            ========================================================= */
-        if (path.equals("/api/auth/login") ||
-            path.equals("/api/auth/register") ||
-            path.equals("/api/auth/verify-otp") ||
-            path.equals("/api/auth/resend-otp") ||
-            path.equals("/api/auth/forgot-password") ||
-            path.equals("/api/auth/reset-password")) {
+        String token = bearerToken(request.getHeader("Authorization"));
 
-            filterChain.doFilter(request, response);
+        if (token == null) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, MISSING_TOKEN);
             return;
         }
 
-        /* =========================================================
-           JWT VALIDATION (PROTECTED ENDPOINTS)
-           ========================================================= */
-        String authHeader = request.getHeader("Authorization");
+        VerifiedToken verified = JwtUtil.verify(token);
 
-        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("Missing or invalid Authorization header");
+        if (verified == null) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, INVALID_TOKEN);
             return;
         }
 
-        String token = authHeader.substring(7);
-        String email = JwtUtil.validateToken(token);
-
-        if (email == null) {
-            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
-            response.getWriter().write("Invalid or expired token");
+        // In memory only: no database access per request
+        if (denylist.isRevoked(verified)) {
+            reject(response, HttpServletResponse.SC_UNAUTHORIZED, REVOKED_TOKEN);
             return;
         }
 
-        // Attach authenticated email
-        request.setAttribute("authenticatedEmail", email);
+        for (String scope : route.getScopes()) {
+            if (!verified.hasScope(scope)) {
+                reject(response, HttpServletResponse.SC_FORBIDDEN, INSUFFICIENT_SCOPE);
+                return;
+            }
+        }
+
+        // Attach authenticated email, and the token itself for logout
+        request.setAttribute("authenticatedEmail", verified.getSubject());
+        request.setAttribute("authenticatedToken", verified);
 
         filterChain.doFilter(request, response);
     }
+
+    // "Bearer <token>": the scheme is case-insensitive (RFC 6750); null if absent or empty
+    private static String bearerToken(String header) {
+        if (header == null
+                || header.length() <= BEARER.length()
+                || !header.regionMatches(true, 0, BEARER, 0, BEARER.length())) {
+            return null;
+        }
+        return header.substring(BEARER.length());
+    }
+
+    private static void reject(HttpServletResponse response, int status, byte[] body) throws IOException {
+        response.setStatus(status);
+        response.setContentType("application/json");
+        response.setContentLength(body.length);
+        response.getOutputStream().write(body);
+    }
+
+    private static byte[] error(String message) {
+        return ("{\"status\":\"error\",\"message\":\"" + message + "\"}").getBytes(StandardCharsets.UTF_8);
+    }
 }
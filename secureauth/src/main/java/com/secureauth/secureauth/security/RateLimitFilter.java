@@ -0,0 +1,113 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.config.RateLimitProperties;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * RateLimitFilter
+ * ---------------
+ * Throttles the public auth endpoints per client IP and per email,
+ * so a script cannot turn them into a DB-write / SMTP-send loop.
+ *
+ * Over the limit → 429 with Retry-After, the controller is never called.
+ * Rules are keyed on the path as MVC matches it (RequestPaths), so
+ * ";params" or percent-encoding cannot route around a bucket.
+ * The client IP is request.getRemoteAddr(): behind a proxy, set
+ * server.forward-headers-strategy so it is the real client address.
+ */
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final byte[] TOO_MANY_REQUESTS =
+            "{\"status\":\"error\",\"message\":\"Too many requests, please try again later\"}"
+                    .getBytes(StandardCharsets.UTF_8);
+
+    private final RateLimiter limiter;
+    private final Map<String, Rule> rules = new HashMap<>();
+
+    public RateLimitFilter(RateLimitProperties properties, RateLimiter limiter) {
+        this.limiter = limiter;
+
+        properties.getEndpoints().forEach((name, endpoint) -> {
+            if (endpoint.getPath() == null) {
+                throw new IllegalArgumentException("secureauth.rate-limit.endpoints." + name + ".path is required");
+            }
+            rules.put(endpoint.getPath(),
+                    new Rule(name, toLimit(endpoint.getPerIp()), toLimit(endpoint.getPerEmail())));
+        });
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain filterChain)
+            throws ServletException, IOException {
+
+        Rule rule = rules.get(RequestPaths.pathWithinApplication(request));
+
+        // Only the configured endpoints, and never CORS preflights
+        if (rule == null || "OPTIONS".equalsIgnoreCase(request.getMethod())) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        long waitNanos = 0;
+
+        if (rule.perIp != null) {
+            waitNanos = limiter.tryAcquire(rule.name + "|ip|" + request.getRemoteAddr(), rule.perIp);
+        }
+
+        if (waitNanos == 0 && rule.perEmail != null) {
+            String email = request.getParameter("email");
+            if (email != null && !email.isBlank()) {
+                waitNanos = limiter.tryAcquire(
+                        rule.name + "|email|" + email.trim().toLowerCase(Locale.ROOT), rule.perEmail);
+            }
+        }
+
+        if (waitNanos > 0) {
+            reject(response, waitNanos);
+            return;
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    private static void reject(HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + 999_999_999L) / 1_000_000_000L);
+
+        response.setStatus(429);
+        response.setHeader("Retry-After", Long.toString(retryAfterSeconds));
+        response.setContentType("application/json");
+        response.setContentLength(TOO_MANY_REQUESTS.length);
+        response.getOutputStream().write(TOO_MANY_REQUESTS);
+    }
+
+    private static RateLimiter.Limit toLimit(RateLimitProperties.Limit limit) {
+        if (limit == null || limit.getRequests() <= 0) {
+            return null;
+        }
+        return new RateLimiter.Limit(limit.getRequests(), limit.getPeriodSeconds());
+    }
+
+    private static final class Rule {
+        final String name;
+        final RateLimiter.Limit perIp;
+        final RateLimiter.Limit perEmail;
+
+        Rule(String name, RateLimiter.Limit perIp, RateLimiter.Limit perEmail) {
+            this.name = name;
+            this.perIp = perIp;
+            this.perEmail = perEmail;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.secureauth.secureauth.security;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * RateLimiter
+ * -----------
+ * Token buckets keyed by string (e.g. "login|ip|10.0.0.1").
+ *
+ * - each bucket is one AtomicLong updated by CAS (GCRA: it holds the time at
+ *   which the bucket will be full again), no locks on the request path
+ * - buckets live in independent stripes, each bounded to maxKeys / STRIPES
+ * - a bucket whose refill time has passed is full, i.e. the same as no bucket:
+ *   such idle buckets are evicted first, without changing any client's limit
+ * - only if a stripe is full of active buckets are arbitrary ones dropped
+ */
+public class RateLimiter {
+
+    private static final int STRIPES = 16;                  // power of two
+
+    // Marks a bucket being evicted; callers holding it look it up again
+    private static final long EVICTED = Long.MAX_VALUE;
+    private static final long EMPTY = Long.MIN_VALUE;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final int maxKeysPerStripe;
+    private final LongSupplier clockNanos;
+
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public RateLimiter(int maxKeys) {
+        this(maxKeys, System::nanoTime);
+    }
+
+    RateLimiter(int maxKeys, LongSupplier clockNanos) {
+        this.maxKeysPerStripe = Math.max(1, maxKeys / STRIPES);
+        this.clockNanos = clockNanos;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Takes one token from the key's bucket.
+     *
+     * @return 0 if allowed, otherwise how many nanoseconds until a token is available
+     */
+    public long tryAcquire(String key, Limit limit) {
+        Stripe stripe = stripeFor(key);
+        long now = clockNanos.getAsLong();
+
+        while (true) {
+            AtomicLong bucket = stripe.bucket(key, now);
+
+            while (true) {
+                long fullAt = bucket.get();
+                if (fullAt == EVICTED) {
+                    break; // evicted under us: fetch the new bucket
+                }
+
+                long next = Math.max(fullAt, now) + limit.intervalNanos;
+                long wait = next - now - limit.burstNanos;
+
+                if (wait > 0) {
+                    rejected.increment();
+                    return wait;
+                }
+                if (bucket.compareAndSet(fullAt, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+
+    private Stripe stripeFor(String key) {
+        int h = key.hashCode();
+        return stripes[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+
+    /* =======================
+       STATS
+       ======================= */
+
+    public long getRejected() { return rejected.sum(); }
+
+    public long getEvictions() { return evictions.sum(); }
+
+    public int size() {
+        int total = 0;
+        for (Stripe stripe : stripes) {
+            total += stripe.buckets.size();
+        }
+        return total;
+    }
+
+    /* =======================
+       LIMIT
+       ======================= */
+
+    /**
+     * `requests` tokens, refilled evenly over `periodSeconds`.
+     */
+    public static final class Limit {
+        final long intervalNanos;
+        final long burstNanos;
+
+        public Limit(int requests, long periodSeconds) {
+            if (requests <= 0 || periodSeconds <= 0) {
+                throw new IllegalArgumentException("requests and periodSeconds must be positive");
+            }
+            this.intervalNanos = periodSeconds * 1_000_000_000L / requests;
+            this.burstNanos = intervalNanos * requests;
+        }
+    }
+
+    /* =======================
+       STRIPE
+       ======================= */
+
+    private final class Stripe {
+
+        final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        final AtomicBoolean sweeping = new AtomicBoolean();
+
+        AtomicLong bucket(String key, long now) {
+            AtomicLong bucket = buckets.get(key);
+            if (bucket != null) {
+                return bucket;
+            }
+            if (buckets.size() >= maxKeysPerStripe) {
+                makeRoom(now);
+            }
+            return buckets.computeIfAbsent(key, k -> new AtomicLong(EMPTY));
+        }
+
+        /**
+         * Evicts idle buckets; if that is not enough, arbitrary ones
+         * until the stripe is at 90% of its limit.
+         */
+        private void makeRoom(long now) {
+            // One sweeper per stripe, others just insert
+            if (!sweeping.compareAndSet(false, true)) {
+                return;
+            }
+
+            try {
+                Iterator<Map.Entry<String, AtomicLong>> it = buckets.entrySet().iterator();
+                while (it.hasNext()) {
+                    AtomicLong bucket = it.next().getValue();
+                    long fullAt = bucket.get();
+                    if (fullAt <= now && bucket.compareAndSet(fullAt, EVICTED)) {
+                        it.remove();
+                        evictions.increment();
+                    }
+                }
+
+                int target = maxKeysPerStripe - maxKeysPerStripe / 10;
+                it = buckets.entrySet().iterator();
+                while (buckets.size() > target && it.hasNext()) {
+                    it.next().getValue().set(EVICTED);
+                    it.remove();
+                    evictions.increment();
+                }
+            } finally {
+                sweeping.set(false);
+            }
+        }
+    }
+}
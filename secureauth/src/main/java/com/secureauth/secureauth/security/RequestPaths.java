@@ -0,0 +1,40 @@
+package com.secureauth.secureauth.security;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.RequestPath;
+
+/**
+ * RequestPaths
+ * ------------
+ * The path the filters key their rules on, normalized the way Spring MVC
+ * matches handlers: context path removed, each segment percent-decoded and
+ * stripped of ";params". Otherwise /api/auth/login;x=1 or /api/auth/%6cogin
+ * would reach AuthController.login while missing the filters' rules.
+ *
+ * A URI without ';' or '%' is already in that form and is returned without
+ * parsing or copying (no context path: the URI itself).
+ */
+final class RequestPaths {
+
+    private RequestPaths() {
+    }
+
+    static String pathWithinApplication(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        String contextPath = request.getContextPath();
+
+        if (uri.indexOf(';') < 0 && uri.indexOf('%') < 0) {
+            return contextPath.isEmpty() ? uri : uri.substring(contextPath.length());
+        }
+
+        PathContainer path = RequestPath.parse(uri, contextPath).pathWithinApplication();
+        StringBuilder normalized = new StringBuilder(uri.length());
+        for (PathContainer.Element element : path.elements()) {
+            normalized.append(element instanceof PathContainer.PathSegment segment
+                    ? segment.valueToMatch()
+                    : element.value());
+        }
+        return normalized.toString();
+    }
+}
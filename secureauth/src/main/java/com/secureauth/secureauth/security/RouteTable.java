@@ -0,0 +1,179 @@
+package com.secureauth.secureauth.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * RouteTable
+ * ----------
+ * What JwtFilter requires of each path, compiled once into a trie of path
+ * segments. Matching walks the path in place: no split, no
+ * substring, no allocation per request.
+ *
+ * Patterns are matched segment by segment against the normalized path:
+ * - `name` matches that segment exactly
+ * - `*` matches any one segment
+ * - `**` (last segment only) matches any number of segments, including none
+ *
+ * The most specific pattern wins (exact before `*` before `**`).
+ * A path no pattern matches needs a valid token and no scope: fail closed.
+ */
+public final class RouteTable {
+
+    /**
+     * The access rule of one route.
+     */
+    public static final class Route {
+
+        static final Route AUTHENTICATED = new Route(false, new String[0]);
+
+        private final boolean open;
+        private final String[] scopes;
+
+        private Route(boolean open, String[] scopes) {
+            this.open = open;
+            this.scopes = scopes;
+        }
+
+        // No token needed
+        public boolean isPublic() { return open; }
+
+        // The token must carry every one of these
+        public String[] getScopes() { return scopes; }
+    }
+
+    private final Node root = new Node();
+
+    /**
+     * @param publicPaths patterns reachable without a token
+     * @param scopes      pattern → scopes the token must carry
+     */
+    public RouteTable(Collection<String> publicPaths, Map<String, ? extends Collection<String>> scopes) {
+        Route open = new Route(true, new String[0]);
+        for (String pattern : publicPaths) {
+            add(pattern, open);
+        }
+        scopes.forEach((pattern, required) -> {
+            String[] names = required.stream().map(String::trim).filter(s -> !s.isEmpty()).toArray(String[]::new);
+            add(pattern, new Route(false, names));
+        });
+    }
+
+    /**
+     * The rule for a path; never null. The path must already be decoded and
+     * free of ";params" (RequestPaths), as MVC sees it.
+     */
+    public Route match(String path) {
+        if (path == null || path.isEmpty() || path.charAt(0) != '/') {
+            return Route.AUTHENTICATED;
+        }
+        Route route = match(root, path, 0);
+        return route != null ? route : Route.AUTHENTICATED;
+    }
+
+    /* =======================
+       MATCHING
+       ======================= */
+
+    // pos is at a '/' or at the end of the path
+    private static Route match(Node node, String path, int pos) {
+        int length = path.length();
+        if (pos == length) {
+            return node.route != null ? node.route : node.rest;
+        }
+
+        int start = pos + 1;
+        int end = path.indexOf('/', start);
+        if (end < 0) {
+            end = length;
+        }
+        int segmentLength = end - start;
+
+        for (int i = 0; i < node.names.length; i++) {
+            String name = node.names[i];
+            if (name.length() == segmentLength && path.regionMatches(start, name, 0, segmentLength)) {
+                Route route = match(node.children[i], path, end);
+                if (route != null) {
+                    return route;
+                }
+                break; // names are unique
+            }
+        }
+
+        if (node.any != null && segmentLength > 0) {
+            Route route = match(node.any, path, end);
+            if (route != null) {
+                return route;
+            }
+        }
+
+        return node.rest;
+    }
+
+    /* =======================
+       COMPILING
+       ======================= */
+
+    private void add(String pattern, Route route) {
+        String trimmed = pattern == null ? "" : pattern.trim();
+        if (!trimmed.startsWith("/")) {
+            throw new IllegalArgumentException("Route pattern must start with '/': " + pattern);
+        }
+
+        String[] segments = trimmed.substring(1).split("/", -1);
+        Node node = root;
+
+        for (int i = 0; i < segments.length; i++) {
+            String segment = segments[i];
+
+            if (segment.equals("**")) {
+                if (i != segments.length - 1) {
+                    throw new IllegalArgumentException("'**' must be the last segment: " + pattern);
+                }
+                node.rest = checkUnset(node.rest, route, pattern);
+                return;
+            }
+            if (segment.equals("*")) {
+                if (node.any == null) {
+                    node.any = new Node();
+                }
+                node = node.any;
+            } else if (segment.contains("*")) {
+                throw new IllegalArgumentException("'*' must be a whole segment: " + pattern);
+            } else {
+                node = node.child(segment);
+            }
+        }
+
+        node.route = checkUnset(node.route, route, pattern);
+    }
+
+    private static Route checkUnset(Route existing, Route route, String pattern) {
+        if (existing != null) {
+            throw new IllegalArgumentException("Route pattern listed twice: " + pattern);
+        }
+        return route;
+    }
+
+    private static final class Node {
+        // Exact segments, scanned linearly: a node has a handful at most
+        String[] names = new String[0];
+        Node[] children = new Node[0];
+        Node any;   // `*`
+        Route rest; // `**`
+        Route route;
+
+        Node child(String name) {
+            int index = Arrays.asList(names).indexOf(name);
+            if (index >= 0) {
+                return children[index];
+            }
+            names = Arrays.copyOf(names, names.length + 1);
+            children = Arrays.copyOf(children, children.length + 1);
+            names[names.length - 1] = name;
+            children[children.length - 1] = new Node();
+            return children[children.length - 1];
+        }
+    }
+}
@@ -0,0 +1,254 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.util.VerifiedToken;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * TokenDenylist
+ * -------------
+ * Revoked tokens, checked by JwtFilter on every request without touching
+ * the database. Two kinds of entry:
+ * - by token id (`jti`): that one token is revoked (logout)
+ * - by subject: every token of that email issued up to the revocation
+ *   is revoked (account deleted, password reset)
+ *
+ * A Bloom filter answers "definitely not revoked" for almost every request
+ * with a few hashes and array reads; only on a Bloom hit is the exact map
+ * consulted. The persisted copy is kept by TokenRevocationService.
+ *
+ * An entry is only needed until the tokens it covers expire: prune() drops
+ * those and rebuilds the Bloom filter, which cannot remove single keys.
+ * Writers (revoke, prune) are serialized; readers never lock.
+ */
+public class TokenDenylist {
+
+    private static final char TOKEN = 'j';
+    private static final char SUBJECT = 's';
+
+    private final int expectedEntries;
+    private final double falsePositiveRate;
+    private final LongSupplier clockMs;
+
+    // Keyed by kind + value, e.g. "j" + jti or "s" + lower-cased email
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private volatile BloomFilter bloom;
+
+    private final LongAdder exactLookups = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public TokenDenylist(int expectedEntries, double falsePositiveRate) {
+        this(expectedEntries, falsePositiveRate, System::currentTimeMillis);
+    }
+
+    TokenDenylist(int expectedEntries, double falsePositiveRate, LongSupplier clockMs) {
+        if (expectedEntries <= 0 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("expectedEntries must be positive and falsePositiveRate in (0, 1)");
+        }
+        this.expectedEntries = expectedEntries;
+        this.falsePositiveRate = falsePositiveRate;
+        this.clockMs = clockMs;
+        this.bloom = new BloomFilter(expectedEntries, falsePositiveRate);
+    }
+
+    /* =======================
+       REQUEST PATH
+       ======================= */
+
+    public boolean isRevoked(VerifiedToken token) {
+        BloomFilter bloom = this.bloom;
+
+        String id = token.getId();
+        if (id != null && bloom.mightContain(TOKEN, id)) {
+            exactLookups.increment();
+            if (entries.containsKey(TOKEN + id)) {
+                rejected.increment();
+                return true;
+            }
+        }
+
+        String subject = token.getSubject();
+        if (subject != null && bloom.mightContain(SUBJECT, subject)) {
+            exactLookups.increment();
+            Entry entry = entries.get(SUBJECT + subjectKey(subject));
+            // iat has one-second precision: a token issued in the same second is revoked too
+            if (entry != null && token.getIssuedAtMs() <= entry.revokedAtMs) {
+                rejected.increment();
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /* =======================
+       REVOCATION
+       ======================= */
+
+    /**
+     * Revokes one token until its own expiry.
+     */
+    public void revokeToken(String tokenId, long expiresAtMs) {
+        add(TOKEN, tokenId, TOKEN + tokenId, 0, expiresAtMs);
+    }
+
+    /**
+     * Revokes every token of the subject issued at or before revokedAtMs.
+     * expiresAtMs is when the last of those tokens expires.
+     */
+    public void revokeSubject(String subject, long revokedAtMs, long expiresAtMs) {
+        add(SUBJECT, subject, SUBJECT + subjectKey(subject), revokedAtMs, expiresAtMs);
+    }
+
+    private synchronized void add(char kind, String value, String key, long revokedAtMs, long expiresAtMs) {
+        if (expiresAtMs <= clockMs.getAsLong()) {
+            return; // every token it covers has expired already
+        }
+
+        // Bloom bits first: until the entry is in the map a hit is just a false positive
+        if (entries.size() >= bloom.capacity) {
+            rebuild();
+        }
+        bloom.put(kind, value);
+
+        entries.merge(key, new Entry(revokedAtMs, expiresAtMs), Entry::max);
+    }
+
+    /**
+     * Drops entries whose tokens have all expired and rebuilds the Bloom
+     * filter from what is left.
+     *
+     * @return number of entries dropped
+     */
+    public synchronized int prune() {
+        long now = clockMs.getAsLong();
+        int before = entries.size();
+
+        entries.values().removeIf(entry -> entry.expiresAtMs <= now);
+        rebuild();
+
+        return before - entries.size();
+    }
+
+    // Caller holds the lock, so no entry is added while the new filter is filled
+    private void rebuild() {
+        BloomFilter rebuilt = new BloomFilter(Math.max(expectedEntries, entries.size() * 2), falsePositiveRate);
+        for (String key : entries.keySet()) {
+            rebuilt.put(key.charAt(0), key.substring(1));
+        }
+        bloom = rebuilt;
+    }
+
+    // Emails are case-insensitive; folded char by char exactly as BloomFilter.hash does
+    private static String subjectKey(String subject) {
+        char[] chars = subject.toCharArray();
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = Character.toLowerCase(chars[i]);
+        }
+        return new String(chars);
+    }
+
+    /* =======================
+       STATS
+       ======================= */
+
+    // Bloom hits that went on to the exact map
+    public long getExactLookups() { return exactLookups.sum(); }
+
+    // Requests refused because their token was revoked
+    public long getRejected() { return rejected.sum(); }
+
+    public int size() { return entries.size(); }
+
+    /* =======================
+       INTERNALS
+       ======================= */
+
+    private static final class Entry {
+        final long revokedAtMs;
+        final long expiresAtMs;
+
+        Entry(long revokedAtMs, long expiresAtMs) {
+            this.revokedAtMs = revokedAtMs;
+            this.expiresAtMs = expiresAtMs;
+        }
+
+        static Entry max(Entry a, Entry b) {
+            return new Entry(Math.max(a.revokedAtMs, b.revokedAtMs), Math.max(a.expiresAtMs, b.expiresAtMs));
+        }
+    }
+
+    /**
+     * Fixed-size Bloom filter over (kind, value) keys.
+     *
+     * k bit positions from one 64-bit hash (h1 + i * h2). Subjects are
+     * hashed case-insensitively, so the request path does not allocate a
+     * lower-cased copy of the email.
+     */
+    static final class BloomFilter {
+
+        final int capacity;
+        private final long bitCount;
+        private final int hashCount;
+        private final AtomicLongArray words;
+
+        BloomFilter(int capacity, double falsePositiveRate) {
+            // m = -n ln p / (ln 2)^2, k = m / n ln 2
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.capacity = capacity;
+            this.bitCount = Math.max(64, (bits + 63) / 64 * 64);
+            this.hashCount = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+            this.words = new AtomicLongArray((int) (bitCount / 64));
+        }
+
+        void put(char kind, String value) {
+            long hash = hash(kind, value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + (long) i * h2);
+                long mask = 1L << bit;
+                int word = (int) (bit >>> 6);
+                words.getAndAccumulate(word, mask, (current, m) -> current | m);
+            }
+        }
+
+        boolean mightContain(char kind, String value) {
+            long hash = hash(kind, value);
+            int h1 = (int) hash;
+            int h2 = (int) (hash >>> 32);
+            for (int i = 1; i <= hashCount; i++) {
+                long bit = index(h1 + (long) i * h2);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private long index(long combined) {
+            return (combined & Long.MAX_VALUE) % bitCount;
+        }
+
+        // FNV-1a over the characters, then the MurmurHash3 finalizer to spread the bits
+        private static long hash(char kind, String value) {
+            long h = 0xcbf29ce484222325L;
+            h = (h ^ kind) * 0x100000001b3L;
+            boolean fold = kind == SUBJECT;
+            for (int i = 0; i < value.length(); i++) {
+                char c = value.charAt(i);
+                h = (h ^ (fold ? Character.toLowerCase(c) : c)) * 0x100000001b3L;
+            }
+            h ^= h >>> 33;
+            h *= 0xff51afd7ed558ccdL;
+            h ^= h >>> 33;
+            h *= 0xc4ceb3fe1a85ec53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
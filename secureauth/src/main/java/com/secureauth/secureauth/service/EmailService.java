@@ -1,16 +1,95 @@
 package com.secureauth.secureauth.service;
 
+import com.secureauth.secureauth.config.EmailDispatchProperties;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.mail.MailException;
+import org.springframework.mail.MailSendException;
 import org.springframework.mail.SimpleMailMessage;
 import org.springframework.mail.javamail.JavaMailSender;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * EmailService
+ * ------------
+ * Sends OTP / notification emails.
+ *
+ * In QUEUED mode emails are put on a bounded in-memory queue and
+ * delivered by a small worker pool:
+ * - each worker drains up to batch-size emails and sends them over one SMTP connection
+ * - failed emails are retried with exponential backoff
+ * - when the queue is full the caller sends inline (backpressure)
+ * - on shutdown the queue is drained before the workers stop
+ *
+ * Metrics: secureauth.mail.send (caller-side time per sendEmail),
+ * secureauth.mail.batches (SMTP time per worker batch),
+ * secureauth.mail.messages{result=sent|failed|retried} and the queue depth.
+ */
 @Service
 public class EmailService {
 
+    private static final Logger log = LoggerFactory.getLogger(EmailService.class);
+
     private final JavaMailSender mailSender;
+    private final EmailDispatchProperties properties;
+
+    private final BlockingQueue<SimpleMailMessage> queue;
+    private final ExecutorService workers;
+    private volatile boolean running;
+
+    private final LongAdder sent = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder retried = new LongAdder();
+    private final LongAdder sentInline = new LongAdder();
+
+    private final MeterRegistry meterRegistry;
+    private final Timer queuedTimer;
+    private final Timer batchSuccessTimer;
+    private final Timer batchFailureTimer;
 
-    public EmailService(JavaMailSender mailSender) {
+    public EmailService(JavaMailSender mailSender,
+                        EmailDispatchProperties properties,
+                        MeterRegistry meterRegistry) {
         this.mailSender = mailSender;
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+
+        this.queuedTimer = sendTimer("queued", "success");
+        this.batchSuccessTimer = batchTimer("success");
+        this.batchFailureTimer = batchTimer("failure");
+        registerCounters();
+
+        if (properties.getMode() == EmailDispatchProperties.Mode.QUEUED) {
+            this.queue = new ArrayBlockingQueue<>(properties.getQueueCapacity());
+            this.workers = Executors.newFixedThreadPool(properties.getWorkers(), workerThreadFactory());
+            this.running = true;
+
+            for (int i = 0; i < properties.getWorkers(); i++) {
+                workers.execute(this::runWorker);
+            }
+        } else {
+            this.queue = null;
+            this.workers = null;
+        }
     }
 
     public void sendEmail(String to, String subject, String text) {
@@ -19,6 +98,207 @@ public class EmailService {
         message.setSubject(subject);
         message.setText(text);
 
-        mailSender.send(message);
+        if (queue == null) {
+            sendNow(message, "direct");
+            return;
+        }
+
+        long start = System.nanoTime();
+
+        // Queue full (or shutting down): deliver on the caller thread
+        if (!running || !queue.offer(message)) {
+            sentInline.increment();
+            sendNow(message, "inline");
+            return;
+        }
+
+        queuedTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Sends on the calling thread; failures propagate to the caller.
+     */
+    private void sendNow(SimpleMailMessage message, String delivery) {
+        long start = System.nanoTime();
+        String outcome = "failure";
+
+        try {
+            mailSender.send(message);
+            sent.increment();
+            outcome = "success";
+        } catch (MailException e) {
+            failed.increment();
+            throw e;
+        } finally {
+            // Registry lookup is fine here: an SMTP round trip dwarfs it
+            sendTimer(delivery, outcome).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /* =========================================================
+       BACKGROUND DELIVERY
+       ========================================================= */
+
+    private void runWorker() {
+        List<SimpleMailMessage> batch = new ArrayList<>(properties.getBatchSize());
+
+        // Keep going after shutdown starts until the queue is empty
+        while (running || !queue.isEmpty()) {
+            try {
+                SimpleMailMessage first = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, properties.getBatchSize() - 1);
+
+                deliver(batch);
+
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Email worker failed", e);
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    /**
+     * Sends one batch over a single SMTP connection.
+     * Only the emails that failed are retried.
+     */
+    private void deliver(List<SimpleMailMessage> batch) throws InterruptedException {
+        List<SimpleMailMessage> pending = new ArrayList<>(batch);
+        long backoffMs = properties.getInitialBackoffMs();
+
+        for (int attempt = 1; ; attempt++) {
+            long start = System.nanoTime();
+            try {
+                mailSender.send(pending.toArray(new SimpleMailMessage[0]));
+                batchSuccessTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                sent.add(pending.size());
+                return;
+
+            } catch (MailSendException e) {
+                batchFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                List<SimpleMailMessage> stillFailing = failedSubset(pending, e.getFailedMessages());
+                sent.add(pending.size() - stillFailing.size());
+                pending = stillFailing;
+
+            } catch (MailException e) {
+                // Connection / authentication failure: nothing in the batch went out
+                batchFailureTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                log.debug("Email batch failed on attempt {}", attempt, e);
+            }
+
+            if (attempt >= properties.getMaxAttempts()) {
+                failed.add(pending.size());
+                log.warn("Giving up on {} email(s) after {} attempts", pending.size(), attempt);
+                return;
+            }
+
+            retried.add(pending.size());
+            Thread.sleep(backoffMs);
+            backoffMs *= 2;
+        }
+    }
+
+    private static List<SimpleMailMessage> failedSubset(List<SimpleMailMessage> pending,
+                                                        Map<Object, Exception> failures) {
+        // No per-message detail: treat the whole batch as failed
+        if (failures.isEmpty()) {
+            return pending;
+        }
+
+        List<SimpleMailMessage> result = new ArrayList<>();
+        for (SimpleMailMessage message : pending) {
+            if (failures.containsKey(message)) {
+                result.add(message);
+            }
+        }
+        return result;
+    }
+
+    private static ThreadFactory workerThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "mail-dispatch-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /* =========================================================
+       METRICS
+       ========================================================= */
+
+    private Timer sendTimer(String delivery, String outcome) {
+        return Timer.builder("secureauth.mail.send")
+                .description("Time the caller spends in sendEmail")
+                .tag("delivery", delivery)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private Timer batchTimer(String outcome) {
+        return Timer.builder("secureauth.mail.batches")
+                .description("SMTP send of one queued batch")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    private void registerCounters() {
+        FunctionCounter.builder("secureauth.mail.messages", this, EmailService::getSentCount)
+                .tag("result", "sent").register(meterRegistry);
+        FunctionCounter.builder("secureauth.mail.messages", this, EmailService::getFailedCount)
+                .tag("result", "failed").register(meterRegistry);
+        FunctionCounter.builder("secureauth.mail.messages", this, EmailService::getRetriedCount)
+                .tag("result", "retried").register(meterRegistry);
+        FunctionCounter.builder("secureauth.mail.messages", this, EmailService::getSentInlineCount)
+                .tag("result", "sent_inline").register(meterRegistry);
+        Gauge.builder("secureauth.mail.queue.depth", this, EmailService::getQueueDepth)
+                .register(meterRegistry);
     }
+
+    /* =========================================================
+       SHUTDOWN
+       ========================================================= */
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (workers == null) {
+            return;
+        }
+
+        running = false;
+        workers.shutdown();
+
+        if (!workers.awaitTermination(properties.getShutdownTimeoutMs(), TimeUnit.MILLISECONDS)) {
+            log.warn("Email queue not drained on shutdown, {} email(s) dropped", queue.size());
+            workers.shutdownNow();
+        }
+    }
+
+    /* =========================================================
+       QUEUE STATS
+       ========================================================= */
+
+    public boolean isQueued() { return queue != null; }
+
+    public int getQueueDepth() { return queue == null ? 0 : queue.size(); }
+
+    public int getQueueCapacity() { return queue == null ? 0 : properties.getQueueCapacity(); }
+
+    public long getSentCount() { return sent.sum(); }
+
+    public long getFailedCount() { return failed.sum(); }
+
+    public long getRetriedCount() { return retried.sum(); }
+
+    // Emails sent on the caller thread because the queue was full
+    public long getSentInlineCount() { return sentInline.sum(); }
 }
@@ -0,0 +1,12 @@
+package com.secureauth.secureauth.service;
+
+/**
+ * Thrown when the password hashing pool cannot take more work.
+ * Controllers answer with 503 so the client retries later.
+ */
+public class HashingBusyException extends RuntimeException {
+
+    public HashingBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package com.secureauth.secureauth.service;
+
+/**
+ * Thrown when a bulk user import is started while another one is running.
+ * Controllers answer with 409 so the caller retries once it has finished.
+ */
+public class ImportInProgressException extends RuntimeException {
+
+    public ImportInProgressException(String message) {
+        super(message);
+    }
+}
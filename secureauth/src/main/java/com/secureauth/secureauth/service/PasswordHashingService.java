@@ -0,0 +1,180 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.PasswordHashingProperties;
+import com.secureauth.secureauth.util.PasswordUtil;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordHashingService
+ * ----------------------
+ * Runs bcrypt on a dedicated pool (one thread per core by default) so
+ * hashing never competes with Tomcat for request threads.
+ *
+ * - admission is a small bounded queue; when it is full the call fails
+ *   immediately with HashingBusyException instead of piling up
+ * - the bcrypt cost is either fixed or calibrated at startup so one
+ *   hash takes about the configured target latency
+ * - hash / matches block the caller up to timeout-ms; hashAsync /
+ *   matchesAsync return at once, for callers that must not block
+ *   (the reactive deployment's event loop)
+ */
+@Service
+public class PasswordHashingService {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashingService.class);
+
+    private final PasswordHashingProperties properties;
+    private final ThreadPoolExecutor pool;
+    private final int cost;
+    private final String dummyHash;
+
+    public PasswordHashingService(PasswordHashingProperties properties) {
+        this.properties = properties;
+
+        int threads = properties.getPoolSize() > 0
+                ? properties.getPoolSize()
+                : Runtime.getRuntime().availableProcessors();
+
+        this.pool = new ThreadPoolExecutor(
+                threads, threads,
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                hashingThreadFactory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+
+        this.cost = properties.getCost() > 0 ? properties.getCost() : calibrate();
+        this.dummyHash = PasswordUtil.hash(UUID.randomUUID().toString(), cost);
+        log.info("Password hashing: bcrypt cost {}, {} thread(s)", cost, threads);
+    }
+
+    public String hash(String password) {
+        return await(hashAsync(password));
+    }
+
+    public boolean matches(String password, String storedHash) {
+        return await(matchesAsync(password, storedHash));
+    }
+
+    /**
+     * Completes on a hashing thread; a full queue completes it at once
+     * with HashingBusyException. The caller applies timeout-ms.
+     */
+    public CompletableFuture<String> hashAsync(String password) {
+        return submit(() -> PasswordUtil.hash(password, cost));
+    }
+
+    public CompletableFuture<Boolean> matchesAsync(String password, String storedHash) {
+        return submit(() -> PasswordUtil.matches(password, storedHash));
+    }
+
+    /**
+     * True if the stored hash is legacy SHA-256 or weaker than the current cost.
+     */
+    public boolean needsRehash(String storedHash) {
+        return PasswordUtil.needsRehash(storedHash, cost);
+    }
+
+    /**
+     * A hash at the current cost that no account has. Login checks the
+     * password against it when the email is unknown, so that answer takes
+     * as long as a wrong password and does not reveal which accounts exist.
+     */
+    public String getDummyHash() {
+        return dummyHash;
+    }
+
+    public int getCost() {
+        return cost;
+    }
+
+    public long getTimeoutMs() {
+        return properties.getTimeoutMs();
+    }
+
+    /* =========================================================
+       EXECUTION
+       ========================================================= */
+
+    private <T> CompletableFuture<T> submit(Supplier<T> task) {
+        try {
+            // A cancelled future's task is skipped when it reaches a thread
+            return CompletableFuture.supplyAsync(task, pool);
+        } catch (RejectedExecutionException e) {
+            return CompletableFuture.failedFuture(new HashingBusyException("Password hashing queue is full"));
+        }
+    }
+
+    private <T> T await(CompletableFuture<T> future) {
+        try {
+            return future.get(properties.getTimeoutMs(), TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            throw new HashingBusyException("Password hashing timed out");
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new HashingBusyException("Interrupted while hashing");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException("Password hashing failed", e.getCause());
+        }
+    }
+
+    /**
+     * Times one hash at min cost, then raises the cost (each step doubles
+     * the work) while the estimate stays within the target latency.
+     */
+    private int calibrate() {
+        int calibrated = properties.getMinCost();
+
+        // First run warms up the code path, second one is measured
+        PasswordUtil.hash("calibration-password", calibrated);
+        long start = System.nanoTime();
+        PasswordUtil.hash("calibration-password", calibrated);
+        double estimateMs = (System.nanoTime() - start) / 1_000_000.0;
+
+        while (calibrated < properties.getMaxCost() && estimateMs * 2 <= properties.getTargetMs()) {
+            estimateMs *= 2;
+            calibrated++;
+        }
+
+        log.info("Calibrated bcrypt cost {} (~{} ms per hash, target {} ms)",
+                calibrated, Math.round(estimateMs), properties.getTargetMs());
+        return calibrated;
+    }
+
+    private static ThreadFactory hashingThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, "password-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        pool.shutdownNow();
+    }
+}
@@ -0,0 +1,136 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.RefreshTokenProperties;
+import com.secureauth.secureauth.dao.RefreshTokenDAO;
+import com.secureauth.secureauth.util.RefreshTokenCodec;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * RefreshTokenService
+ * -------------------
+ * Opaque refresh tokens, exchanged at /api/auth/refresh for a new access
+ * token. Access tokens are short-lived and checked without the database;
+ * the database is only consulted here, once per refresh.
+ *
+ * - 256 random bits, only their SHA-256 is stored (RefreshTokenCodec)
+ * - rotation: every refresh returns a new refresh token and marks the old
+ *   one used, in one statement
+ * - reuse detection: a used token presented again was copied, so its whole
+ *   family (session) is deleted and the user's access tokens are revoked
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final RefreshTokenDAO refreshTokenDAO;
+    private final TokenRevocationService tokenRevocation;
+    private final long ttlSeconds;
+
+    private final Counter rotated;
+    private final Counter invalid;
+    private final Counter reused;
+
+    // Constructor injection
+    public RefreshTokenService(RefreshTokenDAO refreshTokenDAO,
+                               RefreshTokenProperties properties,
+                               TokenRevocationService tokenRevocation,
+                               MeterRegistry meterRegistry) {
+        this.refreshTokenDAO = refreshTokenDAO;
+        this.tokenRevocation = tokenRevocation;
+        this.ttlSeconds = TimeUnit.HOURS.toSeconds(properties.getTtlHours());
+
+        this.rotated = refreshes(meterRegistry, "rotated");
+        this.invalid = refreshes(meterRegistry, "invalid");
+        this.reused = refreshes(meterRegistry, "reused");
+    }
+
+    /**
+     * Starts a session: returns the first refresh token of a new family,
+     * or null if the user no longer exists.
+     */
+    public String issue(String email) {
+        String token = RefreshTokenCodec.newToken();
+        return refreshTokenDAO.insert(RefreshTokenCodec.hash(token), email, ttlSeconds) ? token : null;
+    }
+
+    /**
+     * Exchanges a refresh token for its successor.
+     * Returns null if the token is not valid (unknown, expired, used, revoked).
+     */
+    public Rotation refresh(String token) {
+        if (!RefreshTokenCodec.isWellFormed(token)) {
+            invalid.increment();
+            return null;
+        }
+
+        byte[] presented = RefreshTokenCodec.hash(token);
+        String next = RefreshTokenCodec.newToken();
+
+        String email = refreshTokenDAO.rotate(presented, RefreshTokenCodec.hash(next), ttlSeconds);
+        if (email != null) {
+            rotated.increment();
+            return new Rotation(email, next);
+        }
+
+        // Not rotated: only a second round trip when the token was refused
+        String owner = refreshTokenDAO.deleteReusedFamily(presented);
+        if (owner != null) {
+            reused.increment();
+            tokenRevocation.revokeAll(owner);
+            log.warn("Refresh token reused: session ended and access tokens revoked for {}", owner);
+        } else {
+            invalid.increment();
+        }
+        return null;
+    }
+
+    /**
+     * Logout: ends the session the token belongs to, if it is the user's.
+     */
+    public void revoke(String token, String email) {
+        if (RefreshTokenCodec.isWellFormed(token)) {
+            refreshTokenDAO.deleteFamily(RefreshTokenCodec.hash(token), email);
+        }
+    }
+
+    /**
+     * Ends every session of the user.
+     */
+    public void revokeAll(String email) {
+        refreshTokenDAO.deleteAll(email);
+    }
+
+    public static final class Rotation {
+        private final String email;
+        private final String refreshToken;
+
+        Rotation(String email, String refreshToken) {
+            this.email = email;
+            this.refreshToken = refreshToken;
+        }
+
+        public String getEmail() { return email; }
+
+        public String getRefreshToken() { return refreshToken; }
+    }
+
+    /* =========================================================
+       INTERNALS
+       ========================================================= */
+
+    private static Counter refreshes(MeterRegistry registry, String outcome) {
+        return Counter.builder("secureauth.refresh")
+                .description("Refresh token exchanges")
+                .tag("outcome", outcome)
+                .register(registry);
+    }
+}
@@ -0,0 +1,344 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.JwtProperties;
+import com.secureauth.secureauth.dao.SigningKeyDAO;
+import com.secureauth.secureauth.dao.SigningKeyDAO.StoredKey;
+import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.KeyRing;
+import com.secureauth.secureauth.util.SigningKey;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import tools.jackson.databind.json.JsonMapper;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.GeneralSecurityException;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * SigningKeyService
+ * -----------------
+ * Loads JwtUtil's KeyRing from the database or from files, rotates it,
+ * and keeps the JWKS document (/.well-known/jwks.json) for it.
+ *
+ * Database rotation, on every instance:
+ * - a new key is stored once the newest one is rotation-hours old; it is
+ *   only loaded and published at first (activation-delay-ms), so every
+ *   instance and every JWKS client has it before a token is signed with it
+ * - the key it replaces keeps verifying until the last token it signed has
+ *   expired, then it is deleted
+ */
+@Service
+public class SigningKeyService {
+
+    private static final Logger log = LoggerFactory.getLogger(SigningKeyService.class);
+
+    private static final Pattern PEM = Pattern.compile(
+            "-----BEGIN (PRIVATE KEY|PUBLIC KEY)-----([^-]+)-----END \\1-----");
+
+    // Base64url, no padding, as JWK members are encoded
+    private static final Base64.Encoder BASE64URL = Base64.getUrlEncoder().withoutPadding();
+
+    private final SigningKeyDAO signingKeyDAO;
+    private final JwtProperties properties;
+    private final SignatureAlgorithm algorithm;
+
+    // Serialized once per ring: every JWKS request gets the same bytes
+    private volatile byte[] jwks;
+    private volatile String jwksEtag;
+
+    // Constructor injection; the ring is in place before any request is served
+    public SigningKeyService(SigningKeyDAO signingKeyDAO, JwtProperties properties) {
+        this.signingKeyDAO = signingKeyDAO;
+        this.properties = properties;
+        this.algorithm = algorithm(properties.getAlgorithm());
+
+        reload();
+    }
+
+    /**
+     * Rotates when due (database) and installs the current ring if it changed.
+     */
+    @Scheduled(initialDelayString = "${secureauth.jwt.keys.reload-interval-ms:60000}",
+               fixedDelayString = "${secureauth.jwt.keys.reload-interval-ms:60000}")
+    public void scheduledReload() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep signing and verifying with the ring we have
+            log.warn("Reloading JWT signing keys failed", e);
+        }
+    }
+
+    synchronized void reload() {
+        KeyRing ring = "files".equalsIgnoreCase(properties.getKeys().getSource())
+                ? loadFiles()
+                : loadDatabase();
+
+        KeyRing current = JwtUtil.getKeyRing();
+        if (jwks != null
+                && current.getActive().getKid().equals(ring.getActive().getKid())
+                && sameKids(current, ring)) {
+            return;
+        }
+
+        JwtUtil.setKeyRing(ring);
+        publish(ring);
+        log.info("JWT signing with kid {} ({}), {} key(s) in ring",
+                ring.getActive().getKid(), ring.getActive().getAlgorithm(), ring.getKeys().size());
+    }
+
+    public byte[] getJwks() { return jwks; }
+
+    public String getJwksEtag() { return jwksEtag; }
+
+    /* =========================================================
+       DATABASE
+       ========================================================= */
+
+    private KeyRing loadDatabase() {
+        long now = System.currentTimeMillis();
+        JwtProperties.Keys config = properties.getKeys();
+
+        List<StoredKey> stored = signingKeyDAO.findAll();
+        long rotationMs = config.getRotationHours() * 3_600_000L;
+        long createdAfter = rotationMs > 0 ? now - rotationMs : Long.MIN_VALUE;
+
+        boolean anyActive = stored.stream().anyMatch(key -> key.getActivatesAtMs() <= now);
+        boolean current = stored.stream().anyMatch(key ->
+                key.getAlgorithm().equals(algorithm.getValue()) && key.getCreatedAtMs() > createdAfter);
+
+        // First key: signs right away. Later keys (rotation, algorithm change): published ahead of use
+        if (!anyActive || !current) {
+            StoredKey next = generate(now, anyActive ? now + config.getActivationDelayMs() : now);
+            if (signingKeyDAO.insertIfDue(next, createdAfter, now)) {
+                log.info("Created JWT signing key {} ({})", next.getKid(), next.getAlgorithm());
+                stored = signingKeyDAO.findAll();
+            }
+        }
+
+        // Sorted by activation: the active key is the last one already active,
+        // each key is needed until the one after it has signed for a token lifetime
+        long retainMs = JwtUtil.getExpirationMs() + config.getReloadIntervalMs();
+        List<SigningKey> keys = new ArrayList<>();
+        String activeKid = null;
+
+        for (int i = 0; i < stored.size(); i++) {
+            StoredKey key = stored.get(i);
+            long supersededAt = i + 1 < stored.size() ? stored.get(i + 1).getActivatesAtMs() : Long.MAX_VALUE;
+
+            if (supersededAt <= now - retainMs) {
+                signingKeyDAO.delete(key.getKid());
+                continue;
+            }
+
+            keys.add(decode(key));
+            if (key.getActivatesAtMs() <= now) {
+                activeKid = key.getKid();
+            }
+        }
+
+        return new KeyRing(keys, activeKid);
+    }
+
+    private StoredKey generate(long now, long activatesAtMs) {
+        String kid = UUID.randomUUID().toString();
+
+        if (algorithm == SignatureAlgorithm.HS256) {
+            SecretKey secret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+            return new StoredKey(kid, "HS256", secret.getEncoded(), null, now, activatesAtMs);
+        }
+
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+            return new StoredKey(kid, "ES256",
+                    pair.getPrivate().getEncoded(), pair.getPublic().getEncoded(), now, activatesAtMs);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate an ES256 key", e);
+        }
+    }
+
+    private static SigningKey decode(StoredKey stored) {
+        SignatureAlgorithm algorithm = algorithm(stored.getAlgorithm());
+
+        if (algorithm == SignatureAlgorithm.HS256) {
+            SecretKey secret = new SecretKeySpec(stored.getPrivateKey(), "HmacSHA256");
+            return new SigningKey(stored.getKid(), algorithm, secret, secret, stored.getActivatesAtMs());
+        }
+
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            PrivateKey privateKey = factory.generatePrivate(new PKCS8EncodedKeySpec(stored.getPrivateKey()));
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(stored.getPublicKey()));
+            return new SigningKey(stored.getKid(), algorithm, privateKey, publicKey, stored.getActivatesAtMs());
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Invalid ES256 key " + stored.getKid(), e);
+        }
+    }
+
+    /* =========================================================
+       FILES
+       ========================================================= */
+
+    /**
+     * keys.dir holds one file per key, named after its kid:
+     * - <kid>.pem    ES256: PKCS#8 private key and its public key (signs),
+     *                or the public key only (verifies, e.g. during a rotation)
+     * - <kid>.secret HS256: Base64 of at least 32 random bytes
+     */
+    private KeyRing loadFiles() {
+        JwtProperties.Keys config = properties.getKeys();
+        if (config.getDir() == null || config.getActiveKid() == null) {
+            throw new IllegalStateException("secureauth.jwt.keys.dir and active-kid are required for source=files");
+        }
+
+        List<SigningKey> keys = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(Path.of(config.getDir()))) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(".pem")) {
+                    keys.add(readPem(name.substring(0, name.length() - 4), Files.readString(file)));
+                } else if (name.endsWith(".secret")) {
+                    keys.add(readSecret(name.substring(0, name.length() - 7), Files.readString(file)));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT keys from " + config.getDir(), e);
+        }
+
+        return new KeyRing(keys, config.getActiveKid());
+    }
+
+    private static SigningKey readPem(String kid, String pem) {
+        Map<String, byte[]> blocks = new LinkedHashMap<>();
+        Matcher matcher = PEM.matcher(pem);
+        while (matcher.find()) {
+            blocks.put(matcher.group(1), Base64.getMimeDecoder().decode(matcher.group(2)));
+        }
+        if (!blocks.containsKey("PUBLIC KEY")) {
+            throw new IllegalStateException("JWT key " + kid + ": PUBLIC KEY block missing");
+        }
+
+        try {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(blocks.get("PUBLIC KEY")));
+            PrivateKey privateKey = blocks.containsKey("PRIVATE KEY")
+                    ? factory.generatePrivate(new PKCS8EncodedKeySpec(blocks.get("PRIVATE KEY")))
+                    : null;
+            if (((ECPublicKey) publicKey).getParams().getCurve().getField().getFieldSize() != 256) {
+                throw new IllegalStateException("JWT key " + kid + ": ES256 needs a P-256 key");
+            }
+            return new SigningKey(kid, SignatureAlgorithm.ES256, privateKey, publicKey, 0);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("JWT key " + kid + ": not an EC key", e);
+        }
+    }
+
+    private static SigningKey readSecret(String kid, String base64) {
+        byte[] secret = Base64.getMimeDecoder().decode(base64.trim());
+        if (secret.length < 32) {
+            throw new IllegalStateException("JWT key " + kid + ": HS256 needs at least 32 bytes");
+        }
+        SecretKey key = new SecretKeySpec(secret, "HmacSHA256");
+        return new SigningKey(kid, SignatureAlgorithm.HS256, key, key, 0);
+    }
+
+    /* =========================================================
+       JWKS
+       ========================================================= */
+
+    /**
+     * Public keys only: an HS256 ring publishes an empty set.
+     */
+    private void publish(KeyRing ring) {
+        List<Map<String, String>> jwkList = new ArrayList<>();
+
+        for (SigningKey key : ring.getKeys()) {
+            if (!(key.getPublicKey() instanceof ECPublicKey ec)) {
+                continue;
+            }
+            Map<String, String> jwk = new LinkedHashMap<>();
+            jwk.put("kty", "EC");
+            jwk.put("crv", "P-256");
+            jwk.put("kid", key.getKid());
+            jwk.put("use", "sig");
+            jwk.put("alg", key.getAlgorithm().getValue());
+            jwk.put("x", coordinate(ec.getW().getAffineX()));
+            jwk.put("y", coordinate(ec.getW().getAffineY()));
+            jwkList.add(jwk);
+        }
+
+        byte[] body = JsonMapper.shared().writeValueAsBytes(Map.of("keys", jwkList));
+        jwks = body;
+        jwksEtag = "\"" + Integer.toHexString(Arrays.hashCode(body)) + "\"";
+    }
+
+    // Unsigned, left-padded to the 32 bytes of a P-256 coordinate
+    private static String coordinate(BigInteger value) {
+        byte[] bytes = value.toByteArray();
+        byte[] fixed = new byte[32];
+        int length = Math.min(bytes.length, 32);
+        System.arraycopy(bytes, bytes.length - length, fixed, 32 - length, length);
+        return BASE64URL.encodeToString(fixed);
+    }
+
+    /* =========================================================
+       HELPERS
+       ========================================================= */
+
+    private static SignatureAlgorithm algorithm(String name) {
+        String upper = name == null ? "" : name.trim().toUpperCase(Locale.ROOT);
+        if (upper.equals("HS256")) {
+            return SignatureAlgorithm.HS256;
+        }
+        if (upper.equals("ES256")) {
+            return SignatureAlgorithm.ES256;
+        }
+        throw new IllegalArgumentException("secureauth.jwt.algorithm must be HS256 or ES256, not " + name);
+    }
+
+    private static boolean sameKids(KeyRing a, KeyRing b) {
+        if (a.getKeys().size() != b.getKeys().size()) {
+            return false;
+        }
+        for (SigningKey key : b.getKeys()) {
+            if (a.get(key.getKid()) == null) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,149 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.WarmupProperties;
+import com.secureauth.secureauth.dao.UserDAO;
+import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.PasswordUtil;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * StartupWarmup
+ * -------------
+ * Runs the hot paths before the instance takes traffic, so the first
+ * requests do not pay for class loading, JIT compilation and statement
+ * preparation:
+ * - JwtUtil: sign and verify (jjwt, Jackson, HMAC / ECDSA)
+ * - PasswordUtil: bcrypt hash and match at cost 4, strength check, legacy SHA-256 match
+ * - UserDAO: every statement of the auth flows, on one transaction that is
+ *   rolled back, so nothing is written
+ *
+ * Spring Boot switches readiness (/actuator/health/readiness) to
+ * ACCEPTING_TRAFFIC only after the ApplicationRunners have returned:
+ * until then the load balancer keeps the instance out of rotation.
+ * The warm-up stops at max-duration-ms; a failure is logged, never fatal.
+ *
+ * Warm-up calls are counted in secureauth.jwt.validations and
+ * secureauth.dao.calls like any other call.
+ */
+@Component
+@ConditionalOnProperty(name = "secureauth.warmup.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupWarmup implements ApplicationRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupWarmup.class);
+
+    // Lowest cost bcrypt accepts: same code path, a fraction of the work
+    private static final int PASSWORD_COST = 4;
+    private static final String PASSWORD = "Warmup-password-1";
+    private static final String LEGACY_HASH =
+            "0000000000000000000000000000000000000000000000000000000000000000";
+    private static final String OTP = "000000";
+
+    private final WarmupProperties properties;
+    private final UserDAO userDAO;
+    private final TransactionTemplate transactionTemplate;
+
+    // Constructor injection
+    public StartupWarmup(WarmupProperties properties,
+                         UserDAO userDAO,
+                         PlatformTransactionManager transactionManager) {
+        this.properties = properties;
+        this.userDAO = userDAO;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        long start = System.nanoTime();
+        long deadline = start + properties.getMaxDurationMs() * 1_000_000;
+
+        int jwt = run("JWT", () -> warmJwt(deadline));
+        int passwords = run("password", () -> warmPasswords(deadline));
+        int database = run("database", () -> warmDatabase(deadline));
+
+        log.info("Warm-up done in {} ms: {} JWT, {} password, {} database round(s)",
+                (System.nanoTime() - start) / 1_000_000, jwt, passwords, database);
+    }
+
+    private int run(String name, Step step) {
+        try {
+            return step.run();
+        } catch (RuntimeException e) {
+            log.warn("{} warm-up failed, continuing startup", name, e);
+            return 0;
+        }
+    }
+
+    /* =========================================================
+       STEPS
+       ========================================================= */
+
+    int warmJwt(long deadline) {
+        int rounds = 0;
+        try {
+            while (rounds < properties.getJwtIterations() && System.nanoTime() < deadline) {
+                // Fresh jti every time: verify parses instead of hitting the cache
+                JwtUtil.verify(JwtUtil.generateToken(properties.getEmail()));
+                rounds++;
+            }
+        } finally {
+            // Warm-up tokens are never presented again
+            JwtUtil.getTokenCache().clear();
+        }
+        return rounds;
+    }
+
+    int warmPasswords(long deadline) {
+        int rounds = 0;
+        while (rounds < properties.getPasswordIterations() && System.nanoTime() < deadline) {
+            String hash = PasswordUtil.hash(PASSWORD, PASSWORD_COST);
+            PasswordUtil.matches(PASSWORD, hash);
+            PasswordUtil.matches(PASSWORD, LEGACY_HASH);
+            PasswordUtil.needsRehash(hash, PASSWORD_COST);
+            PasswordUtil.isStrong(PASSWORD);
+            rounds++;
+        }
+        return rounds;
+    }
+
+    /**
+     * The lookup runs first in each round, while the address has no row:
+     * nothing uncommitted can end up in the user cache.
+     */
+    int warmDatabase(long deadline) {
+        String email = properties.getEmail();
+        Integer rounds = transactionTemplate.execute(status -> {
+            int done = 0;
+            try {
+                while (done < properties.getDatabaseIterations() && System.nanoTime() < deadline) {
+                    userDAO.findByEmail(email);
+                    userDAO.register(email, LEGACY_HASH, OTP);
+                    userDAO.resendOtp(email, OTP);
+                    userDAO.verifyOtp(email, OTP);
+                    userDAO.createPasswordResetOtp(email, OTP);
+                    userDAO.resetPassword(email, OTP, LEGACY_HASH);
+                    userDAO.updatePassword(email, LEGACY_HASH);
+                    userDAO.markVerified(email);
+                    userDAO.deleteByEmail(email);
+                    done++;
+                }
+            } finally {
+                status.setRollbackOnly();
+            }
+            return done;
+        });
+        return rounds == null ? 0 : rounds;
+    }
+
+    @FunctionalInterface
+    private interface Step {
+        int run();
+    }
+}
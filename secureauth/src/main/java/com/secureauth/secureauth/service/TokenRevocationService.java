@@ -0,0 +1,120 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.RevocationProperties;
+import com.secureauth.secureauth.dao.RevokedTokenDAO;
+import com.secureauth.secureauth.security.TokenDenylist;
+import com.secureauth.secureauth.util.JwtUtil;
+import com.secureauth.secureauth.util.VerifiedToken;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * TokenRevocationService
+ * ----------------------
+ * Revokes JWTs before their `exp`:
+ * - one token (logout)
+ * - every token issued so far to an email (account deleted, password reset)
+ *
+ * Each revocation goes to the in-memory TokenDenylist, which JwtFilter
+ * checks, and to the revoked_tokens table, from which the denylist is
+ * rebuilt on startup. Every sync-interval-ms the table is polled for the
+ * entries other instances wrote since, so a logout on one node is rejected
+ * by all of them within about that long. Entries are pruned once the
+ * tokens they cover expire.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenDenylist denylist;
+    private final RevokedTokenDAO revokedTokenDAO;
+    private final RevocationProperties properties;
+
+    // Database time before the last successful load; only touched by the constructor and sync()
+    private long syncedUpToMs;
+
+    // Constructor injection; loads the denylist before any request is served
+    public TokenRevocationService(TokenDenylist denylist,
+                                  RevokedTokenDAO revokedTokenDAO,
+                                  RevocationProperties properties) {
+        this.denylist = denylist;
+        this.revokedTokenDAO = revokedTokenDAO;
+        this.properties = properties;
+
+        // Taken before the load: whatever is written meanwhile is picked up by the first sync
+        this.syncedUpToMs = revokedTokenDAO.databaseTimeMs();
+        int loaded = revokedTokenDAO.loadInto(denylist, System.currentTimeMillis());
+        log.info("Loaded {} token revocations", loaded);
+    }
+
+    /**
+     * Revokes one token. In effect on this node even if the database write fails.
+     */
+    public void revoke(VerifiedToken token) {
+        if (token.getId() == null) {
+            // No jti to name it by: only a subject revocation can cover it
+            revokeAll(token.getSubject());
+            return;
+        }
+        denylist.revokeToken(token.getId(), token.getExpiresAtMs());
+        revokedTokenDAO.revokeToken(token.getId(), token.getExpiresAtMs());
+    }
+
+    /**
+     * Revokes every token issued to the email up to now.
+     */
+    public void revokeAll(String email) {
+        long now = System.currentTimeMillis();
+        long lastExpiry = now + JwtUtil.getExpirationMs();
+
+        denylist.revokeSubject(email, now, lastExpiry);
+        revokedTokenDAO.revokeSubject(email, now, lastExpiry);
+    }
+
+    /**
+     * Loads the revocations written since the last sync, by any instance.
+     *
+     * A row is stamped when written but seen by others only once committed,
+     * so each sync reaches back sync-lookback-ms before the previous one.
+     * Entries read twice are merged, not duplicated.
+     */
+    @Scheduled(initialDelayString = "${secureauth.revocation.sync-interval-ms:5000}",
+               fixedDelayString = "${secureauth.revocation.sync-interval-ms:5000}")
+    public void sync() {
+        try {
+            long startedAtMs = revokedTokenDAO.databaseTimeMs();
+            int loaded = revokedTokenDAO.loadChangedInto(denylist,
+                    syncedUpToMs - properties.getSyncLookbackMs(), System.currentTimeMillis());
+            syncedUpToMs = startedAtMs;
+
+            log.debug("Synced {} token revocations", loaded);
+        } catch (RuntimeException e) {
+            // Nothing is skipped: the next sync starts from the same point
+            log.warn("Syncing revoked_tokens failed", e);
+        }
+    }
+
+    @Scheduled(initialDelayString = "${secureauth.revocation.prune-interval-ms:600000}",
+               fixedDelayString = "${secureauth.revocation.prune-interval-ms:600000}")
+    public void prune() {
+        int dropped = denylist.prune();
+
+        try {
+            long now = System.currentTimeMillis();
+            int batchSize = properties.getPruneBatchSize();
+            int deleted;
+            do {
+                deleted = revokedTokenDAO.deleteExpired(now, batchSize);
+            } while (deleted >= batchSize);
+        } catch (RuntimeException e) {
+            // Expired rows are never loaded again; they go on a later run
+            log.warn("Pruning revoked_tokens failed", e);
+        }
+
+        log.debug("Dropped {} expired token revocations, {} left", dropped, denylist.size());
+    }
+}
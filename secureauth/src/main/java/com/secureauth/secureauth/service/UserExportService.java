@@ -0,0 +1,131 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.dao.UserFilter;
+import com.secureauth.secureauth.dao.UserListingDAO;
+import com.secureauth.secureauth.model.UserSummary;
+
+import org.springframework.stereotype.Service;
+
+import tools.jackson.core.JsonGenerator;
+import tools.jackson.core.ObjectWriteContext;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.core.exc.JacksonIOException;
+import tools.jackson.core.json.JsonFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * UserExportService
+ * -----------------
+ * Writes users to a stream as they come off the database cursor
+ * (UserListingDAO.stream): one row in memory at a time, whatever the
+ * number of users.
+ *
+ * CSV: header id,email,verified,created_at, then one line per user
+ *      (RFC 4180 quoting where needed)
+ * NDJSON: one object per line with id, email, verified, createdAt
+ *
+ * created_at is ISO-8601 without an offset, as stored. Password hashes and
+ * OTPs are never exported.
+ */
+@Service
+public class UserExportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final String CSV_HEADER = "id,email,verified,created_at\n";
+
+    // No separator between root values: each object ends with its own newline.
+    // Closing a generator releases its buffers but leaves `out` open, and does
+    // not complete a half-written object after a failure
+    private static final JsonFactory JSON = JsonFactory.builder()
+            .rootValueSeparator((String) null)
+            .disable(StreamWriteFeature.AUTO_CLOSE_TARGET)
+            .disable(StreamWriteFeature.AUTO_CLOSE_CONTENT)
+            .build();
+
+    private static final int BUFFER_CHARS = 64 * 1024;
+
+    private final UserListingDAO userListingDAO;
+
+    // Constructor injection
+    public UserExportService(UserListingDAO userListingDAO) {
+        this.userListingDAO = userListingDAO;
+    }
+
+    /**
+     * Exports every user matching the filter with an id above `afterId`.
+     * Returns the number of users written; `out` is flushed, not closed.
+     *
+     * Once rows have been written a failure cannot change the response
+     * status: the client sees a truncated body and can resume with `after`
+     * set to the last id it received.
+     */
+    public long export(UserFilter filter, long afterId, Format format, OutputStream out) throws IOException {
+
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_CHARS);
+
+        try {
+            long count;
+            if (format == Format.CSV) {
+                writer.write(CSV_HEADER);
+                count = userListingDAO.stream(filter, afterId, user -> writeCsv(writer, user));
+            } else {
+                try (JsonGenerator json = JSON.createGenerator(ObjectWriteContext.empty(), writer)) {
+                    count = userListingDAO.stream(filter, afterId, user -> writeJson(json, user));
+                }
+            }
+            writer.flush();
+            return count;
+
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        } catch (JacksonIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /* =========================================================
+       FORMATS
+       ========================================================= */
+
+    private static void writeCsv(Writer writer, UserSummary user) {
+        try {
+            writer.write(Long.toString(user.getId()));
+            writer.write(',');
+            writeCsvField(writer, user.getEmail());
+            writer.write(user.isVerified() ? ",true," : ",false,");
+            writer.write(user.getCreatedAt() == null ? "" : user.getCreatedAt().toString());
+            writer.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeCsvField(Writer writer, String value) throws IOException {
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0
+                && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            writer.write(value);
+            return;
+        }
+        writer.write('"');
+        writer.write(value.replace("\"", "\"\""));
+        writer.write('"');
+    }
+
+    private static void writeJson(JsonGenerator json, UserSummary user) {
+        json.writeStartObject();
+        json.writeNumberProperty("id", user.getId());
+        json.writeStringProperty("email", user.getEmail());
+        json.writeBooleanProperty("verified", user.isVerified());
+        json.writeStringProperty("createdAt", user.getCreatedAt() == null ? null : user.getCreatedAt().toString());
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+}
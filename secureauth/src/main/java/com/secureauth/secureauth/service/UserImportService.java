@@ -0,0 +1,470 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.UserImportProperties;
+import com.secureauth.secureauth.dao.UserDAO;
+import com.secureauth.secureauth.model.ImportReport;
+import com.secureauth.secureauth.model.User;
+import com.secureauth.secureauth.util.PasswordUtil;
+
+import jakarta.annotation.PreDestroy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+/**
+ * UserImportService
+ * -----------------
+ * Creates accounts in bulk from a CSV or NDJSON stream.
+ *
+ * - the body is read line by line; only one chunk of rows is held in memory
+ * - plain passwords are bcrypt-hashed in parallel on a dedicated pool,
+ *   pre-hashed (bcrypt) passwords are stored as they are
+ * - each chunk is one JDBC batch: existing emails are skipped, never updated
+ * - no email is sent; imported users are verified or not as the row says
+ * - one import at a time per node
+ *
+ * CSV: a header line naming the columns, e.g. email,password,verified
+ *      (password_hash instead of password for pre-hashed rows)
+ * NDJSON: one object per line with the same field names
+ */
+@Service
+public class UserImportService {
+
+    public enum Format { CSV, NDJSON }
+
+    private static final Logger log = LoggerFactory.getLogger(UserImportService.class);
+
+    private static final JsonMapper JSON = JsonMapper.builder().build();
+
+    private static final Pattern EMAIL = Pattern.compile("^[^@\\s]+@[^@\\s]+$");
+    private static final Pattern BCRYPT = Pattern.compile("^\\$2[aby]\\$\\d{2}\\$[./A-Za-z0-9]{53}$");
+    private static final int MAX_EMAIL_LENGTH = 254;
+
+    private final UserImportProperties properties;
+    private final Function<List<User>, boolean[]> inserter;
+    private final int cost;
+    private final ExecutorService hashPool;
+    private final Semaphore running = new Semaphore(1);
+
+    @Autowired
+    public UserImportService(UserImportProperties properties,
+                             UserDAO userDAO,
+                             PasswordHashingService passwordHasher) {
+        this(properties, userDAO::insertAll, passwordHasher.getCost());
+    }
+
+    UserImportService(UserImportProperties properties,
+                      Function<List<User>, boolean[]> inserter,
+                      int cost) {
+        this.properties = properties;
+        this.inserter = inserter;
+        this.cost = cost;
+
+        // Not the login hashing pool: an import must not fill its admission queue
+        int threads = properties.getHashThreads() > 0
+                ? properties.getHashThreads()
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.hashPool = Executors.newFixedThreadPool(threads, importThreadFactory());
+    }
+
+    /**
+     * Imports every row of the stream and reports the outcome per row.
+     *
+     * @throws ImportInProgressException if another import is running
+     * @throws IllegalArgumentException  if the CSV header is unusable
+     */
+    public ImportReport importUsers(Reader body, Format format) throws IOException {
+
+        if (!running.tryAcquire()) {
+            throw new ImportInProgressException("A user import is already running");
+        }
+
+        long start = System.nanoTime();
+        ImportReport report = new ImportReport();
+
+        try {
+            LineReader lines = new LineReader(body, properties.getMaxLineLength());
+            RowParser parser = format == Format.CSV ? new CsvParser() : new NdjsonParser();
+            List<Row> chunk = new ArrayList<>(properties.getChunkSize());
+
+            String line;
+            while ((line = lines.next()) != null) {
+
+                if (lines.tooLong) {
+                    fail(report, lines.number, null, "Line too long");
+                    continue;
+                }
+                if (line.isBlank()) {
+                    continue;
+                }
+
+                Row row;
+                try {
+                    row = parser.parse(lines.number, line);
+                } catch (InvalidRowException e) {
+                    fail(report, lines.number, null, e.getMessage());
+                    continue;
+                }
+                if (row == null) {
+                    continue; // CSV header
+                }
+
+                String error = validate(row);
+                if (error != null) {
+                    fail(report, row.line, row.email, error);
+                    continue;
+                }
+
+                chunk.add(row);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    flush(chunk, report);
+                }
+            }
+            flush(chunk, report);
+
+        } catch (DataAccessException e) {
+            // Earlier chunks are committed: report them and stop here
+            log.error("User import stopped after {} rows", report.getTotal(), e);
+            report.setStatus("error");
+            report.setMessage("Import stopped: database error");
+        } finally {
+            running.release();
+        }
+
+        log.info("User import: {} rows ({} created, {} skipped, {} failed) in {} ms",
+                report.getTotal(), report.getCreated(), report.getSkipped(), report.getFailed(),
+                (System.nanoTime() - start) / 1_000_000);
+        return report;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        hashPool.shutdownNow();
+    }
+
+    /* =======================
+       CHUNKS
+       ======================= */
+
+    /**
+     * Hashes the chunk's plain passwords in parallel, then inserts it as one batch.
+     */
+    private void flush(List<Row> chunk, ImportReport report) {
+
+        if (chunk.isEmpty()) {
+            return;
+        }
+
+        List<Future<String>> hashes = new ArrayList<>(chunk.size());
+        for (Row row : chunk) {
+            hashes.add(row.password == null ? null : hashPool.submit(() -> PasswordUtil.hash(row.password, cost)));
+        }
+
+        List<Row> rows = new ArrayList<>(chunk.size());
+        List<User> users = new ArrayList<>(chunk.size());
+
+        for (int i = 0; i < chunk.size(); i++) {
+            Row row = chunk.get(i);
+            String hash = row.passwordHash;
+
+            if (hashes.get(i) != null) {
+                try {
+                    hash = hashes.get(i).get();
+                } catch (ExecutionException e) {
+                    fail(report, row.line, row.email, "Password could not be hashed");
+                    continue;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Interrupted while hashing passwords", e);
+                }
+            }
+
+            rows.add(row);
+            users.add(new User(row.email, hash, null, row.verified));
+        }
+
+        boolean[] inserted = users.isEmpty() ? new boolean[0] : inserter.apply(users);
+
+        for (int i = 0; i < rows.size(); i++) {
+            if (inserted[i]) {
+                report.created();
+            } else {
+                report.skipped(rows.get(i).line, rows.get(i).email, properties.getMaxReportedErrors());
+            }
+        }
+
+        chunk.clear();
+    }
+
+    private void fail(ImportReport report, long line, String email, String error) {
+        report.failed(line, email, error, properties.getMaxReportedErrors());
+    }
+
+    private static String validate(Row row) {
+
+        if (row.email == null || row.email.isEmpty()) {
+            return "Email is required";
+        }
+        if (row.email.length() > MAX_EMAIL_LENGTH || !EMAIL.matcher(row.email).matches()) {
+            return "Invalid email";
+        }
+        if ((row.password == null) == (row.passwordHash == null)) {
+            return "Exactly one of password and password_hash is required";
+        }
+        if (row.password != null && !PasswordUtil.isStrong(row.password)) {
+            return "Password does not meet the strength rules";
+        }
+        if (row.passwordHash != null && !BCRYPT.matcher(row.passwordHash).matches()) {
+            return "password_hash must be a bcrypt hash";
+        }
+        return null;
+    }
+
+    private static ThreadFactory importThreadFactory() {
+        AtomicInteger counter = new AtomicInteger();
+        return task -> {
+            Thread thread = new Thread(task, "user-import-hash-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+
+    /* =======================
+       PARSING
+       ======================= */
+
+    private static final class Row {
+        final long line;
+        String email;
+        String password;
+        String passwordHash;
+        boolean verified;
+
+        Row(long line) {
+            this.line = line;
+        }
+    }
+
+    private interface RowParser {
+        /** The row on this line, or null if the line is not a row (header). */
+        Row parse(long line, String text);
+    }
+
+    private static final class InvalidRowException extends RuntimeException {
+        InvalidRowException(String message) {
+            super(message);
+        }
+    }
+
+    /**
+     * RFC 4180 fields on a single line: quoted fields may contain commas
+     * and doubled quotes, but not line breaks.
+     */
+    static final class CsvParser implements RowParser {
+
+        private int email = -1;
+        private int password = -1;
+        private int passwordHash = -1;
+        private int verified = -1;
+        private boolean headerRead;
+
+        @Override
+        public Row parse(long line, String text) {
+
+            List<String> fields = split(text);
+
+            if (!headerRead) {
+                readHeader(fields);
+                return null;
+            }
+
+            Row row = new Row(line);
+            row.email = trimmed(field(fields, email));
+            row.password = emptyToNull(field(fields, password));
+            row.passwordHash = emptyToNull(trimmed(field(fields, passwordHash)));
+            row.verified = parseVerified(trimmed(field(fields, verified)));
+            return row;
+        }
+
+        private void readHeader(List<String> names) {
+            for (int i = 0; i < names.size(); i++) {
+                switch (names.get(i).trim().toLowerCase(Locale.ROOT)) {
+                    case "email" -> email = i;
+                    case "password" -> password = i;
+                    case "password_hash" -> passwordHash = i;
+                    case "verified" -> verified = i;
+                    default -> throw new IllegalArgumentException("Unknown CSV column: " + names.get(i).trim());
+                }
+            }
+            if (email < 0 || (password < 0 && passwordHash < 0)) {
+                throw new IllegalArgumentException("CSV header needs email and password or password_hash");
+            }
+            headerRead = true;
+        }
+
+        static List<String> split(String text) {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+
+            for (int i = 0; i < text.length(); i++) {
+                char c = text.charAt(i);
+                if (quoted) {
+                    if (c != '"') {
+                        field.append(c);
+                    } else if (i + 1 < text.length() && text.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else {
+                    field.append(c);
+                }
+            }
+            if (quoted) {
+                throw new InvalidRowException("Unterminated quoted field");
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+
+        private static String field(List<String> fields, int index) {
+            return index >= 0 && index < fields.size() ? fields.get(index) : null;
+        }
+    }
+
+    static final class NdjsonParser implements RowParser {
+
+        @Override
+        public Row parse(long line, String text) {
+
+            JsonNode node;
+            try {
+                node = JSON.readTree(text);
+            } catch (JacksonException e) {
+                throw new InvalidRowException("Invalid JSON");
+            }
+            if (node == null || !node.isObject()) {
+                throw new InvalidRowException("Expected a JSON object");
+            }
+
+            Row row = new Row(line);
+            row.email = trimmed(string(node, "email"));
+            row.password = emptyToNull(string(node, "password"));
+            row.passwordHash = emptyToNull(trimmed(string(node, "password_hash")));
+
+            JsonNode verified = node.get("verified");
+            if (verified != null && !verified.isNull()) {
+                row.verified = verified.isBoolean() ? verified.booleanValue() : parseVerified(verified.asString());
+            }
+            return row;
+        }
+
+        private static String string(JsonNode node, String name) {
+            JsonNode value = node.get(name);
+            if (value == null || value.isNull()) {
+                return null;
+            }
+            if (!value.isString()) {
+                throw new InvalidRowException(name + " must be a string");
+            }
+            return value.stringValue();
+        }
+    }
+
+    private static boolean parseVerified(String value) {
+        if (value == null || value.isEmpty()) {
+            return false;
+        }
+        return switch (value.toLowerCase(Locale.ROOT)) {
+            case "true", "1", "yes" -> true;
+            case "false", "0", "no" -> false;
+            default -> throw new InvalidRowException("verified must be true or false");
+        };
+    }
+
+    private static String trimmed(String value) {
+        return value == null ? null : value.trim();
+    }
+
+    private static String emptyToNull(String value) {
+        return value == null || value.isEmpty() ? null : value;
+    }
+
+    /* =======================
+       LINES
+       ======================= */
+
+    /**
+     * readLine() with a length cap: an oversized line is skipped to its end
+     * instead of being buffered.
+     */
+    static final class LineReader {
+
+        private final Reader in;
+        private final int maxLength;
+        private final StringBuilder line = new StringBuilder();
+
+        long number;
+        boolean tooLong;
+
+        LineReader(Reader in, int maxLength) {
+            this.in = in instanceof BufferedReader ? in : new BufferedReader(in, 64 * 1024);
+            this.maxLength = maxLength;
+        }
+
+        String next() throws IOException {
+            line.setLength(0);
+            tooLong = false;
+
+            int c;
+            while ((c = in.read()) != -1 && c != '\n') {
+                if (line.length() < maxLength) {
+                    line.append((char) c);
+                } else {
+                    tooLong = true;
+                }
+            }
+            if (c == -1 && line.length() == 0 && !tooLong) {
+                return null;
+            }
+
+            number++;
+            int end = line.length();
+            if (end > 0 && line.charAt(end - 1) == '\r') {
+                end--;
+            }
+            int begin = number == 1 && end > 0 && line.charAt(0) == '\uFEFF' ? 1 : 0;
+            return line.substring(begin, end);
+        }
+    }
+}
@@ -0,0 +1,164 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.SweeperProperties;
+import com.secureauth.secureauth.dao.RefreshTokenDAO;
+import com.secureauth.secureauth.dao.SweepCursor;
+import com.secureauth.secureauth.dao.UserDAO;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+/**
+ * UserSweeper
+ * -----------
+ * Periodically cleans the users table:
+ * - clears password-reset and verification OTPs that have expired
+ * - deletes accounts that were never verified (after abandoned-after-hours)
+ * and deletes expired refresh tokens.
+ *
+ * Work is done in small batches, each one short statement, so no lock is
+ * held for long. Under load it backs off: it pauses between batches at least
+ * as long as the previous batch took, and stops for this run as soon as the
+ * connection pool gets busy. Several nodes can sweep at once: rows locked
+ * by one are skipped by the others (SKIP LOCKED).
+ */
+@Service
+@ConditionalOnProperty(name = "secureauth.sweeper.enabled", havingValue = "true", matchIfMissing = true)
+public class UserSweeper {
+
+    private static final Logger log = LoggerFactory.getLogger(UserSweeper.class);
+
+    private final UserDAO userDAO;
+    private final RefreshTokenDAO refreshTokenDAO;
+    private final SweeperProperties properties;
+    private final BooleanSupplier databaseBusy;
+
+    private final Counter resetOtpsCleared;
+    private final Counter otpsCleared;
+    private final Counter accountsDeleted;
+    private final Counter refreshTokensDeleted;
+    private final Counter throttled;
+
+    @Autowired
+    public UserSweeper(UserDAO userDAO,
+                       RefreshTokenDAO refreshTokenDAO,
+                       SweeperProperties properties,
+                       DataSource dataSource,
+                       MeterRegistry meterRegistry) {
+        this(userDAO, refreshTokenDAO, properties,
+                poolBusy(dataSource, properties.getMaxPoolUsage()), meterRegistry);
+    }
+
+    UserSweeper(UserDAO userDAO,
+                RefreshTokenDAO refreshTokenDAO,
+                SweeperProperties properties,
+                BooleanSupplier databaseBusy,
+                MeterRegistry meterRegistry) {
+        this.userDAO = userDAO;
+        this.refreshTokenDAO = refreshTokenDAO;
+        this.properties = properties;
+        this.databaseBusy = databaseBusy;
+
+        this.resetOtpsCleared = rows(meterRegistry, "reset_otp_cleared");
+        this.otpsCleared = rows(meterRegistry, "otp_cleared");
+        this.accountsDeleted = rows(meterRegistry, "account_deleted");
+        this.refreshTokensDeleted = rows(meterRegistry, "refresh_token_deleted");
+        this.throttled = Counter.builder("secureauth.sweeper.throttled")
+                .description("Sweeps stopped early because the connection pool was busy")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${secureauth.sweeper.interval-ms:60000}",
+               fixedDelayString = "${secureauth.sweeper.interval-ms:60000}")
+    public void sweep() {
+        try {
+            boolean completed =
+                    run(resetOtpsCleared, userDAO::clearExpiredResetOtps)
+                    && run(otpsCleared, userDAO::clearExpiredOtps)
+                    && run(refreshTokensDeleted, refreshTokenDAO::deleteExpired)
+                    && (properties.getAbandonedAfterHours() <= 0
+                        || run(accountsDeleted, (cursor, limit) -> userDAO.deleteAbandoned(
+                                TimeUnit.HOURS.toSeconds(properties.getAbandonedAfterHours()), cursor, limit)));
+
+            if (!completed) {
+                throttled.increment();
+                log.debug("Sweep stopped early: connection pool busy");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            // Next run starts over; nothing is half-done (each batch is its own transaction)
+            log.warn("Sweep failed", e);
+        }
+    }
+
+    /**
+     * Runs one kind of batch until it comes back short.
+     *
+     * @return false if it stopped because the database was busy
+     */
+    private boolean run(Counter counter, Batch batch) throws InterruptedException {
+
+        SweepCursor cursor = new SweepCursor();
+        int batchSize = properties.getBatchSize();
+
+        while (true) {
+            if (databaseBusy.getAsBoolean()) {
+                return false;
+            }
+
+            long start = System.nanoTime();
+            int rows = batch.run(cursor, batchSize);
+            counter.increment(rows);
+
+            if (rows < batchSize) {
+                return true;
+            }
+
+            // At most half of one connection's time goes to sweeping
+            long tookMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            Thread.sleep(Math.max(properties.getPauseMs(), tookMs));
+        }
+    }
+
+    private interface Batch {
+        int run(SweepCursor cursor, int limit);
+    }
+
+    private static Counter rows(MeterRegistry registry, String action) {
+        return Counter.builder("secureauth.sweeper.rows")
+                .description("Rows cleaned up by the sweeper")
+                .tag("action", action)
+                .register(registry);
+    }
+
+    /**
+     * Busy when requests are waiting for a connection or the pool is past
+     * maxUsage. Non-Hikari data sources are never considered busy.
+     */
+    static BooleanSupplier poolBusy(DataSource dataSource, double maxUsage) {
+        if (!(dataSource instanceof HikariDataSource hikari)) {
+            return () -> false;
+        }
+        return () -> {
+            HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+            return pool != null
+                    && (pool.getThreadsAwaitingConnection() > 0
+                        || pool.getActiveConnections() >= maxUsage * hikari.getMaximumPoolSize());
+        };
+    }
+}
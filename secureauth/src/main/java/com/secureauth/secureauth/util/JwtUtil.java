@@ -1,37 +1,195 @@
 package com.secureauth.secureauth.util;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.util.JsonRecyclerPools;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.ExpiredJwtException;
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.JwtBuilder;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import io.jsonwebtoken.SignatureAlgorithm;
-import io.jsonwebtoken.security.Keys;
+import io.jsonwebtoken.SigningKeyResolverAdapter;
+import io.jsonwebtoken.UnsupportedJwtException;
+import io.jsonwebtoken.jackson.io.JacksonDeserializer;
+import io.jsonwebtoken.jackson.io.JacksonSerializer;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
 
 import java.security.Key;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 public class JwtUtil {
 
-    private static final Key key = Keys.secretKeyFor(SignatureAlgorithm.HS256);
-    private static final long EXPIRATION_MS = 24 * 60 * 60 * 1000; // 24 hours
+    // Replaced at startup by SigningKeyService with the persisted keys
+    private static volatile KeyRing keyRing = KeyRing.ephemeral();
+
+    // Short-lived: clients renew it at /api/auth/refresh with their refresh token
+    private static final long EXPIRATION_MS = 15 * 60 * 1000; // 15 minutes
+
+    private static final String SCOPE = "scope";
+
+    // jjwt's default ObjectMapper recycles its buffers per thread (ThreadLocal).
+    // On virtual threads every request is a new thread, so that pool never hits
+    // and each token allocates ~60 KB of fresh buffers: share one pool instead.
+    private static final ObjectMapper json = new ObjectMapper(JsonFactory.builder()
+            .recyclerPool(JsonRecyclerPools.sharedConcurrentDequePool())
+            .build());
+
+    // Set explicitly: otherwise every builder looks one up via ServiceLoader (~100 µs per token)
+    private static final JacksonSerializer<Map<String, ?>> serializer = new JacksonSerializer<>(json);
+
+    // Parser is thread-safe, build it once; the key comes from the current ring by kid
+    private static final JwtParser parser = Jwts.parserBuilder()
+            .setSigningKeyResolver(new SigningKeyResolverAdapter() {
+                @Override
+                public Key resolveSigningKey(JwsHeader header, Claims claims) {
+                    return verifyKey(header);
+                }
+            })
+            .deserializeJsonWith(new JacksonDeserializer<>(json))
+            .build();
+
+    private static final VerifiedTokenCache tokenCache = new VerifiedTokenCache(10_000);
+
+    // secureauth.jwt.validations{outcome, cache}: static class, so the global registry
+    // (Spring Boot adds its Prometheus registry to it)
+    private static final Timer cachedValid = validationTimer("valid", "hit");
+    private static final Timer parsedValid = validationTimer("valid", "miss");
+    private static final Timer parsedExpired = validationTimer("expired", "miss");
+    private static final Timer parsedInvalid = validationTimer("invalid", "miss");
 
     public static String generateToken(String email) {
-        return Jwts.builder()
+        return generateToken(email, Set.of());
+    }
+
+    /**
+     * Token carrying `scope` (space-separated), checked by JwtFilter against
+     * the scopes a route requires.
+     */
+    public static String generateToken(String email, Collection<String> scopes) {
+        SigningKey key = keyRing.getActive();
+        long now = System.currentTimeMillis();
+        JwtBuilder builder = Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, key.getKid())
+                .setId(UUID.randomUUID().toString()) // jti: lets one token be revoked
                 .setSubject(email)
-                .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + EXPIRATION_MS))
-                .signWith(key)
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + EXPIRATION_MS));
+        if (!scopes.isEmpty()) {
+            builder.claim(SCOPE, String.join(" ", scopes));
+        }
+        return builder
+                .signWith(key.getSignKey(), key.getAlgorithm())
+                .serializeToJsonWith(serializer)
                 .compact();
     }
 
+    /**
+     * The token's key must be in the ring and be used with its own algorithm:
+     * a token cannot pick another algorithm for a known key (e.g. HS256 with
+     * an ES256 public key as the HMAC secret).
+     */
+    private static Key verifyKey(JwsHeader<?> header) {
+        String kid = header.getKeyId();
+        SigningKey key = kid == null ? null : keyRing.get(kid);
+
+        if (key == null || !key.getAlgorithm().getValue().equals(header.getAlgorithm())) {
+            throw new UnsupportedJwtException("Unknown key id or algorithm");
+        }
+        return key.getVerifyKey();
+    }
+
+    /**
+     * Returns the email of a correctly signed, unexpired token, otherwise null.
+     * Does not check revocation: requests go through JwtFilter, which does.
+     */
     public static String validateToken(String token) {
-    try {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody()
-                .getSubject(); // email
-    } catch (Exception e) {
-        return null; // invalid or expired token
+        VerifiedToken verified = verify(token);
+        return verified == null ? null : verified.getSubject();
+    }
+
+    /**
+     * Like validateToken, but returns the claims TokenDenylist checks.
+     */
+    public static VerifiedToken verify(String token) {
+        long start = System.nanoTime();
+
+        // Already verified and not yet expired
+        VerifiedToken cached = tokenCache.get(token);
+        if (cached != null) {
+            cachedValid.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+
+        Timer timer = parsedInvalid;
+        try {
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            Date issuedAt = claims.getIssuedAt();
+
+            String scope = claims.get(SCOPE, String.class);
+
+            // No iat: treat as issued at the epoch, so any subject revocation applies
+            VerifiedToken verified = new VerifiedToken(
+                    claims.getSubject(), // email
+                    claims.getId(),
+                    issuedAt == null ? 0 : issuedAt.getTime(),
+                    claims.getExpiration().getTime(),
+                    scope == null ? Set.of() : Set.copyOf(Arrays.asList(scope.trim().split(" +"))));
+
+            tokenCache.put(token, verified);
+            timer = parsedValid;
+            return verified;
+        } catch (ExpiredJwtException e) {
+            timer = parsedExpired;
+            return null;
+        } catch (Exception e) {
+            return null; // invalid token
+        } finally {
+            timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private static Timer validationTimer(String outcome, String cache) {
+        return Timer.builder("secureauth.jwt.validations")
+                .description("JwtUtil.validateToken calls")
+                .tag("outcome", outcome)
+                .tag("cache", cache)
+                .register(Metrics.globalRegistry);
+    }
+
+    /**
+     * Longest lifetime of a token: a subject revocation can be forgotten
+     * this long after it was made.
+     */
+    public static long getExpirationMs() {
+        return EXPIRATION_MS;
+    }
+
+    /**
+     * Installs a new ring (key rotation). Tokens signed with a key that is
+     * no longer in it stop verifying, so the verified-token cache is cleared.
+     */
+    public static void setKeyRing(KeyRing ring) {
+        keyRing = ring;
+        tokenCache.clear();
+    }
+
+    public static KeyRing getKeyRing() {
+        return keyRing;
+    }
+
+    /**
+     * Hit / miss / eviction counters for sizing the token cache.
+     */
+    public static VerifiedTokenCache getTokenCache() {
+        return tokenCache;
     }
-}
 
 }
@@ -0,0 +1,63 @@
+package com.secureauth.secureauth.util;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+
+import javax.crypto.SecretKey;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * KeyRing
+ * -------
+ * The keys JwtUtil signs and verifies with. Immutable: a new ring replaces
+ * the old one when keys are rotated.
+ *
+ * - one active key signs new tokens; its `kid` goes in the token header
+ * - every key in the ring verifies; the one named by a token's `kid` is
+ *   found with one hash lookup, never by trying each key
+ */
+public final class KeyRing {
+
+    private final Map<String, SigningKey> byKid;
+    private final SigningKey active;
+
+    public KeyRing(Collection<SigningKey> keys, String activeKid) {
+        Map<String, SigningKey> map = new HashMap<>();
+        for (SigningKey key : keys) {
+            if (map.put(key.getKid(), key) != null) {
+                throw new IllegalArgumentException("Duplicate kid " + key.getKid());
+            }
+        }
+
+        SigningKey activeKey = map.get(activeKid);
+        if (activeKey == null || !activeKey.canSign()) {
+            throw new IllegalArgumentException("Active key " + activeKid + " is missing or cannot sign");
+        }
+
+        this.byKid = Collections.unmodifiableMap(map);
+        this.active = activeKey;
+    }
+
+    /**
+     * One random HS256 key, lost on restart. Used until a configured ring
+     * is installed, and by code running JwtUtil without the application.
+     */
+    public static KeyRing ephemeral() {
+        String kid = UUID.randomUUID().toString();
+        SecretKey secret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        return new KeyRing(List.of(new SigningKey(kid, SignatureAlgorithm.HS256, secret, secret, 0)), kid);
+    }
+
+    public SigningKey getActive() { return active; }
+
+    // Null if the kid is unknown
+    public SigningKey get(String kid) { return byKid.get(kid); }
+
+    public Collection<SigningKey> getKeys() { return byKid.values(); }
+}
@@ -1,10 +1,86 @@
 package com.secureauth.secureauth.util;
 
+import org.springframework.security.crypto.bcrypt.BCrypt;
+
+import java.nio.charset.StandardCharsets;
 import java.security.MessageDigest;
+import java.util.regex.Pattern;
 
+/**
+ * PasswordUtil
+ * ------------
+ * New hashes are bcrypt; the cost is stored inside the hash ($2a$<cost>$...).
+ * Old unsalted SHA-256 hex hashes are still accepted by matches()
+ * and reported by needsRehash() so they can be upgraded on login.
+ */
 public class PasswordUtil {
 
-    public static String hash(String password) {
+    // bcrypt ignores anything past 72 bytes, so longer passwords are refused
+    public static final int MAX_PASSWORD_BYTES = 72;
+
+    // A letter, a digit, a symbol, at least 6 characters; compiled once
+    private static final Pattern STRONG =
+            Pattern.compile("^(?=.*[A-Za-z])(?=.*\\d)(?=.*[!@#$%^&*_\\-()]).{6,}$");
+
+    public static String hash(String password, int cost) {
+        if (isTooLong(password)) {
+            throw new IllegalArgumentException("Password longer than " + MAX_PASSWORD_BYTES + " bytes");
+        }
+        return BCrypt.hashpw(password, BCrypt.gensalt(cost));
+    }
+
+    public static boolean matches(String password, String storedHash) {
+        if (password == null || storedHash == null) {
+            return false;
+        }
+
+        if (isBcrypt(storedHash)) {
+            if (isTooLong(password)) {
+                return false;
+            }
+            return BCrypt.checkpw(password, storedHash);
+        }
+
+        // Legacy SHA-256 hash, compared in constant time
+        return MessageDigest.isEqual(
+                legacyHash(password).getBytes(StandardCharsets.US_ASCII),
+                storedHash.getBytes(StandardCharsets.US_ASCII)
+        );
+    }
+
+    /**
+     * True for legacy SHA-256 hashes and bcrypt hashes weaker than `cost`.
+     */
+    public static boolean needsRehash(String storedHash, int cost) {
+        if (!isBcrypt(storedHash)) {
+            return true;
+        }
+        // $2a$10$... → cost is the two digits after the second '$'
+        int storedCost = Integer.parseInt(storedHash.substring(4, 6));
+        return storedCost < cost;
+    }
+
+    /**
+     * More than MAX_PASSWORD_BYTES in UTF-8: hash() refuses it.
+     */
+    public static boolean isTooLong(String password) {
+        return password.getBytes(StandardCharsets.UTF_8).length > MAX_PASSWORD_BYTES;
+    }
+
+    public static boolean isStrong(String password) {
+        return password != null &&
+               !isTooLong(password) &&
+               STRONG.matcher(password).matches();
+    }
+
+    private static boolean isBcrypt(String storedHash) {
+        return storedHash.length() == 60 && storedHash.startsWith("$2");
+    }
+
+    /**
+     * The pre-bcrypt scheme: unsalted SHA-256, lowercase hex.
+     */
+    private static String legacyHash(String password) {
         try {
             MessageDigest md = MessageDigest.getInstance("SHA-256");
             byte[] hashed = md.digest(password.getBytes());
@@ -20,9 +96,4 @@ public class PasswordUtil {
         }
     }
 
-    public static boolean isStrong(String password) {
-    return password != null &&
-           password.matches("^(?=.*[A-Za-z])(?=.*\\d)(?=.*[!@#$%^&*_\\-()]).{6,}$");
-}
-
 }
@@ -0,0 +1,59 @@
+package com.secureauth.secureauth.util;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * RefreshTokenCodec
+ * -----------------
+ * Format of the opaque refresh tokens: 256 random bits, Base64url
+ * without padding. Only their SHA-256 is stored (no slow hash needed:
+ * the token cannot be guessed, unlike a password).
+ *
+ * Shared by the servlet RefreshTokenService and the reactive deployment,
+ * which read and write the same refresh_tokens table.
+ */
+public final class RefreshTokenCodec {
+
+    private static final SecureRandom random = new SecureRandom();
+    private static final int TOKEN_BYTES = 32;
+
+    // Base64url of 32 bytes, no padding
+    private static final int TOKEN_LENGTH = 43;
+
+    private RefreshTokenCodec() {
+    }
+
+    public static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    // Anything else cannot be one of ours: refuse without a query
+    public static boolean isWellFormed(String token) {
+        if (token == null || token.length() != TOKEN_LENGTH) {
+            return false;
+        }
+        for (int i = 0; i < TOKEN_LENGTH; i++) {
+            char c = token.charAt(i);
+            boolean base64url = (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z')
+                    || (c >= '0' && c <= '9') || c == '-' || c == '_';
+            if (!base64url) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public static byte[] hash(String token) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
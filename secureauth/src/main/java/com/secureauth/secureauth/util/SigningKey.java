@@ -0,0 +1,56 @@
+package com.secureauth.secureauth.util;
+
+import io.jsonwebtoken.SignatureAlgorithm;
+
+import java.security.Key;
+import java.security.PublicKey;
+
+/**
+ * SigningKey
+ * ----------
+ * One entry of the KeyRing, named by its `kid`.
+ *
+ * - HS256: one secret, signs and verifies
+ * - ES256: a private key signs, the public key verifies and is published
+ *   in the JWKS; a key without its private half can only verify
+ */
+public final class SigningKey {
+
+    private final String kid;
+    private final SignatureAlgorithm algorithm;
+    private final Key signKey;
+    private final Key verifyKey;
+    private final long activatesAtMs;
+
+    public SigningKey(String kid, SignatureAlgorithm algorithm, Key signKey, Key verifyKey, long activatesAtMs) {
+        if (algorithm != SignatureAlgorithm.HS256 && algorithm != SignatureAlgorithm.ES256) {
+            throw new IllegalArgumentException("Unsupported algorithm " + algorithm + " (HS256 or ES256)");
+        }
+        this.kid = kid;
+        this.algorithm = algorithm;
+        this.signKey = signKey;
+        this.verifyKey = verifyKey;
+        this.activatesAtMs = activatesAtMs;
+    }
+
+    public String getKid() { return kid; }
+
+    public SignatureAlgorithm getAlgorithm() { return algorithm; }
+
+    // Null for a verify-only key
+    public Key getSignKey() { return signKey; }
+
+    public Key getVerifyKey() { return verifyKey; }
+
+    // From then on it may be used to sign
+    public long getActivatesAtMs() { return activatesAtMs; }
+
+    public boolean canSign() { return signKey != null; }
+
+    /**
+     * The key to publish in the JWKS, or null: an HMAC secret is never published.
+     */
+    public PublicKey getPublicKey() {
+        return verifyKey instanceof PublicKey publicKey ? publicKey : null;
+    }
+}
@@ -0,0 +1,46 @@
+package com.secureauth.secureauth.util;
+
+import java.util.Set;
+
+/**
+ * VerifiedToken
+ * -------------
+ * The claims of a JWT whose signature and expiry were checked.
+ * Whether it has been revoked since is up to TokenDenylist.
+ */
+public final class VerifiedToken {
+
+    private final String subject;
+    private final String id;
+    private final long issuedAtMs;
+    private final long expiresAtMs;
+    private final Set<String> scopes;
+
+    public VerifiedToken(String subject, String id, long issuedAtMs, long expiresAtMs) {
+        this(subject, id, issuedAtMs, expiresAtMs, Set.of());
+    }
+
+    public VerifiedToken(String subject, String id, long issuedAtMs, long expiresAtMs, Set<String> scopes) {
+        this.subject = subject;
+        this.id = id;
+        this.issuedAtMs = issuedAtMs;
+        this.expiresAtMs = expiresAtMs;
+        this.scopes = scopes;
+    }
+
+    // Email of the user
+    public String getSubject() { return subject; }
+
+    // `jti` claim; null for a token without one
+    public String getId() { return id; }
+
+    // `iat` claim: JWT times have one-second precision
+    public long getIssuedAtMs() { return issuedAtMs; }
+
+    public long getExpiresAtMs() { return expiresAtMs; }
+
+    // `scope` claim, space-separated in the token
+    public Set<String> getScopes() { return scopes; }
+
+    public boolean hasScope(String scope) { return scopes.contains(scope); }
+}
@@ -0,0 +1,167 @@
+package com.secureauth.secureauth.util;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * VerifiedTokenCache
+ * ------------------
+ * Remembers tokens whose signature was already checked, so a client
+ * sending the same JWT again skips the Base64 + JSON + HMAC work.
+ *
+ * - keyed by a SHA-256 digest of the token (the token itself is never stored)
+ * - an entry lives until the token's own `exp`
+ * - bounded: expired entries are swept first, then arbitrary ones
+ */
+public class VerifiedTokenCache {
+
+    private final int maxEntries;
+    private final LongSupplier clockMs;
+    private final Map<TokenDigest, VerifiedToken> entries = new ConcurrentHashMap<>();
+    private final AtomicBoolean sweeping = new AtomicBoolean();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    public VerifiedTokenCache(int maxEntries) {
+        this(maxEntries, System::currentTimeMillis);
+    }
+
+    VerifiedTokenCache(int maxEntries, LongSupplier clockMs) {
+        this.maxEntries = maxEntries;
+        this.clockMs = clockMs;
+    }
+
+    /**
+     * Returns a previously verified, unexpired token, otherwise null.
+     * Revocation is not checked here.
+     */
+    public VerifiedToken get(String token) {
+        TokenDigest digest = TokenDigest.of(token);
+        VerifiedToken entry = entries.get(digest);
+
+        if (entry == null) {
+            misses.increment();
+            return null;
+        }
+
+        if (entry.getExpiresAtMs() <= clockMs.getAsLong()) {
+            if (entries.remove(digest, entry)) {
+                evictions.increment();
+            }
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry;
+    }
+
+    public void put(String token, VerifiedToken verified) {
+        if (entries.size() >= maxEntries) {
+            makeRoom();
+        }
+        entries.put(TokenDigest.of(token), verified);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * Drops expired entries; if that is not enough, drops arbitrary
+     * entries until the cache is at 90% of its limit.
+     */
+    private void makeRoom() {
+        // One sweeper at a time, others just insert
+        if (!sweeping.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            long now = clockMs.getAsLong();
+            entries.values().removeIf(entry -> {
+                if (entry.getExpiresAtMs() <= now) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            });
+
+            int target = maxEntries - maxEntries / 10;
+            Iterator<TokenDigest> it = entries.keySet().iterator();
+            while (entries.size() > target && it.hasNext()) {
+                it.next();
+                it.remove();
+                evictions.increment();
+            }
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    /* =======================
+       STATS
+       ======================= */
+
+    public long getHits() { return hits.sum(); }
+
+    public long getMisses() { return misses.sum(); }
+
+    public long getEvictions() { return evictions.sum(); }
+
+    public int size() { return entries.size(); }
+
+    public int getMaxEntries() { return maxEntries; }
+
+    /* =======================
+       INTERNALS
+       ======================= */
+
+    /**
+     * First 128 bits of SHA-256(token), held as two longs.
+     */
+    private static final class TokenDigest {
+        final long high;
+        final long low;
+
+        private TokenDigest(long high, long low) {
+            this.high = high;
+            this.low = low;
+        }
+
+        static TokenDigest of(String token) {
+            try {
+                byte[] hash = MessageDigest.getInstance("SHA-256")
+                        .digest(token.getBytes(StandardCharsets.US_ASCII));
+                ByteBuffer buffer = ByteBuffer.wrap(hash);
+                return new TokenDigest(buffer.getLong(), buffer.getLong());
+            } catch (NoSuchAlgorithmException e) {
+                throw new IllegalStateException("SHA-256 not available", e);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof TokenDigest)) {
+                return false;
+            }
+            TokenDigest other = (TokenDigest) o;
+            return high == other.high && low == other.low;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(high);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+-- ===============================
+-- USERS
+-- ===============================
+-- Written so it also applies to a users table created by hand before the
+-- schema was managed (spring.flyway.baseline-on-migrate with baseline 0).
+
+CREATE TABLE IF NOT EXISTS users (
+    id                   BIGSERIAL PRIMARY KEY,
+    email                VARCHAR(255) NOT NULL,
+    password             VARCHAR(255) NOT NULL,
+    otp                  VARCHAR(10),
+    verified             BOOLEAN NOT NULL DEFAULT false,
+    otp_created_at       TIMESTAMP,
+    reset_otp            VARCHAR(10),
+    reset_otp_created_at TIMESTAMP
+);
+
+-- OTP issue / verify / reset all rewrite the row: leave room on each page
+-- so the new row version stays on the same page (and is a HOT update when
+-- no indexed column changes, e.g. a password rehash)
+ALTER TABLE users SET (fillfactor = 80);
+
+-- Emails are unique regardless of case; every UserDAO lookup is
+-- lower(email) = lower(?) and ON CONFLICT ((lower(email))) infers this index
+CREATE UNIQUE INDEX IF NOT EXISTS users_email_lower_key ON users (lower(email));
+
+-- Hand-made tables had a case-sensitive UNIQUE on email, now redundant
+ALTER TABLE users DROP CONSTRAINT IF EXISTS users_email_key;
+
+-- Pending email verifications. verifyOtp / resendOtp find their row through
+-- users_email_lower_key; this index covers the expiry scans over unverified
+-- rows and holds only those rows, so it stays small
+CREATE INDEX IF NOT EXISTS users_unverified_otp_created_at_idx
+    ON users (otp_created_at)
+    WHERE verified = false;
+
+-- Pending password resets, for expiry scans
+CREATE INDEX IF NOT EXISTS users_reset_otp_created_at_idx
+    ON users (reset_otp_created_at)
+    WHERE reset_otp IS NOT NULL;
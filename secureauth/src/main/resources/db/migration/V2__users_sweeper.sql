@@ -0,0 +1,24 @@
+-- ===============================
+-- SWEEPER (UserSweeper)
+-- ===============================
+
+-- Registration time, for purging accounts that were never verified.
+-- Existing rows count as registered now.
+ALTER TABLE users ADD COLUMN IF NOT EXISTS created_at TIMESTAMP NOT NULL DEFAULT now();
+
+-- The sweeper walks each index in (timestamp, id) order and continues after
+-- the last row it handled: the id makes that position unique
+DROP INDEX IF EXISTS users_unverified_otp_created_at_idx;
+CREATE INDEX users_unverified_otp_created_at_idx
+    ON users (otp_created_at, id)
+    WHERE verified = false;
+
+DROP INDEX IF EXISTS users_reset_otp_created_at_idx;
+CREATE INDEX users_reset_otp_created_at_idx
+    ON users (reset_otp_created_at, id)
+    WHERE reset_otp IS NOT NULL;
+
+-- Abandoned registrations
+CREATE INDEX users_unverified_created_at_idx
+    ON users (created_at, id)
+    WHERE verified = false;
@@ -0,0 +1,20 @@
+-- ===============================
+-- REVOKED TOKENS (TokenRevocationService)
+-- ===============================
+
+-- Persisted copy of the in-memory TokenDenylist, reloaded on startup.
+-- kind 'j': one token, value = its jti
+-- kind 's': every token of a subject issued up to revoked_at_ms, value = lower-cased email
+-- Times are epoch milliseconds from the application clock, the same clock
+-- that sets a token's iat / exp.
+CREATE TABLE IF NOT EXISTS revoked_tokens (
+    kind CHAR(1) NOT NULL,
+    value VARCHAR(255) NOT NULL,
+    revoked_at_ms BIGINT NOT NULL,
+    expires_at_ms BIGINT NOT NULL,
+    PRIMARY KEY (kind, value)
+);
+
+-- Startup load of live entries, and deletion once the tokens have expired
+CREATE INDEX revoked_tokens_expires_at_idx
+    ON revoked_tokens (expires_at_ms);
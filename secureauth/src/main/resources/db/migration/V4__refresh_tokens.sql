@@ -0,0 +1,34 @@
+-- ===============================
+-- REFRESH TOKENS (RefreshTokenService)
+-- ===============================
+
+-- One row per issued refresh token; only its SHA-256 is stored.
+-- family_id: every token rotated from the same login (one session).
+-- used_at:   set when the token was exchanged. A used token presented
+--            again means it was copied: the whole family is deleted.
+-- Deleting the user deletes their sessions.
+CREATE TABLE IF NOT EXISTS refresh_tokens (
+    id          BIGSERIAL PRIMARY KEY,
+    token_hash  BYTEA NOT NULL,
+    family_id   UUID NOT NULL,
+    user_id     BIGINT NOT NULL REFERENCES users (id) ON DELETE CASCADE,
+    created_at  TIMESTAMP NOT NULL DEFAULT now(),
+    expires_at  TIMESTAMP NOT NULL,
+    used_at     TIMESTAMP
+);
+
+-- Refresh: the presented token is found by its hash
+CREATE UNIQUE INDEX refresh_tokens_token_hash_key
+    ON refresh_tokens (token_hash);
+
+-- Reuse detection and logout delete a whole family
+CREATE INDEX refresh_tokens_family_id_idx
+    ON refresh_tokens (family_id);
+
+-- Password reset ends every session; also serves the ON DELETE CASCADE
+CREATE INDEX refresh_tokens_user_id_idx
+    ON refresh_tokens (user_id);
+
+-- Sweeper walks expired tokens in (expires_at, id) order
+CREATE INDEX refresh_tokens_expires_at_idx
+    ON refresh_tokens (expires_at, id);
@@ -0,0 +1,19 @@
+-- ===============================
+-- JWT SIGNING KEYS (SigningKeyService, keys.source = database)
+-- ===============================
+
+-- Shared by every instance, so tokens survive restarts and any instance
+-- verifies the tokens of the others.
+-- private_key: PKCS#8 for ES256, the secret itself for HS256. Anyone who can
+--              read this table can issue tokens: grant access accordingly.
+-- public_key:  X.509 SubjectPublicKeyInfo (ES256 only), published as JWKS.
+-- Times are epoch milliseconds from the application clock, like the
+-- iat / exp of the tokens. A key signs from activates_at_ms on.
+CREATE TABLE IF NOT EXISTS jwt_signing_keys (
+    kid             VARCHAR(64) PRIMARY KEY,
+    algorithm       VARCHAR(10) NOT NULL,
+    private_key     BYTEA NOT NULL,
+    public_key      BYTEA,
+    created_at_ms   BIGINT NOT NULL,
+    activates_at_ms BIGINT NOT NULL
+);
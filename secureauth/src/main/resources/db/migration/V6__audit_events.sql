@@ -0,0 +1,25 @@
+-- ===============================
+-- AUDIT EVENTS (AuditLog, secureauth.audit.sink=jdbc)
+-- ===============================
+
+-- Append-only security audit trail, written in batches by the audit writer.
+-- occurred_at: when the request happened (application clock), not the insert
+-- type:        AuditEventType (LOGIN_FAILED, OTP_ISSUED, ...)
+-- detail:      why / through which flow (bad_password, password_reset, ...)
+-- No foreign key to users: the trail outlives deleted accounts.
+CREATE TABLE IF NOT EXISTS audit_events (
+    id          BIGSERIAL PRIMARY KEY,
+    occurred_at TIMESTAMP NOT NULL,
+    type        VARCHAR(32) NOT NULL,
+    email       VARCHAR(255),
+    client_ip   VARCHAR(45),
+    detail      VARCHAR(64)
+);
+
+-- History of one account
+CREATE INDEX audit_events_email_idx
+    ON audit_events (lower(email), occurred_at);
+
+-- Time range scans and retention; rows arrive in time order, so BRIN stays tiny
+CREATE INDEX audit_events_occurred_at_idx
+    ON audit_events USING brin (occurred_at);
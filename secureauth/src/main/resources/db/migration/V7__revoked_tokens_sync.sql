@@ -0,0 +1,16 @@
+-- ===============================
+-- REVOKED TOKENS: SYNC BETWEEN INSTANCES (TokenRevocationService.sync)
+-- ===============================
+
+-- Every instance keeps its own in-memory denylist; each polls this table for
+-- the entries written (or widened) since its last look.
+-- changed_at_ms: epoch milliseconds from the database clock, not the
+--                application clock like the other columns, so all instances
+--                compare against the same clock. Set again on every upsert.
+ALTER TABLE revoked_tokens
+    ADD COLUMN IF NOT EXISTS changed_at_ms BIGINT NOT NULL
+        DEFAULT (extract(epoch FROM clock_timestamp()) * 1000)::BIGINT;
+
+-- Incremental load: entries changed after a given time
+CREATE INDEX IF NOT EXISTS revoked_tokens_changed_at_idx
+    ON revoked_tokens (changed_at_ms);
@@ -0,0 +1,38 @@
+-- ===============================
+-- PREFLIGHT (Flyway callback, runs before every migrate)
+-- ===============================
+
+-- V1 adds users_email_lower_key, a unique index on lower(email). A users
+-- table created by hand may hold emails that differ only in case
+-- (Bob@x.com / bob@x.com); the index build would then stop with a bare
+-- unique violation. Fail first, naming them. Once the index exists this
+-- is one catalog lookup.
+--
+-- To clean up: keep one row per address and delete or rename the others,
+-- e.g. after checking which one is verified and in use:
+--   SELECT id, email, verified FROM users
+--   WHERE lower(email) IN (SELECT lower(email) FROM users
+--                          GROUP BY lower(email) HAVING count(*) > 1)
+--   ORDER BY lower(email), id;
+DO $$
+DECLARE
+    duplicates TEXT;
+BEGIN
+    IF to_regclass('users') IS NULL OR to_regclass('users_email_lower_key') IS NOT NULL THEN
+        RETURN;
+    END IF;
+
+    SELECT string_agg(emails, '; ') INTO duplicates
+    FROM (
+        SELECT string_agg(email, ', ' ORDER BY email) AS emails
+        FROM users
+        GROUP BY lower(email)
+        HAVING count(*) > 1
+        ORDER BY lower(email)
+        LIMIT 20
+    ) AS groups;
+
+    IF duplicates IS NOT NULL THEN
+        RAISE EXCEPTION 'users has emails that differ only in case, so the unique index on lower(email) cannot be built. Keep one row per address (see beforeMigrate.sql), then restart. Duplicates (first 20): %', duplicates;
+    END IF;
+END $$;
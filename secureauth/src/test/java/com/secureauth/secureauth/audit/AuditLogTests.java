@@ -0,0 +1,178 @@
+package com.secureauth.secureauth.audit;
+
+import com.secureauth.secureauth.config.AuditProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditLogTests {
+
+    @Test
+    void eventsReachTheSinkInBatchesAndAreDrainedOnShutdown() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        AuditLog auditLog = new AuditLog(properties(1024, AuditProperties.Overflow.DROP), sink, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 500; i++) {
+            auditLog.record(AuditEventType.LOGIN_FAILED, "user" + i + "@secureauth.test", "10.0.0.1", "bad_password");
+        }
+        auditLog.shutdown();
+
+        assertEquals(500, sink.emails.size());
+        assertEquals("user0@secureauth.test", sink.emails.get(0));
+        assertEquals("user499@secureauth.test", sink.emails.get(499));
+        assertTrue(sink.batches > 1 && sink.batches <= 500);
+        assertEquals(500, auditLog.getWrittenCount());
+        assertEquals(0, auditLog.getDroppedCount());
+        assertTrue(sink.closed);
+    }
+
+    @Test
+    void dropPolicyCountsWhatDoesNotFit() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.blockFirstBatch();
+        AuditLog auditLog = new AuditLog(properties(8, AuditProperties.Overflow.DROP), sink, new SimpleMeterRegistry());
+
+        // The writer takes the first event and then hangs in the sink
+        auditLog.record(AuditEventType.LOGIN_SUCCEEDED, "first@secureauth.test", null, null);
+        sink.awaitFirstBatch();
+
+        for (int i = 0; i < 20; i++) {
+            auditLog.record(AuditEventType.LOGIN_SUCCEEDED, "user" + i + "@secureauth.test", null, null);
+        }
+        assertEquals(12, auditLog.getDroppedCount());
+        assertEquals(9, auditLog.getPublishedCount());
+
+        sink.release();
+        auditLog.shutdown();
+        assertEquals(9, sink.emails.size());
+    }
+
+    @Test
+    void blockPolicyWaitsForTheWriter() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        AuditProperties properties = properties(2, AuditProperties.Overflow.BLOCK);
+        properties.setBlockTimeoutMs(5_000);
+        AuditLog auditLog = new AuditLog(properties, sink, new SimpleMeterRegistry());
+
+        for (int i = 0; i < 200; i++) {
+            auditLog.record(AuditEventType.OTP_ISSUED, "user" + i + "@secureauth.test", null, "resend");
+        }
+        auditLog.shutdown();
+
+        assertEquals(0, auditLog.getDroppedCount());
+        assertEquals(200, sink.emails.size());
+    }
+
+    @Test
+    void sinkFailuresAreCountedAndTheWriterCarriesOn() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        sink.failNextBatch = true;
+        AuditLog auditLog = new AuditLog(properties(64, AuditProperties.Overflow.DROP), sink, new SimpleMeterRegistry());
+
+        auditLog.record(AuditEventType.PASSWORD_RESET, "lost@secureauth.test", null, null);
+        while (auditLog.getFailedCount() == 0) {
+            Thread.sleep(1);
+        }
+        auditLog.record(AuditEventType.PASSWORD_RESET, "kept@secureauth.test", null, null);
+        auditLog.shutdown();
+
+        assertEquals(1, auditLog.getFailedCount());
+        assertEquals(List.of("kept@secureauth.test"), sink.emails);
+    }
+
+    @Test
+    void clientSuppliedFieldsAreCutToTheirColumnsAndControlCharactersMasked() throws Exception {
+        RecordingSink sink = new RecordingSink();
+        AuditLog auditLog = new AuditLog(properties(64, AuditProperties.Overflow.DROP), sink, new SimpleMeterRegistry());
+
+        String oversized = "a".repeat(300) + "@secureauth.test";
+        auditLog.record(AuditEventType.LOGIN_FAILED, oversized, "10.0.0.1", "unknown_email");
+        auditLog.record(AuditEventType.LOGIN_FAILED, "nul\u0000@secureauth.test", "10.0.0.1", "unknown_email");
+        auditLog.shutdown();
+
+        assertEquals("a".repeat(255), sink.emails.get(0));
+        assertEquals("nul?@secureauth.test", sink.emails.get(1));
+        assertEquals(2, auditLog.getWrittenCount());
+    }
+
+    @Test
+    void wellFormedFieldsAreKeptAsIs() {
+        String email = "user@secureauth.test";
+        assertSame(email, AuditEvent.fit(email, AuditEvent.EMAIL_LENGTH));
+        assertNull(AuditEvent.fit(null, AuditEvent.EMAIL_LENGTH));
+        // A surrogate pair straddling the limit is dropped whole
+        assertEquals("ab", AuditEvent.fit("ab\uD83D\uDE00", 3));
+    }
+
+    private static AuditProperties properties(int capacity, AuditProperties.Overflow overflow) {
+        AuditProperties properties = new AuditProperties();
+        properties.setCapacity(capacity);
+        properties.setOverflow(overflow);
+        properties.setBatchSize(32);
+        properties.setIdleWaitMs(1);
+        return properties;
+    }
+
+    /**
+     * Keeps what it is given; can hang on, or fail, a batch on request.
+     */
+    private static final class RecordingSink implements AuditSink {
+
+        final List<String> emails = Collections.synchronizedList(new ArrayList<>());
+        volatile int batches;
+        volatile boolean closed;
+        volatile boolean failNextBatch;
+
+        private CountDownLatch entered;
+        private CountDownLatch released;
+
+        void blockFirstBatch() {
+            entered = new CountDownLatch(1);
+            released = new CountDownLatch(1);
+        }
+
+        void awaitFirstBatch() throws InterruptedException {
+            entered.await();
+        }
+
+        void release() {
+            released.countDown();
+        }
+
+        @Override
+        public int write(AuditEvent[] events, int count) {
+            if (failNextBatch) {
+                failNextBatch = false;
+                throw new IllegalStateException("sink down");
+            }
+            if (released != null && entered.getCount() > 0) {
+                entered.countDown();
+                try {
+                    released.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            for (int i = 0; i < count; i++) {
+                emails.add(events[i].getEmail());
+            }
+            batches++;
+            return 0;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+    }
+}
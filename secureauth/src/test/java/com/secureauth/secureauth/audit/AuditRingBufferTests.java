@@ -0,0 +1,107 @@
+package com.secureauth.secureauth.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditRingBufferTests {
+
+    @Test
+    void capacityIsRoundedUpToAPowerOfTwo() {
+        assertEquals(8, new AuditRingBuffer(5).capacity());
+        assertEquals(8, new AuditRingBuffer(8).capacity());
+        assertEquals(2, new AuditRingBuffer(0).capacity());
+    }
+
+    @Test
+    void eventsComeOutInOrderAndFreedSlotsAreReused() {
+        AuditRingBuffer ring = new AuditRingBuffer(4);
+        AuditEvent[] batch = batch(4);
+
+        // Three laps around the ring
+        for (int lap = 0; lap < 3; lap++) {
+            for (int i = 0; i < 4; i++) {
+                assertTrue(ring.tryPublish(lap * 10 + i, AuditEventType.LOGIN_SUCCEEDED, "u" + i + "@secureauth.test", "10.0.0.1", null));
+            }
+            assertEquals(4, ring.drainTo(batch, 4));
+            for (int i = 0; i < 4; i++) {
+                assertEquals(lap * 10 + i, batch[i].getTimeMs());
+                assertEquals("u" + i + "@secureauth.test", batch[i].getEmail());
+            }
+        }
+        assertEquals(0, ring.size());
+    }
+
+    @Test
+    void fullRingRejectsUntilTheConsumerCatchesUp() {
+        AuditRingBuffer ring = new AuditRingBuffer(2);
+        AuditEvent[] batch = batch(2);
+
+        assertTrue(ring.tryPublish(1, AuditEventType.OTP_ISSUED, "a@secureauth.test", null, "registration"));
+        assertTrue(ring.tryPublish(2, AuditEventType.OTP_ISSUED, "b@secureauth.test", null, "registration"));
+        assertFalse(ring.tryPublish(3, AuditEventType.OTP_ISSUED, "c@secureauth.test", null, "registration"));
+
+        assertEquals(1, ring.drainTo(batch, 1));
+        assertEquals("a@secureauth.test", batch[0].getEmail());
+        assertTrue(ring.tryPublish(3, AuditEventType.OTP_ISSUED, "c@secureauth.test", null, "registration"));
+    }
+
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws Exception {
+        int producers = 4;
+        int perProducer = 10_000;
+        AuditRingBuffer ring = new AuditRingBuffer(256);
+        CountDownLatch start = new CountDownLatch(1);
+
+        Thread[] threads = new Thread[producers];
+        for (int p = 0; p < producers; p++) {
+            int producer = p;
+            threads[p] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < perProducer; i++) {
+                    long id = (long) producer * perProducer + i;
+                    while (!ring.tryPublish(id, AuditEventType.LOGIN_SUCCEEDED, null, null, null)) {
+                        Thread.yield();
+                    }
+                }
+            });
+            threads[p].start();
+        }
+
+        Set<Long> seen = new HashSet<>();
+        AuditEvent[] batch = batch(64);
+        start.countDown();
+        while (seen.size() < producers * perProducer) {
+            int count = ring.drainTo(batch, batch.length);
+            if (count == 0) {
+                Thread.yield();
+            }
+            for (int i = 0; i < count; i++) {
+                assertTrue(seen.add(batch[i].getTimeMs()), "duplicate event " + batch[i].getTimeMs());
+            }
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(0, ring.drainTo(batch, batch.length));
+    }
+
+    private static AuditEvent[] batch(int size) {
+        AuditEvent[] batch = new AuditEvent[size];
+        for (int i = 0; i < size; i++) {
+            batch[i] = new AuditEvent();
+        }
+        return batch;
+    }
+}
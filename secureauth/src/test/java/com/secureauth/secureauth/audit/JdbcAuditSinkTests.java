@@ -0,0 +1,74 @@
+package com.secureauth.secureauth.audit;
+
+import com.secureauth.secureauth.config.AuditProperties;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * One row Postgres refuses must not take the rest of its batch down.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class JdbcAuditSinkTests {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private JdbcAuditSink sink;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        sink = new JdbcAuditSink(jdbcTemplate, new AuditProperties());
+    }
+
+    @Test
+    void batchIsWrittenInOneStatement() {
+        AuditEvent[] batch = { event("a@secureauth.test"), event("b@secureauth.test") };
+
+        assertEquals(0, sink.write(batch, 2));
+        assertEquals(List.of("a@secureauth.test", "b@secureauth.test"), emails());
+    }
+
+    @Test
+    void oversizedEmailIsRejectedAloneAndTheRestOfTheBatchIsWritten() {
+        // Bypasses AuditLog.record, which would have cut it to the column
+        AuditEvent[] batch = {
+                event("a@secureauth.test"),
+                event("x".repeat(300) + "@secureauth.test"),
+                event("b@secureauth.test"),
+        };
+
+        assertEquals(1, sink.write(batch, 3));
+        assertEquals(List.of("a@secureauth.test", "b@secureauth.test"), emails());
+    }
+
+    private List<String> emails() {
+        return jdbcTemplate.queryForList("SELECT email FROM audit_events ORDER BY id", String.class);
+    }
+
+    private static AuditEvent event(String email) {
+        AuditEvent event = new AuditEvent();
+        event.set(System.currentTimeMillis(), AuditEventType.LOGIN_FAILED, email, "10.0.0.1", "unknown_email");
+        return event;
+    }
+}
@@ -0,0 +1,108 @@
+package com.secureauth.secureauth.audit;
+
+import com.secureauth.secureauth.config.AuditProperties;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SegmentFileAuditSinkTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void eventsAreWrittenAsTabSeparatedLines() throws IOException {
+        SegmentFileAuditSink sink = new SegmentFileAuditSink(properties(64 * 1024, 16));
+        Path segment = sink.currentSegment();
+
+        sink.write(new AuditEvent[] {
+                event(0, AuditEventType.LOGIN_FAILED, "a@secureauth.test", "10.0.0.1", "bad_password"),
+                event(1000, AuditEventType.ACCOUNT_DELETED, "b@secureauth.test", null, null)
+        }, 2);
+        sink.close();
+
+        // Trimmed to its content on close
+        assertEquals(List.of(
+                "1970-01-01T00:00:00Z\tLOGIN_FAILED\ta@secureauth.test\t10.0.0.1\tbad_password",
+                "1970-01-01T00:00:01Z\tACCOUNT_DELETED\tb@secureauth.test\t-\t-"),
+                Files.readAllLines(segment, StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void clientValuesCannotBreakTheLineFormat() throws IOException {
+        SegmentFileAuditSink sink = new SegmentFileAuditSink(properties(64 * 1024, 16));
+        Path segment = sink.currentSegment();
+
+        sink.write(new AuditEvent[] {
+                event(0, AuditEventType.LOGIN_FAILED, "x@secureauth.test\n1970-01-01T00:00:00Z\tLOGIN_SUCCEEDED", null, null)
+        }, 1);
+        sink.close();
+
+        List<String> lines = Files.readAllLines(segment, StandardCharsets.UTF_8);
+        assertEquals(1, lines.size());
+        assertEquals(5, lines.get(0).split("\t").length);
+    }
+
+    @Test
+    void fullSegmentsRollOverAndOldOnesAreDeleted() throws IOException {
+        SegmentFileAuditSink sink = new SegmentFileAuditSink(properties(64 * 1024, 3));
+
+        // ~90 bytes per line: about 730 lines per 64 KiB segment
+        AuditEvent[] batch = new AuditEvent[100];
+        int written = 0;
+        for (int round = 0; round < 50; round++) {
+            for (int i = 0; i < batch.length; i++) {
+                batch[i] = event(written++, AuditEventType.OTP_ISSUED, "user" + written + "@secureauth.test",
+                        "192.168.100.200", "password_reset");
+            }
+            sink.write(batch, batch.length);
+        }
+        sink.close();
+
+        List<Path> segments = segments();
+        assertEquals(3, segments.size());
+
+        // The newest segments hold the newest events, without gaps
+        List<String> lines = new ArrayList<>();
+        for (Path segment : segments) {
+            lines.addAll(Files.readAllLines(segment, StandardCharsets.UTF_8));
+        }
+        assertTrue(lines.size() > 730 && lines.size() < written);
+        assertTrue(lines.get(lines.size() - 1).contains("user5000@secureauth.test"));
+        for (Path segment : segments) {
+            assertTrue(Files.size(segment) <= 64 * 1024);
+        }
+    }
+
+    private List<Path> segments() throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.sorted().toList();
+        }
+    }
+
+    private AuditProperties properties(long segmentBytes, int maxSegments) {
+        AuditProperties properties = new AuditProperties();
+        properties.setSink(AuditProperties.Sink.FILE);
+        properties.getFile().setDirectory(directory.toString());
+        properties.getFile().setSegmentBytes(segmentBytes);
+        properties.getFile().setMaxSegments(maxSegments);
+        return properties;
+    }
+
+    private static AuditEvent event(long timeMs, AuditEventType type, String email, String clientIp, String detail) {
+        AuditEvent event = new AuditEvent();
+        event.set(timeMs, type, email, clientIp, detail);
+        return event;
+    }
+}
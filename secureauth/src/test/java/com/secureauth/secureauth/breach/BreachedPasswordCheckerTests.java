@@ -0,0 +1,89 @@
+package com.secureauth.secureauth.breach;
+
+import com.secureauth.secureauth.config.BreachedPasswordProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BreachedPasswordCheckerTests {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void aReplacedFileIsPickedUpWithoutARestart() throws IOException {
+        Path file = directory.resolve("breached.bin");
+        build(file, "Summer2024!\n");
+        BreachedPasswordChecker checker = new BreachedPasswordChecker(properties(file), new SimpleMeterRegistry());
+
+        assertTrue(checker.isBreached("Summer2024!"));
+        assertFalse(checker.isBreached("Winter2025!"));
+
+        build(file, "Winter2025!\nAutumn2025!\n");
+        checker.reload();
+
+        assertTrue(checker.isBreached("Winter2025!"));
+        assertFalse(checker.isBreached("Summer2024!"));
+        assertEquals(2, checker.size());
+        assertEquals(2, checker.getRejectedCount());
+    }
+
+    @Test
+    void aMissingFileLetsPasswordsThroughUntilItAppears() throws IOException {
+        Path file = directory.resolve("breached.bin");
+        BreachedPasswordChecker checker = new BreachedPasswordChecker(properties(file), new SimpleMeterRegistry());
+
+        assertFalse(checker.isBreached("Summer2024!"));
+
+        build(file, "Summer2024!\n");
+        checker.scheduledReload();
+
+        assertTrue(checker.isBreached("Summer2024!"));
+    }
+
+    @Test
+    void aBrokenReplacementKeepsTheCurrentCorpus() throws IOException {
+        Path file = directory.resolve("breached.bin");
+        build(file, "Summer2024!\n");
+        BreachedPasswordChecker checker = new BreachedPasswordChecker(properties(file), new SimpleMeterRegistry());
+
+        Path garbage = Files.writeString(directory.resolve("garbage"), "not a corpus", StandardCharsets.UTF_8);
+        Files.move(garbage, file, StandardCopyOption.REPLACE_EXISTING);
+        checker.scheduledReload();
+
+        assertTrue(checker.isBreached("Summer2024!"));
+    }
+
+    @Test
+    void withoutAFileNothingIsChecked() {
+        BreachedPasswordChecker checker =
+                new BreachedPasswordChecker(new BreachedPasswordProperties(), new SimpleMeterRegistry());
+
+        assertFalse(checker.isBreached("password"));
+        assertEquals(0, checker.size());
+    }
+
+    private static void build(Path file, String passwords) throws IOException {
+        new BreachedPasswordCorpusBuilder(BreachedPasswordCorpusBuilder.Format.PLAIN, 16)
+                .build(new BufferedReader(new StringReader(passwords)), file);
+    }
+
+    private static BreachedPasswordProperties properties(Path file) {
+        BreachedPasswordProperties properties = new BreachedPasswordProperties();
+        properties.setFile(file.toString());
+        return properties;
+    }
+}
@@ -0,0 +1,127 @@
+package com.secureauth.secureauth.breach;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class BreachedPasswordCorpusTests {
+
+    // SHA-1("password"), as listed in Pwned Passwords
+    private static final String PASSWORD_SHA1 = "5BAA61E4C9B93F3F0682250B6CF8331B7EE68FD8";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void everyEntrySurvivesTheRunsAndTheMerge() throws IOException {
+        StringBuilder dump = new StringBuilder();
+        for (int i = 0; i < 1000; i++) {
+            dump.append("leaked-").append(i).append('\n');
+        }
+        // Duplicates across runs are stored once
+        for (int i = 0; i < 100; i++) {
+            dump.append("leaked-").append(i * 7).append('\n');
+        }
+
+        Path file = directory.resolve("breached.bin");
+        long count = new BreachedPasswordCorpusBuilder(BreachedPasswordCorpusBuilder.Format.PLAIN, 64)
+                .build(reader(dump.toString()), file);
+
+        assertEquals(1000, count);
+
+        // 64-byte mappings: entries are spread over many segments
+        BreachedPasswordCorpus corpus = BreachedPasswordCorpus.open(file, 64);
+        assertEquals(1000, corpus.size());
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(corpus.contains("leaked-" + i), "leaked-" + i);
+        }
+        assertFalse(corpus.contains("leaked-1000"));
+        assertFalse(corpus.contains("Correct-Horse-42!"));
+
+        // Only the corpus is left behind
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void keysAreOrderedAsUnsignedOverTheWholeRange() throws IOException {
+        Random random = new Random(42);
+        long[] keys = new long[5000];
+        StringBuilder dump = new StringBuilder();
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = random.nextLong();
+            dump.append(String.format(Locale.ROOT, "%016X%024X:%d%n", keys[i], 0, i));
+        }
+
+        Path file = directory.resolve("breached.bin");
+        new BreachedPasswordCorpusBuilder(BreachedPasswordCorpusBuilder.Format.SHA1, 1000)
+                .build(reader(dump.toString()), file);
+
+        BreachedPasswordCorpus corpus = BreachedPasswordCorpus.open(file);
+        for (long key : keys) {
+            assertTrue(corpus.contains(key), Long.toHexString(key));
+            assertFalse(corpus.contains(key + 1), Long.toHexString(key + 1));
+        }
+    }
+
+    @Test
+    void pwnedPasswordsLinesMatchThePlainPassword() throws IOException {
+        Path file = directory.resolve("breached.bin");
+        new BreachedPasswordCorpusBuilder(BreachedPasswordCorpusBuilder.Format.SHA1, 16)
+                .build(reader(PASSWORD_SHA1 + ":9659365\n" + PASSWORD_SHA1.toLowerCase(Locale.ROOT) + "\n"), file);
+
+        BreachedPasswordCorpus corpus = BreachedPasswordCorpus.open(file);
+        assertEquals(1, corpus.size());
+        assertTrue(corpus.contains("password"));
+        assertFalse(corpus.contains("Password"));
+    }
+
+    @Test
+    void aBadDumpLeavesTheCurrentCorpusInPlace() throws IOException {
+        Path file = directory.resolve("breached.bin");
+        BreachedPasswordCorpusBuilder builder =
+                new BreachedPasswordCorpusBuilder(BreachedPasswordCorpusBuilder.Format.SHA1, 16);
+        builder.build(reader(PASSWORD_SHA1 + "\n"), file);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.build(reader(PASSWORD_SHA1 + "\nnot-a-hash\n"), file));
+
+        assertTrue(BreachedPasswordCorpus.open(file).contains("password"));
+        try (Stream<Path> files = Files.list(directory)) {
+            assertEquals(List.of(file), files.toList());
+        }
+    }
+
+    @Test
+    void aTruncatedFileIsRefused() throws IOException {
+        Path file = directory.resolve("breached.bin");
+        new BreachedPasswordCorpusBuilder(BreachedPasswordCorpusBuilder.Format.PLAIN, 16)
+                .build(reader("a\nb\nc\n"), file);
+
+        try (RandomAccessFile raw = new RandomAccessFile(file.toFile(), "rw")) {
+            raw.setLength(raw.length() - 8);
+        }
+
+        assertThrows(IOException.class, () -> BreachedPasswordCorpus.open(file));
+    }
+
+    private static BufferedReader reader(String content) {
+        return new BufferedReader(new StringReader(content));
+    }
+}
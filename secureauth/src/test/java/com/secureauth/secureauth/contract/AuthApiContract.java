@@ -0,0 +1,256 @@
+package com.secureauth.secureauth.contract;
+
+import com.secureauth.secureauth.breach.BreachedPasswordCorpusBuilder;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * The /api/auth contract, checked over plain HTTP: statuses, messages,
+ * tokens. Each deployment (servlet, reactive) runs it from a subclass
+ * that starts the application on a random port against a throwaway
+ * PostgreSQL; OTPs are read back from the users table. Both get the same
+ * one-password breach corpus.
+ */
+public abstract class AuthApiContract {
+
+    private static final String PASSWORD = "Secret@123";
+
+    // Strong by the rules, but in the breach corpus every deployment is given
+    private static final String BREACHED_PASSWORD = "Breached@123";
+
+    private final HttpClient client = HttpClient.newHttpClient();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void breachedPasswords(DynamicPropertyRegistry registry) {
+        try {
+            Path corpus = Files.createTempDirectory("contract-breach").resolve("corpus");
+            new BreachedPasswordCorpusBuilder(BreachedPasswordCorpusBuilder.Format.PLAIN, 16)
+                    .build(new BufferedReader(new StringReader(BREACHED_PASSWORD + "\n")), corpus);
+            registry.add("secureauth.breached-passwords.file", corpus::toString);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Test
+    void registrationVerificationAndLogin() throws Exception {
+        String email = newEmail();
+
+        assertResponse(post("/api/auth/register", "email", email, "password", PASSWORD), 201, "OTP sent to email");
+        // Unverified: a new OTP, not a new account
+        assertResponse(post("/api/auth/register", "email", email, "password", PASSWORD), 200, "OTP sent to email");
+
+        assertResponse(post("/api/auth/login", "email", email, "password", PASSWORD), 403, "Email not verified");
+        assertResponse(post("/api/auth/verify-otp", "email", email, "otp", "000000"), 400, "Invalid OTP");
+        assertResponse(post("/api/auth/resend-otp", "email", email), 200, "New OTP sent to email");
+        assertResponse(post("/api/auth/verify-otp", "email", email, "otp", otp(email)), 200, "Email verified successfully");
+
+        assertResponse(post("/api/auth/register", "email", email, "password", PASSWORD), 409, "Account already exists");
+        assertResponse(post("/api/auth/resend-otp", "email", email), 400, "User not found or already verified");
+        assertResponse(post("/api/auth/login", "email", email, "password", "Wrong@123"), 401, "Invalid email or password");
+        assertResponse(post("/api/auth/login", "email", newEmail(), "password", PASSWORD), 401, "Invalid email or password");
+
+        JsonNode login = assertResponse(post("/api/auth/login", "email", email, "password", PASSWORD), 200, "Login successful");
+        assertNotNull(login.get("refreshToken").asString());
+
+        HttpResponse<String> page = get("/api/protected", login.get("token").asString());
+        assertEquals(200, page.statusCode());
+        assertEquals("You have accessed a PROTECTED API 🎉", page.body());
+    }
+
+    @Test
+    void refreshRotatesAndReuseEndsTheSession() throws Exception {
+        JsonNode login = verifiedLogin(newEmail());
+        String first = login.get("refreshToken").asString();
+
+        JsonNode refreshed = assertResponse(post("/api/auth/refresh", "refreshToken", first), 200, "Token refreshed");
+        String second = refreshed.get("refreshToken").asString();
+        assertNotEquals(first, second);
+        assertEquals(200, get("/api/protected", refreshed.get("token").asString()).statusCode());
+
+        // The used token again: the whole session ends, its successor included
+        assertResponse(post("/api/auth/refresh", "refreshToken", first), 401, "Invalid or expired refresh token");
+        assertResponse(post("/api/auth/refresh", "refreshToken", second), 401, "Invalid or expired refresh token");
+        assertResponse(post("/api/auth/refresh", "refreshToken", "not-a-token"), 401, "Invalid or expired refresh token");
+    }
+
+    @Test
+    void logoutRevokesTheTokenAndTheSession() throws Exception {
+        JsonNode login = verifiedLogin(newEmail());
+        String token = login.get("token").asString();
+
+        assertResponse(postAs(null, "/api/auth/logout"), 401, "Missing or invalid Authorization header");
+        assertResponse(postAs(token, "/api/auth/logout", "refreshToken", login.get("refreshToken").asString()),
+                200, "Logged out successfully");
+
+        assertResponse(get("/api/protected", token), 401, "Token has been revoked");
+        assertResponse(post("/api/auth/refresh", "refreshToken", login.get("refreshToken").asString()),
+                401, "Invalid or expired refresh token");
+    }
+
+    @Test
+    void passwordReset() throws Exception {
+        String email = newEmail();
+        String token = verifiedLogin(email).get("token").asString();
+
+        assertResponse(post("/api/auth/forgot-password", "email", newEmail()), 400, "Email not found");
+        assertResponse(post("/api/auth/forgot-password", "email", email), 200, "OTP sent to your email");
+
+        String otp = resetOtp(email);
+        assertResponse(post("/api/auth/reset-password", "email", email, "otp", otp, "password", " "),
+                400, "Password cannot be empty");
+        assertResponse(post("/api/auth/reset-password", "email", email, "otp", otp, "password", "weak"),
+                400, "Password does not meet requirements");
+        assertResponse(post("/api/auth/reset-password", "email", email, "otp", "000000", "password", "Changed@123"),
+                400, "Invalid or expired OTP");
+        assertResponse(post("/api/auth/reset-password", "email", email, "otp", otp, "password", "Changed@123"),
+                200, "Password updated successfully");
+
+        // Tokens issued before the reset are revoked
+        assertEquals(401, get("/api/protected", token).statusCode());
+        assertResponse(post("/api/auth/login", "email", email, "password", PASSWORD), 401, "Invalid email or password");
+        assertResponse(post("/api/auth/login", "email", email, "password", "Changed@123"), 200, "Login successful");
+    }
+
+    @Test
+    void deleteAccount() throws Exception {
+        String email = newEmail();
+        String token = verifiedLogin(email).get("token").asString();
+
+        assertResponse(postAs(token, "/api/auth/delete-account"), 200, "Account deleted successfully");
+
+        assertResponse(get("/api/protected", token), 401, "Token has been revoked");
+        assertResponse(post("/api/auth/login", "email", email, "password", PASSWORD), 401, "Invalid email or password");
+    }
+
+    @Test
+    void requestsWithoutAValidTokenOrParameterAreRefused() throws Exception {
+        assertResponse(get("/api/protected", null), 401, "Missing or invalid Authorization header");
+        assertResponse(get("/api/protected", "not.a.jwt"), 401, "Invalid or expired token");
+        assertEquals(400, post("/api/auth/login", "email", newEmail()).statusCode());
+    }
+
+    @Test
+    void passwordLongerThanBcryptReadsIsRefused() throws Exception {
+        // 73 bytes in UTF-8
+        String password = PASSWORD + "x".repeat(63);
+
+        assertResponse(post("/api/auth/register", "email", newEmail(), "password", password),
+                400, "Password must be at most 72 bytes");
+        assertResponse(post("/api/auth/login", "email", newEmail(), "password", password),
+                401, "Invalid email or password");
+    }
+
+    @Test
+    void breachedPasswordIsRefused() throws Exception {
+        assertResponse(post("/api/auth/register", "email", newEmail(), "password", BREACHED_PASSWORD),
+                400, "This password has appeared in a data breach, please choose another");
+
+        String email = newEmail();
+        verifiedLogin(email);
+        assertResponse(post("/api/auth/forgot-password", "email", email), 200, "OTP sent to your email");
+        String otp = resetOtp(email);
+
+        assertResponse(post("/api/auth/reset-password", "email", email, "otp", otp, "password", BREACHED_PASSWORD),
+                400, "This password has appeared in a data breach, please choose another");
+        // Refused before the OTP is spent
+        assertResponse(post("/api/auth/reset-password", "email", email, "otp", otp, "password", "Changed@123"),
+                200, "Password updated successfully");
+    }
+
+    /* =======================
+       HELPERS
+       ======================= */
+
+    private JsonNode verifiedLogin(String email) throws Exception {
+        assertEquals(201, post("/api/auth/register", "email", email, "password", PASSWORD).statusCode());
+        assertEquals(200, post("/api/auth/verify-otp", "email", email, "otp", otp(email)).statusCode());
+        return assertResponse(post("/api/auth/login", "email", email, "password", PASSWORD), 200, "Login successful");
+    }
+
+    private String otp(String email) {
+        return jdbcTemplate.queryForObject("SELECT otp FROM users WHERE lower(email) = lower(?)", String.class, email);
+    }
+
+    private String resetOtp(String email) {
+        return jdbcTemplate.queryForObject("SELECT reset_otp FROM users WHERE lower(email) = lower(?)", String.class, email);
+    }
+
+    private static String newEmail() {
+        return "contract-" + UUID.randomUUID() + "@secureauth.test";
+    }
+
+    private static JsonNode assertResponse(HttpResponse<String> response, int status, String message) {
+        assertEquals(status, response.statusCode(), response.body());
+        JsonNode body = JsonMapper.shared().readTree(response.body());
+        assertEquals(message, body.get("message").asString());
+        assertEquals(status < 400 ? "success" : "error", body.get("status").asString());
+        return body;
+    }
+
+    private HttpResponse<String> post(String path, String... params) throws Exception {
+        return postAs(null, path, params);
+    }
+
+    // Form-encoded, as the frontend sends them
+    private HttpResponse<String> postAs(String token, String path, String... params) throws Exception {
+        Map<String, String> form = new LinkedHashMap<>();
+        for (int i = 0; i + 1 < params.length; i += 2) {
+            form.put(params[i], params[i + 1]);
+        }
+        String body = form.entrySet().stream()
+                .map(e -> e.getKey() + "=" + URLEncoder.encode(e.getValue(), StandardCharsets.UTF_8))
+                .collect(Collectors.joining("&"));
+
+        HttpRequest.Builder request = request(path, token)
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body));
+        return client.send(request.build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private HttpResponse<String> get(String path, String token) throws Exception {
+        return client.send(request(path, token).GET().build(), HttpResponse.BodyHandlers.ofString(StandardCharsets.UTF_8));
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path));
+        if (token != null) {
+            request.header("Authorization", "Bearer " + token);
+        }
+        return request;
+    }
+}
@@ -0,0 +1,51 @@
+package com.secureauth.secureauth.controller;
+
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.model.ApiResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class AdminControllerTests {
+
+    private static final String ADMIN = "admin@secureauth.test";
+
+    // Requests refused before the import starts need none of the services
+    private final AdminController controller = new AdminController(adminProperties(), null, null, null, null);
+
+    @Test
+    void importWithUnknownCharsetIsABadRequest() {
+        ResponseEntity<?> response = importWithContentType("text/csv;charset=no-such-charset");
+
+        assertEquals(400, response.getStatusCode().value());
+        assertEquals("Unsupported Content-Type: text/csv;charset=no-such-charset", message(response));
+    }
+
+    @Test
+    void importWithIllegalCharsetNameIsABadRequest() {
+        // '!' is allowed in a Content-Type parameter, not in a charset name
+        assertEquals(400, importWithContentType("text/csv;charset=no!such").getStatusCode().value());
+    }
+
+    private ResponseEntity<?> importWithContentType(String contentType) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/admin/users/import");
+        request.setAttribute("authenticatedEmail", ADMIN);
+        request.setContentType(contentType);
+        request.setContent("email,password\n".getBytes());
+        return controller.importUsers(request);
+    }
+
+    private static String message(ResponseEntity<?> response) {
+        return ((ApiResponse) response.getBody()).getMessage();
+    }
+
+    private static AdminProperties adminProperties() {
+        AdminProperties properties = new AdminProperties();
+        properties.setEmails(Set.of(ADMIN));
+        return properties;
+    }
+}
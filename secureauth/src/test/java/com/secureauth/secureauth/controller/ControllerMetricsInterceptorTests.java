@@ -0,0 +1,72 @@
+package com.secureauth.secureauth.controller;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+class ControllerMetricsInterceptorTests {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final ControllerMetricsInterceptor interceptor = new ControllerMetricsInterceptor(registry);
+
+    @Test
+    void recordsOneTimerPerMethodAndOutcome() throws Exception {
+        HandlerMethod handler = new HandlerMethod(new TestController(), "protectedApi");
+
+        call(handler, 200);
+        call(handler, 200);
+        call(handler, 401);
+        call(handler, 409);
+
+        assertEquals(2, timer("success").count());
+        assertEquals(1, timer("invalid").count());
+        assertEquals(1, timer("conflict").count());
+    }
+
+    @Test
+    void tagsOnlyCarryBoundedValues() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/protected");
+        request.addParameter("email", "someone@secureauth.test");
+
+        HandlerMethod handler = new HandlerMethod(new TestController(), "protectedApi");
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler);
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler, null);
+
+        for (Meter meter : registry.getMeters()) {
+            meter.getId().getTags().forEach(tag -> assertFalse(tag.getValue().contains("@")));
+        }
+    }
+
+    @Test
+    void statusMapsToOutcome() {
+        assertEquals(ControllerMetricsInterceptor.Outcome.SUCCESS, ControllerMetricsInterceptor.outcomeOf(201));
+        assertEquals(ControllerMetricsInterceptor.Outcome.INVALID, ControllerMetricsInterceptor.outcomeOf(400));
+        assertEquals(ControllerMetricsInterceptor.Outcome.INVALID, ControllerMetricsInterceptor.outcomeOf(403));
+        assertEquals(ControllerMetricsInterceptor.Outcome.BUSY, ControllerMetricsInterceptor.outcomeOf(503));
+        assertEquals(ControllerMetricsInterceptor.Outcome.ERROR, ControllerMetricsInterceptor.outcomeOf(500));
+    }
+
+    private void call(HandlerMethod handler, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, null);
+    }
+
+    private Timer timer(String outcome) {
+        return registry.get("secureauth.http.requests")
+                .tag("controller", "TestController")
+                .tag("method", "protectedApi")
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,121 @@
+package com.secureauth.secureauth.dao;
+
+import com.secureauth.secureauth.config.UserCacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * UserDAO with a read replica. Two databases on one server stand in for
+ * primary and replica; nothing replicates between them, so every test
+ * controls exactly what the "replica" has seen.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class ReadRoutingTests {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static final String REPLICA_DB = "secureauth_replica";
+
+    private final AtomicLong clock = new AtomicLong();
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+
+    @BeforeAll
+    static void createReplicaDatabase() {
+        JdbcTemplate server = new JdbcTemplate(new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword()));
+        if (server.queryForList("SELECT 1 FROM pg_database WHERE datname = ?", REPLICA_DB).isEmpty()) {
+            server.execute("CREATE DATABASE " + REPLICA_DB);
+        }
+    }
+
+    @BeforeEach
+    void setUp() {
+        primary = migrated(postgres.getJdbcUrl());
+        replica = migrated(withDatabase(postgres.getJdbcUrl(), REPLICA_DB));
+    }
+
+    @Test
+    void lookupsGoToTheReplica() {
+        replica.update("INSERT INTO users (email, password, verified) VALUES ('only@replica.test', 'hash', true)");
+
+        UserDAO userDAO = userDAO(replica);
+
+        assertNotNull(userDAO.findByEmail("only@replica.test"));
+        assertEquals(1.0, reads("replica"));
+    }
+
+    @Test
+    void writesPinLookupsToThePrimaryForTheWindow() {
+        UserDAO userDAO = userDAO(replica);
+
+        // The replica has not caught up with the registration and verification yet
+        userDAO.register("fresh@secureauth.test", "hash", "123456");
+        assertTrue(userDAO.verifyOtp("Fresh@secureauth.test", "123456"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        assertTrue(userDAO.findByEmail("fresh@secureauth.test").isVerified());
+        assertEquals(1.0, reads("primary_after_write"));
+
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        assertNull(userDAO.findByEmail("fresh@secureauth.test"));
+        assertEquals(1.0, reads("replica"));
+    }
+
+    @Test
+    void unreachableReplicaFallsBackToThePrimary() {
+        primary.update("INSERT INTO users (email, password, verified) VALUES ('user@secureauth.test', 'hash', true)");
+
+        JdbcTemplate unreachable = new JdbcTemplate(new DriverManagerDataSource(
+                "jdbc:postgresql://127.0.0.1:1/none?connectTimeout=1", "none", "none"));
+        UserDAO userDAO = userDAO(unreachable);
+
+        assertNotNull(userDAO.findByEmail("user@secureauth.test"));
+        assertNotNull(userDAO.findByEmail("user@secureauth.test"));
+        assertEquals(2.0, reads("primary_replica_down"));
+        assertEquals(0.0, reads("replica"));
+    }
+
+    private UserDAO userDAO(JdbcTemplate replicaTemplate) {
+        ReadRouting routing = new ReadRouting(replicaTemplate, 5_000, 10_000, registry, clock::get);
+        return new UserDAO(primary, new UserCacheProperties(), registry, Optional.of(routing));
+    }
+
+    private double reads(String target) {
+        return registry.get("secureauth.dao.reads").tag("target", target).counter().count();
+    }
+
+    private JdbcTemplate migrated(String url) {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                url, postgres.getUsername(), postgres.getPassword());
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+        return new JdbcTemplate(dataSource);
+    }
+
+    private static String withDatabase(String jdbcUrl, String database) {
+        return jdbcUrl.replaceFirst("/[^/?]+(\\?|$)", "/" + database + "$1");
+    }
+}
@@ -0,0 +1,72 @@
+package com.secureauth.secureauth.dao;
+
+import com.secureauth.secureauth.model.User;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class UserCacheTests {
+
+    @Test
+    void concurrentMissesShareOneLoad() throws Exception {
+        UserCache cache = new UserCache(100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        User user = new User("hot@secureauth.test", "hash", null, true);
+
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        List<Future<User>> results = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            results.add(pool.submit(() -> cache.get("hot@secureauth.test", email -> {
+                loads.incrementAndGet();
+                await(release);
+                return user;
+            })));
+        }
+
+        Thread.sleep(100);
+        release.countDown();
+        for (Future<User> result : results) {
+            assertSame(user, result.get());
+        }
+        pool.shutdown();
+
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void invalidateDuringLoadDoesNotCacheStaleUser() {
+        UserCache cache = new UserCache(100, 60_000);
+        AtomicInteger loads = new AtomicInteger();
+
+        cache.get("a@secureauth.test", email -> {
+            loads.incrementAndGet();
+            cache.invalidate(email); // a write lands while the SELECT is running
+            return new User(email, "old-hash", null, false);
+        });
+        cache.get("a@secureauth.test", email -> {
+            loads.incrementAndGet();
+            return new User(email, "new-hash", null, true);
+        });
+
+        assertEquals(2, loads.get());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
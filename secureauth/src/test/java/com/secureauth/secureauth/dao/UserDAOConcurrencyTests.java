@@ -0,0 +1,161 @@
+package com.secureauth.secureauth.dao;
+
+import com.secureauth.secureauth.config.UserCacheProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks that the OTP / registration transitions are race-free and
+ * cost one statement each.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserDAOConcurrencyTests {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private final AtomicInteger statements = new AtomicInteger();
+    private UserDAO userDAO;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        userDAO = new UserDAO(new JdbcTemplate(countingStatements(dataSource)), new UserCacheProperties(),
+                new SimpleMeterRegistry());
+        statements.set(0);
+    }
+
+    @Test
+    void concurrentVerificationSucceedsExactlyOnce() throws Exception {
+        userDAO.register("race@secureauth.test", "hash", "123456");
+        statements.set(0);
+
+        int callers = 16;
+        ExecutorService pool = Executors.newFixedThreadPool(callers);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+
+        for (int i = 0; i < callers; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return userDAO.verifyOtp("race@secureauth.test", "123456");
+            }));
+        }
+        start.countDown();
+
+        int successes = 0;
+        for (Future<Boolean> result : results) {
+            if (result.get()) {
+                successes++;
+            }
+        }
+        pool.shutdown();
+
+        assertEquals(1, successes);
+        assertEquals(callers, statements.get());
+    }
+
+    @Test
+    void registerIsOneStatementPerOutcome() {
+        assertEquals(RegistrationResult.CREATED, userDAO.register("new@secureauth.test", "hash", "111111"));
+        assertEquals(RegistrationResult.OTP_REFRESHED, userDAO.register("new@secureauth.test", "other", "222222"));
+        assertTrue(userDAO.verifyOtp("new@secureauth.test", "222222"));
+        assertEquals(RegistrationResult.ALREADY_VERIFIED, userDAO.register("new@secureauth.test", "hash", "333333"));
+
+        assertEquals(4, statements.get());
+    }
+
+    @Test
+    void emailCaseDoesNotCreateASecondAccount() {
+        assertEquals(RegistrationResult.CREATED, userDAO.register("Case@SecureAuth.test", "hash", "111111"));
+        assertEquals(RegistrationResult.OTP_REFRESHED, userDAO.register("case@secureauth.test", "hash", "222222"));
+        assertTrue(userDAO.verifyOtp("CASE@secureauth.test", "222222"));
+
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM users", Integer.class));
+    }
+
+    @Test
+    void expiredOtpsAreRejectedByTheDatabase() {
+        userDAO.register("late@secureauth.test", "hash", "123456");
+        userDAO.createPasswordResetOtp("late@secureauth.test", "654321");
+        jdbcTemplate.update(
+                "UPDATE users SET otp_created_at = now() - INTERVAL '6 minutes', " +
+                "reset_otp_created_at = now() - INTERVAL '6 minutes'");
+        statements.set(0);
+
+        assertFalse(userDAO.verifyOtp("late@secureauth.test", "123456"));
+        assertFalse(userDAO.resetPassword("late@secureauth.test", "654321", "new-hash"));
+        assertEquals(2, statements.get());
+    }
+
+    /**
+     * Wraps the DataSource so every statement prepared on it is counted.
+     */
+    private DataSource countingStatements(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                forwarding(target, (method, result) -> {
+                    if (method.getName().equals("getConnection")) {
+                        Connection connection = (Connection) result;
+                        return Proxy.newProxyInstance(
+                                getClass().getClassLoader(),
+                                new Class<?>[]{Connection.class},
+                                forwarding(connection, (m, r) -> {
+                                    if (m.getName().startsWith("prepare") || m.getName().equals("createStatement")) {
+                                        statements.incrementAndGet();
+                                    }
+                                    return r;
+                                }));
+                    }
+                    return result;
+                }));
+    }
+
+    private interface ResultDecorator {
+        Object decorate(java.lang.reflect.Method method, Object result);
+    }
+
+    private static InvocationHandler forwarding(Object target, ResultDecorator decorator) {
+        return (proxy, method, args) -> {
+            try {
+                return decorator.decorate(method, method.invoke(target, args));
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        };
+    }
+}
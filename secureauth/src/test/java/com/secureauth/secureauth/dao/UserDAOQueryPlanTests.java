@@ -0,0 +1,168 @@
+package com.secureauth.secureauth.dao;
+
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.config.UserCacheProperties;
+import com.secureauth.secureauth.model.User;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Runs EXPLAIN on every statement UserDAO, UserListingDAO and RefreshTokenDAO
+ * send, against the schema built by the Flyway migrations, and fails if any
+ * of them scans a table sequentially.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserDAOQueryPlanTests {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    // SQL text of every statement prepared by the DAO
+    private final Set<String> statements = new LinkedHashSet<>();
+
+    @Test
+    void noStatementFallsBackToASequentialScan() {
+        DataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        // Enough rows, some with pending OTPs, that the plans are the production ones
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute(
+                "INSERT INTO users (email, password, verified, otp, otp_created_at, reset_otp, reset_otp_created_at) " +
+                "SELECT 'user' || i || '@secureauth.test', 'hash', i % 10 <> 0, " +
+                "       CASE WHEN i % 10 = 0 THEN '123456' END, CASE WHEN i % 10 = 0 THEN now() END, " +
+                "       CASE WHEN i % 50 = 0 THEN '654321' END, CASE WHEN i % 50 = 0 THEN now() END " +
+                "FROM generate_series(1, 20000) AS i");
+        jdbcTemplate.execute(
+                "INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at, used_at) " +
+                "SELECT sha256(i::text::bytea), gen_random_uuid(), i, now() + INTERVAL '1 day', " +
+                "       CASE WHEN i % 2 = 0 THEN now() END " +
+                "FROM generate_series(1, 20000) AS i");
+        jdbcTemplate.execute("ANALYZE users");
+        jdbcTemplate.execute("ANALYZE refresh_tokens");
+
+        JdbcTemplate recording = new JdbcTemplate(recordingStatements(dataSource));
+        UserDAO userDAO = new UserDAO(recording, new UserCacheProperties(), new SimpleMeterRegistry());
+        RefreshTokenDAO refreshTokenDAO = new RefreshTokenDAO(recording);
+
+        userDAO.findByEmail("User1@secureauth.test");
+        userDAO.register("plan@secureauth.test", "hash", "111111");
+        userDAO.verifyOtp("plan@secureauth.test", "111111");
+        userDAO.markVerified("user10@secureauth.test");
+        userDAO.resendOtp("user20@secureauth.test", "222222");
+        userDAO.createPasswordResetOtp("user1@secureauth.test", "333333");
+        userDAO.resetPassword("user1@secureauth.test", "333333", "new-hash");
+        userDAO.updatePassword("user2@secureauth.test", "new-hash");
+        userDAO.deleteByEmail("user3@secureauth.test");
+        userDAO.insertAll(List.of(new User("bulk@secureauth.test", "hash", null, true)));
+        userDAO.clearExpiredResetOtps(new SweepCursor(), 100);
+        userDAO.clearExpiredOtps(new SweepCursor(), 100);
+        userDAO.deleteAbandoned(3600, new SweepCursor(), 100);
+
+        byte[] hash = new byte[32];
+        refreshTokenDAO.insert(hash, "user5@secureauth.test", 3600);
+        refreshTokenDAO.rotate(hash, new byte[]{1}, 3600);
+        refreshTokenDAO.deleteReusedFamily(hash);
+        refreshTokenDAO.deleteFamily(new byte[]{2}, "user6@secureauth.test");
+        refreshTokenDAO.deleteAll("user7@secureauth.test");
+        refreshTokenDAO.deleteExpired(new SweepCursor(), 100);
+
+        // Keyset walks: the pages stay on users_pkey whatever the filter
+        UserListingDAO userListingDAO = new UserListingDAO(recording, new AdminProperties());
+        LocalDateTime now = LocalDateTime.now();
+        userListingDAO.page(UserFilter.any(), 0, 100);
+        userListingDAO.page(new UserFilter(false, now.minusDays(1), now), 100, 100);
+        userListingDAO.stream(new UserFilter(true, null, null), 0, user -> { });
+
+        assertEquals(22, statements.size());
+
+        // $n parameters without values: send EXPLAIN as plain text, not as a prepared statement
+        DriverManagerDataSource explainSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        Properties simpleQueries = new Properties();
+        simpleQueries.setProperty("preferQueryMode", "simple");
+        explainSource.setConnectionProperties(simpleQueries);
+        JdbcTemplate explain = new JdbcTemplate(explainSource);
+
+        for (String sql : statements) {
+            // GENERIC_PLAN: the plan a prepared statement settles on, without parameter values
+            String plan = String.join("\n", explain.queryForList(
+                    "EXPLAIN (GENERIC_PLAN) " + numberedParameters(sql), String.class));
+
+            assertFalse(plan.contains("Seq Scan"), () -> sql + "\n" + plan);
+        }
+    }
+
+    /**
+     * JDBC ? placeholders → $1, $2, ... as EXPLAIN expects them.
+     */
+    private static String numberedParameters(String sql) {
+        StringBuilder numbered = new StringBuilder();
+        int parameter = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '?') {
+                numbered.append('$').append(++parameter);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return numbered.toString();
+    }
+
+    /**
+     * Wraps the DataSource so the SQL of every prepared statement is recorded.
+     */
+    private DataSource recordingStatements(DataSource target) {
+        return (DataSource) Proxy.newProxyInstance(
+                getClass().getClassLoader(),
+                new Class<?>[]{DataSource.class},
+                (proxy, method, args) -> {
+                    Object result = invoke(target, method, args);
+                    if (!method.getName().equals("getConnection")) {
+                        return result;
+                    }
+                    Connection connection = (Connection) result;
+                    return Proxy.newProxyInstance(
+                            getClass().getClassLoader(),
+                            new Class<?>[]{Connection.class},
+                            (p, m, a) -> {
+                                if (m.getName().equals("prepareStatement")) {
+                                    statements.add((String) a[0]);
+                                }
+                                return invoke(connection, m, a);
+                            });
+                });
+    }
+
+    private static Object invoke(Object target, java.lang.reflect.Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package com.secureauth.secureauth.dao;
+
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.model.UserSummary;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Keyset pages and the export cursor over a real users table.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserListingDAOTests {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private static final LocalDateTime START = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    private JdbcTemplate jdbcTemplate;
+    private UserListingDAO userListingDAO;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        // user1..user100, one minute apart; every third one unverified
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password, verified, created_at) " +
+                "SELECT 'user' || i || '@secureauth.test', 'hash', i % 3 <> 0, ? + i * INTERVAL '1 minute' " +
+                "FROM generate_series(1, 100) AS i",
+                START);
+
+        AdminProperties properties = new AdminProperties();
+        properties.setExportFetchSize(7);
+        userListingDAO = new UserListingDAO(jdbcTemplate, properties);
+    }
+
+    @Test
+    void pagesVisitEveryUserOnceInIdOrder() {
+        List<UserSummary> seen = new ArrayList<>();
+        long after = 0;
+
+        while (true) {
+            List<UserSummary> page = userListingDAO.page(UserFilter.any(), after, 30);
+            seen.addAll(page);
+            if (page.size() < 30) {
+                break;
+            }
+            after = page.get(page.size() - 1).getId();
+        }
+
+        assertEquals(100, seen.size());
+        for (int i = 1; i < seen.size(); i++) {
+            assertTrue(seen.get(i).getId() > seen.get(i - 1).getId());
+        }
+    }
+
+    @Test
+    void rowsDeletedBehindThePageDoNotShiftTheNextOne() {
+        List<UserSummary> first = userListingDAO.page(UserFilter.any(), 0, 10);
+        long after = first.get(9).getId();
+
+        jdbcTemplate.update("DELETE FROM users WHERE id <= ?", first.get(4).getId());
+
+        assertEquals(after + 1, userListingDAO.page(UserFilter.any(), after, 10).get(0).getId());
+    }
+
+    @Test
+    void filtersOnVerifiedAndCreationTime() {
+        // Minutes 10 (inclusive) to 20 (exclusive): user10..user19, of which 12, 15, 18 unverified
+        UserFilter filter = new UserFilter(false, START.plusMinutes(10), START.plusMinutes(20));
+
+        List<UserSummary> page = userListingDAO.page(filter, 0, 100);
+
+        assertEquals(List.of("user12@secureauth.test", "user15@secureauth.test", "user18@secureauth.test"),
+                page.stream().map(UserSummary::getEmail).toList());
+        page.forEach(user -> assertFalse(user.isVerified()));
+        assertEquals(START.plusMinutes(12), page.get(0).getCreatedAt());
+    }
+
+    @Test
+    void streamHandsOverEveryMatchingUser() {
+        List<UserSummary> exported = new ArrayList<>();
+
+        long count = userListingDAO.stream(new UserFilter(true, null, null), 0, exported::add);
+
+        // 100 users, 33 of them unverified; several fetches of 7 rows
+        assertEquals(67, count);
+        assertEquals(67, exported.size());
+        exported.forEach(user -> assertTrue(user.isVerified()));
+    }
+}
@@ -0,0 +1,78 @@
+package com.secureauth.secureauth.otp;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class OtpTableTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final OtpTable table = new OtpTable(300, clock::get);
+
+    @Test
+    void otpCanBeConsumedOnlyOnce() {
+        table.put("a@secureauth.test", "123456");
+
+        assertFalse(table.consume("a@secureauth.test", "654321"));
+        assertTrue(table.consume("a@secureauth.test", "123456"));
+        assertFalse(table.consume("a@secureauth.test", "123456"));
+    }
+
+    @Test
+    void otpExpiresAfterTtl() {
+        table.put("a@secureauth.test", "123456");
+
+        clock.addAndGet(300 * SECOND);
+
+        assertFalse(table.consume("a@secureauth.test", "123456"));
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void reissuedOtpReplacesOldOneAndGetsNewDeadline() {
+        table.put("a@secureauth.test", "111111");
+        clock.addAndGet(200 * SECOND);
+        table.put("a@secureauth.test", "222222");
+
+        // Past the first deadline, before the second
+        clock.addAndGet(150 * SECOND);
+
+        assertFalse(table.consume("a@secureauth.test", "111111"));
+        assertTrue(table.consume("a@secureauth.test", "222222"));
+    }
+
+    @Test
+    void wheelExpiresEverythingAfterLongIdle() {
+        for (int i = 0; i < 100_000; i++) {
+            table.put("user" + i + "@secureauth.test", "123456");
+        }
+        assertEquals(100_000, table.size());
+
+        clock.addAndGet(3600 * SECOND);
+
+        assertEquals(0, table.size());
+    }
+
+    @Test
+    void survivorsStayReachableAfterNeighboursExpire() {
+        for (int i = 0; i < 50_000; i++) {
+            table.put("old" + i + "@secureauth.test", "111111");
+        }
+        clock.addAndGet(100 * SECOND);
+        for (int i = 0; i < 50_000; i++) {
+            table.put("new" + i + "@secureauth.test", "222222");
+        }
+        clock.addAndGet(250 * SECOND);
+
+        assertEquals(50_000, table.size());
+        for (int i = 0; i < 50_000; i++) {
+            assertTrue(table.consume("new" + i + "@secureauth.test", "222222"));
+        }
+    }
+}
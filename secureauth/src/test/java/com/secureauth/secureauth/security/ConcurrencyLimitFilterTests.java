@@ -0,0 +1,98 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.config.ConcurrencyLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class ConcurrencyLimitFilterTests {
+
+    private final ConcurrencyLimitProperties properties = properties();
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(properties);
+    private final ConcurrencyLimitFilter filter = new ConcurrencyLimitFilter(properties, limiter);
+
+    @Test
+    void otpSendingPathsAreShedBeforeLogin() throws Exception {
+        // Two requests still running elsewhere: the sheddable half of the limit is used up
+        limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL);
+        limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL);
+
+        Call register = send("/api/auth/register");
+        assertEquals(503, register.response.getStatus());
+        assertNotNull(register.response.getHeader("Retry-After"));
+        assertNull(register.chain.getRequest(), "controller must not be reached");
+
+        assertEquals(200, send("/api/auth/login").response.getStatus());
+    }
+
+    @Test
+    void pathParametersAndPercentEncodingAreStillSheddable() throws Exception {
+        limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL);
+        limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL);
+
+        assertEquals(503, send("/api/auth/register;x=1").response.getStatus());
+        assertEquals(503, send("/api/auth/%72egister").response.getStatus());
+        assertEquals(2, limiter.getRejected(ConcurrencyLimiter.Priority.SHEDDABLE));
+    }
+
+    @Test
+    void overTheLimitEverythingIsTurnedAwayAtOnce() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL);
+        }
+
+        assertEquals(503, send("/api/auth/login").response.getStatus());
+        assertEquals(503, send("/api/protected").response.getStatus());
+        assertEquals(2, limiter.getRejected(ConcurrencyLimiter.Priority.CRITICAL));
+    }
+
+    @Test
+    void excludedPathsAndPreflightsBypassTheLimit() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            limiter.tryAcquire(ConcurrencyLimiter.Priority.CRITICAL);
+        }
+
+        assertEquals(200, send("/api/admin/users/export").response.getStatus());
+
+        MockHttpServletRequest preflight = new MockHttpServletRequest("OPTIONS", "/api/auth/login");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(preflight, response, new MockFilterChain());
+        assertEquals(200, response.getStatus());
+    }
+
+    @Test
+    void theSlotIsReturnedWhenTheRequestEnds() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, send("/api/auth/login").response.getStatus());
+        }
+        assertEquals(0, limiter.getInFlight());
+    }
+
+    private Call send(String path) throws Exception {
+        Call call = new Call();
+        filter.doFilter(new MockHttpServletRequest("POST", path), call.response, call.chain);
+        return call;
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(4);
+        properties.setMinLimit(4);
+        properties.setSheddableShare(0.5);
+        properties.setSheddablePaths(List.of("/api/auth/register", "/api/auth/resend-otp"));
+        properties.setExcludedPaths(List.of("/api/admin/users/export"));
+        return properties;
+    }
+
+    private static final class Call {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain chain = new MockFilterChain();
+    }
+}
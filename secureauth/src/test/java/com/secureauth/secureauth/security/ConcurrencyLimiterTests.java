@@ -0,0 +1,121 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.config.ConcurrencyLimitProperties;
+import com.secureauth.secureauth.security.ConcurrencyLimiter.Priority;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ConcurrencyLimiterTests {
+
+    private static final long MILLIS = 1_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final ConcurrencyLimiter limiter = new ConcurrencyLimiter(properties(), clock::get);
+
+    @Test
+    void sheddableRequestsOnlyGetTheirShareOfTheLimit() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(Priority.SHEDDABLE));
+        }
+        assertFalse(limiter.tryAcquire(Priority.SHEDDABLE));
+
+        // The other half is still there for login and protected routes
+        for (int i = 0; i < 10; i++) {
+            assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        }
+        assertFalse(limiter.tryAcquire(Priority.CRITICAL));
+
+        assertEquals(20, limiter.getInFlight());
+        assertEquals(1, limiter.getRejected(Priority.SHEDDABLE));
+        assertEquals(1, limiter.getRejected(Priority.CRITICAL));
+    }
+
+    @Test
+    void releasedSlotsCanBeTakenAgain() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        }
+        assertFalse(limiter.tryAcquire(Priority.CRITICAL));
+
+        limiter.release(5 * MILLIS, false);
+
+        assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+    }
+
+    @Test
+    void limitGrowsWhileLatencyHoldsUnderFullLoad() {
+        for (int i = 0; i < 20; i++) {
+            saturatedWindow(10);
+        }
+
+        assertTrue(limiter.getLimit() > 20, "limit was " + limiter.getLimit());
+    }
+
+    @Test
+    void limitShrinksWhenLatencyRises() {
+        for (int i = 0; i < 20; i++) {
+            saturatedWindow(10);
+        }
+        int before = limiter.getLimit();
+
+        // The database slows down tenfold
+        for (int i = 0; i < 10; i++) {
+            saturatedWindow(100);
+        }
+
+        assertTrue(limiter.getLimit() < before * 0.6, before + " -> " + limiter.getLimit());
+        assertTrue(limiter.getLimit() >= 4);
+    }
+
+    @Test
+    void aServerErrorCutsTheLimitAtOnce() {
+        for (int i = 0; i < 20; i++) {
+            assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+        }
+        clock.addAndGet(100 * MILLIS);
+        limiter.release(10 * MILLIS, true);
+
+        assertEquals(18, limiter.getLimit());
+    }
+
+    @Test
+    void windowsFarBelowTheLimitLeaveItAlone() {
+        for (int window = 0; window < 20; window++) {
+            for (int i = 0; i < 10; i++) {
+                assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+                limiter.release(10 * MILLIS, false);
+            }
+            clock.addAndGet(100 * MILLIS);
+            assertTrue(limiter.tryAcquire(Priority.CRITICAL));
+            limiter.release(10 * MILLIS, false);
+        }
+
+        assertEquals(20, limiter.getLimit());
+    }
+
+    // Every slot taken, then all released after `rttMillis`; the last release closes the window
+    private void saturatedWindow(long rttMillis) {
+        int taken = 0;
+        while (limiter.tryAcquire(Priority.CRITICAL)) {
+            taken++;
+        }
+        clock.addAndGet(100 * MILLIS);
+        for (int i = 0; i < taken; i++) {
+            limiter.release(rttMillis * MILLIS, false);
+        }
+    }
+
+    private static ConcurrencyLimitProperties properties() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        properties.setInitialLimit(20);
+        properties.setMinLimit(4);
+        properties.setMaxLimit(200);
+        properties.setSheddableShare(0.5);
+        return properties;
+    }
+}
@@ -0,0 +1,91 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.util.JwtUtil;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class JwtFilterTests {
+
+    private final JwtFilter filter = new JwtFilter(
+            new TokenDenylist(1000, 0.01),
+            new RouteTable(List.of("/api/auth/login"), Map.of("/api/admin/**", List.of("admin"))));
+
+    @Test
+    void publicRouteNeedsNoToken() throws Exception {
+        Call call = send("/api/auth/login", null);
+
+        assertEquals(200, call.response.getStatus());
+        assertNotNull(call.chain.getRequest());
+    }
+
+    @Test
+    void protectedRouteRejectsMissingOrInvalidTokenWithJson() throws Exception {
+        Call missing = send("/api/protected", null);
+        assertEquals(401, missing.response.getStatus());
+        assertEquals("application/json", missing.response.getContentType());
+        assertEquals("{\"status\":\"error\",\"message\":\"Missing or invalid Authorization header\"}",
+                missing.response.getContentAsString());
+        assertNull(missing.chain.getRequest());
+
+        assertEquals(401, send("/api/protected", "Bearer not-a-jwt").response.getStatus());
+        assertEquals(401, send("/api/protected", "Bearer ").response.getStatus());
+
+        // The scheme is case-insensitive
+        Call lowerCase = send("/api/protected", "bearer " + JwtUtil.generateToken("a@secureauth.test"));
+        assertEquals(200, lowerCase.response.getStatus());
+        assertEquals("a@secureauth.test", lowerCase.chain.getRequest().getAttribute("authenticatedEmail"));
+    }
+
+    @Test
+    void scopedRouteNeedsTheScopeInTheToken() throws Exception {
+        Call user = send("/api/admin/users/import", "Bearer " + JwtUtil.generateToken("a@secureauth.test"));
+        assertEquals(403, user.response.getStatus());
+        assertNull(user.chain.getRequest());
+
+        String adminToken = JwtUtil.generateToken("admin@secureauth.test", List.of("admin"));
+        assertEquals(200, send("/api/admin/users/import", "Bearer " + adminToken).response.getStatus());
+    }
+
+    @Test
+    void pathParametersAndPercentEncodingStillNeedTheScope() throws Exception {
+        String userToken = "Bearer " + JwtUtil.generateToken("a@secureauth.test");
+
+        // MVC dispatches both to AdminController
+        assertEquals(403, send("/api/admin;a/users", userToken).response.getStatus());
+        assertEquals(403, send("/api/%61dmin/users", userToken).response.getStatus());
+        assertEquals(403, send("/api/admin/users;x=1", userToken).response.getStatus());
+
+        String adminToken = "Bearer " + JwtUtil.generateToken("admin@secureauth.test", List.of("admin"));
+        assertEquals(200, send("/api/%61dmin/users", adminToken).response.getStatus());
+    }
+
+    @Test
+    void encodedPublicPathIsStillPublic() throws Exception {
+        assertEquals(200, send("/api/auth/%6cogin", null).response.getStatus());
+        assertEquals(200, send("/api/auth/login;jsessionid=1", null).response.getStatus());
+    }
+
+    private Call send(String path, String authorization) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", path);
+        if (authorization != null) {
+            request.addHeader("Authorization", authorization);
+        }
+        Call call = new Call();
+        filter.doFilter(request, call.response, call.chain);
+        return call;
+    }
+
+    private static final class Call {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain chain = new MockFilterChain();
+    }
+}
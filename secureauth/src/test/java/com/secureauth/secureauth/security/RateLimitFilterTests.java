@@ -0,0 +1,96 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.config.RateLimitProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class RateLimitFilterTests {
+
+    private final RateLimitFilter filter = new RateLimitFilter(properties(), new RateLimiter(1000));
+
+    @Test
+    void overTheEmailLimitIsRejectedBeforeTheController() throws Exception {
+        assertEquals(200, send("10.0.0.1", "a@secureauth.test").response.getStatus());
+        assertEquals(200, send("10.0.0.2", "A@SecureAuth.test ").response.getStatus());
+
+        // Third request for the same email from yet another IP
+        Call rejected = send("10.0.0.3", "a@secureauth.test");
+
+        assertEquals(429, rejected.response.getStatus());
+        assertNotNull(rejected.response.getHeader("Retry-After"));
+        assertNull(rejected.chain.getRequest(), "controller must not be reached");
+    }
+
+    @Test
+    void overTheIpLimitIsRejectedForAnyEmail() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(200, send("10.0.0.9", "user" + i + "@secureauth.test").response.getStatus());
+        }
+        assertEquals(429, send("10.0.0.9", "other@secureauth.test").response.getStatus());
+    }
+
+    @Test
+    void otherPathsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/verify-otp");
+            request.addParameter("email", "a@secureauth.test");
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            filter.doFilter(request, response, new MockFilterChain());
+            assertEquals(200, response.getStatus());
+        }
+    }
+
+    @Test
+    void pathParametersDoNotEscapeTheBucket() throws Exception {
+        assertEquals(200, send("10.0.0.1", "a@secureauth.test").response.getStatus());
+        assertEquals(200, send("/api/auth/resend-otp;x=1", "10.0.0.2", "a@secureauth.test").response.getStatus());
+
+        // MVC still routes this one to resend-otp: it shares the bucket
+        assertEquals(429, send("/api/auth/resend-otp;jsessionid=1", "10.0.0.3", "a@secureauth.test")
+                .response.getStatus());
+    }
+
+    @Test
+    void percentEncodingDoesNotEscapeTheBucket() throws Exception {
+        assertEquals(200, send("/api/auth/%72esend-otp", "10.0.0.1", "a@secureauth.test").response.getStatus());
+        assertEquals(200, send("/api/auth/resend%2Dotp", "10.0.0.2", "a@secureauth.test").response.getStatus());
+
+        assertEquals(429, send("10.0.0.3", "a@secureauth.test").response.getStatus());
+    }
+
+    private Call send(String ip, String email) throws Exception {
+        return send("/api/auth/resend-otp", ip, email);
+    }
+
+    private Call send(String uri, String ip, String email) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", uri);
+        request.setRemoteAddr(ip);
+        request.addParameter("email", email);
+        Call call = new Call();
+        filter.doFilter(request, call.response, call.chain);
+        return call;
+    }
+
+    private static RateLimitProperties properties() {
+        RateLimitProperties.Endpoint endpoint = new RateLimitProperties.Endpoint();
+        endpoint.setPath("/api/auth/resend-otp");
+        endpoint.getPerIp().setRequests(5);
+        endpoint.getPerEmail().setRequests(2);
+        endpoint.getPerEmail().setPeriodSeconds(600);
+
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.getEndpoints().put("resend-otp", endpoint);
+        return properties;
+    }
+
+    private static final class Call {
+        final MockHttpServletResponse response = new MockHttpServletResponse();
+        final MockFilterChain chain = new MockFilterChain();
+    }
+}
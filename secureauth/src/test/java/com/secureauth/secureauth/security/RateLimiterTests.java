@@ -0,0 +1,107 @@
+package com.secureauth.secureauth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RateLimiterTests {
+
+    private static final long SECOND = 1_000_000_000L;
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void burstThenOneTokenPerInterval() {
+        RateLimiter limiter = new RateLimiter(1000, clock::get);
+        RateLimiter.Limit limit = new RateLimiter.Limit(3, 60); // one token every 20 s
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire("k", limit));
+        }
+
+        long wait = limiter.tryAcquire("k", limit);
+        assertEquals(20 * SECOND, wait);
+
+        clock.addAndGet(wait);
+        assertEquals(0, limiter.tryAcquire("k", limit));
+        assertTrue(limiter.tryAcquire("k", limit) > 0);
+    }
+
+    @Test
+    void keysHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter(1000, clock::get);
+        RateLimiter.Limit limit = new RateLimiter.Limit(1, 60);
+
+        assertEquals(0, limiter.tryAcquire("a", limit));
+        assertTrue(limiter.tryAcquire("a", limit) > 0);
+        assertEquals(0, limiter.tryAcquire("b", limit));
+    }
+
+    @Test
+    void idleBucketsAreEvictedWithoutResettingActiveOnes() {
+        // 16 stripes x 100 keys
+        RateLimiter limiter = new RateLimiter(1600, clock::get);
+        RateLimiter.Limit limit = new RateLimiter.Limit(1, 60);
+        RateLimiter.Limit perSecond = new RateLimiter.Limit(1, 1);
+
+        assertEquals(0, limiter.tryAcquire("active", limit));
+
+        // Keys whose buckets are full again (idle) one second later
+        for (int i = 0; i < 1000; i++) {
+            limiter.tryAcquire("idle-" + i, perSecond);
+        }
+        clock.addAndGet(2 * SECOND);
+
+        // Overflows the stripes: only idle buckets should go
+        for (int i = 0; i < 600; i++) {
+            limiter.tryAcquire("new-" + i, perSecond);
+        }
+
+        assertTrue(limiter.getEvictions() > 0);
+        assertTrue(limiter.size() <= 1600);
+        // Still limited, 58 s left on its bucket
+        assertTrue(limiter.tryAcquire("active", limit) > 0);
+        assertTrue(limiter.tryAcquire("new-0", perSecond) > 0);
+    }
+
+    @Test
+    void concurrentCallersGetExactlyTheBurst() throws Exception {
+        RateLimiter limiter = new RateLimiter(1000, clock::get);
+        RateLimiter.Limit limit = new RateLimiter.Limit(50, 3600);
+
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger allowed = new AtomicInteger();
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.tryAcquire("shared", limit) == 0) {
+                        allowed.incrementAndGet();
+                    }
+                }
+            });
+        }
+
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(50, allowed.get());
+        assertEquals(threads * 100 - 50, limiter.getRejected());
+    }
+}
@@ -0,0 +1,69 @@
+package com.secureauth.secureauth.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RouteTableTests {
+
+    private final RouteTable routes = new RouteTable(
+            List.of("/api/auth/login", "/api/auth/refresh", "/api/public/*", "/api/docs/**"),
+            scopes("/api/admin/**", "admin", "/api/admin/audit/*", "admin audit"));
+
+    @Test
+    void publicPathsMatchExactlyOnly() {
+        assertTrue(routes.match("/api/auth/login").isPublic());
+        assertTrue(routes.match("/api/auth/refresh").isPublic());
+
+        assertFalse(routes.match("/api/auth/logout").isPublic());
+        assertFalse(routes.match("/api/auth/login/").isPublic());
+        assertFalse(routes.match("/api/auth/login/extra").isPublic());
+        assertFalse(routes.match("/api/auth/loginx").isPublic());
+        assertFalse(routes.match("/api/auth").isPublic());
+    }
+
+    @Test
+    void wildcardsMatchOneOrManySegments() {
+        assertTrue(routes.match("/api/public/page").isPublic());
+        assertFalse(routes.match("/api/public/page/more").isPublic());
+        assertFalse(routes.match("/api/public/").isPublic());
+
+        assertTrue(routes.match("/api/docs").isPublic());
+        assertTrue(routes.match("/api/docs/a/b/c").isPublic());
+    }
+
+    @Test
+    void mostSpecificPatternWinsAndUnknownPathsFailClosed() {
+        assertArrayEquals(new String[] { "admin" }, routes.match("/api/admin/users/import").getScopes());
+        assertArrayEquals(new String[] { "admin", "audit" }, routes.match("/api/admin/audit/recent").getScopes());
+
+        RouteTable.Route unknown = routes.match("/api/anything/else");
+        assertFalse(unknown.isPublic());
+        assertArrayEquals(new String[0], unknown.getScopes());
+        assertFalse(routes.match("").isPublic());
+    }
+
+    @Test
+    void invalidPatternsAreRejectedAtStartup() {
+        assertThrows(IllegalArgumentException.class, () -> new RouteTable(List.of("api/auth/login"), Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new RouteTable(List.of("/api/**/x"), Map.of()));
+        assertThrows(IllegalArgumentException.class, () -> new RouteTable(List.of("/api/auth/log*"), Map.of()));
+        assertThrows(IllegalArgumentException.class,
+                () -> new RouteTable(List.of("/api/admin/**"), scopes("/api/admin/**", "admin")));
+    }
+
+    private static Map<String, List<String>> scopes(String... patternAndScopes) {
+        Map<String, List<String>> scopes = new LinkedHashMap<>();
+        for (int i = 0; i < patternAndScopes.length; i += 2) {
+            scopes.put(patternAndScopes[i], List.of(patternAndScopes[i + 1].split(" ")));
+        }
+        return scopes;
+    }
+}
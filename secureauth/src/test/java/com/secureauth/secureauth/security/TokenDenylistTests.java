@@ -0,0 +1,84 @@
+package com.secureauth.secureauth.security;
+
+import com.secureauth.secureauth.util.VerifiedToken;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TokenDenylistTests {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * HOUR);
+
+    @Test
+    void revokedTokenIdIsRejectedOthersAreNot() {
+        TokenDenylist denylist = new TokenDenylist(1000, 0.01, clock::get);
+
+        denylist.revokeToken("jti-1", clock.get() + HOUR);
+
+        assertTrue(denylist.isRevoked(token("a@secureauth.test", "jti-1", clock.get())));
+        assertFalse(denylist.isRevoked(token("a@secureauth.test", "jti-2", clock.get())));
+    }
+
+    @Test
+    void subjectRevocationCoversOnlyTokensIssuedBeforeIt() {
+        TokenDenylist denylist = new TokenDenylist(1000, 0.01, clock::get);
+        long revokedAt = clock.get();
+
+        denylist.revokeSubject("User@SecureAuth.test", revokedAt, revokedAt + 24 * HOUR);
+
+        // Emails match case-insensitively
+        assertTrue(denylist.isRevoked(token("user@secureauth.test", "old", revokedAt - HOUR)));
+        assertTrue(denylist.isRevoked(token("USER@secureauth.test", "same-second", revokedAt)));
+        assertFalse(denylist.isRevoked(token("user@secureauth.test", "new", revokedAt + 1000)));
+        assertFalse(denylist.isRevoked(token("other@secureauth.test", "old", revokedAt - HOUR)));
+    }
+
+    @Test
+    void pruneDropsEntriesOnceTheirTokensHaveExpired() {
+        TokenDenylist denylist = new TokenDenylist(1000, 0.01, clock::get);
+
+        denylist.revokeToken("short", clock.get() + HOUR);
+        denylist.revokeToken("long", clock.get() + 3 * HOUR);
+
+        clock.addAndGet(2 * HOUR);
+        assertEquals(1, denylist.prune());
+        assertEquals(1, denylist.size());
+
+        assertFalse(denylist.isRevoked(token("a@secureauth.test", "short", 0)));
+        assertTrue(denylist.isRevoked(token("a@secureauth.test", "long", 0)));
+
+        // Already expired: nothing to remember
+        denylist.revokeToken("expired", clock.get());
+        assertEquals(1, denylist.size());
+    }
+
+    @Test
+    void growsPastExpectedEntriesWithoutLosingAny() {
+        TokenDenylist denylist = new TokenDenylist(100, 0.01, clock::get);
+
+        for (int i = 0; i < 1000; i++) {
+            denylist.revokeToken("jti-" + i, clock.get() + HOUR);
+        }
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(denylist.isRevoked(token("a@secureauth.test", "jti-" + i, 0)));
+        }
+
+        // The rebuilt filter keeps its false positive rate: few misses go to the exact map
+        long lookups = denylist.getExactLookups();
+        for (int i = 0; i < 10_000; i++) {
+            assertFalse(denylist.isRevoked(token("a@secureauth.test", "live-" + i, 0)));
+        }
+        assertTrue(denylist.getExactLookups() - lookups < 500);
+    }
+
+    private static VerifiedToken token(String subject, String id, long issuedAtMs) {
+        return new VerifiedToken(subject, id, issuedAtMs, issuedAtMs + 24 * HOUR);
+    }
+}
@@ -0,0 +1,88 @@
+package com.secureauth.secureauth.service;
+
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import com.secureauth.secureauth.config.EmailDispatchProperties;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Runs the queued dispatch pipeline against an in-process SMTP server.
+ */
+class EmailServiceTests {
+
+    private int port;
+    private GreenMail smtp;
+    private JavaMailSenderImpl mailSender;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        smtp = new GreenMail(new ServerSetup(port, "127.0.0.1", ServerSetup.PROTOCOL_SMTP));
+
+        mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("127.0.0.1");
+        mailSender.setPort(port);
+        mailSender.setDefaultEncoding("UTF-8");
+        mailSender.getJavaMailProperties().put("mail.from", "noreply@secureauth.test");
+    }
+
+    @AfterEach
+    void tearDown() {
+        smtp.stop();
+    }
+
+    @Test
+    void queuedEmailsAreDeliveredAndDrainedOnShutdown() throws Exception {
+        smtp.start();
+        EmailService emailService = new EmailService(mailSender, queued(100, 5), new SimpleMeterRegistry());
+
+        for (int i = 0; i < 50; i++) {
+            emailService.sendEmail("user" + i + "@secureauth.test", "Subject " + i, "Body " + i);
+        }
+        emailService.shutdown();
+
+        assertEquals(50, smtp.getReceivedMessages().length);
+        assertEquals(50, emailService.getSentCount());
+        assertEquals(0, emailService.getFailedCount());
+        assertEquals(0, emailService.getQueueDepth());
+    }
+
+    @Test
+    void failedBatchIsRetriedUntilServerIsUp() throws Exception {
+        EmailService emailService = new EmailService(mailSender, queued(100, 5), new SimpleMeterRegistry());
+
+        // SMTP server is down for the first attempt
+        emailService.sendEmail("late@secureauth.test", "Subject", "Body");
+        Thread.sleep(150);
+        smtp.start();
+
+        emailService.shutdown();
+
+        assertEquals(1, smtp.getReceivedMessages().length);
+        assertEquals(1, emailService.getSentCount());
+        assertEquals(0, emailService.getFailedCount());
+    }
+
+    private static EmailDispatchProperties queued(int capacity, int maxAttempts) {
+        EmailDispatchProperties properties = new EmailDispatchProperties();
+        properties.setMode(EmailDispatchProperties.Mode.QUEUED);
+        properties.setQueueCapacity(capacity);
+        properties.setWorkers(2);
+        properties.setBatchSize(10);
+        properties.setMaxAttempts(maxAttempts);
+        properties.setInitialBackoffMs(100);
+        return properties;
+    }
+}
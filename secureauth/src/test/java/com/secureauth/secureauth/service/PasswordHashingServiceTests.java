@@ -0,0 +1,98 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.PasswordHashingProperties;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PasswordHashingServiceTests {
+
+    // SHA-256("Secret@1"), the pre-bcrypt format
+    private static final String LEGACY_HASH =
+            "0535c9deed81288422a0ba17f26fda08ec5dc9e043fbbca638192c1b485f55bf";
+
+    @Test
+    void bcryptHashMatchesAndCarriesCost() {
+        PasswordHashingService hasher = new PasswordHashingService(fixedCost(4, 1, 8));
+
+        String hash = hasher.hash("Secret@1");
+
+        assertTrue(hash.startsWith("$2a$04$"));
+        assertTrue(hasher.matches("Secret@1", hash));
+        assertFalse(hasher.matches("Secret@2", hash));
+        assertFalse(hasher.needsRehash(hash));
+    }
+
+    @Test
+    void dummyHashCostsAsMuchAsARealOneAndMatchesNothing() {
+        PasswordHashingService hasher = new PasswordHashingService(fixedCost(5, 1, 8));
+
+        assertTrue(hasher.getDummyHash().startsWith("$2a$05$"));
+        assertFalse(hasher.needsRehash(hasher.getDummyHash()));
+        assertFalse(hasher.matches("Secret@1", hasher.getDummyHash()));
+    }
+
+    @Test
+    void legacyAndWeakerHashesNeedRehash() {
+        PasswordHashingService hasher = new PasswordHashingService(fixedCost(5, 1, 8));
+
+        assertTrue(hasher.matches("Secret@1", LEGACY_HASH));
+        assertFalse(hasher.matches("Secret@2", LEGACY_HASH));
+        assertTrue(hasher.needsRehash(LEGACY_HASH));
+        assertTrue(hasher.needsRehash(new PasswordHashingService(fixedCost(4, 1, 8)).hash("Secret@1")));
+    }
+
+    @Test
+    void saturatedPoolFailsFast() throws Exception {
+        // One thread, one queued task: the rest must be turned away immediately
+        PasswordHashingService hasher = new PasswordHashingService(fixedCost(12, 1, 1));
+
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        List<Future<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            calls.add(callers.submit(() -> hasher.hash("Secret@1")));
+        }
+
+        int busy = 0;
+        for (Future<String> call : calls) {
+            try {
+                call.get();
+            } catch (ExecutionException e) {
+                assertInstanceOf(HashingBusyException.class, e.getCause());
+                busy++;
+            }
+        }
+        assertTrue(busy >= 1);
+        callers.shutdown();
+        hasher.shutdown();
+    }
+
+    @Test
+    void calibrationStaysWithinBounds() {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setMinCost(4);
+        properties.setMaxCost(6);
+        properties.setTargetMs(10_000);
+
+        assertEquals(6, new PasswordHashingService(properties).getCost());
+    }
+
+    private static PasswordHashingProperties fixedCost(int cost, int poolSize, int queueCapacity) {
+        PasswordHashingProperties properties = new PasswordHashingProperties();
+        properties.setCost(cost);
+        properties.setPoolSize(poolSize);
+        properties.setQueueCapacity(queueCapacity);
+        return properties;
+    }
+}
@@ -0,0 +1,73 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.UserCacheProperties;
+import com.secureauth.secureauth.config.WarmupProperties;
+import com.secureauth.secureauth.dao.UserDAO;
+import com.secureauth.secureauth.util.JwtUtil;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class StartupWarmupTests {
+
+    // Nothing listens there: database steps fail, the others never touch it
+    private final DriverManagerDataSource dataSource =
+            new DriverManagerDataSource("jdbc:postgresql://127.0.0.1:1/none", "none", "none");
+
+    @Test
+    void jwtWarmupLeavesNoTokensInTheCache() {
+        StartupWarmup warmup = warmup(properties(50, 5));
+        long misses = JwtUtil.getTokenCache().getMisses();
+
+        assertEquals(50, warmup.warmJwt(farDeadline()));
+
+        // Every round parsed a fresh token, none of them is kept
+        assertEquals(misses + 50, JwtUtil.getTokenCache().getMisses());
+        assertEquals(0, JwtUtil.getTokenCache().size());
+    }
+
+    @Test
+    void stepsStopAtTheDeadline() {
+        StartupWarmup warmup = warmup(properties(1_000_000, 1_000_000));
+        long passed = System.nanoTime() - 1;
+
+        assertEquals(0, warmup.warmJwt(passed));
+        assertEquals(0, warmup.warmPasswords(passed));
+    }
+
+    @Test
+    void passwordWarmupRunsTheConfiguredRounds() {
+        assertEquals(3, warmup(properties(0, 3)).warmPasswords(farDeadline()));
+    }
+
+    @Test
+    void unreachableDatabaseDoesNotFailStartup() {
+        WarmupProperties properties = properties(1, 1);
+        properties.setMaxDurationMs(2_000);
+
+        assertDoesNotThrow(() -> warmup(properties).run(null));
+    }
+
+    private StartupWarmup warmup(WarmupProperties properties) {
+        UserDAO userDAO = new UserDAO(new JdbcTemplate(dataSource), new UserCacheProperties(),
+                new SimpleMeterRegistry());
+        return new StartupWarmup(properties, userDAO, new DataSourceTransactionManager(dataSource));
+    }
+
+    private static WarmupProperties properties(int jwtIterations, int passwordIterations) {
+        WarmupProperties properties = new WarmupProperties();
+        properties.setJwtIterations(jwtIterations);
+        properties.setPasswordIterations(passwordIterations);
+        return properties;
+    }
+
+    private static long farDeadline() {
+        return System.nanoTime() + 60_000_000_000L;
+    }
+}
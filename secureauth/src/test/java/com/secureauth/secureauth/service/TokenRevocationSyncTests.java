@@ -0,0 +1,125 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.RevocationProperties;
+import com.secureauth.secureauth.dao.RevokedTokenDAO;
+import com.secureauth.secureauth.security.TokenDenylist;
+import com.secureauth.secureauth.util.VerifiedToken;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Two TokenRevocationService instances on one revoked_tokens table, as two
+ * nodes behind a load balancer: what one revokes, the other rejects after
+ * its next sync.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TokenRevocationSyncTests {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private JdbcTemplate jdbcTemplate;
+    private RevokedTokenDAO revokedTokenDAO;
+    private RevocationProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        DataSource dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        revokedTokenDAO = new RevokedTokenDAO(jdbcTemplate);
+        properties = new RevocationProperties();
+    }
+
+    @Test
+    void logoutOnOneNodeIsRejectedOnTheOtherAfterSync() {
+        Node a = new Node();
+        Node b = new Node();
+        VerifiedToken token = token("alice@secureauth.test", "jti-1");
+
+        a.service.revoke(token);
+
+        assertTrue(a.denylist.isRevoked(token));
+        assertFalse(b.denylist.isRevoked(token));
+
+        b.service.sync();
+
+        assertTrue(b.denylist.isRevoked(token));
+    }
+
+    @Test
+    void subjectRevocationIsSyncedAndWidenedEntriesAreSyncedAgain() throws InterruptedException {
+        Node a = new Node();
+        Node b = new Node();
+
+        VerifiedToken before = token("bob@secureauth.test", "jti-2");
+        a.service.revokeAll("Bob@secureauth.test");
+        b.service.sync();
+
+        assertTrue(b.denylist.isRevoked(before));
+
+        // Issued after the first revocation, covered only by the second one
+        Thread.sleep(5);
+        VerifiedToken later = token("bob@secureauth.test", "jti-3");
+        assertFalse(b.denylist.isRevoked(later));
+
+        Thread.sleep(5);
+        a.service.revokeAll("bob@secureauth.test");
+        b.service.sync();
+
+        assertTrue(b.denylist.isRevoked(later));
+    }
+
+    @Test
+    void writeCommittedLateIsPickedUpWithinTheLookback() {
+        Node b = new Node();
+        b.service.sync();
+
+        // Stamped before b's last sync but only visible now, like a slow commit
+        revokedTokenDAO.revokeToken("jti-late", System.currentTimeMillis() + 60_000);
+        jdbcTemplate.update("UPDATE revoked_tokens SET changed_at_ms = changed_at_ms - 3000 WHERE value = 'jti-late'");
+
+        b.service.sync();
+
+        assertTrue(b.denylist.isRevoked(token("carol@secureauth.test", "jti-late")));
+    }
+
+    @Test
+    void nodeStartedLaterLoadsEverythingOnStartup() {
+        Node a = new Node();
+        VerifiedToken token = token("dave@secureauth.test", "jti-4");
+        a.service.revoke(token);
+
+        Node c = new Node();
+
+        assertTrue(c.denylist.isRevoked(token));
+    }
+
+    private static VerifiedToken token(String subject, String id) {
+        long now = System.currentTimeMillis();
+        return new VerifiedToken(subject, id, now, now + 60_000);
+    }
+
+    private final class Node {
+        final TokenDenylist denylist = new TokenDenylist(1000, 0.01);
+        final TokenRevocationService service =
+                new TokenRevocationService(denylist, revokedTokenDAO, properties);
+    }
+}
@@ -0,0 +1,97 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.AdminProperties;
+import com.secureauth.secureauth.dao.UserFilter;
+import com.secureauth.secureauth.dao.UserListingDAO;
+import com.secureauth.secureauth.model.UserSummary;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserExportServiceTests {
+
+    private static final LocalDateTime CREATED = LocalDateTime.of(2026, 1, 2, 3, 4, 5);
+
+    private final List<UserSummary> users = List.of(
+            new UserSummary(1, "plain@example.com", true, CREATED),
+            new UserSummary(7, "\"odd,one\"@example.com", false, CREATED));
+
+    // Stands in for the database cursor: hands the rows over one by one
+    private final UserListingDAO listing = new UserListingDAO(new JdbcTemplate(), new AdminProperties()) {
+        @Override
+        public long stream(UserFilter filter, long afterId, Consumer<UserSummary> sink) {
+            users.stream().filter(user -> user.getId() > afterId).forEach(sink);
+            return users.stream().filter(user -> user.getId() > afterId).count();
+        }
+    };
+
+    private final UserExportService exporter = new UserExportService(listing);
+
+    @Test
+    void csvHasAHeaderAndQuotesFieldsThatNeedIt() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exporter.export(UserFilter.any(), 0, UserExportService.Format.CSV, out));
+
+        assertEquals(
+                "id,email,verified,created_at\n" +
+                "1,plain@example.com,true,2026-01-02T03:04:05\n" +
+                "7,\"\"\"odd,one\"\"@example.com\",false,2026-01-02T03:04:05\n",
+                out.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void ndjsonIsOneObjectPerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(2, exporter.export(UserFilter.any(), 0, UserExportService.Format.NDJSON, out));
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n", -1);
+        assertEquals(3, lines.length);
+        assertEquals("", lines[2]);
+
+        JsonNode second = JsonMapper.builder().build().readTree(lines[1]);
+        assertEquals(7, second.get("id").asLong());
+        assertEquals("\"odd,one\"@example.com", second.get("email").asString());
+        assertEquals(false, second.get("verified").asBoolean());
+        assertEquals("2026-01-02T03:04:05", second.get("createdAt").asString());
+    }
+
+    @Test
+    void resumesAfterTheGivenId() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        assertEquals(1, exporter.export(UserFilter.any(), 1, UserExportService.Format.CSV, out));
+        assertTrue(out.toString(StandardCharsets.UTF_8).startsWith("id,email,verified,created_at\n7,"));
+    }
+
+    @Test
+    void writeFailuresReachTheCaller() {
+        OutputStream broken = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        assertThrows(IOException.class,
+                () -> exporter.export(UserFilter.any(), 0, UserExportService.Format.CSV, broken));
+        assertThrows(IOException.class,
+                () -> exporter.export(UserFilter.any(), 0, UserExportService.Format.NDJSON, broken));
+    }
+}
@@ -0,0 +1,122 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.UserImportProperties;
+import com.secureauth.secureauth.model.ImportReport;
+import com.secureauth.secureauth.model.User;
+import com.secureauth.secureauth.util.PasswordUtil;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class UserImportServiceTests {
+
+    private static final String HASH = PasswordUtil.hash("Secret@1", 4);
+
+    private final Set<String> existing = new HashSet<>(Set.of("taken@example.com"));
+    private final List<Integer> batchSizes = new ArrayList<>();
+    private final List<User> stored = new ArrayList<>();
+
+    // Stands in for UserDAO.insertAll: ON CONFLICT DO NOTHING on email
+    private final Function<List<User>, boolean[]> inserter = users -> {
+        batchSizes.add(users.size());
+        boolean[] inserted = new boolean[users.size()];
+        for (int i = 0; i < users.size(); i++) {
+            inserted[i] = existing.add(users.get(i).getEmail());
+            if (inserted[i]) {
+                stored.add(users.get(i));
+            }
+        }
+        return inserted;
+    };
+
+    @Test
+    void csvRowsAreHashedInsertedInChunksAndReported() throws Exception {
+        String csv = "email,password,password_hash,verified\r\n" +
+                "a@example.com,Secret@1,,true\r\n" +
+                "b@example.com,\"Se,cret@1\",,\r\n" +
+                "\r\n" +
+                "c@example.com,," + HASH + ",1\r\n" +
+                "taken@example.com,Secret@1,,\r\n" +
+                "not-an-email,Secret@1,,\r\n" +
+                "d@example.com,weak,,\r\n" +
+                "e@example.com,\"Secret@1,,\r\n";
+
+        ImportReport report = service(2).importUsers(new StringReader(csv), UserImportService.Format.CSV);
+
+        assertEquals(7, report.getTotal());
+        assertEquals(3, report.getCreated());
+        assertEquals(1, report.getSkipped());
+        assertEquals(3, report.getFailed());
+        assertEquals(List.of(2, 2), batchSizes);
+
+        assertEquals(List.of(6L, 7L, 8L, 9L),
+                report.getErrors().stream().map(ImportReport.RowError::getLine).sorted().toList());
+
+        User a = stored.get(0);
+        assertTrue(a.isVerified());
+        assertTrue(a.getPassword().startsWith("$2a$04$"));
+        assertTrue(PasswordUtil.matches("Secret@1", a.getPassword()));
+        assertTrue(PasswordUtil.matches("Se,cret@1", stored.get(1).getPassword()));
+        assertFalse(stored.get(1).isVerified());
+        assertEquals(HASH, stored.get(2).getPassword());
+    }
+
+    @Test
+    void ndjsonRowsAreValidatedPerLine() throws Exception {
+        String ndjson = "{\"email\":\"a@example.com\",\"password_hash\":\"" + HASH + "\",\"verified\":true}\n" +
+                "{\"email\":\"b@example.com\",\n" +
+                "{\"email\":42,\"password\":\"Secret@1\"}\n" +
+                "{\"email\":\"c@example.com\",\"password\":\"Secret@1\",\"password_hash\":\"" + HASH + "\"}\n" +
+                "[1,2]\n" +
+                "{\"email\":\"d@example.com\",\"password_hash\":\"5f4dcc3b5aa765d61d8327deb882cf99\"}";
+
+        UserImportProperties properties = new UserImportProperties();
+        properties.setMaxReportedErrors(3);
+        ImportReport report = new UserImportService(properties, inserter, 4)
+                .importUsers(new StringReader(ndjson), UserImportService.Format.NDJSON);
+
+        assertEquals(6, report.getTotal());
+        assertEquals(1, report.getCreated());
+        assertEquals(5, report.getFailed());
+        assertEquals(3, report.getErrors().size());
+        assertTrue(report.isErrorsTruncated());
+        assertTrue(stored.get(0).isVerified());
+    }
+
+    @Test
+    void badHeaderAndOversizedLinesAreRejected() throws Exception {
+        UserImportService service = service(10);
+
+        assertThrows(IllegalArgumentException.class, () -> service.importUsers(
+                new StringReader("email,name\na@example.com,A\n"), UserImportService.Format.CSV));
+
+        String csv = "email,password_hash\n" +
+                "x".repeat(10_000) + "\n" +
+                "a@example.com," + HASH + "\n";
+
+        ImportReport report = service.importUsers(new StringReader(csv), UserImportService.Format.CSV);
+
+        assertEquals(1, report.getCreated());
+        assertEquals(1, report.getFailed());
+        assertEquals("Line too long", report.getErrors().get(0).getError());
+        assertEquals(2, report.getErrors().get(0).getLine());
+    }
+
+    private UserImportService service(int chunkSize) {
+        UserImportProperties properties = new UserImportProperties();
+        properties.setChunkSize(chunkSize);
+        properties.setHashThreads(2);
+        return new UserImportService(properties, inserter, 4);
+    }
+}
@@ -0,0 +1,156 @@
+package com.secureauth.secureauth.service;
+
+import com.secureauth.secureauth.config.SweeperProperties;
+import com.secureauth.secureauth.config.UserCacheProperties;
+import com.secureauth.secureauth.dao.RefreshTokenDAO;
+import com.secureauth.secureauth.dao.UserDAO;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+
+/**
+ * UserSweeper against the migrated schema: what it clears and deletes,
+ * and that it neither waits on locked rows nor runs while the pool is busy.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class UserSweeperTests {
+
+    @Container
+    static final PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:16-alpine");
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private UserDAO userDAO;
+    private RefreshTokenDAO refreshTokenDAO;
+    private SimpleMeterRegistry registry;
+    private SweeperProperties properties;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        jdbcTemplate = new JdbcTemplate(dataSource);
+
+        Flyway flyway = Flyway.configure().dataSource(dataSource).cleanDisabled(false).load();
+        flyway.clean();
+        flyway.migrate();
+
+        registry = new SimpleMeterRegistry();
+        userDAO = new UserDAO(jdbcTemplate, new UserCacheProperties(), registry);
+        refreshTokenDAO = new RefreshTokenDAO(jdbcTemplate);
+
+        properties = new SweeperProperties();
+        properties.setBatchSize(10);
+        properties.setPauseMs(0);
+        properties.setAbandonedAfterHours(24);
+
+        // Expired verification OTPs, registered today: cleared, kept
+        seed(25, "expired-otp", "false", "'123456'", "now() - INTERVAL '10 minutes'", "NULL", "NULL", "now()");
+        // Pending verification: untouched
+        seed(5, "pending-otp", "false", "'123456'", "now()", "NULL", "NULL", "now()");
+        // Never verified for 8 days: deleted
+        seed(30, "abandoned", "false", "NULL", "NULL", "NULL", "NULL", "now() - INTERVAL '8 days'");
+        // Old but still verifying right now: kept
+        seed(2, "late", "false", "'123456'", "now()", "NULL", "NULL", "now() - INTERVAL '8 days'");
+        // Expired / pending password resets of verified users
+        seed(12, "expired-reset", "true", "NULL", "NULL", "'654321'", "now() - INTERVAL '10 minutes'", "now() - INTERVAL '30 days'");
+        seed(3, "pending-reset", "true", "NULL", "NULL", "'654321'", "now()", "now() - INTERVAL '30 days'");
+    }
+
+    @Test
+    void sweepClearsExpiredOtpsAndDeletesAbandonedAccountsInBatches() {
+        // Refresh tokens of the verified users: 15 expired, 4 live
+        seedRefreshTokens(15, "now() - INTERVAL '1 hour'");
+        seedRefreshTokens(4, "now() + INTERVAL '1 hour'");
+
+        new UserSweeper(userDAO, refreshTokenDAO, properties, () -> false, registry).sweep();
+
+        assertEquals(12.0, rows("reset_otp_cleared"));
+        assertEquals(25.0, rows("otp_cleared"));
+        assertEquals(30.0, rows("account_deleted"));
+        assertEquals(15.0, rows("refresh_token_deleted"));
+        assertEquals(4, jdbcTemplate.queryForObject("SELECT count(*) FROM refresh_tokens", Integer.class));
+
+        assertEquals(0, count("email LIKE 'abandoned%'"));
+        assertEquals(25, count("email LIKE 'expired-otp%' AND otp IS NULL AND otp_created_at IS NULL"));
+        assertEquals(5, count("email LIKE 'pending-otp%' AND otp IS NOT NULL"));
+        assertEquals(2, count("email LIKE 'late%'"));
+        assertEquals(0, count("reset_otp IS NOT NULL AND email LIKE 'expired-reset%'"));
+        assertEquals(3, count("reset_otp IS NOT NULL AND email LIKE 'pending-reset%'"));
+
+        // Batches of 10 until one comes back short: 10 + 2, 10 + 10 + 5, 10 + 10 + 10 + 0
+        assertEquals(2, calls("clearExpiredResetOtps"));
+        assertEquals(3, calls("clearExpiredOtps"));
+        assertEquals(4, calls("deleteAbandoned"));
+    }
+
+    @Test
+    void lockedRowsAreSkippedInsteadOfWaitedFor() throws Exception {
+        try (Connection other = dataSource.getConnection(); Statement statement = other.createStatement()) {
+            other.setAutoCommit(false);
+            statement.execute("SELECT * FROM users WHERE email = 'expired-otp-1@secureauth.test' FOR UPDATE");
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10),
+                    () -> new UserSweeper(userDAO, refreshTokenDAO, properties, () -> false, registry).sweep());
+
+            assertEquals(24.0, rows("otp_cleared"));
+            other.rollback();
+        }
+
+        assertEquals(1, count("email = 'expired-otp-1@secureauth.test' AND otp IS NOT NULL"));
+    }
+
+    @Test
+    void busyPoolStopsTheSweep() {
+        new UserSweeper(userDAO, refreshTokenDAO, properties, () -> true, registry).sweep();
+
+        assertEquals(0.0, rows("reset_otp_cleared") + rows("otp_cleared") + rows("account_deleted"));
+        assertEquals(1.0, registry.get("secureauth.sweeper.throttled").counter().count());
+        assertEquals(30, count("email LIKE 'abandoned%'"));
+    }
+
+    private void seed(int n, String prefix, String verified, String otp, String otpCreatedAt,
+                      String resetOtp, String resetOtpCreatedAt, String createdAt) {
+        jdbcTemplate.update(
+                "INSERT INTO users (email, password, verified, otp, otp_created_at, " +
+                "reset_otp, reset_otp_created_at, created_at) " +
+                "SELECT '" + prefix + "-' || i || '@secureauth.test', 'hash', " + verified + ", " +
+                otp + ", " + otpCreatedAt + ", " + resetOtp + ", " + resetOtpCreatedAt + ", " +
+                createdAt + " - i * INTERVAL '1 millisecond' " +
+                "FROM generate_series(1, " + n + ") AS i");
+    }
+
+    private void seedRefreshTokens(int n, String expiresAt) {
+        jdbcTemplate.update(
+                "INSERT INTO refresh_tokens (token_hash, family_id, user_id, expires_at) " +
+                "SELECT sha256(gen_random_uuid()::text::bytea), gen_random_uuid(), u.id, " + expiresAt + " " +
+                "FROM users u WHERE u.verified ORDER BY u.id LIMIT " + n);
+    }
+
+    private double rows(String action) {
+        return registry.get("secureauth.sweeper.rows").tag("action", action).counter().count();
+    }
+
+    private long calls(String method) {
+        return registry.get("secureauth.dao.calls").tag("method", method).timer().count();
+    }
+
+    private int count(String condition) {
+        return jdbcTemplate.queryForObject("SELECT count(*) FROM users WHERE " + condition, Integer.class);
+    }
+}
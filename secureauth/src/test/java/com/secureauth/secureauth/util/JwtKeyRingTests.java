@@ -0,0 +1,103 @@
+package com.secureauth.secureauth.util;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.SignatureAlgorithm;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.SecretKey;
+import java.security.KeyPair;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class JwtKeyRingTests {
+
+    private final KeyRing original = JwtUtil.getKeyRing();
+
+    @AfterEach
+    void restoreRing() {
+        JwtUtil.setKeyRing(original);
+    }
+
+    @Test
+    void instancesSharingAKeyAcceptEachOthersTokens() {
+        SecretKey shared = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        SigningKey key = new SigningKey("shared", SignatureAlgorithm.HS256, shared, shared, 0);
+
+        JwtUtil.setKeyRing(new KeyRing(List.of(key), "shared"));
+        String token = JwtUtil.generateToken("a@secureauth.test");
+
+        // Another instance (or this one after a restart) loads the same key
+        JwtUtil.setKeyRing(new KeyRing(List.of(
+                new SigningKey("shared", SignatureAlgorithm.HS256, shared, shared, 0)), "shared"));
+        assertEquals("a@secureauth.test", JwtUtil.validateToken(token));
+    }
+
+    @Test
+    void rotatedOutKeyStillVerifiesWhileInTheRing() {
+        SigningKey old = es256("old");
+        SigningKey next = es256("next");
+
+        JwtUtil.setKeyRing(new KeyRing(List.of(old), "old"));
+        String token = JwtUtil.generateToken("a@secureauth.test");
+
+        JwtUtil.setKeyRing(new KeyRing(List.of(old, next), "next"));
+        assertEquals("a@secureauth.test", JwtUtil.validateToken(token));
+        assertEquals("a@secureauth.test", JwtUtil.validateToken(JwtUtil.generateToken("a@secureauth.test")));
+
+        // Removed from the ring: its tokens are refused, even ones verified before
+        JwtUtil.setKeyRing(new KeyRing(List.of(next), "next"));
+        assertNull(JwtUtil.validateToken(token));
+    }
+
+    @Test
+    void unknownOrMissingKidIsRejected() {
+        SecretKey secret = Keys.secretKeyFor(SignatureAlgorithm.HS256);
+        JwtUtil.setKeyRing(new KeyRing(List.of(
+                new SigningKey("k1", SignatureAlgorithm.HS256, secret, secret, 0)), "k1"));
+
+        assertNull(JwtUtil.validateToken(forge("k2", secret)));
+        assertNull(JwtUtil.validateToken(forge(null, secret)));
+        assertEquals("a@secureauth.test", JwtUtil.validateToken(forge("k1", secret)));
+    }
+
+    @Test
+    void tokenCannotSwitchAKeyToAnotherAlgorithm() {
+        SigningKey ec = es256("ec");
+        JwtUtil.setKeyRing(new KeyRing(List.of(ec), "ec"));
+
+        // HS256 "signed" with the published public key as the HMAC secret
+        SecretKey publicBytes = Keys.hmacShaKeyFor(ec.getPublicKey().getEncoded());
+        assertNull(JwtUtil.validateToken(forge("ec", publicBytes)));
+    }
+
+    @Test
+    void verifyOnlyKeyCannotBeActive() {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        SigningKey publicOnly = new SigningKey("pub", SignatureAlgorithm.ES256, null, pair.getPublic(), 0);
+
+        assertThrows(IllegalArgumentException.class, () -> new KeyRing(List.of(publicOnly), "pub"));
+    }
+
+    private static SigningKey es256(String kid) {
+        KeyPair pair = Keys.keyPairFor(SignatureAlgorithm.ES256);
+        return new SigningKey(kid, SignatureAlgorithm.ES256, pair.getPrivate(), pair.getPublic(), 0);
+    }
+
+    private static String forge(String kid, SecretKey secret) {
+        long now = System.currentTimeMillis();
+        return Jwts.builder()
+                .setHeaderParam(JwsHeader.KEY_ID, kid)
+                .setSubject("a@secureauth.test")
+                .setIssuedAt(new Date(now))
+                .setExpiration(new Date(now + 60_000))
+                .signWith(secret, SignatureAlgorithm.HS256)
+                .compact();
+    }
+}
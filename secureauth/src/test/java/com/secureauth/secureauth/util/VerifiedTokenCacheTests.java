@@ -0,0 +1,99 @@
+package com.secureauth.secureauth.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class VerifiedTokenCacheTests {
+
+    private static final long HOUR = 60 * 60 * 1000L;
+
+    private final AtomicLong clock = new AtomicLong(1_000 * HOUR);
+
+    @Test
+    void verifiedTokenIsAHitUnknownTokenIsAMiss() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, clock::get);
+        VerifiedToken verified = token("a@secureauth.test", clock.get() + HOUR);
+
+        cache.put("header.payload.signature", verified);
+
+        assertSame(verified, cache.get("header.payload.signature"));
+        assertNull(cache.get("header.payload.other"));
+        assertEquals(1, cache.getHits());
+        assertEquals(1, cache.getMisses());
+        assertEquals(0, cache.getEvictions());
+    }
+
+    @Test
+    void entryIsEvictedOnceTheTokenExpires() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, clock::get);
+        cache.put("t", token("a@secureauth.test", clock.get() + 1000));
+
+        clock.addAndGet(999);
+        assertNotNull(cache.get("t"));
+
+        clock.addAndGet(1);
+        assertNull(cache.get("t"));
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getEvictions());
+        assertEquals(1, cache.getMisses());
+    }
+
+    @Test
+    void fullCacheDropsExpiredEntriesFirst() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(10, clock::get);
+        for (int i = 0; i < 5; i++) {
+            cache.put("short-" + i, token("a@secureauth.test", clock.get() + 1000));
+            cache.put("long-" + i, token("a@secureauth.test", clock.get() + HOUR));
+        }
+
+        clock.addAndGet(1000);
+        cache.put("new", token("a@secureauth.test", clock.get() + HOUR));
+
+        assertEquals(6, cache.size());
+        assertEquals(5, cache.getEvictions());
+        for (int i = 0; i < 5; i++) {
+            assertNotNull(cache.get("long-" + i));
+        }
+    }
+
+    @Test
+    void fullCacheOfLiveEntriesShrinksToNinetyPercentBeforeInserting() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, clock::get);
+        for (int i = 0; i < 100; i++) {
+            cache.put("t-" + i, token("a@secureauth.test", clock.get() + HOUR));
+        }
+
+        cache.put("new", token("a@secureauth.test", clock.get() + HOUR));
+
+        assertEquals(91, cache.size());
+        assertEquals(10, cache.getEvictions());
+        assertNotNull(cache.get("new"));
+
+        for (int i = 0; i < 1000; i++) {
+            cache.put("more-" + i, token("a@secureauth.test", clock.get() + HOUR));
+            assertTrue(cache.size() <= cache.getMaxEntries());
+        }
+    }
+
+    @Test
+    void clearEmptiesTheCache() {
+        VerifiedTokenCache cache = new VerifiedTokenCache(100, clock::get);
+        cache.put("t", token("a@secureauth.test", clock.get() + HOUR));
+
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertNull(cache.get("t"));
+    }
+
+    private static VerifiedToken token(String subject, long expiresAtMs) {
+        return new VerifiedToken(subject, null, expiresAtMs - HOUR, expiresAtMs);
+    }
+}